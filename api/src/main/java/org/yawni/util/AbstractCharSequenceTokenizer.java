@@ -333,6 +333,24 @@ public abstract class AbstractCharSequenceTokenizer {
     scanToTokenEnd();
   }
 
+  /**
+   * Advance past next token without generating any objects, like {@link #skipNextToken()}
+   * @return start of the token in the string; it ends at {@link #position()}
+   */
+  public final int nextTokenStart() {
+    final int s = scanToTokenStart();
+    scanToTokenEnd();
+    return s;
+  }
+
+  /**
+   * @return current position in the string, e.g., just past the token returned
+   *   by {@link #nextToken()}
+   */
+  public final int position() {
+    return position;
+  }
+
 //  public byte nextByte() {
 //    return Byte.parseByte(nextToken());
 //  }
@@ -0,0 +1,86 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.yawni.util.cache;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread-safe counters of a {@link Cache}'s activity, cheap enough to leave enabled in production;
+ * {@link #snapshot()} reads them.  Caches created by
+ * {@link Caches#withCapacity(int, Caches.Implementation, CacheMetrics)} count their own hits,
+ * misses, puts and evictions (except {@link Caches.Implementation#WEAK}, whose entries disappear
+ * silently, and {@link Caches.Implementation#SOFT}, which also counts values cleared by the
+ * garbage collector); the code populating the cache counts loads with {@link #recordLoad(long)}.
+ *
+ * @yawni.experimental
+ */
+public final class CacheMetrics {
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder puts = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+  private final LongAdder loads = new LongAdder();
+  private final LongAdder loadNanos = new LongAdder();
+
+  public void recordHit() {
+    hits.increment();
+  }
+
+  public void recordMiss() {
+    misses.increment();
+  }
+
+  public void recordPut() {
+    puts.increment();
+  }
+
+  public void recordEviction() {
+    evictions.increment();
+  }
+
+  /**
+   * Records that computing a value missing from the cache took {@code nanos}.
+   */
+  public void recordLoad(final long nanos) {
+    loads.increment();
+    loadNanos.add(nanos);
+  }
+
+  /**
+   * @return the current counts; concurrent updates may or may not be reflected
+   */
+  public CacheStats snapshot() {
+    return new CacheStats(hits.sum(), misses.sum(), puts.sum(), evictions.sum(), loads.sum(), loadNanos.sum());
+  }
+
+  /**
+   * Zeros all counts.
+   */
+  public void reset() {
+    hits.reset();
+    misses.reset();
+    puts.reset();
+    evictions.reset();
+    loads.reset();
+    loadNanos.reset();
+  }
+
+  @Override
+  public String toString() {
+    return snapshot().toString();
+  }
+} // end class CacheMetrics
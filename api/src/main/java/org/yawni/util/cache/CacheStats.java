@@ -0,0 +1,111 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.yawni.util.cache;
+
+/**
+ * Immutable snapshot of {@link CacheMetrics}.
+ *
+ * @yawni.experimental
+ */
+public final class CacheStats {
+  private final long hitCount;
+  private final long missCount;
+  private final long putCount;
+  private final long evictionCount;
+  private final long loadCount;
+  private final long totalLoadNanos;
+
+  public CacheStats(final long hitCount, final long missCount, final long putCount,
+      final long evictionCount, final long loadCount, final long totalLoadNanos) {
+    this.hitCount = hitCount;
+    this.missCount = missCount;
+    this.putCount = putCount;
+    this.evictionCount = evictionCount;
+    this.loadCount = loadCount;
+    this.totalLoadNanos = totalLoadNanos;
+  }
+
+  public long getHitCount() {
+    return hitCount;
+  }
+
+  public long getMissCount() {
+    return missCount;
+  }
+
+  public long getRequestCount() {
+    return hitCount + missCount;
+  }
+
+  /**
+   * @return hits / requests, or {@code 1} if there have been no requests
+   */
+  public double getHitRate() {
+    final long requestCount = getRequestCount();
+    return requestCount == 0 ? 1.0 : (double) hitCount / requestCount;
+  }
+
+  public long getPutCount() {
+    return putCount;
+  }
+
+  public long getEvictionCount() {
+    return evictionCount;
+  }
+
+  public long getLoadCount() {
+    return loadCount;
+  }
+
+  public long getTotalLoadNanos() {
+    return totalLoadNanos;
+  }
+
+  /**
+   * @return mean nanoseconds per load, or {@code 0} if there have been no loads
+   */
+  public double getAverageLoadNanos() {
+    return loadCount == 0 ? 0.0 : (double) totalLoadNanos / loadCount;
+  }
+
+  @Override
+  public boolean equals(final Object obj) {
+    if (obj instanceof CacheStats) {
+      final CacheStats that = (CacheStats) obj;
+      return hitCount == that.hitCount && missCount == that.missCount && putCount == that.putCount &&
+          evictionCount == that.evictionCount && loadCount == that.loadCount && totalLoadNanos == that.totalLoadNanos;
+    }
+    return false;
+  }
+
+  @Override
+  public int hashCode() {
+    long hash = hitCount;
+    hash = 31 * hash + missCount;
+    hash = 31 * hash + putCount;
+    hash = 31 * hash + evictionCount;
+    hash = 31 * hash + loadCount;
+    hash = 31 * hash + totalLoadNanos;
+    return (int) (hash ^ (hash >>> 32));
+  }
+
+  @Override
+  public String toString() {
+    return "[CacheStats hits: " + hitCount + " misses: " + missCount + " puts: " + putCount +
+        " evictions: " + evictionCount + " loads: " + loadCount + " loadNanos: " + totalLoadNanos + "]";
+  }
+} // end class CacheStats
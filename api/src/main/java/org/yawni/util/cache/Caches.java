@@ -16,21 +16,123 @@
  */
 package org.yawni.util.cache;
 
-//import org.yawni.util.cache.ConcurrentLinkedHashMap.EvictionPolicy;
-//import static org.yawni.util.cache.ConcurrentLinkedHashMap.EvictionPolicy.*;
+import com.google.common.base.Preconditions;
+import org.yawni.util.cache.ConcurrentLinkedHashMap.EvictionPolicy;
 
 /**
  * Factory used to centralize {@link Cache} creation throughout Yawni.
  */
 public class Caches {
-  /** Centralized {@link Cache} factory. */
+  /**
+   * System property naming the {@link Implementation} created by {@link #withCapacity(int)}
+   * (e.g., {@code -Dyawni.cache=CONCURRENT_LRU}); intended for benchmarking and tuning.
+   */
+  public static final String IMPLEMENTATION_PROPERTY = "yawni.cache";
+
+  /**
+   * Available {@link Cache} implementations; all are thread-safe.
+   */
+  public enum Implementation {
+    /** bounded, concurrent, and values are softly referenced (the default) */
+    SOFT {
+      @Override
+      <K, V> Cache<K, V> create(final int capacity, final CacheMetrics metrics) {
+        return new ConcurrentSoftCache<>(capacity, metrics);
+      }
+    },
+    /** synchronized access-ordered {@link java.util.LinkedHashMap} */
+    LRU {
+      @Override
+      <K, V> Cache<K, V> create(final int capacity, final CacheMetrics metrics) {
+        return new LRUCache<>(capacity, metrics);
+      }
+    },
+    /** {@link ConcurrentLinkedHashMap} evicting in insertion order */
+    CONCURRENT_FIFO {
+      @Override
+      <K, V> Cache<K, V> create(final int capacity, final CacheMetrics metrics) {
+        return metrics == null ? new ConcurrentLRUCache<>(capacity, EvictionPolicy.FIFO) :
+            new ConcurrentLRUCache<>(capacity, EvictionPolicy.FIFO, metrics);
+      }
+    },
+    /** {@link ConcurrentLinkedHashMap} evicting in insertion order, sparing recently read entries once */
+    CONCURRENT_SECOND_CHANCE {
+      @Override
+      <K, V> Cache<K, V> create(final int capacity, final CacheMetrics metrics) {
+        return metrics == null ? new ConcurrentLRUCache<>(capacity, EvictionPolicy.SECOND_CHANCE) :
+            new ConcurrentLRUCache<>(capacity, EvictionPolicy.SECOND_CHANCE, metrics);
+      }
+    },
+    /** {@link ConcurrentLinkedHashMap} evicting in access order */
+    CONCURRENT_LRU {
+      @Override
+      <K, V> Cache<K, V> create(final int capacity, final CacheMetrics metrics) {
+        return metrics == null ? new ConcurrentLRUCache<>(capacity, EvictionPolicy.LRU) :
+            new ConcurrentLRUCache<>(capacity, EvictionPolicy.LRU, metrics);
+      }
+    },
+    /**
+     * frequency-aware: keeps an entry only if it has been requested more often than the entry it
+     * would evict (W-TinyLFU); best for skewed (e.g., Zipfian) workloads
+     */
+    TINY_LFU {
+      @Override
+      <K, V> Cache<K, V> create(final int capacity, final CacheMetrics metrics) {
+        return new TinyLFUCache<>(capacity, metrics);
+      }
+    },
+    /** synchronized {@link java.util.WeakHashMap}; ignores capacity */
+    WEAK {
+      @Override
+      <K, V> Cache<K, V> create(final int capacity, final CacheMetrics metrics) {
+        return new WeakHashMapCache<>(capacity);
+      }
+    },
+    /** synchronized {@link java.util.HashMap}; ignores capacity */
+    UNBOUNDED {
+      @Override
+      <K, V> Cache<K, V> create(final int capacity, final CacheMetrics metrics) {
+        return new UnboundedCache<>(capacity);
+      }
+    };
+
+    /**
+     * @param metrics counts evictions; may be {@code null}
+     */
+    abstract <K, V> Cache<K, V> create(int capacity, CacheMetrics metrics);
+  } // end enum Implementation
+
+  /**
+   * Centralized {@link Cache} factory; creates the {@link Implementation} named by
+   * {@value #IMPLEMENTATION_PROPERTY}, or {@link Implementation#SOFT} if it is not set.
+   * @throws IllegalArgumentException if {@value #IMPLEMENTATION_PROPERTY} doesn't name an {@code Implementation}
+   */
   public static <K, V> Cache<K, V> withCapacity(final int capacity) {
-    return new ConcurrentSoftCache<>(capacity);
-//    return new LRUCache<K, V>(capacity);
-//    return new ConcurrentLRUCache<K, V>(capacity, LRU);
-//    return new ConcurrentLRUCache<K, V>(capacity, SECOND_CHANCE);
-//    return new ConcurrentLRUCache<K, V>(capacity);
-//    return new WeakHashMapCache<K, V>(capacity);
-//    return new UnboundedCache<K, V>(capacity);
+    return withCapacity(capacity, defaultImplementation());
+  }
+
+  /**
+   * @return the {@link Implementation} named by {@value #IMPLEMENTATION_PROPERTY}, or
+   *   {@link Implementation#SOFT} if it is not set
+   * @throws IllegalArgumentException if {@value #IMPLEMENTATION_PROPERTY} doesn't name an {@code Implementation}
+   */
+  public static Implementation defaultImplementation() {
+    final String implementation = System.getProperty(IMPLEMENTATION_PROPERTY);
+    return implementation == null ? Implementation.SOFT : Implementation.valueOf(implementation);
+  }
+
+  public static <K, V> Cache<K, V> withCapacity(final int capacity, final Implementation implementation) {
+    return implementation.create(capacity, null);
+  }
+
+  /**
+   * Like {@link #withCapacity(int, Implementation)}, counting the cache's hits, misses, puts and
+   * evictions in {@code metrics}.
+   * @yawni.experimental
+   */
+  public static <K, V> Cache<K, V> withCapacity(final int capacity, final Implementation implementation,
+      final CacheMetrics metrics) {
+    Preconditions.checkNotNull(metrics);
+    return new MeteredCache<>(implementation.create(capacity, metrics), metrics);
   }
-}
\ No newline at end of file
+}
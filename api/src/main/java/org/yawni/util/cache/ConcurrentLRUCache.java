@@ -16,6 +16,7 @@
  */
 package org.yawni.util.cache;
 
+import org.yawni.util.cache.ConcurrentLinkedHashMap.EvictionListener;
 import org.yawni.util.cache.ConcurrentLinkedHashMap.EvictionPolicy;
 import static org.yawni.util.cache.ConcurrentLinkedHashMap.EvictionPolicy.*;
 
@@ -34,6 +35,15 @@ class ConcurrentLRUCache<K, V> implements Cache<K, V> {
     this.backingMap = ConcurrentLinkedHashMap.create(evictionPolicy, capacity);
   }
 
+  /**
+   * @param metrics counts evictions
+   */
+  public ConcurrentLRUCache(final int capacity, final EvictionPolicy evictionPolicy, final CacheMetrics metrics) {
+    this.capacity = capacity;
+    this.backingMap = ConcurrentLinkedHashMap.create(evictionPolicy, capacity,
+        (EvictionListener<K, V>) (key, value) -> metrics.recordEviction());
+  }
+
   public ConcurrentLRUCache(final int capacity) {
     this.capacity = capacity;
     this.backingMap = ConcurrentLinkedHashMap.create(FIFO, capacity);
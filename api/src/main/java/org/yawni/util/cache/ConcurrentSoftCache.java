@@ -17,6 +17,7 @@
 package org.yawni.util.cache;
 
 import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalListener;
 import java.util.concurrent.ConcurrentMap;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -31,8 +32,14 @@ class ConcurrentSoftCache<K, V> implements Cache<K, V> {
 
   private final com.google.common.cache.Cache<K, V> backingCache;
 
-  @SuppressWarnings("unchecked")
   public ConcurrentSoftCache(final int initialCapacity) {
+    this(initialCapacity, null);
+  }
+
+  /**
+   * @param metrics counts evictions, including values cleared by the garbage collector; may be {@code null}
+   */
+  public ConcurrentSoftCache(final int initialCapacity, final CacheMetrics metrics) {
     final CacheBuilder<Object, Object> builder = CacheBuilder
       .newBuilder()
       //.initialCapacity(initialCapacity)
@@ -42,7 +49,17 @@ class ConcurrentSoftCache<K, V> implements Cache<K, V> {
     if (log.isDebugEnabled()) {
       builder.recordStats();
     }
-    backingCache = builder.build();
+    if (metrics != null) {
+      backingCache = builder
+        .removalListener((RemovalListener<K, V>) notification -> {
+          if (notification.wasEvicted()) {
+            metrics.recordEviction();
+          }
+        })
+        .build();
+    } else {
+      backingCache = builder.build();
+    }
   }
 
   @Override
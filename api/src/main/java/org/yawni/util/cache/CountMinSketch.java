@@ -0,0 +1,127 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.yawni.util.cache;
+
+import com.google.common.base.Preconditions;
+import com.google.common.math.IntMath;
+import java.util.Arrays;
+
+/**
+ * Approximate recent request counts: a count-min sketch of {@value #DEPTH} rows of 4-bit counters,
+ * sized for about {@code capacity} distinct items.  An item's estimate is the minimum of its
+ * counters, so it is never too low (hash collisions only inflate it), except through
+ * <em>aging</em>: every {@code 10 * capacity} increments, all counters are halved, so old
+ * popularity fades.  Counters saturate at {@value #MAX_COUNT}.
+ * Not thread-safe.
+ *
+ * @see TinyLFUCache
+ */
+final class CountMinSketch {
+  private static final int DEPTH = 4;
+  static final int MAX_COUNT = 15;
+  private static final int SAMPLE_FACTOR = 10;
+  // keeps the low 3 bits of each 4-bit counter after a shift right
+  private static final long RESET_MASK = 0x7777777777777777L;
+  private static final long[] SEEDS = {
+    0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L
+  };
+
+  /** {@value #DEPTH} rows of {@link #rowLength} {@code long}s, each holding 16 counters */
+  private final long[] table;
+  private final int rowLength;
+  private final int counterMask;
+  private final int sampleSize;
+  private int additions;
+
+  CountMinSketch(final int capacity) {
+    Preconditions.checkArgument(capacity >= 0, "capacity must not be negative: %s", capacity);
+    // 4 counters per item per row; at least one full long per row
+    final int width = IntMath.ceilingPowerOfTwo(Math.max(capacity, 4) * 4);
+    this.rowLength = width >>> 4;
+    this.counterMask = width - 1;
+    this.table = new long[DEPTH * rowLength];
+    this.sampleSize = SAMPLE_FACTOR * Math.max(capacity, 1);
+  }
+
+  /**
+   * @return estimated number of recent {@link #increment increments} of {@code item}
+   */
+  int frequency(final Object item) {
+    final int hash = spread(item.hashCode());
+    int frequency = MAX_COUNT;
+    for (int row = 0; row < DEPTH; row++) {
+      final int counter = counter(hash, row);
+      frequency = Math.min(frequency, (int) (table[word(row, counter)] >>> shift(counter)) & MAX_COUNT);
+    }
+    return frequency;
+  }
+
+  /**
+   * Records a request of {@code item}.
+   */
+  void increment(final Object item) {
+    final int hash = spread(item.hashCode());
+    boolean added = false;
+    for (int row = 0; row < DEPTH; row++) {
+      final int counter = counter(hash, row);
+      final int word = word(row, counter);
+      final int shift = shift(counter);
+      if (((table[word] >>> shift) & MAX_COUNT) < MAX_COUNT) {
+        table[word] += 1L << shift;
+        added = true;
+      }
+    }
+    if (added && ++additions == sampleSize) {
+      age();
+    }
+  }
+
+  /** halves every counter */
+  private void age() {
+    for (int i = 0; i < table.length; i++) {
+      table[i] = (table[i] >>> 1) & RESET_MASK;
+    }
+    additions >>>= 1;
+  }
+
+  void clear() {
+    Arrays.fill(table, 0L);
+    additions = 0;
+  }
+
+  // index of the counter of (spread) hash in row
+  private int counter(final int hash, final int row) {
+    long h = (hash + SEEDS[row]) * SEEDS[row];
+    h += h >>> 32;
+    return (int) h & counterMask;
+  }
+
+  private int word(final int row, final int counter) {
+    return row * rowLength + (counter >>> 4);
+  }
+
+  private static int shift(final int counter) {
+    return (counter & 15) << 2;
+  }
+
+  // defend against poor hashCode()s
+  private static int spread(int x) {
+    x = ((x >>> 16) ^ x) * 0x45d9f3b;
+    x = ((x >>> 16) ^ x) * 0x45d9f3b;
+    return (x >>> 16) ^ x;
+  }
+} // end class CountMinSketch
@@ -34,13 +34,26 @@ class LRUCache<K, V> implements Cache<K, V> {
   protected final int capacity;
 
   public LRUCache(final int capacity) {
+    this(capacity, null);
+  }
+
+  /**
+   * @param metrics counts evictions; may be {@code null}
+   */
+  public LRUCache(final int capacity, final CacheMetrics metrics) {
     this.backingMap = new LinkedHashMap<K, V>(capacity /* initial capacity */,
         DEFAULT_LOAD_FACTOR,
         accessOrder) {
       @Override
       protected boolean removeEldestEntry(final Map.Entry<K, V> eldest) {
         // Return true to cause the oldest elm to be removed
-        return size() > capacity;
+        if (size() > capacity) {
+          if (metrics != null) {
+            metrics.recordEviction();
+          }
+          return true;
+        }
+        return false;
       }
     };
     // actual capacity (ie max size)
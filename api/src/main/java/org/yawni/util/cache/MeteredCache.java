@@ -0,0 +1,52 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.yawni.util.cache;
+
+/**
+ * {@code Cache} decorator which counts hits, misses and puts in a {@link CacheMetrics}.
+ */
+class MeteredCache<K, V> implements Cache<K, V> {
+  private final Cache<K, V> delegate;
+  private final CacheMetrics metrics;
+
+  MeteredCache(final Cache<K, V> delegate, final CacheMetrics metrics) {
+    this.delegate = delegate;
+    this.metrics = metrics;
+  }
+
+  @Override
+  public V put(final K key, final V value) {
+    metrics.recordPut();
+    return delegate.put(key, value);
+  }
+
+  @Override
+  public V get(final K key) {
+    final V value = delegate.get(key);
+    if (value != null) {
+      metrics.recordHit();
+    } else {
+      metrics.recordMiss();
+    }
+    return value;
+  }
+
+  @Override
+  public void clear() {
+    delegate.clear();
+  }
+} // end class MeteredCache
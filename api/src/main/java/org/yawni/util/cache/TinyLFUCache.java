@@ -0,0 +1,150 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.yawni.util.cache;
+
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A fixed-capacity {@code Cache} with the W-TinyLFU policy.  New entries enter a small LRU
+ * <em>window</em>.  An entry evicted from the window is admitted to the <em>main</em> region only
+ * if it has been requested more often recently (as estimated by a {@link CountMinSketch}) than the
+ * entry it would displace.  The main region is a segmented LRU: admitted entries are on
+ * <em>probation</em>, and are <em>protected</em> once requested again.
+ *
+ * <p> Unlike LRU, a burst of one-time requests can't flush frequently requested entries, which
+ * suits the Zipfian distribution of word frequencies.
+ * All methods are thread-safe by brute-force synchronization.
+ *
+ * @see <a href="https://arxiv.org/abs/1512.00727">TinyLFU: A Highly Efficient Cache Admission Policy</a>
+ */
+class TinyLFUCache<K, V> implements Cache<K, V> {
+  private static final float DEFAULT_LOAD_FACTOR = 0.75f;
+  private static final boolean accessOrder = true;
+
+  private final int windowCapacity;
+  private final int mainCapacity;
+  private final int protectedCapacity;
+  private final LinkedHashMap<K, V> window;
+  private final LinkedHashMap<K, V> probation;
+  private final LinkedHashMap<K, V> protectedSegment;
+  private final CountMinSketch sketch;
+  private final CacheMetrics metrics;
+
+  public TinyLFUCache(final int capacity) {
+    this(capacity, null);
+  }
+
+  /**
+   * @param metrics counts evictions (including entries not admitted from the window); may be {@code null}
+   */
+  public TinyLFUCache(final int capacity, final CacheMetrics metrics) {
+    this.metrics = metrics;
+    // 1% window, main is 80% protected
+    this.windowCapacity = capacity == 0 ? 0 : Math.max(1, capacity / 100);
+    this.mainCapacity = capacity - windowCapacity;
+    this.protectedCapacity = mainCapacity * 4 / 5;
+    this.window = new LinkedHashMap<>(16, DEFAULT_LOAD_FACTOR, accessOrder);
+    this.probation = new LinkedHashMap<>(16, DEFAULT_LOAD_FACTOR, accessOrder);
+    this.protectedSegment = new LinkedHashMap<>(16, DEFAULT_LOAD_FACTOR, accessOrder);
+    this.sketch = new CountMinSketch(capacity);
+  }
+
+  @Override
+  public synchronized V put(final K key, final V value) {
+    if (window.containsKey(key)) {
+      return window.put(key, value);
+    }
+    if (protectedSegment.containsKey(key)) {
+      return protectedSegment.put(key, value);
+    }
+    if (probation.containsKey(key)) {
+      return probation.put(key, value);
+    }
+    window.put(key, value);
+    if (window.size() > windowCapacity) {
+      evictFromWindow();
+    }
+    return null;
+  }
+
+  @Override
+  public synchronized V get(final K key) {
+    // misses count too: they are typically followed by a put of the same key
+    sketch.increment(key);
+    V value = window.get(key);
+    if (value != null) {
+      return value;
+    }
+    value = protectedSegment.get(key);
+    if (value != null) {
+      return value;
+    }
+    value = probation.remove(key);
+    if (value != null) {
+      protectedSegment.put(key, value);
+      if (protectedSegment.size() > protectedCapacity) {
+        // demote least recently used protected entry to (most recently used) probation
+        final Map.Entry<K, V> demoted = removeEldest(protectedSegment);
+        probation.put(demoted.getKey(), demoted.getValue());
+      }
+    }
+    return value;
+  }
+
+  private void evictFromWindow() {
+    final Map.Entry<K, V> candidate = removeEldest(window);
+    if (probation.size() + protectedSegment.size() < mainCapacity) {
+      probation.put(candidate.getKey(), candidate.getValue());
+      return;
+    }
+    final LinkedHashMap<K, V> victims = probation.isEmpty() ? protectedSegment : probation;
+    if (! victims.isEmpty()) {
+      final K victim = victims.keySet().iterator().next();
+      if (sketch.frequency(candidate.getKey()) > sketch.frequency(victim)) {
+        victims.remove(victim);
+        probation.put(candidate.getKey(), candidate.getValue());
+      }
+    } // else no main region
+    // either the victim or the candidate is evicted
+    if (metrics != null) {
+      metrics.recordEviction();
+    }
+  }
+
+  private static <K, V> Map.Entry<K, V> removeEldest(final LinkedHashMap<K, V> map) {
+    final Iterator<Map.Entry<K, V>> entries = map.entrySet().iterator();
+    final Map.Entry<K, V> eldest = entries.next();
+    final Map.Entry<K, V> removed = new SimpleImmutableEntry<>(eldest);
+    entries.remove();
+    return removed;
+  }
+
+  @Override
+  public synchronized void clear() {
+    window.clear();
+    probation.clear();
+    protectedSegment.clear();
+    sketch.clear();
+  }
+
+  synchronized int size() {
+    return window.size() + probation.size() + protectedSegment.size();
+  }
+} // end class TinyLFUCache
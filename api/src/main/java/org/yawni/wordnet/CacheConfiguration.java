@@ -0,0 +1,164 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.yawni.wordnet;
+
+import com.google.common.base.Preconditions;
+import java.util.Arrays;
+import org.yawni.util.cache.Cache;
+import org.yawni.util.cache.CacheMetrics;
+import org.yawni.util.cache.Caches;
+import org.yawni.util.cache.Caches.Implementation;
+
+/**
+ * The {@link Implementation} (eviction policy) and capacity of each of a {@link WordNet}'s caches.
+ * Immutable: {@link #with(CacheName, Implementation, int)} returns a modified copy.
+ *
+ * <p> Each cache of the {@link #defaults()} has capacity {@value WordNet#DEFAULT_CACHE_CAPACITY} and
+ * implementation {@link Caches#defaultImplementation()}, unless overridden by the system property
+ * <code>yawni.cache.<em>cachename</em></code> (e.g., {@code yawni.cache.synset}) whose value is an
+ * implementation name optionally followed by <code>:<em>capacity</em></code>, e.g.,
+ * {@code -Dyawni.cache.synset=TINY_LFU:50000}.
+ *
+ * @see WordNet#newInstance(CacheConfiguration)
+ * @yawni.experimental
+ */
+public final class CacheConfiguration {
+  /**
+   * The caches of a {@link WordNet}.
+   */
+  public enum CacheName {
+    /** {@link Synset}s by offset */
+    SYNSET,
+    /** {@link Word}s by offset and by lemma */
+    INDEX_WORD,
+    /** irregular inflections ({@code pos.exc} file entries) by inflected form */
+    EXCEPTIONS,
+    /** {@link WordNet#lookupBaseForms(String, POS)} results */
+    MORPHY;
+
+    /** @return name of the system property overriding this cache's default configuration */
+    public String getPropertyName() {
+      return Caches.IMPLEMENTATION_PROPERTY + '.' + name().toLowerCase();
+    }
+  } // end enum CacheName
+
+  private static final CacheName[] NAMES = CacheName.values();
+
+  private final Implementation[] implementations;
+  private final int[] capacities;
+
+  private CacheConfiguration(final Implementation[] implementations, final int[] capacities) {
+    this.implementations = implementations;
+    this.capacities = capacities;
+  }
+
+  /**
+   * @return the configuration of {@link WordNet#getInstance()}
+   * @throws IllegalArgumentException if a cache's system property is malformed
+   */
+  public static CacheConfiguration defaults() {
+    final Implementation[] implementations = new Implementation[NAMES.length];
+    final int[] capacities = new int[NAMES.length];
+    final Implementation defaultImplementation = Caches.defaultImplementation();
+    for (final CacheName name : NAMES) {
+      implementations[name.ordinal()] = defaultImplementation;
+      capacities[name.ordinal()] = WordNet.DEFAULT_CACHE_CAPACITY;
+      final String value = System.getProperty(name.getPropertyName());
+      if (value != null) {
+        final int colon = value.indexOf(':');
+        implementations[name.ordinal()] = Implementation.valueOf(colon < 0 ? value : value.substring(0, colon));
+        if (colon >= 0) {
+          capacities[name.ordinal()] = parseCapacity(value.substring(colon + 1), name);
+        }
+      }
+    }
+    return new CacheConfiguration(implementations, capacities);
+  }
+
+  private static int parseCapacity(final String capacity, final CacheName name) {
+    try {
+      final int parsed = Integer.parseInt(capacity);
+      Preconditions.checkArgument(parsed >= 0, "negative %s capacity: %s", name, capacity);
+      return parsed;
+    } catch (NumberFormatException nfe) {
+      throw new IllegalArgumentException("malformed "+name.getPropertyName()+" capacity: "+capacity, nfe);
+    }
+  }
+
+  /**
+   * @return a copy of this configuration in which cache {@code name} is an {@code implementation}
+   *   holding at most {@code capacity} entries (though some implementations ignore capacity)
+   * @throws IllegalArgumentException if {@code capacity < 0}
+   */
+  public CacheConfiguration with(final CacheName name, final Implementation implementation, final int capacity) {
+    Preconditions.checkNotNull(name);
+    Preconditions.checkNotNull(implementation);
+    Preconditions.checkArgument(capacity >= 0, "capacity must not be negative: %s", capacity);
+    final Implementation[] newImplementations = implementations.clone();
+    final int[] newCapacities = capacities.clone();
+    newImplementations[name.ordinal()] = implementation;
+    newCapacities[name.ordinal()] = capacity;
+    return new CacheConfiguration(newImplementations, newCapacities);
+  }
+
+  /**
+   * @return a copy of this configuration in which every cache is an {@code implementation}
+   *   (keeping its capacity)
+   */
+  public CacheConfiguration with(final Implementation implementation) {
+    Preconditions.checkNotNull(implementation);
+    final Implementation[] newImplementations = new Implementation[NAMES.length];
+    Arrays.fill(newImplementations, implementation);
+    return new CacheConfiguration(newImplementations, capacities.clone());
+  }
+
+  public Implementation getImplementation(final CacheName name) {
+    return implementations[name.ordinal()];
+  }
+
+  public int getCapacity(final CacheName name) {
+    return capacities[name.ordinal()];
+  }
+
+  <K, V> Cache<K, V> create(final CacheName name, final CacheMetrics metrics) {
+    return Caches.withCapacity(getCapacity(name), getImplementation(name), metrics);
+  }
+
+  @Override
+  public boolean equals(final Object obj) {
+    if (obj instanceof CacheConfiguration) {
+      final CacheConfiguration that = (CacheConfiguration) obj;
+      return Arrays.equals(this.implementations, that.implementations) &&
+          Arrays.equals(this.capacities, that.capacities);
+    }
+    return false;
+  }
+
+  @Override
+  public int hashCode() {
+    return 31 * Arrays.hashCode(implementations) + Arrays.hashCode(capacities);
+  }
+
+  @Override
+  public String toString() {
+    final StringBuilder buffer = new StringBuilder("[CacheConfiguration");
+    for (final CacheName name : NAMES) {
+      buffer.append(' ').append(name).append(": ").append(getImplementation(name)).append(':').append(getCapacity(name));
+    }
+    return buffer.append(']').toString();
+  }
+} // end class CacheConfiguration
@@ -0,0 +1,411 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.yawni.wordnet;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Read-only view of a binary WordNet image written by {@link DictionaryCompiler}.
+ * The image is typically {@code mmap}'d by {@link FileManager} and read in place:
+ * all accessors use absolute {@code ByteBuffer} reads, so instances are immutable
+ * and safe for concurrent use.
+ *
+ * <p> Layout (all values big-endian):
+ * <ul>
+ *   <li> header: magic, version, per-{@code POS} {@code data.<em>pos</em>} and
+ *        {@code index.<em>pos</em>} file lengths ({@code -1} if the {@code POS}
+ *        was not compiled) and the start of each section </li>
+ *   <li> string tables (lemmas and glosses): {@code count}, {@code count + 1} end offsets,
+ *        then ISO-8859-1 bytes; lemmas are interned </li>
+ *   <li> fixed-width synset, sense, relation and word records; synset records are
+ *        ordered by {@code POS} then offset </li>
+ *   <li> open addressing hash tables mapping ({@code POS}, offset) to synset record,
+ *        and (lemma, {@code POS}) and ({@code POS}, index offset) to word record </li>
+ * </ul>
+ *
+ * @see DictionaryCompiler
+ */
+final class CompiledDictionary {
+  /** name of the compiled image, relative to the WordNet search directory (or {@code dict/} in the classpath) */
+  static final String FILE_NAME = "yawni.dict";
+
+  static final int MAGIC = 0x59574e44; // "YWND"
+  static final int VERSION = 1;
+
+  // section ids; order of section start offsets in header
+  static final int LEMMAS = 0;
+  static final int GLOSSES = 1;
+  static final int SYNSETS = 2;
+  static final int SENSES = 3;
+  static final int RELATIONS = 4;
+  static final int WORDS = 5;
+  static final int WORD_SYNSETS = 6;
+  static final int SYNSET_TABLE = 7;
+  static final int WORD_TABLE = 8;
+  static final int WORD_OFFSET_TABLE = 9;
+  static final int SECTION_COUNT = 10;
+
+  // header layout
+  static final int HEADER_DATA_LENGTHS = 8;
+  static final int HEADER_INDEX_LENGTHS = HEADER_DATA_LENGTHS + 4 * 4;
+  static final int HEADER_SECTIONS = HEADER_INDEX_LENGTHS + 4 * 4;
+  static final int HEADER_SIZE = HEADER_SECTIONS + 4 * SECTION_COUNT;
+
+  // synset record: offset, posOrdinal, lexfilenum, flags, senseCount, firstSense, firstRelation, relationCount
+  static final int SYNSET_RECORD_SIZE = 20;
+  static final int ADJECTIVE_CLUSTER_FLAG = 1;
+  // sense record: lemma, lexid, adjPositionFlags, (padding), verbFrameFlags
+  static final int SENSE_RECORD_SIZE = 16;
+  // relation record: targetOffset, relationTypeOrdinal, targetPOSOrdinal, sourceIndex, targetIndex
+  static final int RELATION_RECORD_SIZE = 8;
+  // word record: index offset, posOrdinal, (padding), lemma, taggedSenseCount, firstSynset, synsetCount
+  static final int WORD_RECORD_SIZE = 24;
+
+  private final ByteBuffer buffer;
+  private final int[] dataFileLengths;
+  private final int[] indexFileLengths;
+  private final int lemmaEnds;
+  private final int lemmaBytes;
+  private final int glossEnds;
+  private final int glossBytes;
+  private final int synsetCount;
+  private final int synsets;
+  private final int senses;
+  private final int relations;
+  private final int wordCount;
+  private final int words;
+  private final int wordSynsets;
+  private final int synsetTable;
+  private final int synsetTableMask;
+  private final int wordTable;
+  private final int wordTableMask;
+  private final int wordOffsetTable;
+  private final int wordOffsetTableMask;
+
+  private CompiledDictionary(final ByteBuffer buffer) {
+    this.buffer = buffer;
+    if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+      throw new IllegalArgumentException("not a compiled WordNet image");
+    }
+    if (buffer.getInt(4) != VERSION) {
+      throw new IllegalArgumentException("unsupported compiled WordNet image version " + buffer.getInt(4));
+    }
+    this.dataFileLengths = new int[POS.CATS.size()];
+    this.indexFileLengths = new int[POS.CATS.size()];
+    for (int i = 0; i < dataFileLengths.length; i++) {
+      dataFileLengths[i] = buffer.getInt(HEADER_DATA_LENGTHS + 4 * i);
+      indexFileLengths[i] = buffer.getInt(HEADER_INDEX_LENGTHS + 4 * i);
+    }
+    final int lemmaSection = section(LEMMAS);
+    this.lemmaEnds = lemmaSection + 4;
+    this.lemmaBytes = lemmaEnds + 4 * (buffer.getInt(lemmaSection) + 1);
+    final int glossSection = section(GLOSSES);
+    this.glossEnds = glossSection + 4;
+    this.glossBytes = glossEnds + 4 * (buffer.getInt(glossSection) + 1);
+    this.synsetCount = buffer.getInt(section(SYNSETS));
+    this.synsets = section(SYNSETS) + 4;
+    this.senses = section(SENSES) + 4;
+    this.relations = section(RELATIONS) + 4;
+    this.wordCount = buffer.getInt(section(WORDS));
+    this.words = section(WORDS) + 4;
+    this.wordSynsets = section(WORD_SYNSETS) + 4;
+    this.synsetTable = section(SYNSET_TABLE) + 4;
+    this.synsetTableMask = buffer.getInt(section(SYNSET_TABLE)) - 1;
+    this.wordTable = section(WORD_TABLE) + 4;
+    this.wordTableMask = buffer.getInt(section(WORD_TABLE)) - 1;
+    this.wordOffsetTable = section(WORD_OFFSET_TABLE) + 4;
+    this.wordOffsetTableMask = buffer.getInt(section(WORD_OFFSET_TABLE)) - 1;
+  }
+
+  /**
+   * @throws IllegalArgumentException if {@code buffer} does not contain a compiled image of a supported version
+   */
+  static CompiledDictionary open(final ByteBuffer buffer) {
+    return new CompiledDictionary(buffer);
+  }
+
+  private int section(final int sectionId) {
+    return buffer.getInt(HEADER_SECTIONS + 4 * sectionId);
+  }
+
+  /** @return {@code true} if {@code pos} was compiled into this image */
+  boolean isCompiled(final POS pos) {
+    return pos != POS.ALL && pos != POS.SAT_ADJ && dataFileLength(pos) >= 0;
+  }
+
+  /** @return length of the {@code data.<em>pos</em>} file this image was compiled from */
+  int dataFileLength(final POS pos) {
+    return dataFileLengths[pos.ordinal() - 1];
+  }
+
+  /** @return length of the {@code index.<em>pos</em>} file this image was compiled from */
+  int indexFileLength(final POS pos) {
+    return indexFileLengths[pos.ordinal() - 1];
+  }
+
+  int synsetCount() {
+    return synsetCount;
+  }
+
+  int wordCount() {
+    return wordCount;
+  }
+
+  //
+  // Synset records
+  //
+
+  /**
+   * @return record id of synset at {@code offset} in <code>data.<em>pos</em></code>, or {@code -1}
+   */
+  int findSynset(final POS pos, final int offset) {
+    final byte posOrdinal = pos.getByteOrdinal();
+    for (int slot = mix(offset * 31 + posOrdinal) & synsetTableMask; ; slot = (slot + 1) & synsetTableMask) {
+      final int entry = buffer.getInt(synsetTable + 4 * slot);
+      if (entry == 0) {
+        return -1;
+      }
+      final int record = entry - 1;
+      if (synsetOffset(record) == offset && synsetPOSOrdinal(record) == posOrdinal) {
+        return record;
+      }
+    }
+  }
+
+  private int synsetRecord(final int record) {
+    return synsets + SYNSET_RECORD_SIZE * record;
+  }
+
+  int synsetOffset(final int record) {
+    return buffer.getInt(synsetRecord(record));
+  }
+
+  byte synsetPOSOrdinal(final int record) {
+    return buffer.get(synsetRecord(record) + 4);
+  }
+
+  byte lexfilenum(final int record) {
+    return buffer.get(synsetRecord(record) + 5);
+  }
+
+  boolean isAdjectiveCluster(final int record) {
+    return (buffer.get(synsetRecord(record) + 6) & ADJECTIVE_CLUSTER_FLAG) != 0;
+  }
+
+  int senseCount(final int record) {
+    return buffer.get(synsetRecord(record) + 7) & 0xFF;
+  }
+
+  int relationCount(final int record) {
+    return buffer.getInt(synsetRecord(record) + 16);
+  }
+
+  String gloss(final int record) {
+    return string(glossEnds, glossBytes, record);
+  }
+
+  //
+  // Sense records; addressed by synset record and 0-based index within the synset
+  //
+
+  private int senseRecord(final int record, final int index) {
+    return senses + SENSE_RECORD_SIZE * (buffer.getInt(synsetRecord(record) + 8) + index);
+  }
+
+  String senseLemma(final int record, final int index) {
+    return lemma(buffer.getInt(senseRecord(record, index)));
+  }
+
+  int senseLexid(final int record, final int index) {
+    return buffer.get(senseRecord(record, index) + 4) & 0xFF;
+  }
+
+  int senseAdjPositionFlags(final int record, final int index) {
+    return buffer.get(senseRecord(record, index) + 5);
+  }
+
+  long senseVerbFrameFlags(final int record, final int index) {
+    return buffer.getLong(senseRecord(record, index) + 8);
+  }
+
+  //
+  // Relation records; addressed by synset record and 0-based index within the synset
+  //
+
+  private int relationRecord(final int record, final int index) {
+    return relations + RELATION_RECORD_SIZE * (buffer.getInt(synsetRecord(record) + 12) + index);
+  }
+
+  int relationTargetOffset(final int record, final int index) {
+    return buffer.getInt(relationRecord(record, index));
+  }
+
+  RelationType relationType(final int record, final int index) {
+    return RelationType.fromOrdinal(buffer.get(relationRecord(record, index) + 4));
+  }
+
+  POS relationTargetPOS(final int record, final int index) {
+    return POS.fromOrdinal(buffer.get(relationRecord(record, index) + 5));
+  }
+
+  int relationSourceIndex(final int record, final int index) {
+    return buffer.get(relationRecord(record, index) + 6) & 0xFF;
+  }
+
+  int relationTargetIndex(final int record, final int index) {
+    return buffer.get(relationRecord(record, index) + 7) & 0xFF;
+  }
+
+  //
+  // Word records
+  //
+
+  /**
+   * @return record id of the word whose lemma is {@code lemma} (compared with
+   * {@link WordNetLexicalComparator#TO_LOWERCASE_INSTANCE}), or {@code -1}
+   */
+  int findWord(final CharSequence lemma, final POS pos) {
+    final WordNetLexicalComparator comparator = WordNetLexicalComparator.TO_LOWERCASE_INSTANCE;
+    final byte posOrdinal = pos.getByteOrdinal();
+    final StringView view = new StringView();
+    for (int slot = mix(comparator.hashCode(lemma) * 31 + posOrdinal) & wordTableMask; ; slot = (slot + 1) & wordTableMask) {
+      final int entry = buffer.getInt(wordTable + 4 * slot);
+      if (entry == 0) {
+        return -1;
+      }
+      final int record = entry - 1;
+      if (wordPOSOrdinal(record) == posOrdinal &&
+          comparator.compare(lemma, view.reset(lemmaEnds, lemmaBytes, wordLemmaId(record))) == 0) {
+        return record;
+      }
+    }
+  }
+
+  /**
+   * @return record id of word at {@code indexOffset} in <code>index.<em>pos</em></code>, or {@code -1}
+   */
+  int findWordAt(final POS pos, final int indexOffset) {
+    final byte posOrdinal = pos.getByteOrdinal();
+    for (int slot = mix(indexOffset * 31 + posOrdinal) & wordOffsetTableMask; ; slot = (slot + 1) & wordOffsetTableMask) {
+      final int entry = buffer.getInt(wordOffsetTable + 4 * slot);
+      if (entry == 0) {
+        return -1;
+      }
+      final int record = entry - 1;
+      if (wordOffset(record) == indexOffset && wordPOSOrdinal(record) == posOrdinal) {
+        return record;
+      }
+    }
+  }
+
+  private int wordRecord(final int record) {
+    return words + WORD_RECORD_SIZE * record;
+  }
+
+  int wordOffset(final int record) {
+    return buffer.getInt(wordRecord(record));
+  }
+
+  byte wordPOSOrdinal(final int record) {
+    return buffer.get(wordRecord(record) + 4);
+  }
+
+  private int wordLemmaId(final int record) {
+    return buffer.getInt(wordRecord(record) + 8);
+  }
+
+  String wordLemma(final int record) {
+    return lemma(wordLemmaId(record));
+  }
+
+  int wordTaggedSenseCount(final int record) {
+    return buffer.getInt(wordRecord(record) + 12);
+  }
+
+  int[] wordSynsetOffsets(final int record) {
+    final int first = buffer.getInt(wordRecord(record) + 16);
+    final int[] synsetOffsets = new int[buffer.getInt(wordRecord(record) + 20)];
+    for (int i = 0; i < synsetOffsets.length; i++) {
+      synsetOffsets[i] = buffer.getInt(wordSynsets + 4 * (first + i));
+    }
+    return synsetOffsets;
+  }
+
+  //
+  // Strings
+  //
+
+  /** @return pooled lemma {@code id}, only decoding it if it isn't already in the {@link LemmaPool} */
+  private String lemma(final int id) {
+    return LemmaPool.intern(new StringView().reset(lemmaEnds, lemmaBytes, id));
+  }
+
+  private String string(final int ends, final int bytes, final int id) {
+    final int start = buffer.getInt(ends + 4 * id);
+    final byte[] chars = new byte[buffer.getInt(ends + 4 * (id + 1)) - start];
+    for (int i = 0; i < chars.length; i++) {
+      chars[i] = buffer.get(bytes + start + i);
+    }
+    return new String(chars, StandardCharsets.ISO_8859_1);
+  }
+
+  /**
+   * Caller-owned {@code CharSequence} view of a string table entry; avoids decoding
+   * candidate lemmas when probing.
+   */
+  private final class StringView implements CharSequence {
+    private int start;
+    private int length;
+
+    StringView reset(final int ends, final int bytes, final int id) {
+      this.start = bytes + buffer.getInt(ends + 4 * id);
+      this.length = bytes + buffer.getInt(ends + 4 * (id + 1)) - start;
+      return this;
+    }
+
+    @Override
+    public int length() {
+      return length;
+    }
+
+    @Override
+    public char charAt(final int index) {
+      return (char) (buffer.get(start + index) & 0xFF);
+    }
+
+    @Override
+    public CharSequence subSequence(final int s, final int e) {
+      return toString().substring(s, e);
+    }
+
+    @Override
+    public String toString() {
+      final StringBuilder s = new StringBuilder(length);
+      for (int i = 0; i < length; i++) {
+        s.append(charAt(i));
+      }
+      return s.toString();
+    }
+  } // end class StringView
+
+  /** shared by {@link DictionaryCompiler} to lay out the hash tables */
+  static int mix(int hash) {
+    hash *= 0x9e3779b9;
+    return hash ^ (hash >>> 16);
+  }
+} // end class CompiledDictionary
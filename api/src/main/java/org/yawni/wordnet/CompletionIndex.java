@@ -0,0 +1,169 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.yawni.wordnet;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Prefix completion over the lemmas of every {@code POS}, returning the <em>k</em> heaviest completions
+ * of a prefix without touching the index files.  Lemmas are stored sorted, so the completions of a
+ * prefix are a contiguous range, over which a segment tree of (index of) maximum weight finds the
+ * heaviest lemma in {@code O(log n)}; the top <em>k</em> are then enumerated best first by repeatedly
+ * splitting the range around its maximum, using a priority queue of ranges, in
+ * {@code O(log n + k log k)} range maximum queries overall.
+ *
+ * <p> Weights combine corpus frequency and salience: the total tagged sense count (from
+ * {@code cntlist}) of the lemma over all parts-of-speech, with ties broken by the best core rank of its
+ * senses, then alphabetically.
+ *
+ * @see WordNet#complete(CharSequence, int)
+ */
+final class CompletionIndex {
+  /** core ranks are 1-based and at most 5000 */
+  private static final int MAX_CORE_RANK = 5000;
+
+  /** lowercased, with spaces; sorted */
+  private final String[] lemmas;
+  private final long[] weights;
+  /**
+   * bottom-up segment tree: leaf {@code i} is {@code tree[n + i] = i}, and each internal node holds the
+   * index of the heaviest lemma below it
+   */
+  private final int[] tree;
+
+  private CompletionIndex(final String[] lemmas, final long[] weights) {
+    this.lemmas = lemmas;
+    this.weights = weights;
+    final int n = lemmas.length;
+    this.tree = new int[2 * n];
+    for (int i = 0; i < n; i++) {
+      tree[n + i] = i;
+    }
+    for (int node = n - 1; node > 0; node--) {
+      tree[node] = heavier(tree[2 * node], tree[2 * node + 1]);
+    }
+  }
+
+  /**
+   * @param taggedSenseCounts tagged sense count of each lemma (lowercased, with spaces), summed over
+   *   parts-of-speech
+   * @param coreRanks best (least) core rank of each lemma with ranked senses
+   */
+  static CompletionIndex build(final Map<String, Integer> taggedSenseCounts, final Map<String, Integer> coreRanks) {
+    final String[] lemmas = taggedSenseCounts.keySet().toArray(new String[taggedSenseCounts.size()]);
+    Arrays.sort(lemmas);
+    final long[] weights = new long[lemmas.length];
+    for (int i = 0; i < lemmas.length; i++) {
+      final Integer coreRank = coreRanks.get(lemmas[i]);
+      weights[i] = weight(taggedSenseCounts.get(lemmas[i]), coreRank == null ? -1 : coreRank);
+    }
+    return new CompletionIndex(lemmas, weights);
+  }
+
+  static long weight(final int taggedSenseCount, final int coreRank) {
+    checkArgument(coreRank <= MAX_CORE_RANK, "core rank %s > %s", coreRank, MAX_CORE_RANK);
+    return (long) taggedSenseCount << 16 | (coreRank > 0 ? MAX_CORE_RANK + 1 - coreRank : 0);
+  }
+
+  int size() {
+    return lemmas.length;
+  }
+
+  /** @return whichever of lemmas {@code i} and {@code j} sorts first by weight, then alphabetically */
+  private int heavier(final int i, final int j) {
+    if (weights[i] != weights[j]) {
+      return weights[i] > weights[j] ? i : j;
+    }
+    return Math.min(i, j);
+  }
+
+  /** @return index of the heaviest lemma in {@code [from, to)}, which must be non-empty */
+  private int heaviest(int from, int to) {
+    int best = from;
+    for (from += lemmas.length, to += lemmas.length; from < to; from >>= 1, to >>= 1) {
+      if ((from & 1) == 1) {
+        best = heavier(best, tree[from++]);
+      }
+      if ((to & 1) == 1) {
+        best = heavier(best, tree[--to]);
+      }
+    }
+    return best;
+  }
+
+  /** @return index of the first lemma {@code >= key} */
+  private int lowerBound(final String key) {
+    final int i = Arrays.binarySearch(lemmas, key);
+    return i < 0 ? -(i + 1) : i;
+  }
+
+  /** @return index of the first lemma after those starting with {@code prefix} */
+  private int prefixEnd(final String prefix) {
+    if (prefix.isEmpty()) {
+      return lemmas.length;
+    }
+    final char last = prefix.charAt(prefix.length() - 1);
+    if (last == Character.MAX_VALUE) {
+      int end = lowerBound(prefix);
+      while (end < lemmas.length && lemmas[end].startsWith(prefix)) {
+        end++;
+      }
+      return end;
+    }
+    return lowerBound(prefix.substring(0, prefix.length() - 1) + (char) (last + 1));
+  }
+
+  /**
+   * @param prefix lowercased, with spaces
+   * @return up to {@code limit} lemmas starting with {@code prefix}, heaviest first
+   */
+  List<String> complete(final String prefix, final int limit) {
+    checkArgument(limit >= 0, "limit must not be negative: %s", limit);
+    final int from = lowerBound(prefix);
+    final int to = prefixEnd(prefix);
+    final List<String> completions = new ArrayList<>(Math.min(limit, to - from));
+    if (from == to || limit == 0) {
+      return completions;
+    }
+    // each entry is a non-empty range {heaviest, from, to}
+    final PriorityQueue<int[]> ranges = new PriorityQueue<>(
+        (r1, r2) -> r1[0] == r2[0] ? 0 : heavier(r1[0], r2[0]) == r1[0] ? -1 : 1);
+    ranges.add(new int[] { heaviest(from, to), from, to });
+    while (completions.size() < limit && ! ranges.isEmpty()) {
+      final int[] range = ranges.poll();
+      completions.add(lemmas[range[0]]);
+      if (range[1] < range[0]) {
+        ranges.add(new int[] { heaviest(range[1], range[0]), range[1], range[0] });
+      }
+      if (range[0] + 1 < range[2]) {
+        ranges.add(new int[] { heaviest(range[0] + 1, range[2]), range[0] + 1, range[2] });
+      }
+    }
+    return completions;
+  }
+
+  @Override
+  public String toString() {
+    return "[CompletionIndex size: " + lemmas.length + "]";
+  }
+} // end class CompletionIndex
@@ -0,0 +1,285 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.yawni.wordnet;
+
+import com.google.common.primitives.Ints;
+import com.google.common.primitives.SignedBytes;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Compiles the WordNet text files into the binary image read by {@link CompiledDictionary}.
+ * Synsets are written as parsed by {@link Synset}, i.e., including the extra
+ * verb group and morphosemantic relations, so a compiled {@link WordNet} never
+ * consults those resources on a synset miss.
+ *
+ * <p> Usage: {@code java org.yawni.wordnet.DictionaryCompiler <output file> [POS ...]};
+ * the output is typically installed as {@value CompiledDictionary#FILE_NAME} next to the
+ * {@code data.<em>pos</em>} files (or in the {@code dict/} directory of a data jar).
+ */
+final class DictionaryCompiler {
+  private static final Logger log = LoggerFactory.getLogger(DictionaryCompiler.class);
+
+  private final WordNet wordNet;
+  private final Set<POS> poses;
+
+  private final StringTable lemmas = new StringTable(true);
+  private final StringTable glosses = new StringTable(false);
+  private final ByteArrayOutputStream synsetBytes = new ByteArrayOutputStream();
+  private final ByteArrayOutputStream senseBytes = new ByteArrayOutputStream();
+  private final ByteArrayOutputStream relationBytes = new ByteArrayOutputStream();
+  private final ByteArrayOutputStream wordBytes = new ByteArrayOutputStream();
+  private final ByteArrayOutputStream wordSynsetBytes = new ByteArrayOutputStream();
+  // hash keys of each synset and word record, in record order
+  private final List<Integer> synsetKeys = new ArrayList<>();
+  private final List<Integer> wordKeys = new ArrayList<>();
+  private final List<Integer> wordOffsetKeys = new ArrayList<>();
+  private int senseCount;
+  private int relationCount;
+  private int wordSynsetCount;
+
+  private DictionaryCompiler(final WordNet wordNet, final Set<POS> poses) {
+    this.wordNet = wordNet;
+    this.poses = poses;
+  }
+
+  /**
+   * Writes the compiled image of {@code poses} of {@code wordNet} to {@code out}.
+   */
+  static void compile(final WordNet wordNet, final Set<POS> poses, final OutputStream out) throws IOException {
+    checkArgument(POS.CATS.containsAll(poses), "only %s can be compiled", POS.CATS);
+    new DictionaryCompiler(wordNet, poses).write(out);
+  }
+
+  private void write(final OutputStream out) throws IOException {
+    for (final POS pos : POS.CATS) {
+      if (poses.contains(pos)) {
+        for (final Synset synset : wordNet.synsets(pos)) {
+          addSynset(synset);
+        }
+        for (final Word word : wordNet.words(pos)) {
+          addWord(word);
+        }
+        log.info("compiled {}: {} synsets {} words", pos, synsetKeys.size(), wordKeys.size());
+      }
+    }
+
+    final List<byte[]> sections = new ArrayList<>();
+    sections.add(lemmas.toByteArray());
+    sections.add(glosses.toByteArray());
+    sections.add(withCount(synsetKeys.size(), synsetBytes));
+    sections.add(withCount(senseCount, senseBytes));
+    sections.add(withCount(relationCount, relationBytes));
+    sections.add(withCount(wordKeys.size(), wordBytes));
+    sections.add(withCount(wordSynsetCount, wordSynsetBytes));
+    sections.add(hashTable(synsetKeys));
+    sections.add(hashTable(wordKeys));
+    sections.add(hashTable(wordOffsetKeys));
+    assert sections.size() == CompiledDictionary.SECTION_COUNT;
+
+    final DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out));
+    data.writeInt(CompiledDictionary.MAGIC);
+    data.writeInt(CompiledDictionary.VERSION);
+    for (final POS pos : POS.CATS) {
+      data.writeInt(poses.contains(pos) ? wordNet.getDataFileLength(pos) : -1);
+    }
+    for (final POS pos : POS.CATS) {
+      data.writeInt(poses.contains(pos) ? wordNet.getIndexFileLength(pos) : -1);
+    }
+    int sectionStart = CompiledDictionary.HEADER_SIZE;
+    for (final byte[] section : sections) {
+      data.writeInt(sectionStart);
+      sectionStart += section.length;
+    }
+    for (final byte[] section : sections) {
+      data.write(section);
+    }
+    data.flush();
+  }
+
+  private void addSynset(final Synset synset) throws IOException {
+    final DataOutputStream record = new DataOutputStream(synsetBytes);
+    final List<WordSense> wordSenses = synset.getWordSenses();
+    checkArgument(wordSenses.size() <= 0xFF, "too many senses %s", synset);
+    record.writeInt(synset.getOffset());
+    record.writeByte(synset.getPOS().getByteOrdinal());
+    record.writeByte(synset.lexfilenum());
+    record.writeByte(synset.isAdjectiveCluster() ? CompiledDictionary.ADJECTIVE_CLUSTER_FLAG : 0);
+    record.writeByte(wordSenses.size());
+    record.writeInt(senseCount);
+    record.writeInt(relationCount);
+    record.writeInt(synset.relationCount());
+
+    final DataOutputStream senseRecord = new DataOutputStream(senseBytes);
+    for (final WordSense wordSense : wordSenses) {
+      senseRecord.writeInt(lemmas.add(wordSense.getLemma()));
+      senseRecord.writeByte(wordSense.getLexid());
+      senseRecord.writeByte(SignedBytes.checkedCast(wordSense.getAdjPositionFlags()));
+      senseRecord.writeShort(0);
+      senseRecord.writeLong(wordSense.getVerbFrameFlags());
+      senseCount++;
+    }
+
+    final DataOutputStream relationRecord = new DataOutputStream(relationBytes);
+    for (int i = 0; i < synset.relationCount(); i++) {
+      final long relation = synset.relationRecord(i);
+      relationRecord.writeInt(Relation.targetOffset(relation));
+      relationRecord.writeByte(Relation.typeOrdinal(relation));
+      relationRecord.writeByte(Relation.targetPOS(relation).getByteOrdinal());
+      relationRecord.writeByte(Relation.sourceIndex(relation));
+      relationRecord.writeByte(Relation.targetIndex(relation));
+      relationCount++;
+    }
+
+    glosses.add(synset.getGloss());
+    synsetKeys.add(synset.getOffset() * 31 + synset.getPOS().getByteOrdinal());
+  }
+
+  private void addWord(final Word word) throws IOException {
+    final DataOutputStream record = new DataOutputStream(wordBytes);
+    final List<Synset> synsets = word.getSynsets();
+    final byte posOrdinal = word.getPOS().getByteOrdinal();
+    record.writeInt(word.getOffset());
+    record.writeByte(posOrdinal);
+    record.writeByte(0);
+    record.writeShort(0);
+    record.writeInt(lemmas.add(word.getLowercasedLemma()));
+    record.writeInt(word.getTaggedSenseCount());
+    record.writeInt(wordSynsetCount);
+    record.writeInt(synsets.size());
+
+    final DataOutputStream synsetRecord = new DataOutputStream(wordSynsetBytes);
+    for (final Synset synset : synsets) {
+      synsetRecord.writeInt(synset.getOffset());
+      wordSynsetCount++;
+    }
+
+    final int lemmaHash = WordNetLexicalComparator.TO_LOWERCASE_INSTANCE.hashCode(word.getLowercasedLemma());
+    wordKeys.add(lemmaHash * 31 + posOrdinal);
+    wordOffsetKeys.add(word.getOffset() * 31 + posOrdinal);
+  }
+
+  private static byte[] withCount(final int count, final ByteArrayOutputStream records) throws IOException {
+    final ByteArrayOutputStream bytes = new ByteArrayOutputStream(4 + records.size());
+    new DataOutputStream(bytes).writeInt(count);
+    records.writeTo(bytes);
+    return bytes.toByteArray();
+  }
+
+  /**
+   * Lays out an open addressing (linear probing) table of record ids + 1 (0 marks an
+   * empty slot) with a load factor of at most 0.5.
+   */
+  private static byte[] hashTable(final List<Integer> keys) throws IOException {
+    final int capacity = Integer.highestOneBit(Math.max(2, keys.size()) * 2 - 1) << 1;
+    final int mask = capacity - 1;
+    final int[] slots = new int[capacity];
+    for (int record = 0, n = keys.size(); record < n; record++) {
+      int slot = CompiledDictionary.mix(keys.get(record)) & mask;
+      while (slots[slot] != 0) {
+        slot = (slot + 1) & mask;
+      }
+      slots[slot] = record + 1;
+    }
+    final ByteArrayOutputStream bytes = new ByteArrayOutputStream(4 * (capacity + 1));
+    final DataOutputStream data = new DataOutputStream(bytes);
+    data.writeInt(capacity);
+    for (final int slot : slots) {
+      data.writeInt(slot);
+    }
+    return bytes.toByteArray();
+  }
+
+  /**
+   * Accumulates ISO-8859-1 strings; see {@link CompiledDictionary} for the layout.
+   */
+  private static final class StringTable {
+    private final Map<String, Integer> ids;
+    private final List<Integer> ends = new ArrayList<>();
+    private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+    StringTable(final boolean intern) {
+      this.ids = intern ? new HashMap<>() : null;
+      ends.add(0);
+    }
+
+    int add(final String string) {
+      if (ids != null) {
+        final Integer id = ids.get(string);
+        if (id != null) {
+          return id;
+        }
+      }
+      final int id = ends.size() - 1;
+      final byte[] encoded = string.getBytes(StandardCharsets.ISO_8859_1);
+      bytes.write(encoded, 0, encoded.length);
+      ends.add(bytes.size());
+      if (ids != null) {
+        ids.put(string, id);
+      }
+      return id;
+    }
+
+    byte[] toByteArray() throws IOException {
+      final ByteArrayOutputStream table = new ByteArrayOutputStream(4 * (ends.size() + 1) + bytes.size());
+      final DataOutputStream data = new DataOutputStream(table);
+      data.writeInt(ends.size() - 1);
+      for (final int end : Ints.toArray(ends)) {
+        data.writeInt(end);
+      }
+      bytes.writeTo(table);
+      return table.toByteArray();
+    }
+  } // end class StringTable
+
+  public static void main(final String[] args) throws IOException {
+    if (args.length < 1) {
+      System.err.println("usage: DictionaryCompiler <output file> [POS ...]");
+      System.exit(1);
+    }
+    final Set<POS> poses = EnumSet.noneOf(POS.class);
+    for (int i = 1; i < args.length; i++) {
+      poses.add(POS.valueOf(args[i]));
+    }
+    if (poses.isEmpty()) {
+      poses.addAll(POS.CATS);
+    }
+    final long start = System.nanoTime();
+    try (OutputStream out = Files.newOutputStream(Paths.get(args[0]))) {
+      compile(WordNet.getInstance(), poses, out);
+    }
+    System.err.printf("compiled %s to %s in %,dms\n", poses, args[0], (System.nanoTime() - start) / 1000000);
+  }
+} // end class DictionaryCompiler
@@ -0,0 +1,203 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.yawni.wordnet;
+
+import java.util.Arrays;
+import java.util.List;
+import org.yawni.util.CharSequenceTokenizer;
+import org.yawni.util.CharSequences;
+
+/**
+ * Relations which aren't in the <code>data.<em>pos</em></code> files, compiled from the
+ * {@code morphosemantic-links} and {@code verb_groups} resources into an open addressing hash from
+ * source synset ({@code POS}, offset) to packed {@code long} records, so {@link Synset} construction
+ * finds its extra relations with a single probe rather than a binary search of the file and
+ * re-tokenizing its matching lines.
+ *
+ * <p> A record packs (source word index, {@link RelationType}, target word index, target offset);
+ * word indexes are 0-based, as in the files.  Records of each source are in file order.
+ */
+final class ExtraRelationIndex {
+  static final ExtraRelationIndex EMPTY = build(new long[0], new long[0]);
+
+  /** source keys, or {@code -1} for empty slots; capacity is a power of 2 */
+  private final long[] slotKeys;
+  /** records of slot {@code s} are {@code [slotStarts[s], slotEnds[s])} of {@code records} */
+  private final int[] slotStarts;
+  private final int[] slotEnds;
+  private final long[] records;
+
+  private ExtraRelationIndex(final long[] slotKeys, final int[] slotStarts, final int[] slotEnds, final long[] records) {
+    this.slotKeys = slotKeys;
+    this.slotStarts = slotStarts;
+    this.slotEnds = slotEnds;
+    this.records = records;
+  }
+
+  static long key(final POS pos, final int offset) {
+    return (long) pos.ordinal() << 32 | offset;
+  }
+
+  static long record(final int sourceIndex, final RelationType type, final int targetIndex, final int targetOffset) {
+    assert sourceIndex >= 0 && sourceIndex < 256 && targetIndex >= 0 && targetIndex < 256;
+    return (long) type.getByteOrdinal() << 48 | (long) sourceIndex << 40 | (long) targetIndex << 32 | (targetOffset & 0xFFFFFFFFL);
+  }
+
+  static RelationType type(final long record) {
+    return RelationType.fromOrdinal((byte) (record >>> 48));
+  }
+
+  static int sourceIndex(final long record) {
+    return (int) (record >>> 40) & 0xFF;
+  }
+
+  static int targetIndex(final long record) {
+    return (int) (record >>> 32) & 0xFF;
+  }
+
+  static int targetOffset(final long record) {
+    return (int) record;
+  }
+
+  /**
+   * @param lines lines of {@code morphosemantic-links.xls.tsv.offsets.synsetIndexes.bidi}:
+   *   <code><em>source POS digit</em><em>source offset</em> <em>source index</em> <em>relation</em>
+   *   <em>target POS digit</em><em>target offset</em> <em>target index</em></code>
+   */
+  static ExtraRelationIndex buildMorphosemantic(final List<String> lines) {
+    final long[] keys = new long[lines.size()];
+    final long[] records = new long[lines.size()];
+    for (int i = 0; i < keys.length; i++) {
+      final CharSequenceTokenizer tokenizer = new CharSequenceTokenizer(lines.get(i), " ");
+      final String source = tokenizer.nextToken();
+      final POS sourcePOS = source.charAt(0) == '1' ? POS.NOUN : POS.VERB;
+      keys[i] = key(sourcePOS, CharSequences.parseInt(source, 1, source.length()));
+      final int sourceIndex = tokenizer.nextInt();
+      final MorphosemanticRelation relation = MorphosemanticRelation.fromValue(tokenizer.nextToken());
+      final String target = tokenizer.nextToken();
+      final int targetIndex = tokenizer.nextInt();
+      records[i] = record(sourceIndex, RelationType.valueOf(relation.name()), targetIndex,
+        CharSequences.parseInt(target, 1, target.length()));
+    }
+    return build(keys, records);
+  }
+
+  /**
+   * @param lines lines of {@code verb_groups.non_pairs.offsets}:
+   *   <code><em>source offset</em> <em>target offset</em>+</code>
+   */
+  static ExtraRelationIndex buildVerbGroups(final List<String> lines) {
+    int count = 0;
+    for (final String line : lines) {
+      count += CharSequenceTokenizer.countTokens(line, " ") - 1;
+    }
+    final long[] keys = new long[count];
+    final long[] records = new long[count];
+    int i = 0;
+    for (final String line : lines) {
+      final CharSequenceTokenizer tokenizer = new CharSequenceTokenizer(line, " ");
+      final long key = key(POS.VERB, tokenizer.nextInt());
+      while (tokenizer.hasMoreTokens()) {
+        keys[i] = key;
+        // verb groups relate whole synsets; see Relation#getTarget()
+        records[i] = record(0, RelationType.VERB_GROUP, 0, tokenizer.nextInt());
+        i++;
+      }
+    }
+    assert i == count;
+    return build(keys, records);
+  }
+
+  /** {@code keys[i]} is the source of {@code records[i]} */
+  static ExtraRelationIndex build(final long[] keys, final long[] records) {
+    // stable sort by key keeps each source's records in file order
+    final Integer[] order = new Integer[keys.length];
+    for (int i = 0; i < order.length; i++) {
+      order[i] = i;
+    }
+    Arrays.sort(order, (i, j) -> Long.compare(keys[i], keys[j]));
+    int distinct = 0;
+    for (int i = 0; i < order.length; i++) {
+      if (i == 0 || keys[order[i]] != keys[order[i - 1]]) {
+        distinct++;
+      }
+    }
+    final int capacity = Integer.highestOneBit(Math.max(2, 2 * distinct - 1)) << 1;
+    final long[] slotKeys = new long[capacity];
+    Arrays.fill(slotKeys, -1L);
+    final int[] slotStarts = new int[capacity];
+    final int[] slotEnds = new int[capacity];
+    final long[] sortedRecords = new long[records.length];
+    int slot = -1;
+    for (int i = 0; i < order.length; i++) {
+      final long key = keys[order[i]];
+      if (i == 0 || key != keys[order[i - 1]]) {
+        slot = hash(key) & (capacity - 1);
+        while (slotKeys[slot] != -1L) {
+          slot = (slot + 1) & (capacity - 1);
+        }
+        slotKeys[slot] = key;
+        slotStarts[slot] = i;
+      }
+      sortedRecords[i] = records[order[i]];
+      slotEnds[slot] = i + 1;
+    }
+    return new ExtraRelationIndex(slotKeys, slotStarts, slotEnds, sortedRecords);
+  }
+
+  private static int hash(final long key) {
+    // offsets are multiples of small line lengths; mix them across the table
+    final long h = key * 0x9E3779B97F4A7C15L;
+    return (int) (h ^ (h >>> 32));
+  }
+
+  /** @return slot of the records of source {@code key}, or {@code -1} if it has none */
+  int find(final long key) {
+    final int mask = slotKeys.length - 1;
+    for (int slot = hash(key) & mask; ; slot = (slot + 1) & mask) {
+      final long slotKey = slotKeys[slot];
+      if (slotKey == key) {
+        return slot;
+      } else if (slotKey == -1L) {
+        return -1;
+      }
+    }
+  }
+
+  /** @return index of the first record of {@code slot} */
+  int start(final int slot) {
+    return slotStarts[slot];
+  }
+
+  /** @return index after the last record of {@code slot} */
+  int end(final int slot) {
+    return slotEnds[slot];
+  }
+
+  long record(final int i) {
+    return records[i];
+  }
+
+  int size() {
+    return records.length;
+  }
+
+  @Override
+  public String toString() {
+    return "[ExtraRelationIndex records: " + records.length + "]";
+  }
+} // end class ExtraRelationIndex
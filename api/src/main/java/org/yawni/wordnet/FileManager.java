@@ -35,9 +35,11 @@ import java.net.JarURLConnection;
 import java.nio.ByteBuffer;
 import java.nio.MappedByteBuffer;
 import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.regex.Matcher;
 import org.yawni.util.LightImmutableList;
 
@@ -48,9 +50,9 @@ import org.yawni.util.LightImmutableList;
  * in order to eliminate the redundant I/O activity that a naïve implementation
  * of these methods would necessitate.
  *
- * <p> Instances of this class are guarded; all operations are read-only, but
- * are synchronized per file to maintain state including the file pointers'
- * position.
+ * <p> Instances of this class are thread-safe; all operations are read-only and
+ * position-independent, so any number of threads can search and read lines from
+ * the same file at the same time without locking.
  */
 final class FileManager implements FileManagerInterface {
   private static final Logger log = LoggerFactory.getLogger(FileManager.class);
@@ -58,26 +60,24 @@ final class FileManager implements FileManagerInterface {
 //  private String searchDirectory;
   private final Map<String, Optional<CharStream>> fileNameCache = Maps.newConcurrentMap();
 
+  /**
+   * Remembers the offset following the most recently read line so the common
+   * {@code readLineAt(o)}/{@code getNextLinePointer(o)} iteration idiom
+   * doesn't scan each line twice.  Instances are per-thread (i.e., per-caller) state,
+   * so no synchronization is required.
+   */
   static class NextLineOffsetCache {
     private String fileName;
     private int previous;
     private int next;
 
-    /**
-     * synchronization keeps this consistent since multiple fileName's may call
-     * this at the same time
-     */
-    synchronized void setNextLineOffset(final String fileName, final int previous, final int next) {
+    void setNextLineOffset(final String fileName, final int previous, final int next) {
       this.fileName = fileName;
       this.previous = previous;
       this.next = next;
     }
 
-    /**
-     * synchronization keeps this consistent since multiple fileName's may call
-     * this at the same time
-     */
-    synchronized int matchingOffset(final String fileName, final int offset) {
+    int matchingOffset(final String fileName, final int offset) {
       if (this.fileName == null ||
           previous != offset ||
           ! this.fileName.equals(fileName)
@@ -88,7 +88,12 @@ final class FileManager implements FileManagerInterface {
       }
     }
   } // end class NextLineOffsetCache
-  private final NextLineOffsetCache nextLineOffsetCache = new NextLineOffsetCache();
+  private final ThreadLocal<NextLineOffsetCache> nextLineOffsetCache = ThreadLocal.withInitial(NextLineOffsetCache::new);
+
+  // I/O metrics; see WordNetMetrics
+  private final LongAdder bytesRead = new LongAdder();
+  private final LongAdder binarySearches = new LongAdder();
+  private final LongAdder binarySearchProbes = new LongAdder();
 
   //
   // Constructors
@@ -175,18 +180,17 @@ final class FileManager implements FileManagerInterface {
 
   /**
    * Primary abstraction of file content used in {@code FileManager}.
-   * NOTE: CharStream is stateful (i.e., not thread-safe)
+   * All read methods take an explicit offset and are position-independent
+   * (i.e., {@code CharStream} has no cursor), so a single instance can be
+   * read by any number of threads at the same time; callers own their
+   * cursor (and scratch buffers, e.g., {@link LineWord}).
    */
   static abstract class CharStream implements CharSequence {
     protected final String fileName;
-    protected final StringBuilder stringBuffer;
     /** Force subclasses to call this */
     CharStream(final String fileName) {
       this.fileName = fileName;
-      this.stringBuffer = new StringBuilder();
     }
-    abstract void seek(final int position) throws IOException;
-    abstract int position() throws IOException;
     // IOExceptions laundered as RuntimeExceptions
     @Override
     public abstract char charAt(int position);
@@ -195,58 +199,133 @@ final class FileManager implements FileManagerInterface {
     public abstract int length();
     @Override
     public CharSequence subSequence(int s, int e) {
-      final boolean doBuffer = true;
-      resetBuffer(doBuffer);
+      final StringBuilder buffer = new StringBuilder(e - s);
       for (int i = s; i < e; i++) {
-        stringBuffer.append(charAt(i));
+        buffer.append(charAt(i));
       }
-      return stringBuffer.toString();
+      return buffer.toString();
+    }
+    /**
+     * Returns exclusive offset of the start of the line delimiter ({@code "\r\n"|"\r"|"\n"})
+     * of the line containing {@code offset}, or {@code length()}, whichever comes first.
+     * Line content is {@code [offset, lineEnd(offset))}.
+     */
+    int lineEnd(int offset) {
+      final int capacity = length();
+      while (offset < capacity) {
+        final char c = charAt(offset);
+        if (c == '\n' || c == '\r') {
+          break;
+        }
+        offset++;
+      }
+      return offset;
+    }
+    /**
+     * Returns the offset of the start of the line following the line
+     * containing {@code offset}, or {@code length()} if there is no such line.
+     */
+    int nextLineOffset(final int offset) {
+      final int capacity = length();
+      final int e = lineEnd(offset);
+      if (e >= capacity) {
+        return capacity;
+      }
+      if (charAt(e) == '\r' && e + 1 < capacity && charAt(e + 1) == '\n') {
+        return e + 2;
+      }
+      return e + 1;
     }
     /**
      * This works just like {@link RandomAccessFile#readLine} -- doesn't
      * support Unicode.
+     * @return line starting at {@code offset} or {@code null} if it is empty
+     * or {@code offset} is past the end of this stream
      */
-    abstract String readLine() throws IOException;
-    void skipLine() throws IOException {
-      readLine();
-    }
-    // reads line, returns first space delimited word
-    String readLineWord() throws IOException {
-      // basic, inefficient impl
-      final String ret = readLine();
-      if (ret == null) {
+    String readLine(final int offset) {
+      final int e = lineEnd(offset);
+      if ((e - offset) <= 0) {
+        return null;
+      }
+      return subSequence(offset, e).toString();
+    }
+    /** reads line at {@code offset}, returns first space delimited word */
+    String readLineWord(final int offset) {
+      final int e = lineEnd(offset);
+      if ((e - offset) <= 0) {
         return null;
       }
-      final int space = ret.indexOf(' ');
-      assert space >= 0;
-      return ret.substring(0, space);
+      int space = offset;
+      while (space < e && charAt(space) != ' ') {
+        space++;
+      }
+      return subSequence(offset, space).toString();
     }
     /**
      * Treat file contents like an array of lines and return the zero-based,
      * inclusive line corresponding to {@code linenum}
      */
-    String readLineNumber(int linenum) throws IOException {
+    String readLineNumber(int linenum) {
       //TODO when creating the CharStream, add option to "index"/cache these results as either String[] OR String[][]
       //where each row is an array of the delimited items on it and a second optional argument
       //readLineNumber(int linenum, int wordnum)
       //assumption is these CharStream's will be tiny
       //and we can still lazy load this
-      seek(0);
+      int offset = 0;
       for (int i = 0; i < linenum; i++) {
-        skipLine();
+        offset = nextLineOffset(offset);
       }
-      return readLine();
+      return readLine(offset);
     }
-    protected void resetBuffer(final boolean doBuffer) {
-      if (doBuffer) {
-        stringBuffer.setLength(0);
+  } // end class CharStream
+
+  /**
+   * Reusable, caller-owned {@code CharSequence} view of the first space delimited
+   * word of a line of a {@code CharStream}; avoids allocating a {@code String} for
+   * each probe of a binary search or linear scan.
+   * NOTE: LineWord is stateful (i.e., not thread-safe), but cheap; each search
+   * owns its own.
+   */
+  static final class LineWord implements CharSequence {
+    private final CharStream stream;
+    private int start;
+    private int length;
+    LineWord(final CharStream stream) {
+      this.stream = stream;
+    }
+    /** Point this view at the line starting at {@code offset}; returns {@code this} */
+    LineWord reset(final int offset) {
+      final int e = stream.lineEnd(offset);
+      int end = offset;
+      while (end < e && stream.charAt(end) != ' ') {
+        end++;
       }
+      this.start = offset;
+      this.length = end - offset;
+      return this;
     }
-  } // end class CharStream
+    @Override
+    public int length() {
+      return length;
+    }
+    @Override
+    public char charAt(final int index) {
+      return stream.charAt(start + index);
+    }
+    @Override
+    public CharSequence subSequence(final int s, final int e) {
+      return stream.subSequence(start + s, start + e);
+    }
+    @Override
+    public String toString() {
+      return stream.subSequence(start, start + length).toString();
+    }
+  } // end class LineWord
 
   /**
    * {@link RandomAccessFile}-backed {@code CharStream} implementation.  This {@code CharStream}
-   * has the minimum boot time (and the slowest access times).
+   * has the minimum boot time (and the slowest access times).  Since a {@code RandomAccessFile}
+   * has a file pointer, each character access is synchronized.
    */
   static class RAFCharStream extends CharStream {
     private final RandomAccessFile raf;
@@ -255,18 +334,12 @@ final class FileManager implements FileManagerInterface {
       this.raf = raf;
     }
     @Override
-    void seek(final int position) throws IOException {
-      raf.seek(position);
-    }
-    @Override
-    int position() throws IOException {
-      return (int) raf.getFilePointer();
-    }
-    @Override
     public char charAt(int position) {
       try {
-        seek(position);
-        return (char)raf.readByte();
+        synchronized (raf) {
+          raf.seek(position);
+          return (char) raf.readByte();
+        }
       } catch (IOException ioe) {
         throw new RuntimeException(ioe);
       }
@@ -279,10 +352,6 @@ final class FileManager implements FileManagerInterface {
         throw new RuntimeException(ioe);
       }
     }
-    @Override
-    String readLine() throws IOException {
-      return raf.readLine();
-    }
   } // end class RAFCharStream
 
   /**
@@ -291,10 +360,10 @@ final class FileManager implements FileManagerInterface {
    * {@code RAFCharStream}) and provides very fast access times, however it
    * requires a {@code ByteBuffer} which is usually most easily derived
    * from an {@code FileChannel}. aka {@code mmap CharStream}
+   * Only absolute {@code ByteBuffer} accessors are used, so the buffer's
+   * position is never modified and concurrent reads need no locking.
    */
   private static class NIOCharStream extends CharStream implements CharSequence {
-    //FIXME position seems redundant (ByteCharBuffer has position())
-    private int position;
     private final ByteBuffer bbuff;
     private final int capacity;
 
@@ -318,15 +387,6 @@ final class FileManager implements FileManagerInterface {
       return mmap;
     }
     @Override
-    void seek(final int position) throws IOException {
-      // buffer cannot exceed Integer.MAX_VALUE since arrays are limited by this
-      this.position = position;
-    }
-    @Override
-    int position() {
-      return position;
-    }
-    @Override
     public char charAt(final int p) {
       return (char) bbuff.get(p);
     }
@@ -335,83 +395,24 @@ final class FileManager implements FileManagerInterface {
       return capacity;
     }
     @Override
-    String readLine() {
-      final int s = position;
-      final int e = scanForwardToLineBreak(true);
-      if ((e - s) <= 0) {
-        return null;
-      }
-      return stringBuffer.toString();
-    }
-    @Override
-    void skipLine() {
-      scanForwardToLineBreak();
-    }
-    @Override
-    String readLineWord() {
-      final int s = position;
-      bufferUntilSpace();
-      final int e = scanForwardToLineBreak();
-      if ((e - s) <= 0) {
-        return null;
-      }
-      return stringBuffer.toString();
-    }
-    /** Modifies {@code position} field */
-    private int bufferUntilSpace() {
-      // scan from current position to first ' '
-      resetBuffer(true /* doBuffer */);
-      char c;
-      while (position < capacity) {
-        c = charAt(position++);
-        if (c == ' ') {
-          return position - 1;
+    int lineEnd(int offset) {
+      while (offset < capacity) {
+        final byte b = bbuff.get(offset);
+        if (b == '\n' || b == '\r') {
+          break;
         }
-        stringBuffer.append(c);
+        offset++;
       }
-      return bbuff.capacity();
+      return offset;
     }
-    private int scanForwardToLineBreak() {
-      return scanForwardToLineBreak(false /* don't buffer */);
-    }
-    /**
-     * Returns exclusive offset of next start of the line delimiter, or capacity, whichever comes next.
-     * Modifies {@code position} field, leaving it at start of following line.
-     *
-     * Typical usage is to store current position, s, and e = scanForwardToLineBreak(), line content
-     * is buffer[s, e).  This can be done repeatedly to get sequential lines.
-     */
-    private int scanForwardToLineBreak(final boolean doBuffer) {
-      // scan from current position to first ("\r\n"|"\r"|"\n")
-      boolean done = false;
-      boolean crnl = false;
-      resetBuffer(doBuffer);
-      char c;
-      while (! done && position < capacity) {
-        c = charAt(position++);
-        switch (c) {
-          case '\r':
-            // if next is \n, skip that too
-            c = charAt(position++);
-            if (c != '\n') {
-              // put it back
-              position--;
-            } else {
-              crnl = true;
-            }
-            done = true;
-            break;
-          case '\n':
-            done = true;
-            break;
-          default:
-            if (doBuffer) {
-              stringBuffer.append(c);
-            }
-        }
+    @Override
+    public CharSequence subSequence(final int s, final int e) {
+      final byte[] bytes = new byte[e - s];
+      for (int i = s; i < e; i++) {
+        bytes[i - s] = bbuff.get(i);
       }
-      // return exclusive end chopping line break delimiter(s)
-      return crnl ? position - 2 : position - 1;
+      // equivalent to (char) byte
+      return new String(bytes, StandardCharsets.ISO_8859_1);
     }
   } // end class NIOCharStream
 
@@ -461,7 +462,16 @@ final class FileManager implements FileManagerInterface {
    * is relative (else, it's absolute); this facilitates testing and reuse.
    * @return CharStream representing {@code fileName} or null if no such file exists.
    */
-  private synchronized CharStream getFileStream(final String fileName, final boolean fileNameIsWnRelative) throws IOException {
+  private CharStream getFileStream(final String fileName, final boolean fileNameIsWnRelative) throws IOException {
+    // common case: stream already opened; no locking required
+    final Optional<CharStream> opened = fileNameCache.get(fileName);
+    if (opened != null) {
+      return opened.orElse(null);
+    }
+    return openFileStream(fileName, fileNameIsWnRelative);
+  }
+
+  private synchronized CharStream openFileStream(final String fileName, final boolean fileNameIsWnRelative) throws IOException {
     Optional<CharStream> stream = fileNameCache.get(fileName);
     if (stream == null) {
       final long start = System.nanoTime();
@@ -503,7 +513,7 @@ final class FileManager implements FileManagerInterface {
     return stream.orElse(null);
   }
 
-  synchronized CharStream getFileStream(final String fileName) throws IOException {
+  CharStream getFileStream(final String fileName) throws IOException {
     return getFileStream(fileName, true);
   }
 
@@ -555,49 +565,54 @@ final class FileManager implements FileManagerInterface {
     if (stream == null) {
       return null;
     }
-    synchronized (stream) {
-      return stream.readLineNumber(linenum);
+    final String line = stream.readLineNumber(linenum);
+    if (line != null) {
+      bytesRead.add(line.length() + 1);
     }
+    return line;
+  }
+
+  /** {@inheritDoc} Only memory mapped files have one; it's a duplicate of their mapped buffer. */
+  @Override
+  public ByteBuffer getByteBuffer(final String fileName) throws IOException {
+    final CharStream stream = getFileStream(fileName);
+    if (stream instanceof NIOCharStream) {
+      // independent position and limit; contents are shared
+      return ((NIOCharStream) stream).bbuff.duplicate();
+    }
+    return null;
   }
 
   /**
    * {@inheritDoc}
-   * Core search routine.  Only called from within synchronized blocks.
+   * Core search routine.
    */
   @Override
   public String readLineAt(final int offset, final String fileName) throws IOException {
     final CharStream stream = getFileStream(fileName);
     requireStream(stream, fileName);
-    synchronized (stream) {
-      stream.seek(offset);
-      final String line = stream.readLine();
-
-      int nextOffset = stream.position();
-      if (line == null) {
-        nextOffset = -1;
-      }
-      nextLineOffsetCache.setNextLineOffset(fileName, offset, nextOffset);
-      return line;
+    final String line = stream.readLine(offset);
+    if (line != null) {
+      bytesRead.add(line.length() + 1);
     }
+    final int nextOffset = line == null ? -1 : stream.nextLineOffset(offset + line.length());
+    nextLineOffsetCache.get().setNextLineOffset(fileName, offset, nextOffset);
+    return line;
   }
 
   /**
    * {@inheritDoc}
-   * Core search routine.  Only called from within synchronized blocks.
+   * Core search routine.
    */
   @Override
   public int getNextLinePointer(final int offset, final String fileName) throws IOException {
     final CharStream stream = getFileStream(fileName);
     requireStream(stream, fileName);
-    synchronized (stream) {
-      final int next;
-      if (0 <= (next = nextLineOffsetCache.matchingOffset(fileName, offset))) {
-        return next;
-      }
-      stream.seek(offset);
-      stream.skipLine();
-      return stream.position();
+    final int next;
+    if (0 <= (next = nextLineOffsetCache.get().matchingOffset(fileName, offset))) {
+      return next;
     }
+    return stream.nextLineOffset(offset);
   }
 
   //
@@ -615,21 +630,22 @@ final class FileManager implements FileManagerInterface {
     }
     final CharStream stream = getFileStream(fileName);
     requireStream(stream, fileName);
-    synchronized (stream) {
-      stream.seek(offset);
-      do {
-        final String word = stream.readLineWord();
-        final int nextOffset = stream.position();
-        if (word == null) {
-          return -1;
-        }
-        nextLineOffsetCache.setNextLineOffset(fileName, offset, nextOffset);
+    final int capacity = stream.length();
+    final int start = offset;
+    final LineWord word = new LineWord(stream);
+    try {
+      while (offset < capacity) {
+        final int nextOffset = stream.nextLineOffset(offset);
         // note the spaces of this 'word' are underscores
-        if (matcher.reset(word).find()) {
+        if (word.reset(offset).length() != 0 && matcher.reset(word).find()) {
+          nextLineOffsetCache.get().setNextLineOffset(fileName, offset, nextOffset);
           return offset;
         }
         offset = nextOffset;
-      } while (true);
+      }
+      return -1;
+    } finally {
+      bytesRead.add(Math.min(offset, capacity) - start);
     }
   }
 
@@ -686,62 +702,62 @@ final class FileManager implements FileManagerInterface {
     if (stream == null) {
       return -1;
     }
-    synchronized (stream) {
-      int stop = stream.length();
-      while (true) {
-        final int midpoint = (start + stop) >>> 1;
-        stream.seek(midpoint);
-        stream.skipLine();
-        final int offset = stream.position();
+    int stop = stream.length();
+    // caller-owned scratch view; reused by every probe of this search
+    final LineWord word = new LineWord(stream);
+    binarySearches.increment();
+    while (true) {
+      final int midpoint = (start + stop) >>> 1;
+      final int offset = stream.nextLineOffset(midpoint);
+      if (log.isTraceEnabled()) {
+        log.trace("  "+start+", "+midpoint+", "+stop+" → "+offset);
+      }
+      if (offset == start) {
+        // cannot be a match here - would be zero width
+        return -start - 1;
+      } else if (offset == stop) {
+        int position;
+        if (start != 0 && stream.charAt(start - 1) != '\n') {
+          position = stream.nextLineOffset(start + 1);
+        } else {
+          position = start;
+        }
         if (log.isTraceEnabled()) {
-          log.trace("  "+start+", "+midpoint+", "+stop+" → "+offset);
+          log.trace(". "+position);
         }
-        if (offset == start) {
-          // cannot be a match here - would be zero width
-          return -start - 1;
-        } else if (offset == stop) {
-          if (start != 0 && stream.charAt(start - 1) != '\n') {
-            stream.seek(start + 1);
-            stream.skipLine();
-          } else {
-            stream.seek(start);
-          }
+        //FIXME why is this a while() loop and not an if?
+        // - scan through short lines?
+        while (position < stop) {
+          final int result = position;
+          // note spaces within 'word' must be represented by underscores
+          binarySearchProbes.increment();
+          final int compare = compare(target, word.reset(position));
           if (log.isTraceEnabled()) {
-            log.trace(". "+stream.position());
+            log.trace("  . \""+word+"\" → "+(0 == compare));
           }
-          //FIXME why is this a while() loop and not an if?
-          // - scan through short lines?
-          while (stream.position() < stop) {
-            final int result = stream.position();
-            // note spaces within 'word' must be represented by underscores
-            final CharSequence word = stream.readLineWord();
-            if (log.isTraceEnabled()) {
-              log.trace("  . \""+word+"\" → "+(0 == compare(target, word)));
-            }
-            final int compare = compare(target, word);
-            if (compare == 0) {
-              return result;
-            } else if (compare < 0) {
-              return -result - 1;
-            }
+          if (compare == 0) {
+            return result;
+          } else if (compare < 0) {
+            return -result - 1;
           }
-          return -stop - 1;
-        } // end offset == stop branch
-        final int result = stream.position();
-        final CharSequence word = stream.readLineWord();
-        final int compare = compare(target, word);
-        if (log.isTraceEnabled()) {
-          log.trace(word + ": " + compare);
-        }
-        if (compare == 0) {
-          return result;
-        }
-        if (compare > 0) {
-          start = offset;
-        } else {
-          assert compare < 0;
-          stop = offset;
+          position = stream.nextLineOffset(position);
         }
+        return -stop - 1;
+      } // end offset == stop branch
+      final int result = offset;
+      binarySearchProbes.increment();
+      final int compare = compare(target, word.reset(offset));
+      if (log.isTraceEnabled()) {
+        log.trace(word + ": " + compare);
+      }
+      if (compare == 0) {
+        return result;
+      }
+      if (compare > 0) {
+        start = offset;
+      } else {
+        assert compare < 0;
+        stop = offset;
       }
     }
   }
@@ -815,4 +831,28 @@ final class FileManager implements FileManagerInterface {
   private int compare(final CharSequence s1, final CharSequence s2) {
     return comparator().compare(s1, s2);
   }
+
+  //
+  // Metrics
+  //
+
+  /** @return bytes of lines read and scanned (but not bulk {@link #getByteBuffer} access) */
+  long getBytesRead() {
+    return bytesRead.sum();
+  }
+
+  long getBinarySearches() {
+    return binarySearches.sum();
+  }
+
+  /** @return lines compared by all binary searches */
+  long getBinarySearchProbes() {
+    return binarySearchProbes.sum();
+  }
+
+  void resetMetrics() {
+    bytesRead.reset();
+    binarySearches.reset();
+    binarySearchProbes.reset();
+  }
 }
\ No newline at end of file
@@ -17,6 +17,7 @@
 package org.yawni.wordnet;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.Comparator;
 import java.util.regex.Matcher;
 import org.yawni.wordnet.FileManager.CharStream;
@@ -146,6 +147,13 @@ interface FileManagerInterface {
    */
   String readLineNumber(final int linenum, final String fileName) throws IOException;
 
+  /**
+   * Returns the raw contents of the file named by {@code fileName} (e.g., a compiled binary image) for
+   * reading with absolute {@code ByteBuffer} accessors, or {@code null} if no such file exists.
+   * @throws IOException
+   */
+  ByteBuffer getByteBuffer(final String fileName) throws IOException;
+
   /**
    * The {@link Comparator Comparator&lt;CharSequence&gt;} that defines the sort order of the WordNet data files.
    */
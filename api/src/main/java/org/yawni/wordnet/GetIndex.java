@@ -89,6 +89,15 @@ class GetIndex extends AbstractList<CharSequence> {
     return set(givenForm, toAlternate, new StringBuilder(givenForm), nextState);
   }
 
+  /**
+   * Variant of {@link #get(int)} which reuses {@code buffer}, which must contain
+   * the given form or one of its variants.
+   */
+  CharSequence get(final int nextState, final StringBuilder buffer) {
+    assert buffer.length() == givenForm.length();
+    return set(givenForm, toAlternate, buffer, nextState);
+  }
+
   /**
    * use bits of nextState to set candidate positions
    * @return convenience return
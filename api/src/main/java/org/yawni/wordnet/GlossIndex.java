@@ -0,0 +1,590 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.yawni.wordnet;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Inverted index of the gloss tokens of every synset, answering term, phrase and prefix queries by
+ * intersecting postings instead of matching a regular expression against every gloss.
+ *
+ * <p> Glosses are numbered by <em>doc id</em> like {@link PreloadedDictionary} numbers synsets: all
+ * nouns, then verbs, adjectives and adverbs, each in <code>data.<em>pos</em></code> file order, so doc
+ * ids are ascending in file order within each {@code POS}.  A <em>token</em> is a maximal run of
+ * letters and digits, lowercased.  Terms are stored sorted (so a prefix is a contiguous range of
+ * terms) and postings in compressed sparse row (CSR) form: the postings of term {@code t} are
+ * {@code [postingStarts[t], postingStarts[t + 1])}, each a doc id (ascending), the number of times
+ * {@code t} occurs in that doc, and its token positions there
+ * ({@code [positionStarts[posting], positionStarts[posting + 1])}, ascending) for phrase queries.
+ *
+ * @see WordNet#searchGloss(CharSequence, POS, int)
+ */
+final class GlossIndex {
+  /** BM25 term frequency saturation */
+  private static final double K1 = 1.2;
+  /** BM25 document length normalization */
+  private static final double B = 0.75;
+
+  /** first doc id of each {@code POS}, indexed by {@link SynsetIds#posIndex(POS)}; {@code POS.CATS.size() + 1} long */
+  private final int[] firstDocIds;
+  /** data file offsets of all synsets, by doc id */
+  private final int[] docOffsets;
+  /** number of tokens in each doc */
+  private final int[] docLengths;
+  private final double averageDocLength;
+  /** sorted */
+  private final String[] terms;
+  private final int[] postingStarts;
+  private final int[] postingDocs;
+  private final int[] postingFreqs;
+  private final int[] positionStarts;
+  private final int[] positions;
+
+  private GlossIndex(final int[] firstDocIds, final int[] docOffsets, final int[] docLengths, final String[] terms,
+      final int[] postingStarts, final int[] postingDocs, final int[] postingFreqs,
+      final int[] positionStarts, final int[] positions) {
+    this.firstDocIds = firstDocIds;
+    this.docOffsets = docOffsets;
+    this.docLengths = docLengths;
+    this.terms = terms;
+    this.postingStarts = postingStarts;
+    this.postingDocs = postingDocs;
+    this.postingFreqs = postingFreqs;
+    this.positionStarts = positionStarts;
+    this.positions = positions;
+    this.averageDocLength = docLengths.length == 0 ? 0 : (double) positions.length / docLengths.length;
+  }
+
+  /**
+   * @param firstDocIds first doc id of each {@code POS} (in {@link POS#CATS} order), followed by the doc count
+   * @param docOffsets data file offset of each doc
+   * @param glosses gloss of each doc
+   */
+  static GlossIndex build(final int[] firstDocIds, final int[] docOffsets, final String[] glosses) {
+    // tokenize every gloss into term ids, in order of first occurrence
+    final Map<String, Integer> termIds = new HashMap<>();
+    final List<String> unsortedTerms = new ArrayList<>();
+    final int[][] docTerms = new int[glosses.length][];
+    final int[] docLengths = new int[glosses.length];
+    int tokenCount = 0;
+    for (int doc = 0; doc < glosses.length; doc++) {
+      final List<String> tokens = tokenize(glosses[doc]);
+      final int[] ids = new int[tokens.size()];
+      for (int i = 0; i < ids.length; i++) {
+        Integer id = termIds.get(tokens.get(i));
+        if (id == null) {
+          id = unsortedTerms.size();
+          termIds.put(tokens.get(i), id);
+          unsortedTerms.add(tokens.get(i));
+        }
+        ids[i] = id;
+      }
+      docTerms[doc] = ids;
+      docLengths[doc] = ids.length;
+      tokenCount += ids.length;
+    }
+
+    // renumber terms in sorted order
+    final String[] terms = unsortedTerms.toArray(new String[unsortedTerms.size()]);
+    Arrays.sort(terms);
+    final int[] rank = new int[terms.length];
+    for (int t = 0; t < terms.length; t++) {
+      rank[termIds.get(terms[t])] = t;
+    }
+
+    // counting sort the occurrences by term; docs and positions stay ascending within each term
+    final int[] occurrenceStarts = new int[terms.length + 1];
+    for (final int[] ids : docTerms) {
+      for (int i = 0; i < ids.length; i++) {
+        ids[i] = rank[ids[i]];
+        occurrenceStarts[ids[i] + 1]++;
+      }
+    }
+    for (int t = 0; t < terms.length; t++) {
+      occurrenceStarts[t + 1] += occurrenceStarts[t];
+    }
+    final int[] next = Arrays.copyOf(occurrenceStarts, terms.length);
+    final int[] occurrenceDocs = new int[tokenCount];
+    final int[] positions = new int[tokenCount];
+    for (int doc = 0; doc < docTerms.length; doc++) {
+      final int[] ids = docTerms[doc];
+      for (int i = 0; i < ids.length; i++) {
+        final int occurrence = next[ids[i]]++;
+        occurrenceDocs[occurrence] = doc;
+        positions[occurrence] = i;
+      }
+    }
+
+    // one posting per run of occurrences of a term in the same doc
+    int postingCount = 0;
+    for (int occurrence = 0, t = 0; occurrence < tokenCount; occurrence++) {
+      while (occurrenceStarts[t + 1] <= occurrence) {
+        t++;
+      }
+      if (occurrence == occurrenceStarts[t] || occurrenceDocs[occurrence - 1] != occurrenceDocs[occurrence]) {
+        postingCount++;
+      }
+    }
+    final int[] postingStarts = new int[terms.length + 1];
+    final int[] postingDocs = new int[postingCount];
+    final int[] postingFreqs = new int[postingCount];
+    final int[] positionStarts = new int[postingCount + 1];
+    int posting = 0;
+    for (int t = 0; t < terms.length; t++) {
+      postingStarts[t] = posting;
+      for (int occurrence = occurrenceStarts[t]; occurrence < occurrenceStarts[t + 1]; occurrence++) {
+        if (occurrence == occurrenceStarts[t] || occurrenceDocs[occurrence - 1] != occurrenceDocs[occurrence]) {
+          postingDocs[posting] = occurrenceDocs[occurrence];
+          positionStarts[posting] = occurrence;
+          posting++;
+        }
+        postingFreqs[posting - 1]++;
+      }
+    }
+    postingStarts[terms.length] = posting;
+    positionStarts[postingCount] = tokenCount;
+    return new GlossIndex(firstDocIds, docOffsets, docLengths, terms,
+        postingStarts, postingDocs, postingFreqs, positionStarts, positions);
+  }
+
+  /**
+   * @return {@code text} lowercased like the tokens of {@link #tokenize}, i.e., per {@code char}
+   *   and independent of the default locale; queries must be lowercased this way to match them
+   */
+  static String toLowerCase(final CharSequence text) {
+    final StringBuilder lowercased = new StringBuilder(text.length());
+    for (int i = 0, n = text.length(); i < n; i++) {
+      lowercased.append(Character.toLowerCase(text.charAt(i)));
+    }
+    return lowercased.toString();
+  }
+
+  /** @return the lowercased maximal runs of letters and digits in {@code text} */
+  static List<String> tokenize(final CharSequence text) {
+    final List<String> tokens = new ArrayList<>();
+    final StringBuilder token = new StringBuilder();
+    for (int i = 0, n = text.length(); i <= n; i++) {
+      final char c = i < n ? text.charAt(i) : ' ';
+      if (Character.isLetterOrDigit(c)) {
+        token.append(Character.toLowerCase(c));
+      } else if (token.length() > 0) {
+        tokens.add(token.toString());
+        token.setLength(0);
+      }
+    }
+    return tokens;
+  }
+
+  //
+  // Accessors
+  //
+
+  int docCount() {
+    return docOffsets.length;
+  }
+
+  int termCount() {
+    return terms.length;
+  }
+
+  POS docPOS(final int doc) {
+    int p = 0;
+    while (firstDocIds[p + 1] <= doc) {
+      p++;
+    }
+    return POS.CATS.get(p);
+  }
+
+  int docOffset(final int doc) {
+    return docOffsets[doc];
+  }
+
+  //
+  // Searching
+  //
+
+  /**
+   * Ranks the docs of {@code pos} matching every clause of {@code query} by BM25 score; docs with equal
+   * scores are in doc id order.
+   * @return matching doc ids, best first
+   */
+  int[] search(final Query query, final POS pos) {
+    if (query.clauses.isEmpty()) {
+      return new int[0];
+    }
+    Matches matches = null;
+    for (final Clause clause : query.clauses) {
+      final Matches clauseMatches = clause.match(this);
+      matches = matches == null ? clauseMatches : matches.intersect(clauseMatches);
+      if (matches.size == 0) {
+        break;
+      }
+    }
+    matches = matches.restrict(fromDoc(pos), toDoc(pos));
+    final Integer[] order = new Integer[matches.size];
+    for (int i = 0; i < order.length; i++) {
+      order[i] = i;
+    }
+    final Matches ranked = matches;
+    // stable, so equal scores stay in doc id order
+    Arrays.sort(order, (i, j) -> Double.compare(ranked.scores[j], ranked.scores[i]));
+    final int[] docs = new int[order.length];
+    for (int i = 0; i < docs.length; i++) {
+      docs[i] = matches.docs[order[i]];
+    }
+    return docs;
+  }
+
+  /**
+   * @param lowercasedLiteral letters and digits only
+   * @return ids of the docs of {@code pos} with a token containing {@code lowercasedLiteral}, ascending;
+   *   a superset of the docs whose gloss contains it (with any case)
+   */
+  int[] docsContaining(final String lowercasedLiteral, final POS pos) {
+    final int from = fromDoc(pos);
+    final int to = toDoc(pos);
+    final boolean[] seen = new boolean[to - from];
+    int count = 0;
+    for (int t = 0; t < terms.length; t++) {
+      if (terms[t].contains(lowercasedLiteral)) {
+        for (int posting = postingStarts[t]; posting < postingStarts[t + 1]; posting++) {
+          final int doc = postingDocs[posting];
+          if (doc >= from && doc < to && ! seen[doc - from]) {
+            seen[doc - from] = true;
+            count++;
+          }
+        }
+      }
+    }
+    final int[] docs = new int[count];
+    for (int doc = from, i = 0; i < count; doc++) {
+      if (seen[doc - from]) {
+        docs[i++] = doc;
+      }
+    }
+    return docs;
+  }
+
+  private int fromDoc(final POS pos) {
+    return pos == POS.ALL ? 0 : firstDocIds[SynsetIds.posIndex(pos)];
+  }
+
+  private int toDoc(final POS pos) {
+    return pos == POS.ALL ? docCount() : firstDocIds[SynsetIds.posIndex(pos) + 1];
+  }
+
+  private int findTerm(final String term) {
+    return Arrays.binarySearch(terms, term);
+  }
+
+  private double idf(final int term) {
+    final int df = postingStarts[term + 1] - postingStarts[term];
+    return Math.log(1 + (docCount() - df + 0.5) / (df + 0.5));
+  }
+
+  private double bm25(final double idf, final int tf, final int doc) {
+    return idf * tf * (K1 + 1) / (tf + K1 * (1 - B + B * docLengths[doc] / averageDocLength));
+  }
+
+  /** @return docs containing {@code term} */
+  private Matches matchTerm(final String term) {
+    final int t = findTerm(term);
+    if (t < 0) {
+      return Matches.EMPTY;
+    }
+    final int start = postingStarts[t];
+    final Matches matches = new Matches(postingStarts[t + 1] - start);
+    final double idf = idf(t);
+    for (int i = 0; i < matches.size; i++) {
+      matches.docs[i] = postingDocs[start + i];
+      matches.scores[i] = bm25(idf, postingFreqs[start + i], matches.docs[i]);
+    }
+    return matches;
+  }
+
+  /** @return docs containing a term starting with {@code prefix}, scored by the sum of the matching terms */
+  private Matches matchPrefix(final String prefix) {
+    int t = findTerm(prefix);
+    if (t < 0) {
+      t = -(t + 1);
+    }
+    final int from = t;
+    while (t < terms.length && terms[t].startsWith(prefix)) {
+      t++;
+    }
+    final int to = t;
+    final int postingCount = postingStarts[to] - postingStarts[from];
+    // sort (doc, posting) pairs by doc, then merge scores of the same doc
+    final long[] docPostings = new long[postingCount];
+    final double[] postingScores = new double[postingCount];
+    for (int term = from, i = 0; term < to; term++) {
+      final double idf = idf(term);
+      for (int posting = postingStarts[term]; posting < postingStarts[term + 1]; posting++, i++) {
+        docPostings[i] = (long) postingDocs[posting] << 32 | i;
+        postingScores[i] = bm25(idf, postingFreqs[posting], postingDocs[posting]);
+      }
+    }
+    Arrays.sort(docPostings);
+    final Matches matches = new Matches(postingCount);
+    int size = 0;
+    for (final long docPosting : docPostings) {
+      final int doc = (int) (docPosting >>> 32);
+      final double score = postingScores[(int) docPosting];
+      if (size > 0 && matches.docs[size - 1] == doc) {
+        matches.scores[size - 1] += score;
+      } else {
+        matches.docs[size] = doc;
+        matches.scores[size] = score;
+        size++;
+      }
+    }
+    matches.size = size;
+    return matches;
+  }
+
+  /**
+   * @return docs containing the consecutive {@code phrase} terms, scored as if each term occurred
+   *   as many times as the phrase does
+   */
+  private Matches matchPhrase(final List<String> phrase) {
+    final int n = phrase.size();
+    final int[] phraseTerms = new int[n];
+    final int[] cursors = new int[n];
+    double idf = 0;
+    for (int i = 0; i < n; i++) {
+      phraseTerms[i] = findTerm(phrase.get(i));
+      if (phraseTerms[i] < 0) {
+        return Matches.EMPTY;
+      }
+      cursors[i] = postingStarts[phraseTerms[i]];
+      idf += idf(phraseTerms[i]);
+    }
+    final int firstEnd = postingStarts[phraseTerms[0] + 1];
+    final Matches matches = new Matches(firstEnd - cursors[0]);
+    int size = 0;
+    postings:
+    for (; cursors[0] < firstEnd; cursors[0]++) {
+      final int doc = postingDocs[cursors[0]];
+      // advance every other term to doc
+      for (int i = 1; i < n; i++) {
+        final int end = postingStarts[phraseTerms[i] + 1];
+        while (cursors[i] < end && postingDocs[cursors[i]] < doc) {
+          cursors[i]++;
+        }
+        if (cursors[i] == end) {
+          break postings;
+        }
+        if (postingDocs[cursors[i]] != doc) {
+          continue postings;
+        }
+      }
+      int phraseFreq = 0;
+      for (int p = positionStarts[cursors[0]]; p < positionStarts[cursors[0] + 1]; p++) {
+        boolean consecutive = true;
+        for (int i = 1; i < n && consecutive; i++) {
+          consecutive = Arrays.binarySearch(positions, positionStarts[cursors[i]], positionStarts[cursors[i] + 1],
+              positions[p] + i) >= 0;
+        }
+        if (consecutive) {
+          phraseFreq++;
+        }
+      }
+      if (phraseFreq > 0) {
+        matches.docs[size] = doc;
+        matches.scores[size] = bm25(idf, phraseFreq, doc);
+        size++;
+      }
+    }
+    matches.size = size;
+    return matches;
+  }
+
+  /** scored doc ids, ascending */
+  private static final class Matches {
+    static final Matches EMPTY = new Matches(0);
+    final int[] docs;
+    final double[] scores;
+    int size;
+
+    Matches(final int capacity) {
+      this.docs = new int[capacity];
+      this.scores = new double[capacity];
+      this.size = capacity;
+    }
+
+    /** @return docs in both {@code this} and {@code that}, with their scores summed */
+    Matches intersect(final Matches that) {
+      final Matches both = new Matches(Math.min(size, that.size));
+      int size = 0;
+      for (int i = 0, j = 0; i < this.size && j < that.size; ) {
+        if (docs[i] < that.docs[j]) {
+          i++;
+        } else if (docs[i] > that.docs[j]) {
+          j++;
+        } else {
+          both.docs[size] = docs[i];
+          both.scores[size] = scores[i] + that.scores[j];
+          size++;
+          i++;
+          j++;
+        }
+      }
+      both.size = size;
+      return both;
+    }
+
+    /** @return docs in {@code [from, to)} */
+    Matches restrict(final int from, final int to) {
+      int start = 0;
+      while (start < size && docs[start] < from) {
+        start++;
+      }
+      int end = start;
+      while (end < size && docs[end] < to) {
+        end++;
+      }
+      final Matches restricted = new Matches(end - start);
+      System.arraycopy(docs, start, restricted.docs, 0, restricted.size);
+      System.arraycopy(scores, start, restricted.scores, 0, restricted.size);
+      return restricted;
+    }
+  } // end class Matches
+
+  //
+  // Queries
+  //
+
+  /**
+   * A parsed gloss query: whitespace separated clauses, all of which must match.  A clause is a
+   * term ({@code dog}), a prefix ({@code canin*}) or a quoted phrase ({@code "domestic dog"}); a term
+   * which tokenizes into several tokens (e.g., {@code well-known}) is a phrase.  Matching is case
+   * insensitive.
+   */
+  static final class Query {
+    private final List<Clause> clauses;
+    private final List<Pattern> verifiers;
+
+    private Query(final List<Clause> clauses) {
+      this.clauses = clauses;
+      this.verifiers = new ArrayList<>(clauses.size());
+      for (final Clause clause : clauses) {
+        verifiers.add(clause.verifier());
+      }
+    }
+
+    static Query parse(final CharSequence query) {
+      final List<Clause> clauses = new ArrayList<>();
+      final String text = query.toString();
+      int i = 0;
+      while (i < text.length()) {
+        if (Character.isWhitespace(text.charAt(i))) {
+          i++;
+        } else if (text.charAt(i) == '"') {
+          int end = text.indexOf('"', i + 1);
+          if (end < 0) {
+            end = text.length();
+          }
+          addClause(clauses, tokenize(text.substring(i + 1, end)), false);
+          i = end + 1;
+        } else {
+          int end = i;
+          while (end < text.length() && ! Character.isWhitespace(text.charAt(end))) {
+            end++;
+          }
+          final String word = text.substring(i, end);
+          final boolean prefix = word.endsWith("*");
+          addClause(clauses, tokenize(word), prefix);
+          i = end;
+        }
+      }
+      return new Query(clauses);
+    }
+
+    private static void addClause(final List<Clause> clauses, final List<String> tokens, final boolean prefix) {
+      if (tokens.size() == 1) {
+        clauses.add(new Clause(tokens, prefix));
+      } else if (tokens.size() > 1) {
+        // a prefix only applies to a single token
+        clauses.add(new Clause(tokens, false));
+      }
+    }
+
+    /**
+     * Verifies a candidate the way a regular expression scan would, guarding against
+     * any disagreement between the index and the gloss text.
+     * @return whether {@code gloss} matches every clause of this query
+     */
+    boolean matches(final CharSequence gloss) {
+      for (final Pattern verifier : verifiers) {
+        if (! verifier.matcher(gloss).find()) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    @Override
+    public String toString() {
+      return clauses.toString();
+    }
+  } // end class Query
+
+  private static final class Clause {
+    private final List<String> tokens;
+    private final boolean prefix;
+
+    Clause(final List<String> tokens, final boolean prefix) {
+      this.tokens = tokens;
+      this.prefix = prefix;
+    }
+
+    Matches match(final GlossIndex index) {
+      if (prefix) {
+        return index.matchPrefix(tokens.get(0));
+      } else if (tokens.size() == 1) {
+        return index.matchTerm(tokens.get(0));
+      } else {
+        return index.matchPhrase(tokens);
+      }
+    }
+
+    /** @return pattern of this clause over gloss text, with the same token boundaries as {@link #tokenize} */
+    Pattern verifier() {
+      final StringBuilder regex = new StringBuilder("(?<![\\p{L}\\p{Nd}])");
+      for (int i = 0; i < tokens.size(); i++) {
+        if (i > 0) {
+          regex.append("[^\\p{L}\\p{Nd}]+");
+        }
+        regex.append(Pattern.quote(tokens.get(i)));
+      }
+      if (! prefix) {
+        regex.append("(?![\\p{L}\\p{Nd}])");
+      }
+      return Pattern.compile(regex.toString(), Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE);
+    }
+
+    @Override
+    public String toString() {
+      return prefix ? tokens.get(0) + "*" : tokens.size() == 1 ? tokens.get(0) : '"' + String.join(" ", tokens) + '"';
+    }
+  } // end class Clause
+} // end class GlossIndex
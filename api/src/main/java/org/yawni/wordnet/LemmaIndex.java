@@ -0,0 +1,193 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.yawni.wordnet;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Minimal perfect hash from the lemmas of an <code>index.<em>pos</em></code> file to the offsets
+ * of their lines, built with the CHD ("compress, hash, displace") algorithm: each lemma hashes to
+ * a bucket, and each bucket stores the seed which places all of its lemmas in distinct slots.
+ * Each slot also stores a 32-bit fingerprint of its lemma, so {@link #get(CharSequence)}
+ * rejects undefined lemmas (other than with probability 2<sup>-32</sup>) without
+ * allocating or touching the index file.
+ *
+ * <p> Lemmas are normalized like {@link WordNetLexicalComparator#TO_LOWERCASE_INSTANCE}:
+ * lowercased, with spaces and underscores equivalent.
+ *
+ * <p> Instances are typically serialized by a build-time utility and packaged as
+ * <code>dict/<em>POS</em>.mph</code> next to the {@link org.yawni.util.cache.BloomFilter}s
+ * in the {@code yawni-wordnet-data*} jars.
+ */
+final class LemmaIndex implements Serializable {
+  private static final long serialVersionUID = 1;
+
+  /** average lemmas per bucket */
+  private static final int BUCKET_SIZE = 4;
+  private static final int MAX_SEED = 1 << 24;
+
+  private final int indexFileLength;
+  private final int[] seeds;
+  private final int[] fingerprints;
+  private final int[] offsets;
+
+  private LemmaIndex(final int indexFileLength, final int[] seeds, final int[] fingerprints, final int[] offsets) {
+    this.indexFileLength = indexFileLength;
+    this.seeds = seeds;
+    this.fingerprints = fingerprints;
+    this.offsets = offsets;
+  }
+
+  /**
+   * @param lemmas distinct lemmas
+   * @param offsets {@code offsets[i]} is the offset of {@code lemmas.get(i)}
+   * @param indexFileLength length of the <code>index.<em>pos</em></code> file the offsets refer to
+   * @throws IllegalArgumentException if {@code lemmas} contains duplicates
+   */
+  static LemmaIndex build(final List<? extends CharSequence> lemmas, final int[] offsets, final int indexFileLength) {
+    checkArgument(lemmas.size() == offsets.length, "%s lemmas but %s offsets", lemmas.size(), offsets.length);
+    final int n = lemmas.size();
+    final long[] hashes = new long[n];
+    final Set<Long> distinct = new HashSet<>();
+    for (int i = 0; i < n; i++) {
+      hashes[i] = hash(lemmas.get(i));
+      checkArgument(distinct.add(hashes[i]), "duplicate lemma %s", lemmas.get(i));
+    }
+
+    final int bucketCount = Math.max(1, n / BUCKET_SIZE);
+    final List<List<Integer>> buckets = new ArrayList<>(bucketCount);
+    for (int b = 0; b < bucketCount; b++) {
+      buckets.add(new ArrayList<>(BUCKET_SIZE));
+    }
+    for (int i = 0; i < n; i++) {
+      buckets.get(bucket(hashes[i], bucketCount)).add(i);
+    }
+    // place the largest (hardest) buckets first, while most slots are free
+    final Integer[] order = new Integer[bucketCount];
+    for (int b = 0; b < bucketCount; b++) {
+      order[b] = b;
+    }
+    Arrays.sort(order, (b1, b2) -> buckets.get(b2).size() - buckets.get(b1).size());
+
+    final int[] seeds = new int[bucketCount];
+    final int[] fingerprints = new int[n];
+    final int[] slotOffsets = new int[n];
+    final boolean[] taken = new boolean[n];
+    final int[] slots = new int[n == 0 ? 0 : buckets.get(order[0]).size()];
+    for (final int b : order) {
+      final List<Integer> bucket = buckets.get(b);
+      if (bucket.isEmpty()) {
+        break;
+      }
+      int seed = 0;
+      while (! place(bucket, hashes, seed, taken, slots)) {
+        seed++;
+        if (seed == MAX_SEED) {
+          throw new IllegalStateException("no seed places bucket of "+bucket.size()+" lemmas");
+        }
+      }
+      seeds[b] = seed;
+      for (int k = 0; k < bucket.size(); k++) {
+        final int i = bucket.get(k);
+        taken[slots[k]] = true;
+        fingerprints[slots[k]] = (int) hashes[i];
+        slotOffsets[slots[k]] = offsets[i];
+      }
+    }
+    return new LemmaIndex(indexFileLength, seeds, fingerprints, slotOffsets);
+  }
+
+  // computes slots of bucket's lemmas for seed, returning true if they're all free and distinct
+  private static boolean place(final List<Integer> bucket, final long[] hashes, final int seed,
+      final boolean[] taken, final int[] slots) {
+    for (int k = 0; k < bucket.size(); k++) {
+      final int slot = slot(hashes[bucket.get(k)], seed, taken.length);
+      if (taken[slot]) {
+        return false;
+      }
+      for (int j = 0; j < k; j++) {
+        if (slots[j] == slot) {
+          return false;
+        }
+      }
+      slots[k] = slot;
+    }
+    return true;
+  }
+
+  /**
+   * @return offset of line in <code>index.<em>pos</em></code> whose lemma is {@code lemma},
+   * or {@code -1} if {@code lemma} is (almost certainly) not defined
+   */
+  int get(final CharSequence lemma) {
+    final int n = offsets.length;
+    if (n == 0) {
+      return -1;
+    }
+    final long hash = hash(lemma);
+    final int slot = slot(hash, seeds[bucket(hash, seeds.length)], n);
+    return fingerprints[slot] == (int) hash ? offsets[slot] : -1;
+  }
+
+  int size() {
+    return offsets.length;
+  }
+
+  /** length of the <code>index.<em>pos</em></code> file this index was built from */
+  int getIndexFileLength() {
+    return indexFileLength;
+  }
+
+  private static int bucket(final long hash, final int bucketCount) {
+    return (int) ((hash >>> 33) % bucketCount);
+  }
+
+  private static int slot(final long hash, final int seed, final int n) {
+    return (int) ((mix(hash ^ (seed * 0x9e3779b97f4a7c15L)) >>> 1) % n);
+  }
+
+  /** 64-bit FNV-1a of the normalized lemma, finalized with MurmurHash3's {@code fmix64} */
+  static long hash(final CharSequence lemma) {
+    long hash = 0xcbf29ce484222325L;
+    for (int i = 0, n = lemma.length(); i < n; i++) {
+      final char c = lemma.charAt(i);
+      hash ^= Character.toLowerCase(c == ' ' ? '_' : c);
+      hash *= 0x100000001b3L;
+    }
+    return mix(hash);
+  }
+
+  private static long mix(long hash) {
+    hash ^= hash >>> 33;
+    hash *= 0xff51afd7ed558ccdL;
+    hash ^= hash >>> 33;
+    hash *= 0xc4ceb9fe1a85ec53L;
+    return hash ^ (hash >>> 33);
+  }
+
+  @Override
+  public String toString() {
+    return "[LemmaIndex size: " + offsets.length + " buckets: " + seeds.length + "]";
+  }
+} // end class LemmaIndex
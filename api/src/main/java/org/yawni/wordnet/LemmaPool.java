@@ -0,0 +1,174 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.yawni.wordnet;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Global pool of the lemmas of {@link Word}s, {@link WordSense}s and {@link Morphy} exception list
+ * base forms, so each surface form is a single {@code String} shared by every cached object (and every
+ * {@code WordNet} instance), and lemmas parsed again, e.g., when an evicted {@code Synset} is re-read,
+ * are found rather than allocated.  Pooled lemmas may be compared by identity.
+ *
+ * <p> An open addressing table of {@code String}s: lookups are lock-free ({@code String}s are immutable
+ * and the table is published by a volatile write; a lookup racing an addition just misses and retries
+ * under the lock) and additions, which stop once the lexicon has been seen, are synchronized.  Only
+ * lemmas from the WordNet data files are pooled, never query strings, so the pool is bounded by the size of
+ * the lexicon.  Lemmas are (almost all) Latin-1, so compact strings (JDK 9+) store them as bytes.
+ */
+final class LemmaPool {
+  private static final int INITIAL_CAPACITY = 1 << 16;
+  private static final LemmaPool INSTANCE = new LemmaPool(INITIAL_CAPACITY);
+
+  /** capacity is a power of 2, at least twice {@link #size} */
+  private volatile String[] table;
+  /** guarded by {@code this} */
+  private int size;
+
+  /** package private for testing; all other use is of the global pool through the static methods */
+  LemmaPool(final int capacity) {
+    Preconditions.checkArgument(Integer.bitCount(capacity) == 1, "capacity %s isn't a power of 2", capacity);
+    this.table = new String[capacity];
+  }
+
+  /** @return the pooled {@code String} equal to {@code lemma} */
+  static String intern(final CharSequence lemma) {
+    return INSTANCE.intern(lemma, 0, lemma.length(), false);
+  }
+
+  /**
+   * @return the pooled {@code String} equal to {@code chars[start, end)} with its underscores
+   *   replaced by spaces, as in {@link Morphy#underScoreToSpace}
+   */
+  static String internUnderScoreToSpace(final CharSequence chars, final int start, final int end) {
+    return INSTANCE.intern(chars, start, end, true);
+  }
+
+  /** @see #internUnderScoreToSpace(CharSequence, int, int) */
+  static String internUnderScoreToSpace(final CharSequence chars) {
+    return INSTANCE.intern(chars, 0, chars.length(), true);
+  }
+
+  /** @return number of lemmas in this pool */
+  synchronized int size() {
+    return size;
+  }
+
+  /** @return capacity of this pool's table */
+  int capacity() {
+    return table.length;
+  }
+
+  /** @see #internUnderScoreToSpace(CharSequence, int, int) */
+  String intern(final CharSequence chars, final int start, final int end, final boolean underScoreToSpace) {
+    final int hash;
+    if (chars instanceof String && start == 0 && end == chars.length() && ! underScoreToSpace) {
+      // cached, and usually this String is already pooled
+      hash = chars.hashCode();
+    } else {
+      int h = 0;
+      for (int i = start; i < end; i++) {
+        h = 31 * h + charAt(chars, i, underScoreToSpace);
+      }
+      hash = h;
+    }
+    // lock-free common case
+    final String pooled = find(table, chars, start, end, underScoreToSpace, hash);
+    if (pooled != null) {
+      return pooled;
+    }
+    synchronized (this) {
+      String[] local = table;
+      String lemma = find(local, chars, start, end, underScoreToSpace, hash);
+      if (lemma != null) {
+        return lemma;
+      }
+      if (chars instanceof String && start == 0 && end == chars.length() && (! underScoreToSpace || ((String) chars).indexOf('_') < 0)) {
+        lemma = (String) chars;
+      } else {
+        final char[] lemmaChars = new char[end - start];
+        for (int i = start; i < end; i++) {
+          lemmaChars[i - start] = charAt(chars, i, underScoreToSpace);
+        }
+        lemma = new String(lemmaChars);
+      }
+      if (2 * (size + 1) > local.length) {
+        local = resize(local);
+      }
+      local[slot(local, hash)] = lemma;
+      size++;
+      // publish
+      table = local;
+      return lemma;
+    }
+  }
+
+  private static String find(final String[] table, final CharSequence chars, final int start, final int end,
+      final boolean underScoreToSpace, final int hash) {
+    final int mask = table.length - 1;
+    for (int i = CompiledDictionary.mix(hash) & mask; ; i = (i + 1) & mask) {
+      final String candidate = table[i];
+      if (candidate == null) {
+        return null;
+      }
+      if (candidate.hashCode() == hash && matches(candidate, chars, start, end, underScoreToSpace)) {
+        return candidate;
+      }
+    }
+  }
+
+  private static boolean matches(final String candidate, final CharSequence chars, final int start, final int end,
+      final boolean underScoreToSpace) {
+    if (candidate == chars) {
+      return true;
+    }
+    if (candidate.length() != end - start) {
+      return false;
+    }
+    for (int i = start; i < end; i++) {
+      if (candidate.charAt(i - start) != charAt(chars, i, underScoreToSpace)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static char charAt(final CharSequence chars, final int index, final boolean underScoreToSpace) {
+    final char c = chars.charAt(index);
+    return underScoreToSpace && c == '_' ? ' ' : c;
+  }
+
+  /** @return first empty slot for {@code hash} in {@code table} */
+  private static int slot(final String[] table, final int hash) {
+    final int mask = table.length - 1;
+    int i = CompiledDictionary.mix(hash) & mask;
+    while (table[i] != null) {
+      i = (i + 1) & mask;
+    }
+    return i;
+  }
+
+  private static String[] resize(final String[] table) {
+    final String[] resized = new String[2 * table.length];
+    for (final String lemma : table) {
+      if (lemma != null) {
+        resized[slot(resized, lemma.hashCode())] = lemma;
+      }
+    }
+    return resized;
+  }
+} // end class LemmaPool
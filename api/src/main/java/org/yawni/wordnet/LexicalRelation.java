@@ -20,18 +20,8 @@ package org.yawni.wordnet;
  * A {@code LexicalRelation} encodes a lexical relationship between {@link WordSense}s.
  */
 public final class LexicalRelation extends Relation {
-  LexicalRelation(final int targetOffset, final int targetIndex, final POS targetPOS, final WordNet wordNet,
-      final int sourceRelationIndex, final int sourceOffset, final int sourceIndex, final POS sourcePOS,
-      final RelationType relationType) {
-    super(targetOffset, targetIndex, targetPOS, wordNet,
-        sourceRelationIndex, sourceOffset, sourceIndex, sourcePOS, relationType);
-  }
-
-  /**
-   * Copy constructor to create Relation with equal source and target, but different type
-   */
-  LexicalRelation(final LexicalRelation that, final RelationType relationType, final int relationIndex) {
-    super(that, relationType, relationIndex);
+  LexicalRelation(final Synset synset, final int sourceRelationIndex) {
+    super(synset, sourceRelationIndex);
   }
 
   @Override
@@ -18,15 +18,19 @@
 package org.yawni.wordnet;
 
 import com.google.common.base.CharMatcher;
+import com.google.common.collect.ImmutableMap;
 import org.yawni.util.cache.Cache;
+import org.yawni.util.cache.CacheMetrics;
 //import java.text.Normalizer.Form;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.yawni.util.LightImmutableList;
-import org.yawni.util.cache.Caches;
 import org.yawni.util.CharSequenceTokenizer;
 import org.yawni.util.Utils;
 import org.yawni.wordnet.WordNet.DatabaseKey;
@@ -97,12 +101,17 @@ class Morphy {
 
   private final WordNet dictionary;
   private final Cache<DatabaseKey, LightImmutableList<String>> morphyCache;
-
-  Morphy(final WordNet dictionary) {
+  private final CacheMetrics morphyCacheMetrics;
+  /** successful uses of each SUFX / ADDR detachment rule */
+  private final LongAdder[] ruleHits = newCounters(SUFX.length);
+  /** successful exception list lookups, by {@code POS.CATS} position */
+  private final LongAdder[] exceptionHits = newCounters(POS.CATS.size());
+
+  Morphy(final WordNet dictionary, final Cache<DatabaseKey, LightImmutableList<String>> morphyCache,
+      final CacheMetrics morphyCacheMetrics) {
     this.dictionary = dictionary;
-    // 0 capacity is for performance debugging
-    final int morphyCacheCapacity = WordNet.DEFAULT_CACHE_CAPACITY;
-    this.morphyCache = Caches.withCapacity(morphyCacheCapacity);
+    this.morphyCache = morphyCache;
+    this.morphyCacheMetrics = morphyCacheMetrics;
   }
 
   /**
@@ -118,6 +127,10 @@ class Morphy {
    * {@link WordNet.SearchByPrefixIterator}.
    */
   static String searchNormalize(String origstr) {
+    if (isSearchNormalized(origstr)) {
+      // common case: nothing to do, so don't copy
+      return origstr;
+    }
     final int underscore = origstr.indexOf('_');
     final int dash = origstr.indexOf('-');
     final int space = origstr.indexOf(' ');
@@ -142,6 +155,31 @@ class Morphy {
     return toReturn;
   }
 
+  /**
+   * Conservative (ASCII only) test for {@code s} already being in {@link #searchNormalize(String)}'d
+   * form: non-empty, no uppercase letters or whitespace, and '_' and '-' only between other characters,
+   * with no runs of '_'.
+   */
+  private static boolean isSearchNormalized(final String s) {
+    final int n = s.length();
+    if (n == 0) {
+      return false;
+    }
+    for (int i = 0; i < n; i++) {
+      final char c = s.charAt(i);
+      if (c >= 0x80 || (c >= 'A' && c <= 'Z') || c <= ' ' || c == 0x7F) {
+        return false;
+      }
+      if ((c == '_' || c == '-') && (i == 0 || i == n - 1)) {
+        return false;
+      }
+      if (c == '_' && s.charAt(i - 1) == '_') {
+        return false;
+      }
+    }
+    return true;
+  }
+
   private static final CharMatcher DASH_OR_UNDERSCORE = CharMatcher.anyOf("_-");
   private static final CharMatcher WN_WHITESPACE = CharMatcher.whitespace().or(CharMatcher.breakingWhitespace()).or(CharMatcher.is('_'));
   private static final CharMatcher SPACE = CharMatcher.is(' ');
@@ -187,6 +225,7 @@ class Morphy {
       return cached;
     }
 
+    final long start = System.nanoTime();
     // Assume string hasn't had spaces substituted with '_'
     final String str = searchNormalize(origstr);
     if (str.length() == 0) {
@@ -208,6 +247,7 @@ class Morphy {
     // First try exception list
     LightImmutableList<String> tmp = dictionary.getExceptions(str, pos);
     if (! tmp.isEmpty() && ! tmp.get(1).equals(str)) {
+      exceptionHits[pos.ordinal() - 1].increment();
       // force next time to pass null
       svcnt = 1;
       // add variants from exception list
@@ -215,7 +255,7 @@ class Morphy {
       //  e.g., input: "saw" output: "see", "saw"
       // ONLY root: toReturn.add(underScoreToSpace(tmp[1]));
       for (int i = tmp.size() - 1; i >= 0; i--) {
-        toReturn.add(underScoreToSpace(tmp.get(i)));
+        toReturn.add(LemmaPool.internUnderScoreToSpace(tmp.get(i)));
       }
       phase1Done = true;
     }
@@ -344,16 +384,19 @@ class Morphy {
 
       assert searchstr != null;
 
+      final String lastWordStr;
       if (! morphWords.isEmpty()) {
         checkLosingVariants(morphWords, "morphstr()");
         assert morphWords.get(0) != null;
-        searchstr += morphWords.get(0);
+        lastWordStr = morphWords.get(0);
       } else {
         // morphWords isEmpty()
         assert wordStr != null;
         //LN is this adding the last word of the collocation ?
-        searchstr += wordStr;
+        lastWordStr = wordStr;
       }
+      // single word: don't copy
+      searchstr = searchstr.isEmpty() ? lastWordStr : searchstr + lastWordStr;
       // all words in given collocation have been stemmed
       if (log.isDebugEnabled()) {
         log.debug("searchstr: \""+searchstr+"\" origWordCount: "+origWordCount+" "+pos);
@@ -370,12 +413,14 @@ class Morphy {
         addTrueCaseLemmas(word, toReturn);
       } else if (origWordCount > 1) {
         log.trace("trying getindex logic on \"{}\" {}", searchstr, pos);
-        for (final CharSequence variant : new GetIndex(searchstr, pos, this)) {
-          final String variantString = variant.toString();
-          log.trace("trying variant:\"{}\"", variantString);
-          word = is_defined(variantString, pos);
+        final GetIndex variants = new GetIndex(searchstr, pos, this);
+        final StringBuilder buffer = new StringBuilder(searchstr);
+        for (int i = 0, n = variants.size(); i < n; i++) {
+          final CharSequence variant = variants.get(i, buffer);
+          log.trace("trying variant:\"{}\"", variant);
+          word = is_defined(variant, pos);
           if (word != null) {
-            log.debug("variant hit!:\"{}\"", variantString);
+            log.debug("variant hit!:\"{}\"", variant);
             addTrueCaseLemmas(word, toReturn);
             break;
           }
@@ -400,7 +445,7 @@ class Morphy {
       //assert ! toReturn.isEmpty(); // we should already have added 1 thing right ?
       tmp = dictionary.getExceptions(str, pos);
       for (int i = 1; i < tmp.size(); i++) {
-        toReturn.add(underScoreToSpace(tmp.get(i)));
+        toReturn.add(LemmaPool.internUnderScoreToSpace(tmp.get(i)));
       }
     } else {
       //svcnt = 1; // LN pushes us back to above case (for subsequent calls) all this is destined for death anyway
@@ -408,7 +453,7 @@ class Morphy {
       tmp = dictionary.getExceptions(str, pos);
       if (! tmp.isEmpty() && ! tmp.get(1).equals(str)) {
         for (int i = 1; i < tmp.size(); i++) {
-          toReturn.add(underScoreToSpace(tmp.get(i)));
+          toReturn.add(LemmaPool.internUnderScoreToSpace(tmp.get(i)));
         }
       }
     }
@@ -421,6 +466,7 @@ class Morphy {
     //
     final LightImmutableList<String> uniqed = LightImmutableList.copyOf(Utils.dedup(toReturn));
     morphyCache.put(cacheKey, uniqed);
+    morphyCacheMetrics.recordLoad(System.nanoTime() - start);
     if (log.isDebugEnabled()) {
       log.debug("returning "+uniqed+" for origstr: \""+origstr+"\" "+pos+" str: "+str);
     }
@@ -439,7 +485,7 @@ class Morphy {
    * (C version in {@code search.c} only returns {@code true}/{@code false})
    * <p> Similar to C function {@code index_lookup()}
    */
-  Word is_defined(final String lemma, final POS pos) {
+  Word is_defined(final CharSequence lemma, final POS pos) {
     log.trace("is_defined lemma: {} {}", lemma, pos);
     return dictionary.lookupWord(lemma, pos);
   }
@@ -456,6 +502,7 @@ class Morphy {
     // first look for word on exception list
     final LightImmutableList<String> tmp = dictionary.getExceptions(wordStr, pos);
     if (! tmp.isEmpty()) {
+      exceptionHits[pos.ordinal() - 1].increment();
       // found it in exception list
       // LN skips first one because of modified getExceptions semantics
       return tmp.subList(1, tmp.size());
@@ -466,11 +513,12 @@ class Morphy {
       return LightImmutableList.of();
     }
 
-    String tmpbuf = null;
+    // tmpbuf is wordStr[0, tmpbufLength)
+    int tmpbufLength = wordStr.length();
     String end = "";
     if (pos == POS.NOUN) {
       if (wordStr.endsWith("ful")) {
-        tmpbuf = wordStr.substring(0, wordStr.length() - "ful".length());
+        tmpbufLength -= "ful".length();
         end = "ful";
         // special case for *ful "boxesful" → "boxful"
       } else if (wordStr.length() <= 2 || wordStr.endsWith("ss")) {
@@ -479,53 +527,113 @@ class Morphy {
       }
     }
 
-    if (tmpbuf == null) {
-      tmpbuf = wordStr;
-    }
-
     // If not in exception list, try applying rules from tables
 
     final int offset = OFFSETS[pos.getWordNetCode()];
     final int cnt = CNTS[pos.getWordNetCode()];
-    String lastRetval = null;
+    final Candidate retval = CANDIDATE.get();
     for (int i = 0; i < cnt; i++) {
-      final String retval = wordbase(tmpbuf, (i + offset));
-      if (lastRetval != null) {
-        // added a little caching
-        if (lastRetval.equals(retval)) {
-          continue;
-        }
-      } else {
-        lastRetval = retval;
-      }
-      if (retval.equals(tmpbuf)) {
+      if (! wordbase(wordStr, tmpbufLength, (i + offset), retval)) {
         continue;
       }
       log.trace("trying retval: {}", retval);
       final Word word = is_defined(retval, pos);
       if (word != null) {
+        ruleHits[i + offset].increment();
         if (log.isDebugEnabled()) {
           log.debug("returning retval+end: " + retval + end + " retval: \"" + retval + "\" end: \"" + end+"\"");
         }
-        return LightImmutableList.of(retval + end);
+        return LightImmutableList.of(retval.append(end, 0, end.length()).toString());
       }
     }
     return LightImmutableList.of();
   }
 
   /**
-   * Port of {@code morph.c wordbase()}.
+   * Port of {@code morph.c wordbase()}: if {@code word[0, length)} ends with
+   * {@code SUFX[enderIdx]}, sets {@code retval} to the form with that suffix replaced
+   * by {@code ADDR[enderIdx]}.
+   * @return {@code true} if {@code retval} was set to a form which differs from {@code word[0, length)}
    */
-  private String wordbase(final String word, final int enderIdx) {
-//    if (log.isTraceEnabled()) {
-//      log.trace("word: "+word+" enderIdx: "+enderIdx);
-//    }
-    if (word.endsWith(SUFX[enderIdx])) {
-      return word.substring(0, word.length() - SUFX[enderIdx].length()) + ADDR[enderIdx];
-    }
-    return word;
+  private static boolean wordbase(final String word, final int length, final int enderIdx, final Candidate retval) {
+    final String suffix = SUFX[enderIdx];
+    final int stemLength = length - suffix.length();
+    if (stemLength < 0 || ! word.regionMatches(stemLength, suffix, 0, suffix.length())) {
+      return false;
+    }
+    retval.set(word, stemLength, ADDR[enderIdx]);
+    // e.g., "es" → "e" doesn't change "[...]e"
+    return ! retval.contentEquals(word, length);
   }
 
+  /** reusable per thread; Morphy is shared */
+  private static final ThreadLocal<Candidate> CANDIDATE = ThreadLocal.withInitial(Candidate::new);
+
+  /**
+   * Growable {@code CharSequence} buffer for candidate base forms; lets the detachment
+   * rules probe the index without creating a {@code String} per rule.
+   */
+  static final class Candidate implements CharSequence {
+    private char[] chars = new char[32];
+    private int length;
+
+    /** set to {@code s[0, end) + ending} */
+    Candidate set(final CharSequence s, final int end, final String ending) {
+      length = 0;
+      return append(s, 0, end).append(ending, 0, ending.length());
+    }
+
+    Candidate append(final CharSequence s, final int start, final int end) {
+      final int newLength = length + (end - start);
+      if (newLength > chars.length) {
+        chars = Arrays.copyOf(chars, Math.max(newLength, 2 * chars.length));
+      }
+      for (int i = start; i < end; i++) {
+        chars[length++] = s.charAt(i);
+      }
+      return this;
+    }
+
+    Candidate setLength(final int length) {
+      assert length <= this.length;
+      this.length = length;
+      return this;
+    }
+
+    /** @return {@code true} if this is equal to {@code s[0, end)} */
+    boolean contentEquals(final CharSequence s, final int end) {
+      if (length != end) {
+        return false;
+      }
+      for (int i = 0; i < length; i++) {
+        if (chars[i] != s.charAt(i)) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    @Override
+    public int length() {
+      return length;
+    }
+
+    @Override
+    public char charAt(final int index) {
+      return chars[index];
+    }
+
+    @Override
+    public CharSequence subSequence(final int start, final int end) {
+      return new String(chars, start, end - start);
+    }
+
+    @Override
+    public String toString() {
+      return new String(chars, 0, length);
+    }
+  } // end class Candidate
+
   /**
    * Find a preposition in the verb string and return its
    * corresponding word number.
@@ -625,29 +733,32 @@ class Morphy {
 
     final int offset = OFFSETS[POS.VERB.getWordNetCode()];
     final int cnt = CNTS[POS.VERB.getWordNetCode()];
+    final Candidate candidate = CANDIDATE.get();
     for (int i = 0; i < cnt; i++) {
-      final String exc_word = wordbase(firstWord, (i + offset));
-      if (exc_word != null && ! exc_word.equals(firstWord)) {
+      if (wordbase(firstWord, firstWord.length(), (i + offset), candidate)) {
         // ending is different
-        retval = exc_word + s.substring(rest);
+        final int excWordLength = candidate.length();
+        candidate.append(s, rest, s.length());
         if (log.isDebugEnabled()) {
-          log.debug("test retval "+retval);
+          log.debug("test retval "+candidate);
         }
         Word word;
-        if (null != (word = is_defined(retval, POS.VERB))) {
+        if (null != (word = is_defined(candidate, POS.VERB))) {
+          ruleHits[i + offset].increment();
           if (log.isDebugEnabled()) {
             log.debug("returning "+word);
           }
-          return retval;
+          return candidate.toString();
         } else if (! lastwd.isEmpty()) {
           assert end != null;
           assert end.charAt(0) == '_';
-          retval = exc_word + end;
-          if (null != (word = is_defined(retval, POS.VERB))) {
+          candidate.setLength(excWordLength).append(end, 0, end.length());
+          if (null != (word = is_defined(candidate, POS.VERB))) {
+            ruleHits[i + offset].increment();
             if (log.isDebugEnabled()) {
               log.debug("returning "+word);
             }
-            return retval;
+            return candidate.toString();
           }
         }
       }
@@ -703,4 +814,46 @@ class Morphy {
         return CharSequenceTokenizer.countTokens(s, SPACE_UNDERSCORE + separator);
     }
   }
+  //
+  // Metrics
+  //
+
+  private static LongAdder[] newCounters(final int length) {
+    final LongAdder[] counters = new LongAdder[length];
+    for (int i = 0; i < length; i++) {
+      counters[i] = new LongAdder();
+    }
+    return counters;
+  }
+
+  /**
+   * @return number of base forms found by each rule: each {@code POS}'s exception list
+   *   (e.g., {@code "VERB exceptions"}) and suffix detachment rules (e.g., {@code "NOUN -ies +y"}),
+   *   in {@code morph.c} order
+   */
+  Map<String, Long> getRuleHits() {
+    final ImmutableMap.Builder<String, Long> hits = ImmutableMap.builder();
+    for (final POS pos : POS.CATS) {
+      hits.put(pos.name() + " exceptions", exceptionHits[pos.ordinal() - 1].sum());
+    }
+    for (final POS pos : POS.CATS) {
+      final int code = pos.getWordNetCode();
+      if (code >= OFFSETS.length) {
+        continue;
+      }
+      for (int i = OFFSETS[code]; i < OFFSETS[code] + CNTS[code]; i++) {
+        hits.put(pos.name() + " -" + SUFX[i] + (ADDR[i].isEmpty() ? "" : " +" + ADDR[i]), ruleHits[i].sum());
+      }
+    }
+    return hits.build();
+  }
+
+  void resetMetrics() {
+    for (final LongAdder counter : ruleHits) {
+      counter.reset();
+    }
+    for (final LongAdder counter : exceptionHits) {
+      counter.reset();
+    }
+  }
 }
\ No newline at end of file
@@ -0,0 +1,391 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.yawni.wordnet;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.Lists;
+import com.google.common.primitives.Ints;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Personalized PageRank over every {@link Relation} of every synset (the random walk used by
+ * knowledge-based word sense disambiguation, e.g., UKB): from synsets chosen in proportion to a
+ * <em>seed</em> (teleport) distribution, a walker follows a random relation with probability
+ * {@linkplain #withDamping(double) the damping factor}, or jumps back to a seed otherwise.  The
+ * stationary distribution ranks synsets by how strongly the graph ties them to the seeds.
+ *
+ * <p> The relation graph is compiled once, on first use by {@link WordNet#getPageRank()}, into
+ * compressed sparse row arrays of each synset's <em>incoming</em> relations over compact synset ids
+ * (see {@link Taxonomy}), so each power iteration is a sparse matrix-vector product which
+ * {@link #rank(int[], double[])} splits across threads by ranges of synset ids.
+ * Relations may be {@linkplain #withWeight(RelationType, double) weighted by type}; a
+ * walker at a synset follows each of its relations with probability proportional to its weight.
+ * Synsets without (positively weighted) relations return their walkers to the seeds.
+ *
+ * <p> {@code PageRank}s are immutable and thread-safe, and all those derived from one
+ * {@code WordNet}'s share its compiled graph, so batches of contexts (e.g.,
+ * {@link #topK(List, int)}, which ranks contexts in parallel) don't recompile it.
+ * @yawni.experimental
+ */
+public final class PageRank {
+  /** synset ids per task of a parallel iteration */
+  private static final int CHUNK_SIZE = 1 << 12;
+  private static final double DEFAULT_DAMPING = 0.85;
+  private static final int DEFAULT_MAX_ITERATIONS = 30;
+  private static final double DEFAULT_TOLERANCE = 1e-6;
+
+  private final WordNet wordNet;
+  private final SynsetIds ids;
+  /** sources of the relations into synset {@code id} are {@code inSources[inStarts[id], inStarts[id + 1])} */
+  private final int[] inStarts;
+  private final int[] inSources;
+  /** {@link RelationType#ordinal()} of each of {@link #inSources} */
+  private final byte[] inTypes;
+  /** weight by {@link RelationType#ordinal()} */
+  private final double[] typeWeights;
+  /** transition probability of each of {@link #inSources}: its type's weight over its source's total */
+  private final float[] inWeights;
+  /** ascending synset ids without positively weighted relations */
+  private final int[] danglingIds;
+  private final double damping;
+  private final int maxIterations;
+  private final double tolerance;
+
+  private PageRank(final WordNet wordNet, final SynsetIds ids, final int[] inStarts, final int[] inSources,
+      final byte[] inTypes, final double[] typeWeights, final float[] inWeights, final int[] danglingIds,
+      final double damping, final int maxIterations, final double tolerance) {
+    this.wordNet = wordNet;
+    this.ids = ids;
+    this.inStarts = inStarts;
+    this.inSources = inSources;
+    this.inTypes = inTypes;
+    this.typeWeights = typeWeights;
+    this.inWeights = inWeights;
+    this.danglingIds = danglingIds;
+    this.damping = damping;
+    this.maxIterations = maxIterations;
+    this.tolerance = tolerance;
+  }
+
+  /** compiles the transpose of {@code graph}, with every relation type weighted {@code 1} */
+  static PageRank build(final WordNet wordNet, final SynsetIds ids, final RelationGraph graph) {
+    final int size = graph.size();
+    final int[] inStarts = new int[size + 1];
+    for (int r = 0; r < graph.relationCount(); r++) {
+      inStarts[graph.relationTarget(r) + 1]++;
+    }
+    for (int id = 0; id < size; id++) {
+      inStarts[id + 1] += inStarts[id];
+    }
+    final int[] inSources = new int[graph.relationCount()];
+    final byte[] inTypes = new byte[graph.relationCount()];
+    final int[] next = Arrays.copyOf(inStarts, size);
+    for (int id = 0; id < size; id++) {
+      for (int r = graph.relationStart(id); r < graph.relationStart(id + 1); r++) {
+        final int i = next[graph.relationTarget(r)]++;
+        inSources[i] = id;
+        inTypes[i] = (byte) (graph.relation(r) & RelationGraph.TYPE_MASK);
+      }
+    }
+    final double[] typeWeights = new double[RelationType.values().length];
+    Arrays.fill(typeWeights, 1);
+    return reweigh(wordNet, ids, inStarts, inSources, inTypes, typeWeights,
+      DEFAULT_DAMPING, DEFAULT_MAX_ITERATIONS, DEFAULT_TOLERANCE);
+  }
+
+  private static PageRank reweigh(final WordNet wordNet, final SynsetIds ids, final int[] inStarts,
+      final int[] inSources, final byte[] inTypes, final double[] typeWeights,
+      final double damping, final int maxIterations, final double tolerance) {
+    final int size = inStarts.length - 1;
+    final double[] outWeights = new double[size];
+    for (int i = 0; i < inSources.length; i++) {
+      outWeights[inSources[i]] += typeWeights[inTypes[i]];
+    }
+    final float[] inWeights = new float[inSources.length];
+    for (int i = 0; i < inSources.length; i++) {
+      final double weight = typeWeights[inTypes[i]];
+      inWeights[i] = weight == 0 ? 0 : (float) (weight / outWeights[inSources[i]]);
+    }
+    final int[] danglingIds = IntStream.range(0, size).filter(id -> outWeights[id] == 0).toArray();
+    return new PageRank(wordNet, ids, inStarts, inSources, inTypes, typeWeights, inWeights, danglingIds,
+      damping, maxIterations, tolerance);
+  }
+
+  /**
+   * @return a {@code PageRank} like this one, but in which relations of type {@code type} (and its auxiliary
+   *   types, e.g., {@code MERONYM}'s part, member and substance meronyms) have weight {@code weight};
+   *   {@code 0} ignores them.  Every relation type starts with weight {@code 1}.
+   */
+  public PageRank withWeight(final RelationType type, final double weight) {
+    Preconditions.checkArgument(weight >= 0 && ! Double.isInfinite(weight), "invalid weight: %s", weight);
+    final double[] weights = typeWeights.clone();
+    final long mask = RelationGraph.mask(type);
+    for (int ordinal = 0; ordinal < weights.length; ordinal++) {
+      if ((mask & 1L << ordinal) != 0) {
+        weights[ordinal] = weight;
+      }
+    }
+    return reweigh(wordNet, ids, inStarts, inSources, inTypes, weights, damping, maxIterations, tolerance);
+  }
+
+  /**
+   * @return a {@code PageRank} like this one, but whose walkers follow a relation (rather than return to
+   *   the seeds) with probability {@code damping}; defaults to {@code 0.85}
+   */
+  public PageRank withDamping(final double damping) {
+    Preconditions.checkArgument(damping >= 0 && damping < 1, "damping not in [0, 1): %s", damping);
+    return new PageRank(wordNet, ids, inStarts, inSources, inTypes, typeWeights, inWeights, danglingIds,
+      damping, maxIterations, tolerance);
+  }
+
+  /**
+   * @return a {@code PageRank} like this one, but which stops after {@code maxIterations} power iterations,
+   *   or sooner once an iteration changes the ranks by less than {@code tolerance} (L1); defaults to
+   *   {@code 30} and {@code 1e-6}
+   */
+  public PageRank withIterations(final int maxIterations, final double tolerance) {
+    Preconditions.checkArgument(maxIterations > 0, "maxIterations must be positive: %s", maxIterations);
+    Preconditions.checkArgument(tolerance >= 0, "negative tolerance: %s", tolerance);
+    return new PageRank(wordNet, ids, inStarts, inSources, inTypes, typeWeights, inWeights, danglingIds,
+      damping, maxIterations, tolerance);
+  }
+
+  /** @return number of synset ids, i.e., length of the arrays {@code rank} returns */
+  public int size() {
+    return inStarts.length - 1;
+  }
+
+  /**
+   * @return synset id of {@code synset}, or {@code -1} if it is not one of this {@code PageRank}'s
+   *   {@code WordNet}
+   */
+  public int synsetId(final Synset synset) {
+    return ids.synsetId(synset);
+  }
+
+  /** @return the synset with synset id {@code id} */
+  public Synset getSynset(final int id) {
+    return wordNet.getSynsetAt(ids.pos(id), ids.offset(id)).get();
+  }
+
+  /** @return {@link #rank(int[], double[])} of {@code seedIds}, each with weight {@code 1} */
+  public double[] rank(final int... seedIds) {
+    final double[] seedWeights = new double[seedIds.length];
+    Arrays.fill(seedWeights, 1);
+    return rank(seedIds, seedWeights);
+  }
+
+  /**
+   * Ranks every synset by personalized PageRank with the seed distribution {@code seedWeights[i]} at synset
+   * {@code seedIds[i]} (normalized), splitting each iteration across the common fork/join pool.
+   * @return the rank of each synset by synset id, summing to {@code 1}
+   */
+  public double[] rank(final int[] seedIds, final double[] seedWeights) {
+    return iterate(teleport(seedIds, seedWeights), true);
+  }
+
+  /**
+   * Ranks synsets seeded by the senses of the words of a context, each word's weight split evenly
+   * among its senses, as UKB does.
+   * @see #rank(int[], double[])
+   */
+  public double[] rankContext(final Iterable<Word> context) {
+    int seedCount = 0;
+    for (final Word word : context) {
+      seedCount += word.getSynsets().size();
+    }
+    final int[] seedIds = new int[seedCount];
+    final double[] seedWeights = new double[seedCount];
+    int i = 0;
+    for (final Word word : context) {
+      final List<Synset> senses = word.getSynsets();
+      for (final Synset synset : senses) {
+        seedIds[i] = checkedSynsetId(synset);
+        seedWeights[i++] = 1.0 / senses.size();
+      }
+    }
+    return rank(seedIds, seedWeights);
+  }
+
+  /**
+   * @return synset ids of the {@code k} highest {@code ranks}, highest first (ties in ascending synset id
+   *   order)
+   */
+  public static int[] topK(final double[] ranks, final int k) {
+    Preconditions.checkArgument(k >= 0, "negative k: %s", k);
+    // min heap of the best k so far; its root is the worst of them
+    final int[] heap = new int[Math.min(k, ranks.length)];
+    int size = 0;
+    for (int id = 0; id < ranks.length; id++) {
+      if (size < heap.length) {
+        heap[size] = id;
+        siftUp(heap, size++, ranks);
+      } else if (size > 0 && ranks[id] > ranks[heap[0]]) {
+        heap[0] = id;
+        siftDown(heap, size, ranks);
+      }
+    }
+    final int[] top = new int[size];
+    while (size > 0) {
+      top[--size] = heap[0];
+      heap[0] = heap[size];
+      siftDown(heap, size, ranks);
+    }
+    return top;
+  }
+
+  /** @return whether synset {@code a} ranks below {@code b} */
+  private static boolean worse(final int a, final int b, final double[] ranks) {
+    return ranks[a] < ranks[b] || (ranks[a] == ranks[b] && a > b);
+  }
+
+  private static void siftUp(final int[] heap, int i, final double[] ranks) {
+    final int id = heap[i];
+    while (i > 0 && worse(id, heap[(i - 1) >>> 1], ranks)) {
+      heap[i] = heap[(i - 1) >>> 1];
+      i = (i - 1) >>> 1;
+    }
+    heap[i] = id;
+  }
+
+  private static void siftDown(final int[] heap, final int size, final double[] ranks) {
+    if (size == 0) {
+      return;
+    }
+    final int id = heap[0];
+    int i = 0;
+    for (int child = 1; child < size; child = 2 * i + 1) {
+      if (child + 1 < size && worse(heap[child + 1], heap[child], ranks)) {
+        child++;
+      }
+      if (! worse(heap[child], id, ranks)) {
+        break;
+      }
+      heap[i] = heap[child];
+      i = child;
+    }
+    heap[i] = id;
+  }
+
+  /**
+   * Ranks a batch of seed sets (e.g., one per context), each weighting its seeds equally, in parallel:
+   * each context is iterated by one thread, which for batches is faster than splitting each iteration.
+   * @return {@link #topK(double[], int)} of each seed set's ranks
+   */
+  public List<int[]> topK(final List<int[]> seedSets, final int k) {
+    final int[][] tops = new int[seedSets.size()][];
+    IntStream.range(0, tops.length).parallel().forEach(i -> {
+      final int[] seedIds = seedSets.get(i);
+      final double[] seedWeights = new double[seedIds.length];
+      Arrays.fill(seedWeights, 1);
+      tops[i] = topK(iterate(teleport(seedIds, seedWeights), false), k);
+    });
+    return Arrays.asList(tops);
+  }
+
+  /** @return the {@code k} synsets ranked highest when seeded with {@code seeds}, highest first */
+  public List<Synset> getTopSynsets(final Collection<Synset> seeds, final int k) {
+    return Lists.transform(Ints.asList(topK(rank(synsetIds(seeds)), k)), this::getSynset);
+  }
+
+  private int[] synsetIds(final Collection<Synset> synsets) {
+    return synsets.stream().mapToInt(this::checkedSynsetId).toArray();
+  }
+
+  private int checkedSynsetId(final Synset synset) {
+    final int id = synsetId(synset);
+    Preconditions.checkArgument(id >= 0, "synset not in this WordNet: %s", synset);
+    return id;
+  }
+
+  /** @return dense, normalized seed distribution */
+  private double[] teleport(final int[] seedIds, final double[] seedWeights) {
+    Preconditions.checkArgument(seedIds.length == seedWeights.length,
+      "%s seedIds but %s seedWeights", seedIds.length, seedWeights.length);
+    double total = 0;
+    for (final double weight : seedWeights) {
+      Preconditions.checkArgument(weight >= 0, "negative seed weight: %s", weight);
+      total += weight;
+    }
+    Preconditions.checkArgument(total > 0 && ! Double.isInfinite(total), "seed weights total %s", total);
+    final double[] teleport = new double[size()];
+    for (int i = 0; i < seedIds.length; i++) {
+      Preconditions.checkElementIndex(seedIds[i], teleport.length, "seed synset id");
+      teleport[seedIds[i]] += seedWeights[i] / total;
+    }
+    return teleport;
+  }
+
+  /** power iteration from {@code teleport} */
+  private double[] iterate(final double[] teleport, final boolean parallel) {
+    double[] ranks = teleport.clone();
+    double[] next = new double[ranks.length];
+    final int chunks = (ranks.length + CHUNK_SIZE - 1) / CHUNK_SIZE;
+    for (int iteration = 0; iteration < maxIterations; iteration++) {
+      double danglingRank = 0;
+      for (final int id : danglingIds) {
+        danglingRank += ranks[id];
+      }
+      // walkers at dangling synsets return to the seeds, as do the 1 - damping which don't follow a relation
+      final double teleportFactor = damping * danglingRank + 1 - damping;
+      final double[] current = ranks;
+      final double[] updated = next;
+      final double change = parallel ?
+        IntStream.range(0, chunks).parallel().mapToDouble(chunk -> multiply(current, updated, teleport, teleportFactor,
+          chunk * CHUNK_SIZE, Math.min(current.length, (chunk + 1) * CHUNK_SIZE))).sum() :
+        multiply(current, updated, teleport, teleportFactor, 0, current.length);
+      next = ranks;
+      ranks = updated;
+      if (change < tolerance) {
+        break;
+      }
+    }
+    return ranks;
+  }
+
+  /**
+   * Sets {@code next[start, end)} from {@code ranks}: one sparse matrix-vector product of the (pulled)
+   * transition probabilities, damped, plus the teleport.
+   * @return L1 change of {@code [start, end)}
+   */
+  private double multiply(final double[] ranks, final double[] next, final double[] teleport,
+      final double teleportFactor, final int start, final int end) {
+    double change = 0;
+    for (int id = start; id < end; id++) {
+      double sum = 0;
+      for (int i = inStarts[id], inEnd = inStarts[id + 1]; i < inEnd; i++) {
+        sum += ranks[inSources[i]] * inWeights[i];
+      }
+      next[id] = damping * sum + teleportFactor * teleport[id];
+      change += Math.abs(next[id] - ranks[id]);
+    }
+    return change;
+  }
+
+  /** @return approximate size of this {@code PageRank}'s arrays in bytes */
+  long estimateSizeInBytes() {
+    return 4L * (inStarts.length + inSources.length + inWeights.length + danglingIds.length) + inTypes.length;
+  }
+
+  @Override
+  public String toString() {
+    return "[PageRank synsets: " + size() + " relations: " + inSources.length + " damping: " + damping + "]";
+  }
+} // end class PageRank
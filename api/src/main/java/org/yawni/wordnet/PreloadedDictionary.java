@@ -0,0 +1,276 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.yawni.wordnet;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Every {@link Synset} and {@link Word} of a {@link WordNet}, eagerly loaded into dense arrays.
+ * Synsets are numbered by <em>synset id</em>: all nouns, then verbs, adjectives and adverbs, each in
+ * <code>data.<em>pos</em></code> file order.  Words are stored per {@code POS} in
+ * <code>index.<em>pos</em></code> file order (i.e., offset order, which is also
+ * {@link WordNetLexicalComparator} order).
+ *
+ * <p> The relation graph is also compiled into a {@link RelationGraph} over synset ids.
+ *
+ * @see WordNet#newPreloadedInstance()
+ */
+final class PreloadedDictionary {
+  private static final Logger log = LoggerFactory.getLogger(PreloadedDictionary.class);
+
+  private final Synset[] synsets;
+  private final String[] glosses;
+  private final SynsetIds ids;
+  private final Word[][] words;
+  /** index file offsets of {@link #words} (ascending) */
+  private final int[][] wordOffsets;
+  private final RelationGraph relationGraph;
+  private final long loadNanos;
+
+  private PreloadedDictionary(final Synset[] synsets, final String[] glosses, final SynsetIds ids,
+      final Word[][] words, final int[][] wordOffsets,
+      final RelationGraph relationGraph, final long loadNanos) {
+    this.synsets = synsets;
+    this.glosses = glosses;
+    this.ids = ids;
+    this.words = words;
+    this.wordOffsets = wordOffsets;
+    this.relationGraph = relationGraph;
+    this.loadNanos = loadNanos;
+  }
+
+  /**
+   * Loads all of {@link POS#CATS} from {@code wordNet}, parsing the files in line-aligned chunks
+   * with {@code parallelism} threads.  The loaded entities belong to {@code wordNet}, which should
+   * serve lookups from the returned instance from then on.
+   */
+  static PreloadedDictionary load(final WordNet wordNet, final int parallelism) {
+    final long start = System.nanoTime();
+    final List<Synset> synsetList = new ArrayList<>();
+    final int[][] synsetOffsets = new int[POS.CATS.size()][];
+    final Word[][] words = new Word[POS.CATS.size()][];
+    final int[][] wordOffsets = new int[POS.CATS.size()][];
+    final Synset[] synsets;
+    final String[] glosses;
+    final ForkJoinPool pool = new ForkJoinPool(parallelism);
+    try {
+      // submit every file before waiting on any
+      final List<Supplier<List<Synset>>> synsetParses = new ArrayList<>();
+      final List<Supplier<List<Word>>> wordParses = new ArrayList<>();
+      for (final POS pos : POS.CATS) {
+        synsetParses.add(wordNet.parseSynsets(pos, pool));
+        wordParses.add(wordNet.parseWords(pos, pool));
+      }
+      for (final POS pos : POS.CATS) {
+        final int p = SynsetIds.posIndex(pos);
+        final List<Synset> posSynsets = synsetParses.get(p).get();
+        synsetList.addAll(posSynsets);
+        synsetOffsets[p] = posSynsets.stream().mapToInt(Synset::getOffset).toArray();
+
+        final List<Word> wordList = wordParses.get(p).get();
+        words[p] = wordList.toArray(new Word[wordList.size()]);
+        wordOffsets[p] = new int[words[p].length];
+        for (int i = 0; i < words[p].length; i++) {
+          wordOffsets[p][i] = words[p][i].getOffset();
+        }
+      }
+      synsets = synsetList.toArray(new Synset[synsetList.size()]);
+      glosses = new String[synsets.length];
+      pool.submit(() -> IntStream.range(0, synsets.length).parallel().forEach(id ->
+        glosses[id] = synsets[id].getGloss()
+      )).join();
+    } finally {
+      pool.shutdown();
+    }
+
+    final SynsetIds ids = SynsetIds.build(synsetOffsets);
+    int relationCount = 0;
+    for (int id = 0; id < synsets.length; id++) {
+      relationCount += synsets[id].relationCount();
+    }
+
+    final PreloadedDictionary unlinked = new PreloadedDictionary(synsets, glosses, ids,
+        words, wordOffsets, null, 0);
+    for (final Word[] posWords : words) {
+      for (final Word word : posWords) {
+        word.resolveSynsets(unlinked);
+      }
+    }
+    final int[] relationStarts = new int[synsets.length + 1];
+    final int[] relations = new int[relationCount];
+    int next = 0;
+    for (int id = 0; id < synsets.length; id++) {
+      relationStarts[id] = next;
+      for (int i = 0; i < synsets[id].relationCount(); i++) {
+        final long relation = synsets[id].relationRecord(i);
+        final int targetId = ids.synsetId(Relation.targetPOS(relation), Relation.targetOffset(relation));
+        if (targetId < 0) {
+          throw new IllegalStateException("dangling relation "+synsets[id].getRelations().get(i));
+        }
+        relations[next++] = targetId << RelationGraph.TYPE_BITS | Relation.typeOrdinal(relation);
+      }
+    }
+    relationStarts[synsets.length] = next;
+
+    final PreloadedDictionary loaded = new PreloadedDictionary(synsets, glosses, ids,
+        words, wordOffsets, new RelationGraph(relationStarts, relations), System.nanoTime() - start);
+    log.info("preloaded {} synsets, {} relations in {}ms (~{}MB)", synsets.length, relations.length,
+        loaded.getLoadNanos() / 1000000, loaded.estimateSizeInBytes() >> 20);
+    return loaded;
+  }
+
+  /** @return the synset ids numbering this dictionary's synsets */
+  SynsetIds getSynsetIds() {
+    return ids;
+  }
+
+  /**
+   * @return synset id of the synset at {@code offset}, or {@code -1} if there is none
+   */
+  int synsetId(final POS pos, final int offset) {
+    return ids.synsetId(pos, offset);
+  }
+
+  /**
+   * @return synset id of {@code synset}, which must be one of the preloaded synsets
+   */
+  int synsetId(final Synset synset) {
+    return ids.synsetId(synset);
+  }
+
+  int synsetCount() {
+    return synsets.length;
+  }
+
+  Synset getSynset(final int id) {
+    return synsets[id];
+  }
+
+  Synset getSynsetAt(final POS pos, final int offset) {
+    final int id = synsetId(pos, offset);
+    return id < 0 ? null : synsets[id];
+  }
+
+  String getGloss(final POS pos, final int offset) {
+    final int id = synsetId(pos, offset);
+    return id < 0 ? null : glosses[id];
+  }
+
+  /** @return the preloaded synsets of {@code pos} in data file order */
+  List<Synset> synsets(final POS pos) {
+    return Collections.unmodifiableList(Arrays.asList(synsets).subList(ids.firstId(pos), ids.endId(pos)));
+  }
+
+  /** @return the preloaded words of {@code pos} in index file order */
+  List<Word> words(final POS pos) {
+    return Collections.unmodifiableList(Arrays.asList(words[SynsetIds.posIndex(pos)]));
+  }
+
+  Word getWordAt(final POS pos, final int offset) {
+    final int p = SynsetIds.posIndex(pos);
+    final int i = Arrays.binarySearch(wordOffsets[p], offset);
+    return i < 0 ? null : words[p][i];
+  }
+
+  /**
+   * @return the {@code Word} whose lemma is {@code lemma} (compared with
+   *   {@link WordNetLexicalComparator#TO_LOWERCASE_INSTANCE}), or {@code null}
+   */
+  Word findWord(final CharSequence lemma, final POS pos) {
+    final Word[] posWords = words[SynsetIds.posIndex(pos)];
+    int low = 0;
+    int high = posWords.length - 1;
+    while (low <= high) {
+      final int mid = (low + high) >>> 1;
+      final int cmp = WordNetLexicalComparator.TO_LOWERCASE_INSTANCE.compare(posWords[mid].getLowercasedLemma(), lemma);
+      if (cmp < 0) {
+        low = mid + 1;
+      } else if (cmp > 0) {
+        high = mid - 1;
+      } else {
+        return posWords[mid];
+      }
+    }
+    return null;
+  }
+
+  /** @return this dictionary's relations over its synset ids */
+  RelationGraph getRelationGraph() {
+    return relationGraph;
+  }
+
+  //
+  // Statistics
+  //
+
+  long getLoadNanos() {
+    return loadNanos;
+  }
+
+  /**
+   * Rough retained heap size, assuming a 64-bit JVM with compressed references:
+   * exact for the arrays, estimated (shallow size plus owned lists and strings) for the entities.
+   */
+  long estimateSizeInBytes() {
+    long bytes = ids.estimateSizeInBytes() +
+        intArrayBytes(synsets.length) + intArrayBytes(glosses.length) +
+        relationGraph.estimateSizeInBytes();
+    for (final String gloss : glosses) {
+      bytes += stringBytes(gloss);
+    }
+    for (final Synset synset : synsets) {
+      // Synset + sense list + packed relations
+      bytes += 32 + (16 + 16) + 16;
+      for (final WordSense wordSense : synset.getWordSenses()) {
+        bytes += 32 + stringBytes(wordSense.getLemma());
+      }
+      bytes += 4 * synset.getWordSenses().size();
+      bytes += 8 * synset.relationCount();
+    }
+    for (int p = 0; p < words.length; p++) {
+      bytes += intArrayBytes(words[p].length) + intArrayBytes(wordOffsets[p].length);
+      for (final Word word : words[p]) {
+        // Word + list of Synsets
+        bytes += 40 + 16 + stringBytes(word.getLowercasedLemma()) + intArrayBytes(word.getSynsets().size());
+      }
+    }
+    return bytes;
+  }
+
+  private static long intArrayBytes(final int length) {
+    return 16 + 4L * length;
+  }
+
+  private static long stringBytes(final String string) {
+    // String + (Latin-1) byte[]
+    return 24 + 16 + string.length();
+  }
+
+  @Override
+  public String toString() {
+    return "[PreloadedDictionary synsets: " + synsets.length + " relations: " + relationGraph.relationCount() + "]";
+  }
+} // end class PreloadedDictionary
@@ -34,33 +34,32 @@ import static org.yawni.util.Utils.hash;
  * @see WordSense
  */
 public abstract class Relation implements Comparable<Relation> {
-  /**
-   * These target* and source* fields are used to avoid paging in the target/source before it is
-   * required, and to prevent keeping a large portion of the database resident
-   * once the target/source has been queried.  The first time they are used, they act as
-   * an external key; subsequent uses, in conjunction with
-   * {@link WordNet}'s caching mechanism, can be thought of as a
-   * {@link java.lang.ref.WeakReference}.
-   */
-  private final int targetOffset;
-  private final int targetIndex;
-  private final byte targetPOSOrdinal;
-
-  private final int sourceOffset;
-  private final int sourceIndex;
-  private final byte sourcePOSOrdinal;
-
-  private final WordNet wordNet;
-
   //
-  // Instance variables
+  // Packed relation records
+  //
+  // A Synset stores its relations (and those of its WordSenses) as a long[] of records, each packed as
+  //   targetOffset | targetPOSOrdinal << 32 | targetIndex << 40 | sourceIndex << 48 | relationTypeOrdinal << 56
+  // (the fields of CompiledDictionary's relation records); Relations are created from them only when asked for.
   //
 
-  private final byte relationTypeOrdinal;
+  private static final int TARGET_POS_SHIFT = 32;
+  private static final int TARGET_INDEX_SHIFT = 40;
+  private static final int SOURCE_INDEX_SHIFT = 48;
+  private static final int TYPE_SHIFT = 56;
+  /** a relation of a <code>data.<em>pos</em></code> line is 4 tokens: symbol, offset, POS and source/target */
+  static final int TOKEN_COUNT = 4;
+
+  /**
+   * The source {@code Synset}, i.e., the source or the {@code Synset} of the source {@code WordSense}, which
+   * holds this relation's packed record.  The target is identified only by the record's offset, {@code POS}
+   * and index, which avoids paging in the target before it is required, and keeping a large portion of
+   * the database resident once it has been queried.
+   */
+  private final Synset synset;
   /**
-   * The index of this {@code Relation} within the array of {@code Relation}s in the source {@code Synset}.
-   * Only used in {@code equals}, {@code compare}, {@code hashCode}: differentiates distinct relations of
-   * the same type emanating from the same {@code Synset}.
+   * The index of this {@code Relation}'s record within the source {@code Synset}'s; also differentiates
+   * distinct relations of the same type emanating from the same {@code Synset} in {@code equals},
+   * {@code compare} and {@code hashCode}.
    */
   private final int sourceRelationIndex;
 
@@ -68,37 +67,32 @@ public abstract class Relation implements Comparable<Relation> {
   // Constructor
   //
 
-  Relation(final int targetOffset, final int targetIndex, final POS targetPOS, final WordNet wordNet,
-    final int sourceRelationIndex, final int sourceOffset, final int sourceIndex, final POS sourcePOS,
-      final RelationType relationType) {
-    this.targetOffset = targetOffset;
-    this.targetIndex = targetIndex;
-    this.targetPOSOrdinal = targetPOS.getByteOrdinal();
-    this.wordNet = wordNet;
+  Relation(final Synset synset, final int sourceRelationIndex) {
+    this.synset = synset;
     this.sourceRelationIndex = sourceRelationIndex;
-    this.sourceOffset = sourceOffset;
-    this.sourceIndex = sourceIndex;
-    this.sourcePOSOrdinal = sourcePOS.getByteOrdinal();
-    this.relationTypeOrdinal = relationType.getByteOrdinal();
   }
 
-  /**
-   * Copy constructor to create Relation with equal source and target, but different type
-   */
-  Relation(final Relation that, final RelationType relationType, final int relationIndex) {
-    this(that.targetOffset,
-         that.targetIndex,
-         that.getTargetPOS(),
-         that.wordNet,
-         relationIndex,
-         that.sourceOffset,
-         that.sourceIndex,
-         that.getSourcePOS(),
-         relationType);
-  }
-
-  /** Factory method */
-  static Relation makeRelation(final Synset synset, final int index, final CharSequenceTokenizer tokenizer) {
+  /** Factory method: flyweight of relation {@code index} of {@code synset} */
+  static Relation of(final Synset synset, final int index) {
+    if (isLexical(synset.relationRecord(index))) {
+      return new LexicalRelation(synset, index);
+    } else {
+      return new SemanticRelation(synset, index);
+    }
+  }
+
+  static long pack(final int targetOffset, final POS targetPOS, final int targetIndex, final int sourceIndex,
+      final RelationType relationType) {
+    assert targetIndex >>> 8 == 0 && sourceIndex >>> 8 == 0;
+    return (targetOffset & 0xFFFFFFFFL)
+      | (long) targetPOS.getByteOrdinal() << TARGET_POS_SHIFT
+      | (long) targetIndex << TARGET_INDEX_SHIFT
+      | (long) sourceIndex << SOURCE_INDEX_SHIFT
+      | (long) relationType.getByteOrdinal() << TYPE_SHIFT;
+  }
+
+  /** @return packed record of the next relation of a <code>data.<em>pos</em></code> line */
+  static long parse(final Synset synset, final CharSequenceTokenizer tokenizer) {
     final RelationType relationType = RelationType.parseKey(tokenizer.nextToken(), synset.getPOS());
 
     final int targetOffset = tokenizer.nextInt();
@@ -108,24 +102,74 @@ public abstract class Relation implements Comparable<Relation> {
     assert linkIndices >> 16 == 0;
     final int sourceIndex = linkIndices >> 8; // select high byte
     final int targetIndex = linkIndices & 0xFF; // select low byte
+    return pack(targetOffset, targetPOS, targetIndex, sourceIndex, relationType);
+  }
 
-    final RelationArgument source = Relation.resolve(synset, sourceIndex);
-    if (source instanceof WordSense) {
-      return new LexicalRelation(targetOffset, targetIndex, targetPOS,
-          synset.wordNet, index, synset.getOffset(), sourceIndex, synset.getPOS(), relationType);
-    } else if (source instanceof Synset) {
-      return new SemanticRelation(targetOffset, targetIndex, targetPOS,
-          synset.wordNet, index, synset.getOffset(), sourceIndex, synset.getPOS(), relationType);
-    } else {
-      throw new IllegalArgumentException();
-    }
+  /** @return packed record of relation {@code index} of synset {@code record} of {@code dictionary} */
+  static long read(final CompiledDictionary dictionary, final int record, final int index) {
+    return pack(
+        dictionary.relationTargetOffset(record, index),
+        dictionary.relationTargetPOS(record, index),
+        dictionary.relationTargetIndex(record, index),
+        dictionary.relationSourceIndex(record, index),
+        dictionary.relationType(record, index));
+  }
+
+  /** @return {@code record} with its type replaced by {@code relationType} */
+  static long withType(final long record, final RelationType relationType) {
+    return (record & ~(0xFFL << TYPE_SHIFT)) | (long) relationType.getByteOrdinal() << TYPE_SHIFT;
+  }
+
+  static int targetOffset(final long record) {
+    return (int) record;
+  }
+
+  static POS targetPOS(final long record) {
+    return POS.fromOrdinal((byte) (record >>> TARGET_POS_SHIFT));
+  }
+
+  /** 1-based index; see resolve(synset, index) */
+  static int targetIndex(final long record) {
+    return (int) (record >>> TARGET_INDEX_SHIFT) & 0xFF;
+  }
+
+  /** 1-based index; see resolve(synset, index) */
+  static int sourceIndex(final long record) {
+    return (int) (record >>> SOURCE_INDEX_SHIFT) & 0xFF;
+  }
+
+  /** @return {@link RelationType#ordinal()} of {@code record} */
+  static int typeOrdinal(final long record) {
+    return (int) (record >>> TYPE_SHIFT);
+  }
+
+  static RelationType type(final long record) {
+    return RelationType.fromOrdinal((byte) typeOrdinal(record));
+  }
+
+  /** a lexical relation's source is a {@code WordSense} */
+  static boolean isLexical(final long record) {
+    return sourceIndex(record) != 0;
+  }
+
+  /** @return target of {@code record} */
+  static RelationArgument target(final WordNet wordNet, final long record) {
+    return resolve(
+        wordNet.getSynsetAt(
+          targetPOS(record),
+          targetOffset(record)).orElse(null),
+        targetIndex(record));
+  }
+
+  private long record() {
+    return synset.relationRecord(sourceRelationIndex);
   }
 
   //
   // Accessors
   //
   public RelationType getType() {
-    return RelationType.fromOrdinal(relationTypeOrdinal);
+    return type(record());
   }
 
   /** A lexical relationship holds between {@link WordSense}s */
@@ -138,43 +182,39 @@ public abstract class Relation implements Comparable<Relation> {
    * @return source vertex of this directed relationship
    */
   public RelationArgument getSource() {
-    return resolve(
-        wordNet.getSynsetAt(
-            getSourcePOS(),
-            getSourceOffset()).orElse(null),
-        getSourceIndex());
+    return resolve(synset, getSourceIndex());
   }
 
   // internal dev method
   final POS getTargetPOS() {
-    return POS.fromOrdinal(targetPOSOrdinal);
+    return targetPOS(record());
   }
 
   // internal dev method
   final int getTargetOffset() {
-    return targetOffset;
+    return targetOffset(record());
   }
 
   // internal dev method
   // 1-based index; see resolve(synset, index)
   final int getTargetIndex() {
-    return targetIndex;
+    return targetIndex(record());
   }
 
   // internal dev method
   final POS getSourcePOS() {
-    return POS.fromOrdinal(sourcePOSOrdinal);
+    return synset.getPOS();
   }
 
   // internal dev method
   final int getSourceOffset() {
-    return sourceOffset;
+    return synset.getOffset();
   }
 
   // internal dev method
   // 1-based index; see resolve(synset, index)
   final int getSourceIndex() {
-    return sourceIndex;
+    return sourceIndex(record());
   }
 
   final int getSourceRelationIndex() {
@@ -187,11 +227,7 @@ public abstract class Relation implements Comparable<Relation> {
    * @return target vertex of this directed relationship
    */
   public RelationArgument getTarget() {
-    return resolve(
-        wordNet.getSynsetAt(
-          getTargetPOS(),
-          getTargetOffset()).orElse(null),
-        targetIndex);
+    return target(synset.wordNet, record());
   }
 
   private static RelationArgument resolve(final Synset synset, final int index) {
@@ -210,18 +246,17 @@ public abstract class Relation implements Comparable<Relation> {
   public boolean equals(final Object obj) {
     if (obj instanceof Relation) {
       Relation that = (Relation) obj;
-      return that.sourceOffset == this.sourceOffset
-          && that.sourceIndex == this.sourceIndex
-          && that.sourcePOSOrdinal == this.sourcePOSOrdinal
+      return that.synset.equals(this.synset)
           && that.sourceRelationIndex == this.sourceRelationIndex
-          && that.relationTypeOrdinal == this.relationTypeOrdinal;
+          && that.getSourceIndex() == this.getSourceIndex()
+          && that.getType() == this.getType();
     }
     return false;
   }
 
   @Override
   public int hashCode() {
-    return hash(sourceOffset, sourceIndex, sourcePOSOrdinal, sourceRelationIndex);
+    return hash(getSourceOffset(), getSourceIndex(), getSourcePOS().getByteOrdinal(), sourceRelationIndex);
   }
 
   @Override
@@ -245,11 +280,11 @@ public abstract class Relation implements Comparable<Relation> {
   @Override
   public int compareTo(final Relation that) {
     return ComparisonChain.start()
-        .compare(this.sourcePOSOrdinal, that.sourcePOSOrdinal)
-        .compare(this.sourceOffset, that.sourceOffset)
+        .compare(this.getSourcePOS().getByteOrdinal(), that.getSourcePOS().getByteOrdinal())
+        .compare(this.getSourceOffset(), that.getSourceOffset())
         .compare(this.sourceRelationIndex, that.sourceRelationIndex)
-        .compare(this.sourceIndex, that.sourceIndex)
-        .compare(this.relationTypeOrdinal, that.sourceRelationIndex)
+        .compare(this.getSourceIndex(), that.getSourceIndex())
+        .compare(this.getType().getByteOrdinal(), that.sourceRelationIndex)
         .result();
   }
 }
\ No newline at end of file
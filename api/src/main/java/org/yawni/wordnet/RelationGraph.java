@@ -0,0 +1,130 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.yawni.wordnet;
+
+/**
+ * Every {@link Relation} of every synset in compressed sparse row (CSR) form over synset ids:
+ * relations of synset {@code id} are {@code [relationStart(id), relationStart(id + 1))}, and each is
+ * packed into an {@code int} as {@code targetId << 8 | relationTypeOrdinal}.  Preloaded instances build
+ * theirs along with their {@link PreloadedDictionary}.  Lexical relations
+ * appear as edges between their source and target synsets.
+ *
+ * <p> Relation types are selected with {@code long} bit masks of {@link RelationType#ordinal()}s
+ * (see {@link #mask(RelationType...)}) so walks of it test an edge's type with a shift and an {@code and}.
+ */
+final class RelationGraph {
+  static final int TYPE_BITS = 8;
+  static final int TYPE_MASK = (1 << TYPE_BITS) - 1;
+
+  static {
+    // type masks are longs
+    assert RelationType.values().length <= Long.SIZE;
+  }
+
+  private final int[] relationStarts;
+  private final int[] relations;
+
+  RelationGraph(final int[] relationStarts, final int[] relations) {
+    this.relationStarts = relationStarts;
+    this.relations = relations;
+  }
+
+  /**
+   * @param targets packed relations ({@code targetId << 8 | relationTypeOrdinal}) of each synset id;
+   *   {@code null} for none
+   */
+  static RelationGraph build(final int[][] targets) {
+    final int[] relationStarts = new int[targets.length + 1];
+    for (int id = 0; id < targets.length; id++) {
+      relationStarts[id + 1] = relationStarts[id] + (targets[id] == null ? 0 : targets[id].length);
+    }
+    final int[] relations = new int[relationStarts[targets.length]];
+    for (int id = 0; id < targets.length; id++) {
+      if (targets[id] != null) {
+        System.arraycopy(targets[id], 0, relations, relationStarts[id], targets[id].length);
+      }
+    }
+    return new RelationGraph(relationStarts, relations);
+  }
+
+  /**
+   * @return bit mask of {@code types} and their auxiliary types,
+   *   e.g., {@code MERONYM} selects {@code MEMBER_MERONYM}, {@code PART_MERONYM} and {@code SUBSTANCE_MERONYM} too
+   */
+  static long mask(final RelationType... types) {
+    long mask = 0;
+    for (final RelationType type : types) {
+      mask |= type.mask();
+    }
+    return mask;
+  }
+
+  static long packedTypeBit(final int relation) {
+    return 1L << (relation & TYPE_MASK);
+  }
+
+  static int packedTarget(final int relation) {
+    return relation >>> TYPE_BITS;
+  }
+
+  int size() {
+    return relationStarts.length - 1;
+  }
+
+  int relationCount() {
+    return relations.length;
+  }
+
+  /** index of the first relation of synset {@code id}; {@code relationStart(id + 1)} ends them */
+  int relationStart(final int id) {
+    return relationStarts[id];
+  }
+
+  /** @return relation {@code relation} packed as {@code targetId << 8 | relationTypeOrdinal} */
+  int relation(final int relation) {
+    return relations[relation];
+  }
+
+  int relationTarget(final int relation) {
+    return relations[relation] >>> TYPE_BITS;
+  }
+
+  RelationType relationType(final int relation) {
+    return RelationType.fromOrdinal((byte) (relations[relation] & TYPE_MASK));
+  }
+
+  /** @return number of relations of synset {@code id} whose types are in {@code typeMask} */
+  int degree(final int id, final long typeMask) {
+    int degree = 0;
+    for (int r = relationStarts[id], end = relationStarts[id + 1]; r < end; r++) {
+      if ((typeMask & packedTypeBit(relations[r])) != 0) {
+        degree++;
+      }
+    }
+    return degree;
+  }
+
+  /** @return approximate size of this graph's arrays in bytes */
+  long estimateSizeInBytes() {
+    return 4L * (relationStarts.length + relations.length);
+  }
+
+  @Override
+  public String toString() {
+    return "[RelationGraph synsets: " + size() + " relations: " + relations.length + "]";
+  }
+} // end class RelationGraph
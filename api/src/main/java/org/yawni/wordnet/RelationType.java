@@ -381,6 +381,13 @@ public enum RelationType {
     HOLONYM.auxiliaryTypes = ImmutableSet.of(MEMBER_HOLONYM, PART_HOLONYM, SUBSTANCE_HOLONYM);
     DOMAIN.auxiliaryTypes = ImmutableSet.of(DOMAIN_OF_TOPIC, DOMAIN_OF_REGION, DOMAIN_OF_USAGE);
     DOMAIN_MEMBER.auxiliaryTypes = ImmutableSet.of(MEMBER_OF_TOPIC_DOMAIN, MEMBER_OF_REGION_DOMAIN, MEMBER_OF_USAGE_DOMAIN);
+
+    for (final RelationType type : values()) {
+      type.mask = 1L << type.ordinal();
+      for (final RelationType auxiliaryType : type.auxiliaryTypes) {
+        type.mask |= 1L << auxiliaryType.ordinal();
+      }
+    }
   }
 
   private static final RelationType[] VALUES = values();
@@ -393,6 +400,11 @@ public enum RelationType {
     return SignedBytes.checkedCast(ordinal());
   }
 
+  /** @return bit mask of the {@link #ordinal()}s of this type and its auxiliary types */
+  long mask() {
+    return mask;
+  }
+
   /**
    * @return the {@code RelationType} whose key matches {@code key}, resolving collisions with {@code pos}.
    * @throws NoSuchElementException If {@code key} doesn't name any {@code RelationType}.
@@ -443,6 +455,8 @@ public enum RelationType {
   private RelationType symmetricType;
   // experimental fields
   ImmutableSet<RelationType> auxiliaryTypes;
+  /** see {@link #mask()} */
+  private long mask;
   ImmutableSet<RelationType> subTypes;
   ImmutableSet<RelationType> superTypes;
 
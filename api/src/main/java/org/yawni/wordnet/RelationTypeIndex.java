@@ -0,0 +1,191 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.yawni.wordnet;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Per-{@link RelationType} index of a {@link Synset}'s packed relations, so
+ * {@link Synset#getRelations(RelationType)} and friends are slices of a precomputed
+ * table rather than a scan of every relation.
+ *
+ * <p> An index is a {@code char[]}:
+ * <ul>
+ *   <li> {@code [0, 4)}: bit mask of the {@code RelationType} ordinals {@code t} whose
+ *     <em>all</em> slice (relations whose type is in {@code t}'s {@link RelationType#mask()}) isn't empty </li>
+ *   <li> {@code [4, 8)}: bit mask of the ordinals {@code t} whose <em>semantic</em> slice
+ *     (non-lexical relations of exactly type {@code t}) isn't empty </li>
+ *   <li> a (start, end) pair per set bit of the masks, in ordinal order, <em>all</em> slices first </li>
+ *   <li> the slices: relation indexes, each slice in relation order </li>
+ * </ul>
+ * A semantic slice that would equal its type's <em>all</em> slice shares its range.
+ */
+final class RelationTypeIndex {
+  private static final int HEADER = 8;
+  static final char[] EMPTY = new char[HEADER];
+
+  private RelationTypeIndex() {
+    // no instances
+  }
+
+  /** @return the index of {@code records}, packed as described by {@link Relation#pack} */
+  static char[] build(final long[] records) {
+    if (records.length == 0) {
+      return EMPTY;
+    }
+    long present = 0;
+    long lexical = 0;
+    long semanticTypes = 0;
+    for (final long record : records) {
+      final long bit = 1L << Relation.typeOrdinal(record);
+      present |= bit;
+      if (Relation.isLexical(record)) {
+        lexical |= bit;
+      } else {
+        semanticTypes |= bit;
+      }
+    }
+    long allTypes = 0;
+    for (final RelationType type : RelationType.values()) {
+      if ((type.mask() & present) != 0) {
+        allTypes |= 1L << type.ordinal();
+      }
+    }
+    final int slots = Long.bitCount(allTypes) + Long.bitCount(semanticTypes);
+    int length = HEADER + 2 * slots;
+    for (long bits = allTypes; bits != 0; bits &= bits - 1) {
+      length += count(records, typeMask(bits), false);
+    }
+    for (long bits = semanticTypes; bits != 0; bits &= bits - 1) {
+      if (! isShared(Long.numberOfTrailingZeros(bits), present, lexical)) {
+        length += count(records, Long.lowestOneBit(bits), true);
+      }
+    }
+    Preconditions.checkArgument(length <= Character.MAX_VALUE, "too many relations: %s", records.length);
+
+    final char[] index = new char[length];
+    putMask(index, 0, allTypes);
+    putMask(index, 4, semanticTypes);
+    int slot = HEADER;
+    int next = HEADER + 2 * slots;
+    for (long bits = allTypes; bits != 0; bits &= bits - 1, slot += 2) {
+      index[slot] = (char) next;
+      next = fill(records, typeMask(bits), false, index, next);
+      index[slot + 1] = (char) next;
+    }
+    for (long bits = semanticTypes; bits != 0; bits &= bits - 1, slot += 2) {
+      final int ordinal = Long.numberOfTrailingZeros(bits);
+      if (isShared(ordinal, present, lexical)) {
+        final int shared = HEADER + 2 * Long.bitCount(allTypes & lowerBits(ordinal));
+        index[slot] = index[shared];
+        index[slot + 1] = index[shared + 1];
+      } else {
+        index[slot] = (char) next;
+        next = fill(records, Long.lowestOneBit(bits), true, index, next);
+        index[slot + 1] = (char) next;
+      }
+    }
+    assert next == length;
+    return index;
+  }
+
+  /** @return slot of the <em>all</em> slice of {@code type}, or {@code -1} if it's empty */
+  static int slot(final char[] index, final RelationType type) {
+    final long allTypes = getMask(index, 0);
+    final int ordinal = type.ordinal();
+    if ((allTypes & 1L << ordinal) == 0) {
+      return -1;
+    }
+    return HEADER + 2 * Long.bitCount(allTypes & lowerBits(ordinal));
+  }
+
+  /** @return slot of the <em>semantic</em> slice of {@code type}, or {@code -1} if it's empty */
+  static int semanticSlot(final char[] index, final RelationType type) {
+    final long semanticTypes = getMask(index, 4);
+    final int ordinal = type.ordinal();
+    if ((semanticTypes & 1L << ordinal) == 0) {
+      return -1;
+    }
+    return HEADER + 2 * (Long.bitCount(getMask(index, 0)) + Long.bitCount(semanticTypes & lowerBits(ordinal)));
+  }
+
+  /** @return first position in {@code index} of the relation indexes of {@code slot} */
+  static int start(final char[] index, final int slot) {
+    return index[slot];
+  }
+
+  /** @return position in {@code index} just past the relation indexes of {@code slot} */
+  static int end(final char[] index, final int slot) {
+    return index[slot + 1];
+  }
+
+  /** @return relation index at {@code position} of {@code index} */
+  static int relation(final char[] index, final int position) {
+    return index[position];
+  }
+
+  /**
+   * A semantic slice shares the <em>all</em> slice of its type when it has no lexical relations
+   * of that type, nor relations of its auxiliary types.
+   */
+  private static boolean isShared(final int ordinal, final long present, final long lexical) {
+    final RelationType type = RelationType.fromOrdinal((byte) ordinal);
+    return (type.mask() & present) == 1L << ordinal && (lexical & 1L << ordinal) == 0;
+  }
+
+  /** @return {@link RelationType#mask()} of the type of the lowest set bit of {@code bits} */
+  private static long typeMask(final long bits) {
+    return RelationType.fromOrdinal((byte) Long.numberOfTrailingZeros(bits)).mask();
+  }
+
+  private static long lowerBits(final int ordinal) {
+    return (1L << ordinal) - 1;
+  }
+
+  private static int count(final long[] records, final long typeMask, final boolean semantic) {
+    int count = 0;
+    for (final long record : records) {
+      if (isSought(record, typeMask, semantic)) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  private static int fill(final long[] records, final long typeMask, final boolean semantic, final char[] index, int next) {
+    for (int i = 0; i < records.length; i++) {
+      if (isSought(records[i], typeMask, semantic)) {
+        index[next++] = (char) i;
+      }
+    }
+    return next;
+  }
+
+  private static boolean isSought(final long record, final long typeMask, final boolean semantic) {
+    return (typeMask & 1L << Relation.typeOrdinal(record)) != 0 && ! (semantic && Relation.isLexical(record));
+  }
+
+  private static void putMask(final char[] index, final int at, final long mask) {
+    for (int i = 0; i < 4; i++) {
+      index[at + i] = (char) (mask >>> 16 * i);
+    }
+  }
+
+  private static long getMask(final char[] index, final int at) {
+    return index[at] | (long) index[at + 1] << 16 | (long) index[at + 2] << 32 | (long) index[at + 3] << 48;
+  }
+} // end class RelationTypeIndex
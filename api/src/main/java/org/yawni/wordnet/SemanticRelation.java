@@ -20,12 +20,8 @@ package org.yawni.wordnet;
  * A {@code SemanticRelation} encodes a lexical relationship between {@link Synset}s.
  */
 public final class SemanticRelation extends Relation {
-  SemanticRelation(final int targetOffset, final int targetIndex, final POS targetPOS, final WordNet wordNet,
-      final int sourceRelationIndex, final int sourceOffset, final int sourceIndex, final POS sourcePOS,
-      final RelationType relationType) {
-    super(targetOffset, targetIndex, targetPOS, wordNet, sourceRelationIndex,
-        sourceOffset, sourceIndex, sourcePOS, relationType);
-    // can't call getTarget() - infinite recursion
+  SemanticRelation(final Synset synset, final int sourceRelationIndex) {
+    super(synset, sourceRelationIndex);
   }
 
   @Override
@@ -0,0 +1,90 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.yawni.wordnet;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * The tagged sense counts ({@link WordSense#getSensesTaggedFrequency()}) and core ranks
+ * ({@link WordSense#getCoreRank()}) of a batch of {@link WordSense}s, e.g., of all the senses of a
+ * {@link Word} or {@link Synset}, as returned by {@link WordNet#getSenseFrequencies(Iterable)}.
+ * @yawni.experimental
+ */
+public final class SenseFrequencies {
+  private final List<WordSense> wordSenses;
+  private final int[] taggedFrequencies;
+  private final int[] coreRanks;
+
+  SenseFrequencies(final List<WordSense> wordSenses, final int[] taggedFrequencies, final int[] coreRanks) {
+    assert wordSenses.size() == taggedFrequencies.length && wordSenses.size() == coreRanks.length;
+    this.wordSenses = wordSenses;
+    this.taggedFrequencies = taggedFrequencies;
+    this.coreRanks = coreRanks;
+  }
+
+  public int size() {
+    return wordSenses.size();
+  }
+
+  /** @return the {@code i}th sense, in the order given */
+  public WordSense getWordSense(final int i) {
+    return wordSenses.get(i);
+  }
+
+  /** @see WordSense#getSensesTaggedFrequency() */
+  public int getSensesTaggedFrequency(final int i) {
+    return taggedFrequencies[i];
+  }
+
+  /** @see WordSense#getCoreRank() */
+  public int getCoreRank(final int i) {
+    return coreRanks[i];
+  }
+
+  /** @return the sum of the senses' tagged frequencies */
+  public int getTotalTaggedFrequency() {
+    int total = 0;
+    for (final int taggedFrequency : taggedFrequencies) {
+      total += taggedFrequency;
+    }
+    return total;
+  }
+
+  /**
+   * @return the senses ordered by decreasing tagged frequency; ties keep their given order
+   */
+  public List<WordSense> byTaggedFrequency() {
+    final Integer[] order = new Integer[size()];
+    for (int i = 0; i < order.length; i++) {
+      order[i] = i;
+    }
+    Arrays.sort(order, Comparator.comparingInt((Integer i) -> -taggedFrequencies[i]));
+    final WordSense[] sorted = new WordSense[order.length];
+    for (int i = 0; i < order.length; i++) {
+      sorted[i] = wordSenses.get(order[i]);
+    }
+    return Arrays.asList(sorted);
+  }
+
+  @Override
+  public String toString() {
+    return "[SenseFrequencies " + wordSenses + " taggedFrequencies: " + Arrays.toString(taggedFrequencies) +
+      " coreRanks: " + Arrays.toString(coreRanks) + "]";
+  }
+} // end class SenseFrequencies
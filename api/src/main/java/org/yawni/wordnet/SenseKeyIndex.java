@@ -0,0 +1,133 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.yawni.wordnet;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Two-way table between <a href="https://wordnet.princeton.edu/documentation/senseidx5wn#sect3">sense keys</a>
+ * and the {@link WordSense}s they identify, each by its <em>address</em>: the {@code POS} of its data file,
+ * its synset's offset, and its index within the synset, packed into a {@code long}.  Sense keys are in
+ * {@link WordSense#getSenseKey()} form, i.e., lowercased with spaces rather than underscores, and for
+ * adjective satellites already include the head word and head id, so neither direction resolves
+ * {@link RelationType#SIMILAR_TO} or parses a synset.
+ *
+ * @see WordNet#getWordSense(CharSequence)
+ */
+final class SenseKeyIndex {
+  private static final int INDEX_BITS = 8;
+  private static final int OFFSET_BITS = 32;
+
+  /** sorted */
+  private final String[] keys;
+  /** {@code addresses[i]} is the address of {@code keys[i]} */
+  private final long[] addresses;
+  /** sorted */
+  private final long[] sortedAddresses;
+  /** {@code addressKeys[i]} is the sense key of {@code sortedAddresses[i]} */
+  private final String[] addressKeys;
+
+  private SenseKeyIndex(final String[] keys, final long[] addresses, final long[] sortedAddresses, final String[] addressKeys) {
+    this.keys = keys;
+    this.addresses = addresses;
+    this.sortedAddresses = sortedAddresses;
+    this.addressKeys = addressKeys;
+  }
+
+  /**
+   * A few senses differ only in case (e.g., the letter senses "A" and "a"), so share a sense key;
+   * such keys identify the first of them.
+   * @param senses sense key and address of every sense
+   */
+  static SenseKeyIndex build(final List<Map.Entry<String, Long>> senses) {
+    final int n = senses.size();
+    final List<Map.Entry<String, Long>> entries = new ArrayList<>(senses);
+    entries.sort(Map.Entry.comparingByValue());
+    final long[] sortedAddresses = new long[n];
+    final String[] addressKeys = new String[n];
+    for (int i = 0; i < n; i++) {
+      sortedAddresses[i] = entries.get(i).getValue();
+      addressKeys[i] = entries.get(i).getKey();
+    }
+    // stable, so the first sense with each key comes first
+    entries.sort(Map.Entry.comparingByKey());
+    int distinct = 0;
+    final String[] keys = new String[n];
+    final long[] addresses = new long[n];
+    for (final Map.Entry<String, Long> entry : entries) {
+      if (distinct == 0 || ! entry.getKey().equals(keys[distinct - 1])) {
+        keys[distinct] = entry.getKey();
+        addresses[distinct] = entry.getValue();
+        distinct++;
+      }
+    }
+    return new SenseKeyIndex(Arrays.copyOf(keys, distinct), Arrays.copyOf(addresses, distinct),
+        sortedAddresses, addressKeys);
+  }
+
+  /**
+   * @param pos any {@code POS} other than {@link POS#ALL}; {@link POS#SAT_ADJ} is equivalent to {@link POS#ADJ}
+   * @param index index of the sense within its synset
+   */
+  static long address(final POS pos, final int offset, final int index) {
+    checkArgument(index >= 0 && index < 1 << INDEX_BITS, "index out of range: %s", index);
+    final POS filePOS = pos == POS.SAT_ADJ ? POS.ADJ : pos;
+    return (long) filePOS.ordinal() << (OFFSET_BITS + INDEX_BITS) | (long) offset << INDEX_BITS | index;
+  }
+
+  static POS pos(final long address) {
+    return POS.fromOrdinal((byte) (address >>> (OFFSET_BITS + INDEX_BITS)));
+  }
+
+  static int offset(final long address) {
+    return (int) (address >>> INDEX_BITS);
+  }
+
+  static int index(final long address) {
+    return (int) address & ((1 << INDEX_BITS) - 1);
+  }
+
+  /** @return number of distinct sense keys */
+  int size() {
+    return keys.length;
+  }
+
+  /**
+   * @param senseKey in {@link WordSense#getSenseKey()} form
+   * @return address of the sense identified by {@code senseKey}, or {@code -1} if there is none
+   */
+  long find(final String senseKey) {
+    final int i = Arrays.binarySearch(keys, senseKey);
+    return i < 0 ? -1 : addresses[i];
+  }
+
+  /** @return the sense key of the sense at {@code address}, or {@code null} if there is none */
+  String senseKey(final long address) {
+    final int i = Arrays.binarySearch(sortedAddresses, address);
+    return i < 0 ? null : addressKeys[i];
+  }
+
+  @Override
+  public String toString() {
+    return "[SenseKeyIndex size: " + keys.length + "]";
+  }
+} // end class SenseKeyIndex
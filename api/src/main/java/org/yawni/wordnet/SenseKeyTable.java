@@ -0,0 +1,125 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.yawni.wordnet;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import org.yawni.util.CharSequences;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * A {@code short} value for each of a set of sense keys, e.g., the tagged sense counts of
+ * {@code cntlist.rev} or the ranks of {@code core-wordnet.ranked}, loaded once so lookups are an in-memory
+ * binary search rather than a binary search of the file.  Keys are normalized like
+ * {@link WordSense#getSenseKey()} (lowercased, with spaces rather than underscores), sorted, and packed
+ * into a single {@code char[]}.
+ */
+final class SenseKeyTable {
+  /** key {@code i} is {@code [keyStarts[i], keyStarts[i + 1])} of {@code chars} */
+  private final int[] keyStarts;
+  private final char[] chars;
+  private final short[] values;
+
+  private SenseKeyTable(final int[] keyStarts, final char[] chars, final short[] values) {
+    this.keyStarts = keyStarts;
+    this.chars = chars;
+    this.values = values;
+  }
+
+  /**
+   * @param lines lines which start with a sense key and end with an integer value, separated by spaces
+   * @throws IllegalArgumentException if a value doesn't fit in a {@code short}
+   */
+  static SenseKeyTable build(final List<? extends CharSequence> lines) {
+    final String[] keys = new String[lines.size()];
+    final short[] unsortedValues = new short[keys.length];
+    for (int i = 0; i < keys.length; i++) {
+      final String line = lines.get(i).toString();
+      keys[i] = normalize(line.substring(0, line.indexOf(' ')));
+      final int value = CharSequences.parseInt(line, line.lastIndexOf(' ') + 1, line.length());
+      checkArgument(value == (short) value, "value out of range: %s", line);
+      unsortedValues[i] = (short) value;
+    }
+    final Integer[] order = new Integer[keys.length];
+    for (int i = 0; i < order.length; i++) {
+      order[i] = i;
+    }
+    Arrays.sort(order, (i, j) -> keys[i].compareTo(keys[j]));
+    final int[] keyStarts = new int[keys.length + 1];
+    for (int i = 0; i < keys.length; i++) {
+      keyStarts[i + 1] = keyStarts[i] + keys[order[i]].length();
+    }
+    final char[] chars = new char[keyStarts[keys.length]];
+    final short[] values = new short[keys.length];
+    for (int i = 0; i < keys.length; i++) {
+      keys[order[i]].getChars(0, keys[order[i]].length(), chars, keyStarts[i]);
+      values[i] = unsortedValues[order[i]];
+    }
+    return new SenseKeyTable(keyStarts, chars, values);
+  }
+
+  static String normalize(final String senseKey) {
+    return senseKey.toLowerCase(Locale.ROOT).replace('_', ' ');
+  }
+
+  int size() {
+    return values.length;
+  }
+
+  /**
+   * @param senseKey normalized sense key
+   * @return value of {@code senseKey}, or {@code missing} if it has none
+   */
+  int get(final CharSequence senseKey, final int missing) {
+    int low = 0;
+    int high = values.length - 1;
+    while (low <= high) {
+      final int middle = (low + high) >>> 1;
+      final int cmp = compare(middle, senseKey);
+      if (cmp < 0) {
+        low = middle + 1;
+      } else if (cmp > 0) {
+        high = middle - 1;
+      } else {
+        return values[middle];
+      }
+    }
+    return missing;
+  }
+
+  /** compares key {@code i} to {@code senseKey} like {@link String#compareTo(String)} */
+  private int compare(final int i, final CharSequence senseKey) {
+    final int start = keyStarts[i];
+    final int length = keyStarts[i + 1] - start;
+    final int n = Math.min(length, senseKey.length());
+    for (int j = 0; j < n; j++) {
+      final char c = chars[start + j];
+      final char d = senseKey.charAt(j);
+      if (c != d) {
+        return c - d;
+      }
+    }
+    return length - senseKey.length();
+  }
+
+  @Override
+  public String toString() {
+    return "[SenseKeyTable size: " + values.length + "]";
+  }
+} // end class SenseKeyTable
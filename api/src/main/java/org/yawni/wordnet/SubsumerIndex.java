@@ -0,0 +1,292 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.yawni.wordnet;
+
+import java.util.Arrays;
+
+/**
+ * Lowest common subsumer queries over the taxonomy of one {@code POS}, by the classic reduction of lowest
+ * common ancestor to range minimum: an Euler tour of the tree, a sparse table of the minima of runs of
+ * tour blocks, and one of the minima of runs within each block, so each range minimum is a constant
+ * number of array reads.  The taxonomy is a DAG (multiple inheritance, and synsets with both hypernyms
+ * and instance hypernyms), so it is first expanded into a tree with a node for each distinct hypernym
+ * path from a root, which for WordNet 3.0 is only about 1.35 nodes per synset.  A query takes the deepest
+ * of the tree lowest common ancestors of each pair of nodes of the two synsets, so it costs
+ * {@code nodes(s1) * nodes(s2)} range minima: usually just one, but more for synsets with several
+ * hypernym paths.
+ *
+ * <p> All the roots hang from a virtual root, so synsets without a common subsumer (e.g., verbs of different
+ * trees) have the virtual root as their lowest common ancestor.  Synsets on a hypernym cycle which
+ * doesn't reach a root (WordNet 3.0 has one, {restrain} and {inhibit}) are made roots in id order.
+ */
+final class SubsumerIndex {
+  /** tour entries pack {@code depth << SYNSET_BITS | synset}, so the minimum of a range is its shallowest node */
+  private static final int SYNSET_BITS = 24;
+  private static final int SYNSET_MASK = (1 << SYNSET_BITS) - 1;
+  private static final int VIRTUAL_ROOT = SYNSET_MASK;
+  /** tour entries per block */
+  private static final int BLOCK_BITS = 4;
+  private static final int BLOCK_SIZE = 1 << BLOCK_BITS;
+
+  /** first synset id of this {@code POS}; synsets are stored relative to it */
+  private final int firstId;
+  private final int[] tour;
+  /** tour positions of the nodes of synset {@code s} are {@code [nodeStarts[s], nodeStarts[s + 1])} of {@code nodePositions} */
+  private final int[] nodeStarts;
+  private final int[] nodePositions;
+  /** {@code blockMinima[k][b]} is the minimum of tour blocks {@code [b, b + 2^k)} */
+  private final int[][] blockMinima;
+  /**
+   * {@code runMinima[k][i]} is the minimum of {@code tour[i, i + 2^k)}, for runs of up to a block;
+   * {@code runMinima[0]} is {@code tour} itself
+   */
+  private final int[][] runMinima;
+
+  private SubsumerIndex(final int firstId, final int[] tour, final int[] nodeStarts, final int[] nodePositions,
+      final int[][] blockMinima, final int[][] runMinima) {
+    this.firstId = firstId;
+    this.tour = tour;
+    this.nodeStarts = nodeStarts;
+    this.nodePositions = nodePositions;
+    this.blockMinima = blockMinima;
+    this.runMinima = runMinima;
+  }
+
+  /**
+   * @return index of the synsets {@code [firstId, endId)} of {@code taxonomy}, all of whose hypernyms
+   *   are in that range
+   */
+  static SubsumerIndex build(final Taxonomy taxonomy, final int firstId, final int endId) {
+    final int size = endId - firstId;
+    assert size < VIRTUAL_ROOT;
+    // children of each synset, the transpose of its parents
+    final int[] childStarts = new int[size + 1];
+    for (int s = 0; s < size; s++) {
+      for (int i = 0, n = taxonomy.parentCount(firstId + s); i < n; i++) {
+        childStarts[taxonomy.parentId(firstId + s, i) - firstId + 1]++;
+      }
+    }
+    for (int s = 0; s < size; s++) {
+      childStarts[s + 1] += childStarts[s];
+    }
+    final int[] children = new int[childStarts[size]];
+    final int[] nextChild = Arrays.copyOf(childStarts, size);
+    for (int s = 0; s < size; s++) {
+      for (int i = 0, n = taxonomy.parentCount(firstId + s); i < n; i++) {
+        children[nextChild[taxonomy.parentId(firstId + s, i) - firstId]++] = s;
+      }
+    }
+
+    final Tour tour = new Tour(size);
+    tour.add(0, VIRTUAL_ROOT);
+    for (int s = 0; s < size; s++) {
+      if (taxonomy.parentCount(firstId + s) == 0) {
+        tour.visit(s, children, childStarts);
+      }
+    }
+    for (int s = 0; s < size; s++) {
+      if (tour.nodeCounts[s] == 0) {
+        tour.visit(s, children, childStarts);
+      }
+    }
+
+    final int[] tourEntries = Arrays.copyOf(tour.entries, tour.length);
+    final int[] nodeStarts = new int[size + 1];
+    for (int s = 0; s < size; s++) {
+      nodeStarts[s + 1] = nodeStarts[s] + tour.nodeCounts[s];
+    }
+    final int[] nodePositions = new int[nodeStarts[size]];
+    final int[] nextNode = Arrays.copyOf(nodeStarts, size);
+    for (int i = 0; i < tour.nodeCount; i++) {
+      nodePositions[nextNode[tour.nodeSynsets[i]]++] = tour.nodePositions[i];
+    }
+
+    final int blocks = (tourEntries.length + BLOCK_SIZE - 1) >> BLOCK_BITS;
+    final int levels = 32 - Integer.numberOfLeadingZeros(blocks);
+    final int[][] blockMinima = new int[levels][];
+    blockMinima[0] = new int[blocks];
+    Arrays.fill(blockMinima[0], Integer.MAX_VALUE);
+    for (int i = 0; i < tourEntries.length; i++) {
+      blockMinima[0][i >> BLOCK_BITS] = Math.min(blockMinima[0][i >> BLOCK_BITS], tourEntries[i]);
+    }
+    for (int k = 1; k < levels; k++) {
+      final int[] previous = blockMinima[k - 1];
+      final int[] level = blockMinima[k] = new int[blocks - (1 << k) + 1];
+      for (int b = 0; b < level.length; b++) {
+        level[b] = Math.min(previous[b], previous[b + (1 << (k - 1))]);
+      }
+    }
+    final int[][] runMinima = new int[BLOCK_BITS + 1][];
+    runMinima[0] = tourEntries;
+    for (int k = 1; k <= BLOCK_BITS; k++) {
+      final int[] previous = runMinima[k - 1];
+      final int[] level = runMinima[k] = new int[Math.max(0, tourEntries.length - (1 << k) + 1)];
+      for (int i = 0; i < level.length; i++) {
+        level[i] = Math.min(previous[i], previous[i + (1 << (k - 1))]);
+      }
+    }
+    return new SubsumerIndex(firstId, tourEntries, nodeStarts, nodePositions, blockMinima, runMinima);
+  }
+
+  /** Euler tour of the path expanded taxonomy under construction */
+  private static final class Tour {
+    int[] entries = new int[1 << 16];
+    int length;
+    /** number of tree nodes of each synset */
+    final int[] nodeCounts;
+    /** synset and first tour position of each tree node */
+    int[] nodeSynsets = new int[1 << 16];
+    int[] nodePositions = new int[1 << 16];
+    int nodeCount;
+    /** synsets on the current path from a root, so a hypernym cycle isn't expanded forever */
+    final boolean[] onPath;
+
+    Tour(final int size) {
+      this.nodeCounts = new int[size];
+      this.onPath = new boolean[size];
+    }
+
+    void add(final int depth, final int synset) {
+      if (length == entries.length) {
+        entries = Arrays.copyOf(entries, 2 * length);
+      }
+      entries[length++] = depth << SYNSET_BITS | synset;
+    }
+
+    /** adds the subtree of each path from {@code root} (at depth 1, below the virtual root), iteratively */
+    void visit(final int root, final int[] children, final int[] childStarts) {
+      // stack of synsets and the position of their next child
+      int[] stack = new int[64];
+      int[] cursors = new int[64];
+      int top = 0;
+      stack[0] = root;
+      cursors[0] = childStarts[root];
+      enter(root, 1);
+      while (top >= 0) {
+        final int synset = stack[top];
+        if (cursors[top] == childStarts[synset + 1]) {
+          onPath[synset] = false;
+          top--;
+          // back to the parent (or the virtual root)
+          add(top + 1, top >= 0 ? stack[top] : VIRTUAL_ROOT);
+          continue;
+        }
+        final int child = children[cursors[top]++];
+        if (onPath[child]) {
+          continue;
+        }
+        if (++top == stack.length) {
+          stack = Arrays.copyOf(stack, 2 * top);
+          cursors = Arrays.copyOf(cursors, 2 * top);
+        }
+        stack[top] = child;
+        cursors[top] = childStarts[child];
+        enter(child, top + 1);
+      }
+    }
+
+    private void enter(final int synset, final int depth) {
+      onPath[synset] = true;
+      if (nodeCount == nodeSynsets.length) {
+        nodeSynsets = Arrays.copyOf(nodeSynsets, 2 * nodeCount);
+        nodePositions = Arrays.copyOf(nodePositions, 2 * nodeCount);
+      }
+      nodeSynsets[nodeCount] = synset;
+      nodePositions[nodeCount] = length;
+      nodeCount++;
+      nodeCounts[synset]++;
+      add(depth, synset);
+    }
+  } // end class Tour
+
+  /**
+   * @return {@code depth << SYNSET_BITS | synset} of the deepest lowest common ancestor of the tree nodes of
+   *   synset ids {@code id1} and {@code id2}, where the virtual root has depth 0
+   */
+  private int lowestCommonAncestor(final int id1, final int id2) {
+    final int s1 = id1 - firstId;
+    final int s2 = id2 - firstId;
+    int best = 0;
+    for (int i = nodeStarts[s1], end1 = nodeStarts[s1 + 1]; i < end1; i++) {
+      for (int j = nodeStarts[s2], end2 = nodeStarts[s2 + 1]; j < end2; j++) {
+        final int p1 = nodePositions[i];
+        final int p2 = nodePositions[j];
+        final int ancestor = p1 <= p2 ? rangeMinimum(p1, p2) : rangeMinimum(p2, p1);
+        if (ancestor > best) {
+          best = ancestor;
+        }
+      }
+    }
+    return best;
+  }
+
+  /** @return minimum of {@code tour[from, to]} (inclusive) */
+  private int rangeMinimum(final int from, final int to) {
+    final int fromBlock = from >> BLOCK_BITS;
+    final int toBlock = to >> BLOCK_BITS;
+    if (fromBlock == toBlock) {
+      return runMinimum(from, to);
+    }
+    int minimum = Math.min(runMinimum(from, ((fromBlock + 1) << BLOCK_BITS) - 1),
+        runMinimum(toBlock << BLOCK_BITS, to));
+    if (toBlock - fromBlock > 1) {
+      final int blocks = toBlock - fromBlock - 1;
+      final int k = 31 - Integer.numberOfLeadingZeros(blocks);
+      minimum = Math.min(minimum, Math.min(blockMinima[k][fromBlock + 1], blockMinima[k][toBlock - (1 << k)]));
+    }
+    return minimum;
+  }
+
+  /** @return minimum of {@code tour[from, to]} (inclusive), which is at most a block long */
+  private int runMinimum(final int from, final int to) {
+    final int k = 31 - Integer.numberOfLeadingZeros(to - from + 1);
+    final int[] level = runMinima[k];
+    return Math.min(level[from], level[to - (1 << k) + 1]);
+  }
+
+  /** @return synset id of the lowest common subsumer of {@code id1} and {@code id2}, or {@code -1} if there is none */
+  int lowestCommonSubsumer(final int id1, final int id2) {
+    final int synset = lowestCommonAncestor(id1, id2) & SYNSET_MASK;
+    return synset == VIRTUAL_ROOT ? -1 : firstId + synset;
+  }
+
+  /** @return depth of the lowest common subsumer of {@code id1} and {@code id2}, or {@code -1} if there is none */
+  int lowestCommonSubsumerDepth(final int id1, final int id2) {
+    return (lowestCommonAncestor(id1, id2) >>> SYNSET_BITS) - 1;
+  }
+
+  /** @return number of nodes of the path expanded taxonomy */
+  int nodeCount() {
+    return nodePositions.length;
+  }
+
+  long estimateSizeInBytes() {
+    long size = 4L * (tour.length + nodeStarts.length + nodePositions.length);
+    for (final int[] level : blockMinima) {
+      size += 4L * level.length;
+    }
+    for (int k = 1; k < runMinima.length; k++) {
+      size += 4L * runMinima[k].length;
+    }
+    return size;
+  }
+
+  @Override
+  public String toString() {
+    return "[SubsumerIndex nodes: " + nodePositions.length + " tour: " + tour.length + "]";
+  }
+} // end class SubsumerIndex
@@ -16,21 +16,21 @@
  */
 package org.yawni.wordnet;
 
-import com.google.common.base.Strings;
+import com.google.common.base.Preconditions;
 import com.google.common.collect.ComparisonChain;
-import com.google.common.collect.Iterables;
 import com.google.common.primitives.SignedBytes;
 
-import java.util.ArrayList;
+import java.util.AbstractList;
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
+import java.util.RandomAccess;
 import java.util.stream.Stream;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.yawni.util.CharSequenceTokenizer;
-import org.yawni.util.CharSequences;
 import org.yawni.util.LightImmutableList;
 
 import static com.google.common.collect.ImmutableList.toImmutableList;
@@ -51,6 +51,9 @@ import static org.yawni.util.Utils.add;
  */
 public final class Synset implements RelationArgument, Comparable<Synset>, Iterable<WordSense> {
   private static final Logger log = LoggerFactory.getLogger(Synset.class);
+  private static final long[] NO_RELATIONS = new long[0];
+  /** {@link #relations(long, int)} type mask of every {@code RelationType} */
+  static final long ALL_TYPES = -1L;
   //
   // Instance implementation
   //
@@ -59,14 +62,14 @@ public final class Synset implements RelationArgument, Comparable<Synset>, Itera
   /** offset in <code>data.<em>pos</em></code> file; {@code Synset.hereiam} in {@code wn.h} */
   private final int offset;
   private final LightImmutableList<WordSense> wordSenses;
-  // TODO consider storing Relations indirectly
-  // (all have common source == this?)
-  // pos, synset offset, optionally Synset WordSense rank (NOT sense number which is Word-relative rank)
-  // also requires WordNet ref
-  // increases Synset's direct 32-bit size
-  // to 4+1+4+2 = 11 B, though may be able to pack synset offset and rank into less bytes
-  // ! SoftReference is the way to go here !
-  private final LightImmutableList<Relation> relations;
+  /**
+   * Relations of this synset and its senses, packed into {@code long}s (see {@link Relation#pack}) since
+   * they're so numerous; {@link Relation} flyweights of them are created only when they're asked for.
+   * {@code null} until they're first asked for if this synset was parsed lazily; see {@link #relations()}.
+   */
+  private volatile long[] relations;
+  /** {@link RelationTypeIndex} of {@link #relations}; {@code null} until the first query by type */
+  private volatile char[] relationTypeIndex;
   private final byte posOrdinal;
   private final byte lexfilenum;
   private final boolean isAdjectiveCluster;
@@ -74,7 +77,19 @@ public final class Synset implements RelationArgument, Comparable<Synset>, Itera
   //
   // Constructor
   //
+  /**
+   * Construct from {@code line} of a <code>data.<em>pos</em></code> file, deferring decoding its
+   * relations until they're first asked for.
+   */
   Synset(final String line, final WordNet wordNet) {
+    this(line, wordNet, false);
+  }
+
+  /**
+   * @param decodeRelations if {@code true}, decode the relations of {@code line} now, e.g., when
+   *   every synset is being loaded, else when they're first asked for (re-reading {@code line})
+   */
+  Synset(final String line, final WordNet wordNet, final boolean decodeRelations) {
     this.wordNet = wordNet;
     final CharSequenceTokenizer tokenizer = new CharSequenceTokenizer(line, " ");
     this.offset = tokenizer.nextInt();
@@ -97,18 +112,20 @@ public final class Synset implements RelationArgument, Comparable<Synset>, Itera
     final int wordCount = tokenizer.nextHexInt();
     final WordSense[] localWordSenses = new WordSense[wordCount];
     for (int i = 0; i < wordCount; i++) {
-      String lemma = tokenizer.nextToken();
+      // lemma is line[lemmaStart, lemmaEnd)
+      final int lemmaStart = tokenizer.nextTokenStart();
+      int lemmaEnd = tokenizer.position();
       final int lexid = tokenizer.nextHexInt();
       int flags = 0;
       // strip the syntactic marker, e.g., "(a)" || "(ip)" || ...
       final int lparenIdx;
-      if (lemma.charAt(lemma.length() - 1) == ')' &&
-        (lparenIdx = lemma.lastIndexOf('(')) > 0) {
-        final int rparenIdx = lemma.length() - 1;
-        assert ')' == lemma.charAt(rparenIdx);
+      if (line.charAt(lemmaEnd - 1) == ')' &&
+        (lparenIdx = line.lastIndexOf('(', lemmaEnd - 1)) > lemmaStart) {
+        final int rparenIdx = lemmaEnd - 1;
+        assert ')' == line.charAt(rparenIdx);
         //TODO use String.regionMatches() instead of creating 'marker'
-        final String marker = lemma.substring(lparenIdx + 1, rparenIdx);
-        lemma = lemma.substring(0, lparenIdx);
+        final String marker = line.substring(lparenIdx + 1, rparenIdx);
+        lemmaEnd = lparenIdx;
         switch (marker) {
         case "p":
           flags |= WordSense.AdjPosition.PREDICATIVE.flag;
@@ -123,23 +140,20 @@ public final class Synset implements RelationArgument, Comparable<Synset>, Itera
           throw new RuntimeException("unknown syntactic marker " + marker);
         }
       }
-      localWordSenses[i] = new WordSense(this, lemma.replace('_', ' '), lexid, flags);
+      localWordSenses[i] = new WordSense(this, LemmaPool.internUnderScoreToSpace(line, lemmaStart, lemmaEnd), lexid, flags);
     }
     this.wordSenses = LightImmutableList.of(localWordSenses);
 
     final int relationCount = tokenizer.nextInt();
-    // allocate extra space in this temporary for additional Relations (e.g., morphosemantic)
-    final List<Relation> localRelations = new ArrayList<>(2 * relationCount);
-    for (int i = 0; i < relationCount; i++) {
-      final Relation relation = Relation.makeRelation(this, localRelations.size(), tokenizer);
-      localRelations.add(relation);
-      addVerbGroupTransitiveClosureRelations(relation, localRelations);
-      addExtraMorphosemanticRelations(relation, localRelations);
+    if (decodeRelations) {
+      decodeRelations(tokenizer, relationCount);
+    } else if (posOrdinal == POS.VERB.getByteOrdinal()) {
+      // skip to the verb frames
+      for (int i = 0; i < Relation.TOKEN_COUNT * relationCount; i++) {
+        tokenizer.skipNextToken();
+      }
     }
 
-    this.relations = LightImmutableList.copyOf(localRelations);
-    //assert relations.equals(localRelations);
-
     if (posOrdinal == POS.VERB.getByteOrdinal()) {
       final int f_cnt = tokenizer.nextInt();
       for (int i = 0; i < f_cnt; i++) {
@@ -158,167 +172,191 @@ public final class Synset implements RelationArgument, Comparable<Synset>, Itera
     }
   }
 
-  private boolean addVerbGroupTransitiveClosureRelations(final Relation relation, final List<Relation> localRelations) {
-    if (relation.getType() != RelationType.VERB_GROUP) {
+  /**
+   * Construct from {@code record} of {@code dictionary}; relations already include
+   * the extra verb group and morphosemantic relations.
+   */
+  Synset(final CompiledDictionary dictionary, final int record, final WordNet wordNet) {
+    this.wordNet = wordNet;
+    this.offset = dictionary.synsetOffset(record);
+    this.lexfilenum = dictionary.lexfilenum(record);
+    this.isAdjectiveCluster = dictionary.isAdjectiveCluster(record);
+    this.posOrdinal = dictionary.synsetPOSOrdinal(record);
+
+    final WordSense[] localWordSenses = new WordSense[dictionary.senseCount(record)];
+    for (int i = 0; i < localWordSenses.length; i++) {
+      localWordSenses[i] = new WordSense(this, dictionary.senseLemma(record, i),
+          dictionary.senseLexid(record, i), dictionary.senseAdjPositionFlags(record, i));
+      localWordSenses[i].setVerbFrameFlags(dictionary.senseVerbFrameFlags(record, i));
+    }
+    this.wordSenses = LightImmutableList.of(localWordSenses);
+
+    final long[] localRelations = new long[dictionary.relationCount(record)];
+    for (int i = 0; i < localRelations.length; i++) {
+      localRelations[i] = Relation.read(dictionary, record, i);
+    }
+    this.relations = localRelations;
+  }
+
+  /**
+   * @return {@link #relations}, decoding them from this synset's <code>data.<em>pos</em></code>
+   *   line if this is their first use
+   */
+  private long[] relations() {
+    final long[] local = relations;
+    if (local != null) {
+      return local;
+    }
+    // benign race: concurrent decodings are equal
+    final CharSequenceTokenizer tokenizer = new CharSequenceTokenizer(wordNet.getSynsetLineAt(getPOS(), offset), " ");
+    // skip offset, lexfilenum and ss_type
+    for (int i = 0; i < 3; i++) {
+      tokenizer.skipNextToken();
+    }
+    final int wordCount = tokenizer.nextHexInt();
+    // skip lemma and lexid of each
+    for (int i = 0; i < 2 * wordCount; i++) {
+      tokenizer.skipNextToken();
+    }
+    return decodeRelations(tokenizer, tokenizer.nextInt());
+  }
+
+  /**
+   * Decode {@code relationCount} relations from {@code tokenizer}, adding their extra verb group
+   * and morphosemantic relations, and publish them.
+   */
+  private long[] decodeRelations(final CharSequenceTokenizer tokenizer, final int relationCount) {
+    // allocate extra space in this temporary for additional Relations (e.g., morphosemantic)
+    final RelationRecords localRelations = new RelationRecords(2 * relationCount);
+    for (int i = 0; i < relationCount; i++) {
+      final long relation = Relation.parse(this, tokenizer);
+      localRelations.add(relation);
+      addVerbGroupTransitiveClosureRelations(relation, localRelations);
+      addExtraMorphosemanticRelations(relation, localRelations);
+    }
+    final long[] records = localRelations.toArray();
+    this.relations = records;
+    return records;
+  }
+
+  /** @return {@link #relationTypeIndex}, building it if this is its first use */
+  private char[] relationTypeIndex() {
+    char[] index = relationTypeIndex;
+    if (index == null) {
+      // benign race: concurrent builds are equal
+      relationTypeIndex = index = RelationTypeIndex.build(relations());
+    }
+    return index;
+  }
+
+  /** Growable buffer of packed relations */
+  private static final class RelationRecords {
+    private long[] records;
+    private int size;
+
+    RelationRecords(final int capacity) {
+      this.records = new long[capacity];
+    }
+
+    void add(final long record) {
+      if (size == records.length) {
+        records = Arrays.copyOf(records, Math.max(4, 2 * size));
+      }
+      records[size++] = record;
+    }
+
+    boolean contains(final long record) {
+      for (int i = 0; i < size; i++) {
+        if (records[i] == record) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    long[] toArray() {
+      return size == 0 ? NO_RELATIONS : Arrays.copyOf(records, size);
+    }
+  } // end class RelationRecords
+
+  private boolean addVerbGroupTransitiveClosureRelations(final long relation, final RelationRecords localRelations) {
+    if (Relation.type(relation) != RelationType.VERB_GROUP) {
       return false;
     }
     assert posOrdinal == 2;
     // insert additional VERB_GROUP relation instances
-    final CharSequence sourceOffsetKey = offsetKey(offset, null);
-    final Iterable<CharSequence> lexRelLines = wordNet.lookupVerbGroupLines(sourceOffsetKey);
-    if (Iterables.isEmpty(lexRelLines)) {
+    final ExtraRelationIndex verbGroups = wordNet.getVerbGroupIndex();
+    final int slot = verbGroups.find(ExtraRelationIndex.key(POS.VERB, offset));
+    if (slot < 0) {
       return false;
     }
-    final POS myTargetPOS = relation.getTargetPOS();
-    assert myTargetPOS == POS.VERB;
-    final int myTargetSynsetIdx = relation.getTargetIndex();
-    assert myTargetSynsetIdx == 0;
+    assert Relation.targetPOS(relation) == POS.VERB;
+    assert Relation.targetIndex(relation) == 0;
     boolean foundMatch = false;
-    for (final CharSequence vgRelLine : lexRelLines) {
-      final CharSequenceTokenizer lexTokenizer = new CharSequenceTokenizer(vgRelLine, " ");
-      // not really necessary, could just skipToken()
-      final String sourceOffsetString = lexTokenizer.nextToken();
-      assert sourceOffsetString.contentEquals(sourceOffsetKey);
-      final int sourceOffset = Integer.parseInt(sourceOffsetString);
-      while (lexTokenizer.hasMoreTokens()) {
-        final int targetOffset = lexTokenizer.nextInt();
-        final int targetIndex = 0; // targetIndex of Synset is 0; see Relation#getTarget()/Relation#resolve
-        final int sourceIndex = 0; // ''
-        final SemanticRelation vgRelation = new SemanticRelation(
-            targetOffset, targetIndex, POS.VERB,
-            wordNet, localRelations.size(), sourceOffset, sourceIndex, POS.VERB,
-            RelationType.VERB_GROUP
-        );
-        // ensure not already in there
-        if (! contains(vgRelation, localRelations)) {
-          localRelations.add(vgRelation);
-          foundMatch = true;
-        } else {
-//          System.err.println("AVOIDING DUP "+vgRelation); // toString causes stack overflow
-//          System.err.println("AVOIDING DUP");
-        }
+    for (int i = verbGroups.start(slot), end = verbGroups.end(slot); i < end; i++) {
+      final int targetOffset = ExtraRelationIndex.targetOffset(verbGroups.record(i));
+      final int targetIndex = 0; // targetIndex of Synset is 0; see Relation#getTarget()/Relation#resolve
+      final int sourceIndex = 0; // ''
+      final long verbGroup = Relation.pack(targetOffset, POS.VERB, targetIndex, sourceIndex, RelationType.VERB_GROUP);
+      // ensure not already in there; records hold no (generated) relation index, so equal records are
+      // logical duplicates
+      if (! localRelations.contains(verbGroup)) {
+        localRelations.add(verbGroup);
+        foundMatch = true;
       }
     }
     return foundMatch;
   }
 
-  // because srcRelationIndex is generated, we can't use it in the comparison; ultimately,
-  // the srcRelationIndex will be unique and effects the equals() and compareTo() ordering,
-  // so we have to compare manually to prevent logical duplicates
-  private static boolean contains(final Relation needle, final List<Relation> localRelations) {
-    for (final Relation that : localRelations) {
-      if (that.getSourceOffset() == needle.getSourceOffset()
-         && that.getSourceIndex() == needle.getSourceIndex()
-         // DON'T USE SYNTHESIZED SOURCE RELATION INDEX && that.getSourceRelationIndex() == needle.getSourceRelationIndex()
-         && that.getType() == needle.getType()
-         && that.getTargetOffset() == needle.getTargetOffset()
-         && that.getTargetIndex() == needle.getTargetIndex()) {
-        return true;
-      }
-    }
-    return false;
-  }
-
-  private boolean addExtraMorphosemanticRelations(final Relation relation, final List<Relation> localRelations) {
-    if (relation.getType() != RelationType.DERIVATIONALLY_RELATED) {
+  private boolean addExtraMorphosemanticRelations(final long relation, final RelationRecords localRelations) {
+    if (Relation.type(relation) != RelationType.DERIVATIONALLY_RELATED) {
       return false;
     }
     final POS srcPOS = getPOS();
     if (srcPOS != POS.NOUN && srcPOS != POS.VERB) {
       return false;
     }
-    final POS targetPOS = relation.getTargetPOS();
+    final POS targetPOS = Relation.targetPOS(relation);
     if (targetPOS != POS.NOUN && targetPOS != POS.VERB) {
       return false;
     }
     // insert MorphosemanticRelation instances
-    final LexicalRelation lexRel = (LexicalRelation) relation;
-//      showLine(lexRel);
-    final String srcOffsetKey = offsetKey(offset, srcPOS);
-    final Iterable<CharSequence> lexRelLines = wordNet.lookupMorphoSemanticRelationLines(srcOffsetKey);
+    assert Relation.isLexical(relation);
+    final ExtraRelationIndex morphosemantics = wordNet.getMorphosemanticIndex();
+    final int slot = morphosemantics.find(ExtraRelationIndex.key(srcPOS, offset));
     // 1331 of these
-    if (Iterables.isEmpty(lexRelLines)) {
-//        System.err.println("eek! "+srcOffsetKey+" "+getPOS()+" "+line);
-//        continue;
+    if (slot < 0) {
       return false;
     }
     // this is invariant for this relation
     // mySrcSynsetIdx = wordSenses.indexOf(lexRel.getSource())
-    final int mySrcSynsetIdx = lexRel.getSourceIndex() - 1;
+    final int mySrcSynsetIdx = Relation.sourceIndex(relation) - 1;
     assert mySrcSynsetIdx >= 0;
-    final POS myTargetPOS = lexRel.getTargetPOS();
-    final int myTargetSynsetIdx = lexRel.getTargetIndex() - 1;
+    final int myTargetSynsetIdx = Relation.targetIndex(relation) - 1;
     assert myTargetSynsetIdx >= 0;
-    final int myTargetOffset = lexRel.getTargetOffset();
+    final int myTargetOffset = Relation.targetOffset(relation);
     boolean foundMatch = false;
     RelationType mrtype = null;
-    for (final CharSequence lexRelLine : lexRelLines) {
-//          System.err.println("lexRelLine: "+lexRelLine);
-      final CharSequenceTokenizer lexTokenizer = new CharSequenceTokenizer(lexRelLine, " ");
-      // not really necessary, could just skipToken()
-      final String srcPOSOffset = lexTokenizer.nextToken();
-      assert srcPOSOffset.contentEquals(srcOffsetKey);
-      final int srcSynsetIdx = lexTokenizer.nextInt();
-      if (srcSynsetIdx != mySrcSynsetIdx) {
-//            System.err.println("fail 0 :: "+mySrcSynsetIdx+" "+srcSynsetIdx);
-          continue;
+    for (int i = morphosemantics.start(slot), end = morphosemantics.end(slot); i < end; i++) {
+      final long record = morphosemantics.record(i);
+      if (ExtraRelationIndex.sourceIndex(record) != mySrcSynsetIdx
+          || ExtraRelationIndex.targetIndex(record) != myTargetSynsetIdx
+          || ExtraRelationIndex.targetOffset(record) != myTargetOffset) {
+        continue;
       }
-      final String mtype = lexTokenizer.nextToken();
-      //TODO pull off POS part using some new CharSequenceTokenizer nextChar()/charAt()/seek functionality
-      final String targetPOSOffset = lexTokenizer.nextToken();
-      final int targetSynsetIdx = lexTokenizer.nextInt();
-      if (targetSynsetIdx != myTargetSynsetIdx) {
-//            System.err.println("fail 1 :: "+myTargetSynsetIdx+" "+targetSynsetIdx);
-          continue;
-      }
-      // POS mismatch is possible (rare)
-      if (targetPOS != myTargetPOS) {
-          continue;
-      }
-
-      final int targetOffset = CharSequences.parseInt(targetPOSOffset, 1, targetPOSOffset.length());
-      if (targetOffset != myTargetOffset) {
-//            System.err.println("fail 2 :: targetOffset "+myTargetOffset+" "+targetOffset);
-          continue;
-      }
-      // Yahoo! full match
-//          System.err.println("full match!");
+      // full match
       foundMatch = true;
-      final MorphosemanticRelation morphorel = MorphosemanticRelation.fromValue(mtype);
-      mrtype = RelationType.valueOf(morphorel.name());
-//        break;
+      mrtype = ExtraRelationIndex.type(record);
     }
 
     if (mrtype != null) {
 //          System.err.println("full match! "+mrtype);
-      final LexicalRelation morphosemanticRelation = new LexicalRelation(lexRel, mrtype, localRelations.size());
-      localRelations.add(morphosemanticRelation);
+      localRelations.add(Relation.withType(relation, mrtype));
     }
     //        assert foundMatch;
-    if (! foundMatch) {
-      // 4895 instances
-//        showLine(lexRel);
-    }
     return foundMatch;
   }
 
-  private static String offsetKey(int offset, POS pos) {
-    final String offsetSuffix = Strings.padStart(String.valueOf(offset), 8, '0');
-    if (pos == null) {
-      return offsetSuffix;
-    }
-    switch (pos) {
-    case NOUN:
-//      return String.format("1%08d", offset);
-      return "1" + offsetSuffix;
-    case VERB:
-//      return String.format("2%08d", offset);
-      return "2" + offsetSuffix;
-    default:
-      throw new UnsupportedOperationException();
-    }
-  }
-
   // debug method
   private static void showLine(final LexicalRelation lexRel) {
     final int srcPOS = lexRel.getSource().getPOS().ordinal();
@@ -367,9 +405,20 @@ public final class Synset implements RelationArgument, Comparable<Synset>, Itera
    * Returns the "gloss", or definition of this Synset, and optionally some example sentences
    * or an empty String.
    */
-  @SuppressWarnings("deprecation") // using Character.isSpace() for file compat
   public String getGloss() {
-    final String line = wordNet.getSynsetLineAt(getPOS(), offset);
+    final String storedGloss = wordNet.getStoredGloss(getPOS(), offset);
+    if (storedGloss != null) {
+      return storedGloss;
+    }
+    return glossOf(wordNet.getSynsetLineAt(getPOS(), offset));
+  }
+
+  /**
+   * @return the gloss of the synset on <code>data.<em>pos</em></code> line {@code line}
+   * @see #getGloss()
+   */
+  @SuppressWarnings("deprecation") // using Character.isSpace() for file compat
+  static String glossOf(final String line) {
     // find gloss
     final int index = line.indexOf('|');
     if (index > 0) {
@@ -497,49 +546,161 @@ public final class Synset implements RelationArgument, Comparable<Synset>, Itera
    */
   @Override
   public List<Relation> getRelations() {
-    return relations;
+    return new RelationList(relations());
+  }
+
+  /** Immutable view of {@link #relations}, creating a {@code Relation} flyweight per {@code get()} */
+  private final class RelationList extends AbstractList<Relation> implements RandomAccess {
+    private final long[] records;
+
+    RelationList(final long[] records) {
+      this.records = records;
+    }
+
+    @Override
+    public Relation get(final int index) {
+      Preconditions.checkElementIndex(index, records.length);
+      return Relation.of(Synset.this, index);
+    }
+
+    @Override
+    public int size() {
+      return records.length;
+    }
+  } // end class RelationList
+
+  /**
+   * Immutable view of a slice of a {@link RelationTypeIndex}, i.e., of the relations of
+   * some type, creating each element from its relation index per {@code get()}
+   */
+  private abstract static class RelationSlice<T> extends AbstractList<T> implements RandomAccess {
+    private final char[] index;
+    private final int start;
+    private final int size;
+
+    RelationSlice(final char[] index, final int slot) {
+      this.index = index;
+      this.start = RelationTypeIndex.start(index, slot);
+      this.size = RelationTypeIndex.end(index, slot) - start;
+    }
+
+    @Override
+    public T get(final int i) {
+      Preconditions.checkElementIndex(i, size);
+      return element(RelationTypeIndex.relation(index, start + i));
+    }
+
+    abstract T element(int relationIndex);
+
+    @Override
+    public int size() {
+      return size;
+    }
+  } // end class RelationSlice
+
+  /** @return {@code Relation}s of {@code slot} of {@code index} */
+  private <R extends Relation> List<R> relationSlice(final char[] index, final int slot) {
+    if (slot < 0) {
+      return LightImmutableList.of();
+    }
+    return new RelationSlice<R>(index, slot) {
+      @SuppressWarnings("unchecked")
+      @Override
+      R element(final int relationIndex) {
+        return (R) Relation.of(Synset.this, relationIndex);
+      }
+    };
+  }
+
+  /** @return targets of the relations of {@code slot} of {@code index} */
+  private <T extends RelationArgument> List<T> targetSlice(final char[] index, final int slot) {
+    if (slot < 0) {
+      return LightImmutableList.of();
+    }
+    final long[] records = relations();
+    return new RelationSlice<T>(index, slot) {
+      @SuppressWarnings("unchecked")
+      @Override
+      T element(final int relationIndex) {
+        return (T) Relation.target(wordNet, records[relationIndex]);
+      }
+    };
+  }
+
+  /** @return number of relations of this synset and its senses */
+  int relationCount() {
+    return relations().length;
+  }
+
+  /** @return relation {@code index}, packed as described by {@link Relation#pack} */
+  long relationRecord(final int index) {
+    return relations()[index];
   }
 
+  /**
+   * Includes {@code soughtType}'s auxiliary types, e.g., {@code MERONYM} includes
+   * {@code PART_MERONYM}, {@code MEMBER_MERONYM} and {@code SUBSTANCE_MERONYM}.
+   * Returns a view of a precomputed slice of this synset's relations.
+   */
   @Override
   public List<Relation> getRelations(final RelationType soughtType) {
-    // regardless of includeAuxiliaryTypes
-    // - type == MERONYM should auxiliary type variants
-    // - type == HOLONYM should auxiliary type variants
-    // - type == DOMAIN should auxiliary type variants
-    // - type == DOMAIN_MEMBER should auxiliary type variants
-    // really, includeAuxiliaryTypes should only mean include instances
-    final boolean includeInstances = true;
-    List<Relation> list = null;
-    //TODO
-    // if superTypes exist, search them
-    // if current type exists, search it
-    // if subTypes exist, search them
-    for (final Relation relation : relations) {
-      final RelationType rType = relation.getType();
-//      } else if (includeInstances && soughtType == HYPONYM && rType == INSTANCE_HYPONYM) {
-//        list = add(list, relation);
-//      } else if (includeInstances && soughtType == HYPERNYM && rType == INSTANCE_HYPERNYM) {
-//        list = add(list, relation);
-//      }
-        if (rType == soughtType) {
-          list = add(list, relation);
-//        } else if (rType.auxiliaryTypes.contains(soughtType)) {
-        } else if (soughtType.auxiliaryTypes.contains(rType)) {
-          list = add(list, relation);
-        }
+    final char[] index = relationTypeIndex();
+    return relationSlice(index, RelationTypeIndex.slot(index, soughtType));
+  }
+
+  /**
+   * @param typeMask bit mask of the {@link RelationType#ordinal()}s sought
+   * @param senseIndex if non-negative, only lexical relations whose source is
+   *   {@code getWordSense(senseIndex)} (and all semantic relations) are sought
+   * @return the relations sought, in order
+   */
+  List<Relation> relations(final long typeMask, final int senseIndex) {
+    final long[] records = relations();
+    final int count = countRelations(records, typeMask, senseIndex);
+    if (count == 0) {
+      return LightImmutableList.of();
     }
-    // if list == null && type has auxType, recall this method with that auxtype
-    if (list == null) {
-//      if (! type.subTypes.isEmpty()) {
-//        System.err.println("going for it "+type+" this: "+this+" subType: "+type.subTypes.get(0));
-//        assert type.subTypes.size() == 1;
-//        return getRelations(type.subTypes.get(0));
-//      } else {
-//        //System.err.println("type "+type+" for "+this+" has no subTypes");
-//      }
+    final Relation[] sought = new Relation[count];
+    for (int i = 0, j = 0; j < count; i++) {
+      if (isSought(records[i], typeMask, senseIndex)) {
+        sought[j++] = Relation.of(this, i);
+      }
+    }
+    return LightImmutableList.of(sought);
+  }
+
+  /** @return targets of {@link #relations(long, int)}, read directly from their packed records */
+  List<RelationArgument> relationTargets(final long typeMask, final int senseIndex) {
+    final long[] records = relations();
+    final int count = countRelations(records, typeMask, senseIndex);
+    if (count == 0) {
       return LightImmutableList.of();
     }
-    return LightImmutableList.copyOf(list);
+    final RelationArgument[] targets = new RelationArgument[count];
+    for (int i = 0, j = 0; j < count; i++) {
+      if (isSought(records[i], typeMask, senseIndex)) {
+        targets[j++] = Relation.target(wordNet, records[i]);
+      }
+    }
+    return LightImmutableList.of(targets);
+  }
+
+  private static int countRelations(final long[] records, final long typeMask, final int senseIndex) {
+    int count = 0;
+    for (final long relation : records) {
+      if (isSought(relation, typeMask, senseIndex)) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  private static boolean isSought(final long relation, final long typeMask, final int senseIndex) {
+    if ((typeMask & 1L << Relation.typeOrdinal(relation)) == 0) {
+      return false;
+    }
+    final int sourceIndex = Relation.sourceIndex(relation);
+    return senseIndex < 0 || sourceIndex == 0 || sourceIndex - 1 == senseIndex;
   }
 
   @Override
@@ -552,21 +713,22 @@ public final class Synset implements RelationArgument, Comparable<Synset>, Itera
   /**
    * Returns <em>only</em> {@link SemanticRelation}s
    * which have this Synset as their source that have
-   * type {@code type}.
+   * type {@code type}.  Unless {@code type} is {@code null}, returns a view
+   * of a precomputed slice of this synset's relations.
    *
    * @see Synset#getRelations()
    */
   @Override
   public List<SemanticRelation> getSemanticRelations(final RelationType type) {
+    if (type != null) {
+      final char[] index = relationTypeIndex();
+      return relationSlice(index, RelationTypeIndex.semanticSlot(index, type));
+    }
+    final long[] records = relations();
     List<SemanticRelation> list = null;
-    for (final Relation relation : relations) {
-      if ((type == null || relation.getType() == type) &&
-        relation.getSourceOffset() == this.getOffset() &&
-        relation.getSourcePOS() == this.getPOS() &&
-        relation instanceof SemanticRelation
-      ) {
-        final SemanticRelation semanticRelation = (SemanticRelation) relation;
-        list = add(list, semanticRelation);
+    for (int i = 0; i < records.length; i++) {
+      if (! Relation.isLexical(records[i])) {
+        list = add(list, (SemanticRelation) Relation.of(this, i));
       }
     }
     if (list == null) {
@@ -576,26 +738,28 @@ public final class Synset implements RelationArgument, Comparable<Synset>, Itera
   }
 
   public Stream<Synset> getSemanticRelationTargets(final RelationType type) {
-    return getSemanticRelations(type).stream()
-        .map(SemanticRelation::getTarget);
+    if (type != null) {
+      final char[] index = relationTypeIndex();
+      return this.<Synset>targetSlice(index, RelationTypeIndex.semanticSlot(index, type)).stream();
+    }
+    return Arrays.stream(relations())
+        .filter(relation -> ! Relation.isLexical(relation))
+        .mapToObj(relation -> (Synset) Relation.target(wordNet, relation));
   }
 
   @Override
   public List<RelationArgument> getRelationTargets() {
-    return Synset.collectTargets(getRelations());
+    return relationTargets(ALL_TYPES, -1);
   }
 
+  /**
+   * Includes {@code type}'s auxiliary types, like {@link #getRelations(RelationType)}.
+   * Returns a view of a precomputed slice of this synset's relations.
+   */
   @Override
   public List<RelationArgument> getRelationTargets(final RelationType type) {
-    return Synset.collectTargets(getRelations(type));
-  }
-
-  static List<RelationArgument> collectTargets(final List<? extends Relation> relations) {
-    final RelationArgument[] targets = new RelationArgument[relations.size()];
-    for (int i = 0, n = relations.size(); i < n; i++) {
-      targets[i] = relations.get(i).getTarget();
-    }
-    return LightImmutableList.of(targets);
+    final char[] index = relationTypeIndex();
+    return targetSlice(index, RelationTypeIndex.slot(index, type));
   }
 
   @Override
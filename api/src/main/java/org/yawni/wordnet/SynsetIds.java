@@ -0,0 +1,111 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.yawni.wordnet;
+
+import java.util.Arrays;
+
+/**
+ * Dense <em>synset ids</em> for every synset of a {@link WordNet}: all nouns, then verbs, adjectives and
+ * adverbs, each in <code>data.<em>pos</em></code> file order &ndash; the numbering of
+ * {@link PreloadedDictionary}, which holds one, but also available without preloading.  Only the data file offsets are
+ * stored, so ids can key primitive arrays of per-synset data.
+ */
+final class SynsetIds {
+  /** first synset id of each {@code POS}, indexed by {@link #posIndex(POS)}; {@code POS.CATS.size() + 1} long */
+  private final int[] firstSynsetIds;
+  /** data file offsets of all synsets, by synset id (ascending within each {@code POS}) */
+  private final int[] synsetOffsets;
+
+  private SynsetIds(final int[] firstSynsetIds, final int[] synsetOffsets) {
+    this.firstSynsetIds = firstSynsetIds;
+    this.synsetOffsets = synsetOffsets;
+  }
+
+  /**
+   * @param offsets the (ascending) synset offsets of each of {@link POS#CATS}, in that order
+   */
+  static SynsetIds build(final int[][] offsets) {
+    assert offsets.length == POS.CATS.size();
+    final int[] firstSynsetIds = new int[offsets.length + 1];
+    for (int p = 0; p < offsets.length; p++) {
+      firstSynsetIds[p + 1] = firstSynsetIds[p] + offsets[p].length;
+    }
+    final int[] synsetOffsets = new int[firstSynsetIds[offsets.length]];
+    for (int p = 0; p < offsets.length; p++) {
+      System.arraycopy(offsets[p], 0, synsetOffsets, firstSynsetIds[p], offsets[p].length);
+    }
+    return new SynsetIds(firstSynsetIds, synsetOffsets);
+  }
+
+  // POS.CATS position; SAT_ADJ synsets are in the ADJ data file
+  static int posIndex(final POS pos) {
+    return (pos == POS.SAT_ADJ ? POS.ADJ : pos).ordinal() - 1;
+  }
+
+  /**
+   * @return synset id of the synset at {@code offset}, or {@code -1} if there is none
+   */
+  int synsetId(final POS pos, final int offset) {
+    final int p = posIndex(pos);
+    if (p < 0 || p >= POS.CATS.size()) {
+      return -1;
+    }
+    final int id = Arrays.binarySearch(synsetOffsets, firstSynsetIds[p], firstSynsetIds[p + 1], offset);
+    return id < 0 ? -1 : id;
+  }
+
+  int synsetId(final Synset synset) {
+    return synsetId(synset.getPOS(), synset.getOffset());
+  }
+
+  /** @return {@code POS} of the data file of synset {@code id}; {@link POS#ADJ} for satellites */
+  POS pos(final int id) {
+    int p = 0;
+    while (id >= firstSynsetIds[p + 1]) {
+      p++;
+    }
+    return POS.CATS.get(p);
+  }
+
+  int offset(final int id) {
+    return synsetOffsets[id];
+  }
+
+  /** @return first synset id of {@code pos} */
+  int firstId(final POS pos) {
+    return firstSynsetIds[posIndex(pos)];
+  }
+
+  /** @return synset id after the last one of {@code pos} */
+  int endId(final POS pos) {
+    return firstSynsetIds[posIndex(pos) + 1];
+  }
+
+  int size() {
+    return synsetOffsets.length;
+  }
+
+  /** @return approximate size of this index's arrays in bytes */
+  long estimateSizeInBytes() {
+    return 4L * (firstSynsetIds.length + synsetOffsets.length);
+  }
+
+  @Override
+  public String toString() {
+    return "[SynsetIds size: " + synsetOffsets.length + "]";
+  }
+} // end class SynsetIds
@@ -0,0 +1,361 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.yawni.wordnet;
+
+import com.google.common.collect.Lists;
+import com.google.common.primitives.Ints;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The noun and verb taxonomies: the DAG of {@link RelationType#HYPERNYM} and
+ * {@link RelationType#INSTANCE_HYPERNYM} relations, with its transitive closure precomputed over
+ * compact <em>synset ids</em> (all nouns, then verbs, adjectives and adverbs, each in
+ * <code>data.<em>pos</em></code> file order).  {@link #isA(Synset, Synset)} is a binary search of the
+ * descendant's (short) sorted ancestor list, and ancestors and descendants are enumerated from packed
+ * {@code int} arrays, so neither loads any intermediate {@code Synset}s.
+ *
+ * <p> Built on first use by {@link WordNet#getTaxonomy()} from all noun and verb synsets, which takes
+ * about a second; for WordNet 3.0 the arrays take about 8MB.
+ * @yawni.experimental
+ */
+public final class Taxonomy {
+  private static final Logger log = LoggerFactory.getLogger(Taxonomy.class);
+  private static final int[] NO_IDS = new int[0];
+  private static final int DISTANCE_BITS = 7;
+  /** ancestor distances are stored in a {@code byte}; WordNet's deepest synsets are about 20 deep */
+  private static final int MAX_DISTANCE = (1 << DISTANCE_BITS) - 1;
+
+  private final WordNet wordNet;
+  private final SynsetIds ids;
+  /** direct hypernyms and instance hypernyms of synset {@code id} are {@code [parentStarts[id], parentStarts[id + 1])} */
+  private final int[] parentStarts;
+  private final int[] parents;
+  /** transitive closure of {@link #parents}, ascending for each synset */
+  private final int[] ancestorStarts;
+  private final int[] ancestors;
+  /** number of hypernym relations on a shortest path to each of {@link #ancestors} */
+  private final byte[] ancestorDistances;
+  /** transpose of {@link #ancestors}, ascending for each synset */
+  private final int[] descendantStarts;
+  private final int[] descendants;
+  /** noun and verb {@code SubsumerIndex}es, built on first use by {@link #getSubsumerIndex(POS)} */
+  private volatile SubsumerIndex[] subsumerIndexes;
+
+  private Taxonomy(final WordNet wordNet, final SynsetIds ids,
+      final int[] parentStarts, final int[] parents,
+      final int[] ancestorStarts, final int[] ancestors, final byte[] ancestorDistances,
+      final int[] descendantStarts, final int[] descendants) {
+    this.wordNet = wordNet;
+    this.ids = ids;
+    this.parentStarts = parentStarts;
+    this.parents = parents;
+    this.ancestorStarts = ancestorStarts;
+    this.ancestors = ancestors;
+    this.ancestorDistances = ancestorDistances;
+    this.descendantStarts = descendantStarts;
+    this.descendants = descendants;
+  }
+
+  /**
+   * @param parentIds direct hypernym (and instance hypernym) synset ids of each synset id;
+   *   {@code null} for none
+   */
+  static Taxonomy build(final WordNet wordNet, final SynsetIds ids, final int[][] parentIds) {
+    final int size = ids.size();
+    assert parentIds.length == size;
+    // ancestors of each synset, each packed with its distance as ancestor << DISTANCE_BITS | distance
+    final int[][] closures = new int[size][];
+    // per-synset breadth first search of its hypernyms, rather than memoizing the closures of its
+    // hypernyms, finds shortest distances and is correct even for cycles, of which WordNet 3.0 has
+    // one ({restrain} and {inhibit})
+    final int[] visitedBy = new int[size];
+    Arrays.fill(visitedBy, -1);
+    int[] queue = new int[16];
+    int parentCount = 0;
+    int ancestorCount = 0;
+    for (int id = 0; id < size; id++) {
+      if (parentIds[id] == null || parentIds[id].length == 0) {
+        closures[id] = NO_IDS;
+        continue;
+      }
+      parentCount += parentIds[id].length;
+      visitedBy[id] = id;
+      queue[0] = id << DISTANCE_BITS;
+      int length = 1;
+      for (int head = 0; head < length; head++) {
+        final int[] parentsOf = parentIds[queue[head] >>> DISTANCE_BITS];
+        if (parentsOf == null) {
+          continue;
+        }
+        final int distance = Math.min(MAX_DISTANCE, (queue[head] & MAX_DISTANCE) + 1);
+        for (final int parent : parentsOf) {
+          if (visitedBy[parent] != id) {
+            visitedBy[parent] = id;
+            if (length == queue.length) {
+              queue = Arrays.copyOf(queue, 2 * length);
+            }
+            queue[length++] = parent << DISTANCE_BITS | distance;
+          }
+        }
+      }
+      closures[id] = Arrays.copyOfRange(queue, 1, length);
+      Arrays.sort(closures[id]);
+      ancestorCount += length - 1;
+    }
+
+    final int[] parentStarts = new int[size + 1];
+    final int[] parents = new int[parentCount];
+    final int[] ancestorStarts = new int[size + 1];
+    final int[] ancestors = new int[ancestorCount];
+    final byte[] ancestorDistances = new byte[ancestorCount];
+    final int[] descendantCounts = new int[size];
+    for (int id = 0; id < size; id++) {
+      final int[] parentsOf = parentIds[id] == null ? NO_IDS : parentIds[id];
+      System.arraycopy(parentsOf, 0, parents, parentStarts[id], parentsOf.length);
+      parentStarts[id + 1] = parentStarts[id] + parentsOf.length;
+      ancestorStarts[id + 1] = ancestorStarts[id] + closures[id].length;
+      for (int i = 0; i < closures[id].length; i++) {
+        final int ancestor = closures[id][i] >>> DISTANCE_BITS;
+        ancestors[ancestorStarts[id] + i] = ancestor;
+        ancestorDistances[ancestorStarts[id] + i] = (byte) (closures[id][i] & MAX_DISTANCE);
+        descendantCounts[ancestor]++;
+      }
+      closures[id] = null;
+    }
+
+    // transpose; visiting ids in ascending order leaves each descendant list sorted
+    final int[] descendantStarts = new int[size + 1];
+    for (int id = 0; id < size; id++) {
+      descendantStarts[id + 1] = descendantStarts[id] + descendantCounts[id];
+    }
+    final int[] descendants = new int[ancestorCount];
+    final int[] next = Arrays.copyOf(descendantStarts, size);
+    for (int id = 0; id < size; id++) {
+      for (int i = ancestorStarts[id]; i < ancestorStarts[id + 1]; i++) {
+        descendants[next[ancestors[i]]++] = id;
+      }
+    }
+    return new Taxonomy(wordNet, ids, parentStarts, parents, ancestorStarts, ancestors, ancestorDistances,
+      descendantStarts, descendants);
+  }
+
+  /** @return number of synset ids, i.e., of all synsets (including adjectives and adverbs) */
+  public int size() {
+    return ids.size();
+  }
+
+  /**
+   * @return synset id of {@code synset}, or {@code -1} if it is not one of this {@code Taxonomy}'s
+   *   {@code WordNet}
+   */
+  public int synsetId(final Synset synset) {
+    return ids.synsetId(synset);
+  }
+
+  /** @return {@code POS} of synset {@code id}; {@link POS#ADJ} for adjective satellites */
+  public POS getPOS(final int id) {
+    return ids.pos(id);
+  }
+
+  /** @return the synset with synset id {@code id} */
+  public Synset getSynset(final int id) {
+    return wordNet.getSynsetAt(ids.pos(id), ids.offset(id)).get();
+  }
+
+  /**
+   * @return whether {@code ancestor} is {@code descendant} or one of its transitive hypernyms
+   *   (including instance hypernyms), e.g., {@code isA(<dog>, <animal>)}
+   */
+  public boolean isA(final Synset descendant, final Synset ancestor) {
+    return isA(synsetId(descendant), synsetId(ancestor));
+  }
+
+  /** @see #isA(Synset, Synset) */
+  public boolean isA(final int descendantId, final int ancestorId) {
+    if (descendantId < 0 || ancestorId < 0) {
+      return false;
+    }
+    return descendantId == ancestorId ||
+      Arrays.binarySearch(ancestors, ancestorStarts[descendantId], ancestorStarts[descendantId + 1], ancestorId) >= 0;
+  }
+
+  /** @return synset ids of the direct hypernyms and instance hypernyms of synset {@code id} */
+  public IntStream parentIds(final int id) {
+    return Arrays.stream(parents, parentStarts[id], parentStarts[id + 1]);
+  }
+
+  /** @return ascending synset ids of the transitive hypernyms of synset {@code id} (excluding {@code id}) */
+  public IntStream ancestorIds(final int id) {
+    return Arrays.stream(ancestors, ancestorStarts[id], ancestorStarts[id + 1]);
+  }
+
+  /** @return ascending synset ids of the transitive hyponyms of synset {@code id} (excluding {@code id}) */
+  public IntStream descendantIds(final int id) {
+    return Arrays.stream(descendants, descendantStarts[id], descendantStarts[id + 1]);
+  }
+
+  /** @return number of direct hypernyms and instance hypernyms of synset {@code id} */
+  public int parentCount(final int id) {
+    return parentStarts[id + 1] - parentStarts[id];
+  }
+
+  /** @return synset id of the {@code i}th direct hypernym or instance hypernym of synset {@code id} */
+  public int parentId(final int id, final int i) {
+    return parents[parentStarts[id] + i];
+  }
+
+  /**
+   * @return synset id of the {@code i}th (in ascending synset id order) transitive hypernym of synset {@code id}
+   * @see #ancestorCount(int)
+   */
+  public int ancestorId(final int id, final int i) {
+    return ancestors[ancestorStarts[id] + i];
+  }
+
+  /**
+   * @return length of the shortest hypernym path from synset {@code id} to {@link #ancestorId(int, int) its
+   *   {@code i}th ancestor}
+   */
+  public int ancestorDistance(final int id, final int i) {
+    return ancestorDistances[ancestorStarts[id] + i];
+  }
+
+  /**
+   * @return length of the shortest hypernym path from synset {@code descendantId} to synset {@code ancestorId}:
+   *   {@code 0} if they're the same synset, or {@code -1} if {@code ancestorId} isn't an ancestor
+   */
+  public int distance(final int descendantId, final int ancestorId) {
+    if (descendantId == ancestorId) {
+      return 0;
+    }
+    final int i = Arrays.binarySearch(ancestors, ancestorStarts[descendantId], ancestorStarts[descendantId + 1], ancestorId);
+    return i < 0 ? -1 : ancestorDistances[i];
+  }
+
+  /** @return synset id of the {@code i}th (in ascending synset id order) transitive hyponym of synset {@code id} */
+  public int descendantId(final int id, final int i) {
+    return descendants[descendantStarts[id] + i];
+  }
+
+  /** @return number of transitive hypernyms of synset {@code id} */
+  public int ancestorCount(final int id) {
+    return ancestorStarts[id + 1] - ancestorStarts[id];
+  }
+
+  /** @return number of transitive hyponyms of synset {@code id} */
+  public int descendantCount(final int id) {
+    return descendantStarts[id + 1] - descendantStarts[id];
+  }
+
+  /**
+   * @return the transitive hypernyms of {@code synset} (including instance hypernyms) in synset id order;
+   *   each is loaded when it's accessed
+   */
+  public List<Synset> getAncestors(final Synset synset) {
+    final int id = synsetId(synset);
+    return id < 0 ? Collections.emptyList() : synsets(ancestors, ancestorStarts[id], ancestorStarts[id + 1]);
+  }
+
+  /**
+   * @return the transitive hyponyms of {@code synset} (including instances) in synset id order;
+   *   each is loaded when it's accessed
+   */
+  public List<Synset> getDescendants(final Synset synset) {
+    final int id = synsetId(synset);
+    return id < 0 ? Collections.emptyList() : synsets(descendants, descendantStarts[id], descendantStarts[id + 1]);
+  }
+
+  private List<Synset> synsets(final int[] synsetIds, final int start, final int end) {
+    return Lists.transform(Ints.asList(synsetIds).subList(start, end), this::getSynset);
+  }
+
+  /**
+   * Returns the lowest common subsumer of synsets {@code id1} and {@code id2}: of the synsets which both
+   * are (transitive) hypernyms or instance hypernyms of, or are, the one with the longest hypernym path
+   * from a root.  Answered by an index which is built, for nouns and verbs in parallel, on first use,
+   * with a constant time range minimum query for each pair of hypernym paths to the two synsets: usually
+   * just one, as WordNet 3.0 averages about 1.35 paths per synset.
+   * @return synset id of the lowest common subsumer, or {@code -1} if there is none (e.g., synsets of
+   *   different {@code POS}, or verbs of different trees)
+   */
+  public int lowestCommonSubsumer(final int id1, final int id2) {
+    final SubsumerIndex index = getSubsumerIndex(id1, id2);
+    return index == null ? -1 : index.lowestCommonSubsumer(id1, id2);
+  }
+
+  /**
+   * @return depth of the {@linkplain #lowestCommonSubsumer(int, int) lowest common subsumer} of synsets
+   *   {@code id1} and {@code id2}, i.e., the length of the longest hypernym path from a root to it (roots
+   *   have depth {@code 0}), or {@code -1} if there is none
+   */
+  public int lowestCommonSubsumerDepth(final int id1, final int id2) {
+    final SubsumerIndex index = getSubsumerIndex(id1, id2);
+    return index == null ? -1 : index.lowestCommonSubsumerDepth(id1, id2);
+  }
+
+  /** @see #lowestCommonSubsumer(int, int) */
+  public Optional<Synset> getLowestCommonSubsumer(final Synset s1, final Synset s2) {
+    final int lcs = lowestCommonSubsumer(synsetId(s1), synsetId(s2));
+    return lcs < 0 ? Optional.empty() : Optional.of(getSynset(lcs));
+  }
+
+  /** @return index of both synset ids, or {@code null} if they aren't both nouns or both verbs */
+  private SubsumerIndex getSubsumerIndex(final int id1, final int id2) {
+    if (id1 < 0 || id2 < 0) {
+      return null;
+    }
+    final POS pos = ids.pos(id1);
+    if (pos != ids.pos(id2) || (pos != POS.NOUN && pos != POS.VERB)) {
+      return null;
+    }
+    return getSubsumerIndex(pos);
+  }
+
+  SubsumerIndex getSubsumerIndex(final POS pos) {
+    SubsumerIndex[] indexes = subsumerIndexes;
+    if (indexes == null) {
+      synchronized (this) {
+        indexes = subsumerIndexes;
+        if (indexes == null) {
+          final long start = System.nanoTime();
+          subsumerIndexes = indexes = Stream.of(POS.NOUN, POS.VERB).parallel()
+            .map(p -> SubsumerIndex.build(this, ids.firstId(p), ids.endId(p)))
+            .toArray(SubsumerIndex[]::new);
+          log.info("indexed subsumers {} in {}ms", Arrays.toString(indexes), (System.nanoTime() - start) / 1000000);
+        }
+      }
+    }
+    return indexes[pos == POS.NOUN ? 0 : 1];
+  }
+
+  /** @return approximate size of this taxonomy's arrays in bytes */
+  long estimateSizeInBytes() {
+    return 4L * (ids.size() * 4L + parents.length + ancestors.length + descendants.length) + ancestorDistances.length;
+  }
+
+  @Override
+  public String toString() {
+    return "[Taxonomy synsets: " + ids.size() + " parents: " + parents.length + " ancestors: " + ancestors.length + "]";
+  }
+} // end class Taxonomy
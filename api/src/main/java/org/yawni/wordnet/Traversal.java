@@ -0,0 +1,430 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.yawni.wordnet;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.Lists;
+import com.google.common.primitives.Ints;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Breadth first and depth first walks, and transitive closures, of the relation graph over compact
+ * <em>synset ids</em> (see {@link Taxonomy}).  A {@code Traversal} follows only relations whose types
+ * were given to {@link WordNet#traversal(RelationType...)} (and their auxiliary types, e.g.,
+ * {@link RelationType#MERONYM} follows part, member and substance meronyms), to at most
+ * {@linkplain #withMaxDepth(int) a maximum depth}, visiting each synset at most once.
+ *
+ * <p> Relations are read from packed {@code int} arrays and visited synsets are marked in a bit set
+ * that is reused by each thread, so walks don't create a {@code Synset} or any other per-relation
+ * garbage; e.g., all 82,000 hyponyms of <em>entity</em>:
+ * <pre>{@code
+ * Traversal hyponyms = wordNet.traversal(RelationType.HYPONYM);
+ * int[] ids = hyponyms.closure(hyponyms.synsetId(entity));
+ * }</pre>
+ * Large closures can be {@linkplain #closure(int, ForkJoinPool) split across a fork/join pool}.
+ *
+ * <p> {@code Traversal}s are immutable and thread-safe.
+ * @yawni.experimental
+ */
+public final class Traversal {
+  private static final int[] NO_IDS = new int[0];
+  /** frontiers smaller than this are expanded by one task */
+  private static final int SPLIT_THRESHOLD = 1 << 10;
+
+  /** Order in which {@link #visit(int, Visitor)} visits synsets. */
+  public enum Order {
+    /** nearest first, so each synset's depth is its distance from the start */
+    BREADTH_FIRST,
+    /**
+     * preorder, following relations in their {@link Synset#getRelations()} order; with a maximum depth,
+     * a synset first reached by a path longer than its distance may not be expanded
+     */
+    DEPTH_FIRST,
+  } // end enum Order
+
+  /** What a {@link Visitor} wants done after visiting a synset. */
+  public enum Control {
+    /** go on, following the visited synset's relations */
+    CONTINUE,
+    /** go on, but don't follow the visited synset's relations */
+    PRUNE,
+    /** end the traversal */
+    STOP,
+  } // end enum Control
+
+  /** Callback of {@link #visit(int, Visitor)}. */
+  @FunctionalInterface
+  public interface Visitor {
+    /**
+     * @param synsetId id of the visited synset
+     * @param depth number of relations followed from the start to reach it ({@code 0} for the start)
+     */
+    Control visit(int synsetId, int depth);
+  } // end interface Visitor
+
+  /** reusable per thread; {@code Traversal}s are shared */
+  private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
+  private final WordNet wordNet;
+  private final SynsetIds ids;
+  private final RelationGraph graph;
+  private final long typeMask;
+  private final Order order;
+  private final int maxDepth;
+
+  Traversal(final WordNet wordNet, final SynsetIds ids, final RelationGraph graph, final long typeMask,
+      final Order order, final int maxDepth) {
+    this.wordNet = wordNet;
+    this.ids = ids;
+    this.graph = graph;
+    this.typeMask = typeMask;
+    this.order = order;
+    this.maxDepth = maxDepth;
+  }
+
+  /** @return a {@code Traversal} like this one, but in {@code order} */
+  public Traversal withOrder(final Order order) {
+    return new Traversal(wordNet, ids, graph, typeMask, Preconditions.checkNotNull(order), maxDepth);
+  }
+
+  /**
+   * @return a {@code Traversal} like this one, but which follows at most {@code maxDepth} relations from
+   *   the start; {@code 1} reaches only the start's direct relation targets
+   */
+  public Traversal withMaxDepth(final int maxDepth) {
+    Preconditions.checkArgument(maxDepth >= 0, "negative maxDepth: %s", maxDepth);
+    return new Traversal(wordNet, ids, graph, typeMask, order, maxDepth);
+  }
+
+  public Order getOrder() {
+    return order;
+  }
+
+  /** @return maximum number of relations followed from the start; {@code Integer.MAX_VALUE} if unlimited */
+  public int getMaxDepth() {
+    return maxDepth;
+  }
+
+  /**
+   * @return synset id of {@code synset}, or {@code -1} if it is not one of this {@code Traversal}'s
+   *   {@code WordNet}
+   */
+  public int synsetId(final Synset synset) {
+    return ids.synsetId(synset);
+  }
+
+  /** @return the synset with synset id {@code id} */
+  public Synset getSynset(final int id) {
+    return wordNet.getSynsetAt(ids.pos(id), ids.offset(id)).get();
+  }
+
+  /** @see #visit(int, Visitor) */
+  public int visit(final Synset start, final Visitor visitor) {
+    return visit(checkedSynsetId(start), visitor);
+  }
+
+  /**
+   * Visits synset {@code startId} and then, in this {@code Traversal}'s {@linkplain #getOrder() order},
+   * each synset reachable from it, until {@code visitor} {@linkplain Control#STOP stops} the traversal.
+   * @return number of synsets visited (including the start)
+   */
+  public int visit(final int startId, final Visitor visitor) {
+    checkSynsetId(startId);
+    final Scratch scratch = Scratch.acquire(graph.size());
+    try {
+      return order == Order.BREADTH_FIRST ?
+        breadthFirst(startId, visitor, scratch) :
+        depthFirst(startId, visitor, scratch);
+    } finally {
+      scratch.release();
+    }
+  }
+
+  private int breadthFirst(final int startId, final Visitor visitor, final Scratch scratch) {
+    // scratch.ids is the queue: [0, head) visited, [head, markedCount) waiting
+    scratch.mark(startId);
+    int head = 0;
+    int depth = 0;
+    int depthEnd = 1;
+    for (; head < scratch.markedCount; head++) {
+      if (head == depthEnd) {
+        depth++;
+        depthEnd = scratch.markedCount;
+      }
+      final int id = scratch.ids[head];
+      final Control control = visitor.visit(id, depth);
+      if (control == Control.STOP) {
+        head++;
+        break;
+      }
+      if (control != Control.PRUNE && depth < maxDepth) {
+        markTargets(id, scratch);
+      }
+    }
+    return head;
+  }
+
+  private void markTargets(final int id, final Scratch scratch) {
+    for (int r = graph.relationStart(id), end = graph.relationStart(id + 1); r < end; r++) {
+      final int relation = graph.relation(r);
+      if ((typeMask & RelationGraph.packedTypeBit(relation)) != 0) {
+        scratch.mark(RelationGraph.packedTarget(relation));
+      }
+    }
+  }
+
+  private int depthFirst(final int startId, final Visitor visitor, final Scratch scratch) {
+    // synsets are marked when they're visited (not when they're pushed) so the visit order is a
+    // true preorder
+    scratch.push(startId, 0);
+    while (scratch.stackSize > 0) {
+      final long entry = scratch.stack[--scratch.stackSize];
+      final int id = (int) (entry >>> 32);
+      final int depth = (int) entry;
+      if (! scratch.mark(id)) {
+        continue;
+      }
+      final Control control = visitor.visit(id, depth);
+      if (control == Control.STOP) {
+        break;
+      }
+      if (control == Control.PRUNE || depth == maxDepth) {
+        continue;
+      }
+      // push in reverse so relations are followed in order
+      for (int r = graph.relationStart(id + 1) - 1, end = graph.relationStart(id); r >= end; r--) {
+        final int relation = graph.relation(r);
+        if ((typeMask & RelationGraph.packedTypeBit(relation)) != 0 &&
+            ! scratch.isMarked(RelationGraph.packedTarget(relation))) {
+          scratch.push(RelationGraph.packedTarget(relation), depth + 1);
+        }
+      }
+    }
+    return scratch.markedCount;
+  }
+
+  /**
+   * @return ascending synset ids of the synsets reachable from synset {@code startId} (excluding
+   *   {@code startId}, even if a cycle leads back to it)
+   */
+  public int[] closure(final int startId) {
+    checkSynsetId(startId);
+    final Scratch scratch = Scratch.acquire(graph.size());
+    try {
+      final int length = closure(startId, scratch);
+      final int[] closure = Arrays.copyOfRange(scratch.ids, 1, length);
+      Arrays.sort(closure);
+      return closure;
+    } finally {
+      scratch.release();
+    }
+  }
+
+  /** breadth first search from {@code startId}; leaves the start and each synset reached in {@code scratch.ids} */
+  private int closure(final int startId, final Scratch scratch) {
+    scratch.mark(startId);
+    int depth = 0;
+    int depthEnd = 1;
+    for (int head = 0; head < scratch.markedCount; head++) {
+      if (head == depthEnd) {
+        depth++;
+        depthEnd = scratch.markedCount;
+      }
+      if (depth == maxDepth) {
+        break;
+      }
+      markTargets(scratch.ids[head], scratch);
+    }
+    return scratch.markedCount;
+  }
+
+  /**
+   * Like {@link #closure(int)}, but expands each breadth first level with {@code pool}, splitting levels of
+   * more than about a thousand synsets across its threads; worthwhile only for very large closures.
+   */
+  public int[] closure(final int startId, final ForkJoinPool pool) {
+    checkSynsetId(startId);
+    final AtomicLongArray visited = new AtomicLongArray((graph.size() + Long.SIZE - 1) / Long.SIZE);
+    mark(visited, startId);
+    final List<int[]> levels = new ArrayList<>();
+    int size = 0;
+    int[] frontier = { startId };
+    for (int depth = 0; depth < maxDepth && frontier.length > 0; depth++) {
+      final Expansion expansion = new Expansion(frontier, 0, frontier.length, visited);
+      frontier = frontier.length < SPLIT_THRESHOLD ? expansion.compute() : pool.invoke(expansion);
+      levels.add(frontier);
+      size += frontier.length;
+    }
+    final int[] closure = new int[size];
+    int length = 0;
+    for (final int[] level : levels) {
+      System.arraycopy(level, 0, closure, length, level.length);
+      length += level.length;
+    }
+    Arrays.sort(closure);
+    return closure;
+  }
+
+  /** @see #closure(int) */
+  public int[] closure(final Synset start) {
+    return closure(checkedSynsetId(start));
+  }
+
+  /**
+   * @return the synsets reachable from {@code start} in synset id order; each is loaded when it's accessed
+   * @see #closure(int)
+   */
+  public List<Synset> getClosure(final Synset start) {
+    final int id = synsetId(start);
+    return id < 0 ? Collections.emptyList() : Lists.transform(Ints.asList(closure(id)), this::getSynset);
+  }
+
+  private int checkedSynsetId(final Synset synset) {
+    final int id = synsetId(synset);
+    Preconditions.checkArgument(id >= 0, "synset not in this WordNet: %s", synset);
+    return id;
+  }
+
+  private void checkSynsetId(final int id) {
+    Preconditions.checkElementIndex(id, graph.size(), "synset id");
+  }
+
+  /** @return whether {@code id} wasn't already marked */
+  private static boolean mark(final AtomicLongArray visited, final int id) {
+    final int i = id >>> 6;
+    final long bit = 1L << id;
+    long word;
+    do {
+      word = visited.get(i);
+      if ((word & bit) != 0) {
+        return false;
+      }
+    } while (! visited.compareAndSet(i, word, word | bit));
+    return true;
+  }
+
+  /** Next breadth first level: the unvisited relation targets of {@code frontier[start, end)}. */
+  private final class Expansion extends RecursiveTask<int[]> {
+    private static final long serialVersionUID = 1L;
+    private final int[] frontier;
+    private final int start;
+    private final int end;
+    private final AtomicLongArray visited;
+
+    Expansion(final int[] frontier, final int start, final int end, final AtomicLongArray visited) {
+      this.frontier = frontier;
+      this.start = start;
+      this.end = end;
+      this.visited = visited;
+    }
+
+    @Override
+    protected int[] compute() {
+      if (end - start >= SPLIT_THRESHOLD) {
+        final int middle = (start + end) >>> 1;
+        final Expansion left = new Expansion(frontier, start, middle, visited);
+        left.fork();
+        final int[] right = new Expansion(frontier, middle, end, visited).compute();
+        final int[] leftTargets = left.join();
+        return leftTargets.length == 0 ? right : right.length == 0 ? leftTargets : Ints.concat(leftTargets, right);
+      }
+      int[] targets = NO_IDS;
+      int length = 0;
+      for (int i = start; i < end; i++) {
+        final int id = frontier[i];
+        for (int r = graph.relationStart(id), rEnd = graph.relationStart(id + 1); r < rEnd; r++) {
+          final int relation = graph.relation(r);
+          if ((typeMask & RelationGraph.packedTypeBit(relation)) != 0 &&
+              mark(visited, RelationGraph.packedTarget(relation))) {
+            if (length == targets.length) {
+              targets = Arrays.copyOf(targets, Math.max(16, 2 * length));
+            }
+            targets[length++] = RelationGraph.packedTarget(relation);
+          }
+        }
+      }
+      return length == targets.length ? targets : Arrays.copyOf(targets, length);
+    }
+  } // end class Expansion
+
+  /**
+   * Per thread bit set of marked synset ids, queue and stack, cleared after each traversal by unmarking
+   * just the synsets it marked (recorded in {@link #ids}, which is also the breadth first queue).
+   */
+  private static final class Scratch {
+    long[] visited = new long[0];
+    /** the {@code markedCount} synsets marked, in the order marked; each is marked at most once */
+    int[] ids = NO_IDS;
+    int markedCount;
+    /** depth first stack, packed as {@code id << 32 | depth} */
+    long[] stack = new long[16];
+    int stackSize;
+    boolean inUse;
+
+    static Scratch acquire(final int size) {
+      Scratch scratch = SCRATCH.get();
+      if (scratch.inUse) {
+        // reentrant traversal, e.g., from a Visitor
+        scratch = new Scratch();
+      }
+      if (scratch.ids.length < size) {
+        scratch.visited = new long[(size + Long.SIZE - 1) / Long.SIZE];
+        scratch.ids = new int[size];
+      }
+      scratch.inUse = true;
+      return scratch;
+    }
+
+    boolean isMarked(final int id) {
+      return (visited[id >>> 6] & 1L << id) != 0;
+    }
+
+    /** marks {@code id} and appends it to {@link #ids}, unless it's already marked */
+    boolean mark(final int id) {
+      final long word = visited[id >>> 6];
+      final long bit = 1L << id;
+      if ((word & bit) != 0) {
+        return false;
+      }
+      visited[id >>> 6] = word | bit;
+      ids[markedCount++] = id;
+      return true;
+    }
+
+    void push(final int id, final int depth) {
+      if (stackSize == stack.length) {
+        stack = Arrays.copyOf(stack, 2 * stackSize);
+      }
+      stack[stackSize++] = (long) id << 32 | depth;
+    }
+
+    void release() {
+      for (int i = 0; i < markedCount; i++) {
+        visited[ids[i] >>> 6] = 0;
+      }
+      markedCount = 0;
+      stackSize = 0;
+      inUse = false;
+    }
+  } // end class Scratch
+} // end class Traversal
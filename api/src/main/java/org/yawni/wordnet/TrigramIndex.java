@@ -0,0 +1,232 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.yawni.wordnet;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Trigram index of the lemmas of an <code>index.<em>pos</em></code> file, mapping a literal substring
+ * to the offsets of the lines whose lemma contains it without scanning the file.  Lemmas are numbered
+ * in file order, and each trigram (3 consecutive {@code char}s) has a posting list of the lemmas which
+ * contain it, ascending; a query intersects the posting lists of its trigrams and verifies the
+ * survivors against the lemma text, which is stored packed in a single {@code char[]}.
+ *
+ * <p> Lemmas are as they appear in the file: lowercase, with underscores for spaces, so queries should
+ * be {@link Morphy#searchNormalize(String)}'d.
+ *
+ * @see WordNet#searchBySubstring(CharSequence, POS)
+ */
+final class TrigramIndex {
+  /** characters which make a pattern more than a literal */
+  private static final String REGEX_METACHARACTERS = "\\^$.|?*+()[]{}";
+
+  private final int[] offsets;
+  /** lemma {@code i} is {@code [lemmaStarts[i], lemmaStarts[i + 1])} of {@code chars} */
+  private final int[] lemmaStarts;
+  private final char[] chars;
+  /** sorted */
+  private final long[] trigrams;
+  private final int[] postingStarts;
+  private final int[] postings;
+
+  private TrigramIndex(final int[] offsets, final int[] lemmaStarts, final char[] chars,
+      final long[] trigrams, final int[] postingStarts, final int[] postings) {
+    this.offsets = offsets;
+    this.lemmaStarts = lemmaStarts;
+    this.chars = chars;
+    this.trigrams = trigrams;
+    this.postingStarts = postingStarts;
+    this.postings = postings;
+  }
+
+  /**
+   * @param lemmas lemmas in file order
+   * @param offsets {@code offsets[i]} is the offset of {@code lemmas.get(i)}
+   */
+  static TrigramIndex build(final List<? extends CharSequence> lemmas, final int[] offsets) {
+    checkArgument(lemmas.size() == offsets.length, "%s lemmas but %s offsets", lemmas.size(), offsets.length);
+    final int n = lemmas.size();
+    final int[] lemmaStarts = new int[n + 1];
+    for (int i = 0; i < n; i++) {
+      lemmaStarts[i + 1] = lemmaStarts[i] + lemmas.get(i).length();
+    }
+    final char[] chars = new char[lemmaStarts[n]];
+    for (int i = 0; i < n; i++) {
+      final CharSequence lemma = lemmas.get(i);
+      for (int j = 0; j < lemma.length(); j++) {
+        chars[lemmaStarts[i] + j] = lemma.charAt(j);
+      }
+    }
+
+    // count the lemmas containing each trigram
+    final Map<Long, int[]> counts = new HashMap<>();
+    for (int i = 0; i < n; i++) {
+      for (final long trigram : distinctTrigrams(chars, lemmaStarts[i], lemmaStarts[i + 1])) {
+        final int[] count = counts.get(trigram);
+        if (count == null) {
+          counts.put(trigram, new int[] { 1 });
+        } else {
+          count[0]++;
+        }
+      }
+    }
+    final long[] trigrams = new long[counts.size()];
+    int t = 0;
+    for (final long trigram : counts.keySet()) {
+      trigrams[t++] = trigram;
+    }
+    Arrays.sort(trigrams);
+
+    // lay out the posting lists in trigram order; each count becomes its list's next free slot
+    final int[] postingStarts = new int[trigrams.length + 1];
+    for (t = 0; t < trigrams.length; t++) {
+      final int[] count = counts.get(trigrams[t]);
+      postingStarts[t + 1] = postingStarts[t] + count[0];
+      count[0] = postingStarts[t];
+    }
+    final int[] postings = new int[postingStarts[trigrams.length]];
+    for (int i = 0; i < n; i++) {
+      for (final long trigram : distinctTrigrams(chars, lemmaStarts[i], lemmaStarts[i + 1])) {
+        postings[counts.get(trigram)[0]++] = i;
+      }
+    }
+    return new TrigramIndex(offsets.clone(), lemmaStarts, chars, trigrams, postingStarts, postings);
+  }
+
+  /** @return the sorted, distinct trigrams of {@code [start, end)} of {@code chars} */
+  private static long[] distinctTrigrams(final char[] chars, final int start, final int end) {
+    if (end - start < 3) {
+      return new long[0];
+    }
+    final long[] trigrams = new long[end - start - 2];
+    for (int i = 0; i < trigrams.length; i++) {
+      trigrams[i] = trigram(chars[start + i], chars[start + i + 1], chars[start + i + 2]);
+    }
+    Arrays.sort(trigrams);
+    int distinct = 0;
+    for (int i = 0; i < trigrams.length; i++) {
+      if (i == 0 || trigrams[i] != trigrams[i - 1]) {
+        trigrams[distinct++] = trigrams[i];
+      }
+    }
+    return Arrays.copyOf(trigrams, distinct);
+  }
+
+  private static long trigram(final char c0, final char c1, final char c2) {
+    return (long) c0 << 32 | (long) c1 << 16 | c2;
+  }
+
+  /** @return whether {@code pattern} has no regular expression metacharacters, so it matches only itself */
+  static boolean isLiteral(final CharSequence pattern) {
+    for (int i = 0, n = pattern.length(); i < n; i++) {
+      if (REGEX_METACHARACTERS.indexOf(pattern.charAt(i)) >= 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  int size() {
+    return offsets.length;
+  }
+
+  /**
+   * @param literal non-empty substring
+   * @return offsets of the lines whose lemma contains {@code literal}, in file order
+   */
+  int[] offsetsContaining(final CharSequence literal) {
+    checkArgument(literal.length() > 0, "empty literal");
+    final char[] query = literal.toString().toCharArray();
+    final int[] matches;
+    int count = 0;
+    if (query.length < 3) {
+      // too short to have a trigram; the packed lemmas are still much faster to scan than the file
+      matches = new int[offsets.length];
+      for (int i = 0; i < offsets.length; i++) {
+        if (contains(i, query)) {
+          matches[count++] = offsets[i];
+        }
+      }
+    } else {
+      // intersect the posting lists, shortest first
+      final long[] queryTrigrams = distinctTrigrams(query, 0, query.length);
+      final int[] lists = new int[queryTrigrams.length];
+      for (int q = 0; q < queryTrigrams.length; q++) {
+        lists[q] = Arrays.binarySearch(trigrams, queryTrigrams[q]);
+        if (lists[q] < 0) {
+          return new int[0];
+        }
+      }
+      final Integer[] order = new Integer[lists.length];
+      for (int q = 0; q < order.length; q++) {
+        order[q] = lists[q];
+      }
+      Arrays.sort(order, (t1, t2) -> (postingStarts[t1 + 1] - postingStarts[t1]) - (postingStarts[t2 + 1] - postingStarts[t2]));
+      final int[] cursors = new int[order.length];
+      for (int q = 0; q < order.length; q++) {
+        cursors[q] = postingStarts[order[q]];
+      }
+      final int shortestEnd = postingStarts[order[0] + 1];
+      matches = new int[shortestEnd - cursors[0]];
+      candidates:
+      for (; cursors[0] < shortestEnd; cursors[0]++) {
+        final int lemma = postings[cursors[0]];
+        for (int q = 1; q < order.length; q++) {
+          final int end = postingStarts[order[q] + 1];
+          while (cursors[q] < end && postings[cursors[q]] < lemma) {
+            cursors[q]++;
+          }
+          if (cursors[q] == end) {
+            break candidates;
+          }
+          if (postings[cursors[q]] != lemma) {
+            continue candidates;
+          }
+        }
+        // sharing all trigrams doesn't imply containment, e.g., "abcab" and "cabc"
+        if (contains(lemma, query)) {
+          matches[count++] = offsets[lemma];
+        }
+      }
+    }
+    return Arrays.copyOf(matches, count);
+  }
+
+  private boolean contains(final int lemma, final char[] query) {
+    final int last = lemmaStarts[lemma + 1] - query.length;
+    outer:
+    for (int start = lemmaStarts[lemma]; start <= last; start++) {
+      for (int j = 0; j < query.length; j++) {
+        if (chars[start + j] != query[j]) {
+          continue outer;
+        }
+      }
+      return true;
+    }
+    return false;
+  }
+
+  @Override
+  public String toString() {
+    return "[TrigramIndex size: " + offsets.length + " trigrams: " + trigrams.length + "]";
+  }
+} // end class TrigramIndex
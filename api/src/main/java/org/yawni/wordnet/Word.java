@@ -72,7 +72,7 @@ public final class Word implements Comparable<Word>, Iterable<WordSense> {
     try {
       log.trace("parsing line: {}", line);
       final CharSequenceTokenizer tokenizer = new CharSequenceTokenizer(line, " ");
-      this.lowerCasedLemma = tokenizer.nextToken().replace('_', ' ');
+      this.lowerCasedLemma = LemmaPool.internUnderScoreToSpace(line, tokenizer.nextTokenStart(), tokenizer.position());
       this.posOrdinal = POS.lookup(tokenizer.nextToken()).getByteOrdinal();
       this.offset = offset;
 
@@ -125,6 +125,18 @@ public final class Word implements Comparable<Word>, Iterable<WordSense> {
     }
   }
 
+  /**
+   * Construct from {@code record} of {@code dictionary}.
+   */
+  Word(final CompiledDictionary dictionary, final int record, final WordNet wordNet) {
+    this.wordNet = wordNet;
+    this.lowerCasedLemma = dictionary.wordLemma(record);
+    this.posOrdinal = dictionary.wordPOSOrdinal(record);
+    this.offset = dictionary.wordOffset(record);
+    this.taggedSenseCount = dictionary.wordTaggedSenseCount(record);
+    this.synsets = dictionary.wordSynsetOffsets(record);
+  }
+
   //
   // Accessors
   //
@@ -222,6 +234,25 @@ public final class Word implements Comparable<Word>, Iterable<WordSense> {
     }
   }
 
+  /**
+   * Eagerly resolves this word's synsets from {@code dictionary}.
+   */
+  void resolveSynsets(final PreloadedDictionary dictionary) {
+    synchronized (this) {
+      if (this.synsets instanceof int[]) {
+        final int[] synsetOffsets = (int[])synsets;
+        final Synset[] syns = new Synset[synsetOffsets.length];
+        for (int i = 0; i < synsetOffsets.length; i++) {
+          syns[i] = dictionary.getSynsetAt(getPOS(), synsetOffsets[i]);
+          if (syns[i] == null) {
+            throw new IllegalStateException("no Synset at offset "+synsetOffsets[i]+" for "+this);
+          }
+        }
+        this.synsets = LightImmutableList.of(syns);
+      }
+    }
+  }
+
   /**
    * All {@code WordSense}s of this {@code Word}.
    * @return All {@code WordSense}s of this {@code Word}.
@@ -19,11 +19,14 @@ package org.yawni.wordnet;
 import com.google.common.base.Function;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.AbstractIterator;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Iterators;
 import static com.google.common.collect.Iterables.transform;
 import static com.google.common.collect.Iterables.concat;
 import com.google.common.collect.Maps;
 import com.google.common.io.Closeables;
+import com.google.common.primitives.Ints;
 
 import java.io.BufferedInputStream;
 import org.yawni.util.cache.Cache;
@@ -38,21 +41,50 @@ import org.slf4j.LoggerFactory;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.ObjectInputStream;
+import java.lang.management.ManagementFactory;
 import java.net.URL;
+import java.nio.ByteBuffer;
 import java.net.URLConnection;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
 import org.yawni.util.EnumAliases;
 import org.yawni.util.StringTokenizer;
 import org.yawni.util.cache.BloomFilter;
+import org.yawni.util.cache.CacheMetrics;
+import org.yawni.util.cache.CacheStats;
 import org.yawni.util.cache.Caches;
+import org.yawni.wordnet.CacheConfiguration.CacheName;
 import org.yawni.wordnet.WordSense.AdjPosition;
 
 /**
@@ -76,6 +108,34 @@ public final class WordNet implements WordNetInterface {
   private static final Logger log = LoggerFactory.getLogger(WordNet.class);
 
   private final FileManagerInterface fileManager;
+  /** optional binary image consulted instead of parsing data and index lines; {@code null} if absent */
+  private final CompiledDictionary compiledDictionary;
+  /** exact lemma to index offset maps; replace Bloom filter + binary search of index files */
+  private final Map<POS, LemmaIndex> lemmaIndexes;
+  /** every synset and word, if this instance was {@link #newPreloadedInstance() preloaded}; else {@code null} */
+  private final PreloadedDictionary preloaded;
+  private final CacheConfiguration cacheConfiguration;
+  private final Map<CacheName, CacheMetrics> cacheMetrics;
+  /** built on first use by {@link #getGlossIndex()} */
+  private volatile GlossIndex glossIndex;
+  /** tables of sense key resources, loaded on first use by {@link #getSenseKeyTable(PlainTextResource)} */
+  private final ConcurrentMap<PlainTextResource, Optional<SenseKeyTable>> senseKeyTables = new ConcurrentHashMap<>();
+  /** compiled on first use by {@link #getMorphosemanticIndex()} and {@link #getVerbGroupIndex()} */
+  private final ConcurrentMap<PlainTextResource, ExtraRelationIndex> extraRelationIndexes = new ConcurrentHashMap<>();
+  /** built on first use by {@link #getSenseKeyIndex()} */
+  private volatile SenseKeyIndex senseKeyIndex;
+  /** built on first use by {@link #getCompletionIndex()} */
+  private volatile CompletionIndex completionIndex;
+  /** built on first use by {@link #getTrigramIndex(POS)} */
+  private final ConcurrentMap<POS, TrigramIndex> trigramIndexes = new ConcurrentHashMap<>();
+  /** built on first use by {@link #getSynsetIds()} */
+  private volatile SynsetIds synsetIds;
+  /** built on first use by {@link #getTaxonomy()} */
+  private volatile Taxonomy taxonomy;
+  /** built on first use by {@link #getRelationGraph()} */
+  private volatile RelationGraph relationGraph;
+  /** built on first use by {@link #getPageRank()} */
+  private volatile PageRank pageRank;
   final Morphy morphy;
 
   //
@@ -86,8 +146,53 @@ public final class WordNet implements WordNetInterface {
    * Construct a {@link WordNetInterface} that retrieves file data from {@code fileManager}.
    */
   private WordNet(final FileManagerInterface fileManager) {
+    this(fileManager, openCompiledDictionary(fileManager));
+  }
+
+  /**
+   * Construct a {@link WordNetInterface} that retrieves synsets and words from {@code compiledDictionary}
+   * (if not {@code null}) and all other file data from {@code fileManager}.
+   */
+  WordNet(final FileManagerInterface fileManager, final CompiledDictionary compiledDictionary) {
+    this(fileManager, compiledDictionary, 0);
+  }
+
+  /**
+   * Construct a {@link WordNetInterface} like {@link #WordNet(FileManagerInterface, CompiledDictionary)}
+   * which, if {@code preloadParallelism > 0}, eagerly loads every synset and word into memory
+   * (using {@code preloadParallelism} threads) and serves all entity lookups from there.
+   */
+  WordNet(final FileManagerInterface fileManager, final CompiledDictionary compiledDictionary, final int preloadParallelism) {
+    this(fileManager, compiledDictionary, preloadParallelism, CacheConfiguration.defaults());
+  }
+
+  /**
+   * Construct a {@link WordNetInterface} like {@link #WordNet(FileManagerInterface, CompiledDictionary, int)}
+   * whose caches are configured by {@code cacheConfiguration}.
+   */
+  WordNet(final FileManagerInterface fileManager, final CompiledDictionary compiledDictionary, final int preloadParallelism,
+      final CacheConfiguration cacheConfiguration) {
     this.fileManager = fileManager;
-    this.morphy = new Morphy(this);
+    this.compiledDictionary = compiledDictionary;
+    this.cacheConfiguration = cacheConfiguration;
+    this.cacheMetrics = Maps.newEnumMap(CacheName.class);
+    for (final CacheName name : CacheName.values()) {
+      cacheMetrics.put(name, new CacheMetrics());
+    }
+    this.synsetCache = cacheConfiguration.create(CacheName.SYNSET, cacheMetrics.get(CacheName.SYNSET));
+    this.indexWordCache = cacheConfiguration.create(CacheName.INDEX_WORD, cacheMetrics.get(CacheName.INDEX_WORD));
+    this.exceptionsCache = cacheConfiguration.create(CacheName.EXCEPTIONS, cacheMetrics.get(CacheName.EXCEPTIONS));
+    this.lemmaIndexes = loadLemmaIndexes(fileManager);
+    this.morphy = new Morphy(this, cacheConfiguration.create(CacheName.MORPHY, cacheMetrics.get(CacheName.MORPHY)),
+        cacheMetrics.get(CacheName.MORPHY));
+    // loading uses the normal (file and cache) lookup paths, which the entity caches
+    // no longer serve once the preloaded instance is published
+    final boolean preload = preloadParallelism > 0;
+    this.preloaded = preload ? PreloadedDictionary.load(this, preloadParallelism) : null;
+    if (preload) {
+      synsetCache.clear();
+      indexWordCache.clear();
+    }
   }
 
   /**
@@ -125,6 +230,173 @@ public final class WordNet implements WordNetInterface {
     return InstanceHolder.instance;
   }
 
+  /**
+   * Factory method to get a <em>new</em> dictionary, backed by the same files as {@link #getInstance()},
+   * whose caches are configured by {@code cacheConfiguration}; for example, to cache synsets with a
+   * frequency-aware policy:
+   * <pre>{@code
+   * WordNet.newInstance(CacheConfiguration.defaults().with(CacheName.SYNSET, Caches.Implementation.TINY_LFU, 50000));
+   * }</pre>
+   * @see #getCacheConfiguration()
+   * @yawni.experimental
+   */
+  public static WordNet newInstance(final CacheConfiguration cacheConfiguration) {
+    Preconditions.checkNotNull(cacheConfiguration);
+    final FileManager fileManager = new FileManager();
+    return new WordNet(fileManager, openCompiledDictionary(fileManager), 0, cacheConfiguration);
+  }
+
+  /**
+   * @return the configuration of this instance's caches
+   * @yawni.experimental
+   */
+  public CacheConfiguration getCacheConfiguration() {
+    return cacheConfiguration;
+  }
+
+  /**
+   * @return a snapshot of this instance's cache, file I/O and morphological processing counters
+   * @yawni.experimental
+   */
+  public WordNetMetrics getMetrics() {
+    final Map<CacheName, CacheStats> cacheStats = Maps.newEnumMap(CacheName.class);
+    for (final Map.Entry<CacheName, CacheMetrics> entry : cacheMetrics.entrySet()) {
+      cacheStats.put(entry.getKey(), entry.getValue().snapshot());
+    }
+    final FileManager files = fileManager instanceof FileManager ? (FileManager) fileManager : null;
+    return new WordNetMetrics(cacheStats,
+        files == null ? 0 : files.getBytesRead(),
+        files == null ? 0 : files.getBinarySearches(),
+        files == null ? 0 : files.getBinarySearchProbes(),
+        morphy.getRuleHits());
+  }
+
+  /**
+   * Zeros all of this instance's {@link #getMetrics() metrics}.
+   * @yawni.experimental
+   */
+  public void resetMetrics() {
+    for (final CacheMetrics metrics : cacheMetrics.values()) {
+      metrics.reset();
+    }
+    if (fileManager instanceof FileManager) {
+      ((FileManager) fileManager).resetMetrics();
+    }
+    morphy.resetMetrics();
+  }
+
+  /**
+   * Registers a {@link WordNetMetricsMXBean} view of this instance's {@link #getMetrics() metrics}
+   * with the platform MBean server as <code>org.yawni.wordnet:type=WordNet,name=<em>name</em></code>.
+   * @return the registered name, e.g., for {@link javax.management.MBeanServer#unregisterMBean(ObjectName)}
+   * @throws IllegalStateException if {@code name} is already registered
+   * @yawni.experimental
+   */
+  public ObjectName registerMetricsMBean(final String name) {
+    final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    try {
+      final ObjectName objectName = new ObjectName("org.yawni.wordnet:type=WordNet,name=" + ObjectName.quote(name));
+      server.registerMBean(new StandardMBean(new MetricsMXBean(), WordNetMetricsMXBean.class, true), objectName);
+      return objectName;
+    } catch (InstanceAlreadyExistsException iaee) {
+      throw new IllegalStateException("already registered: "+name, iaee);
+    } catch (JMException jme) {
+      throw new RuntimeException(jme);
+    }
+  }
+
+  private final class MetricsMXBean implements WordNetMetricsMXBean {
+    @Override
+    public Map<String, CacheStats> getCacheStats() {
+      final Map<String, CacheStats> cacheStats = new LinkedHashMap<>();
+      for (final Map.Entry<CacheName, CacheStats> entry : getMetrics().getCacheStats().entrySet()) {
+        cacheStats.put(entry.getKey().name(), entry.getValue());
+      }
+      return cacheStats;
+    }
+
+    @Override
+    public long getFileBytesRead() {
+      return getMetrics().getFileBytesRead();
+    }
+
+    @Override
+    public long getBinarySearches() {
+      return getMetrics().getBinarySearches();
+    }
+
+    @Override
+    public long getBinarySearchProbes() {
+      return getMetrics().getBinarySearchProbes();
+    }
+
+    @Override
+    public Map<String, Long> getMorphyRuleHits() {
+      return getMetrics().getMorphyRuleHits();
+    }
+
+    @Override
+    public void resetMetrics() {
+      WordNet.this.resetMetrics();
+    }
+  } // end class MetricsMXBean
+
+  /**
+   * Factory method to get a <em>new</em> dictionary, backed by the same files as {@link #getInstance()},
+   * which eagerly loads every {@link Synset}, {@link Word} and {@link Relation} into memory (around
+   * 100MB of heap for WordNet 3.0), parsing the files with one thread per available processor.
+   * Thereafter, {@link #getSynsetAt(POS, int)}, {@link #lookupWord(CharSequence, POS)} and iteration
+   * over synsets and words are array lookups which never consult the files or the entity cache.
+   * @see #getPreloadMillis()
+   * @see #getPreloadedSizeInBytes()
+   * @yawni.experimental
+   */
+  public static WordNet newPreloadedInstance() {
+    return newPreloadedInstance(Runtime.getRuntime().availableProcessors());
+  }
+
+  /**
+   * Like {@link #newPreloadedInstance()}, parsing the files with {@code parallelism} threads.
+   * @throws IllegalArgumentException if {@code parallelism < 1}
+   * @yawni.experimental
+   */
+  public static WordNet newPreloadedInstance(final int parallelism) {
+    Preconditions.checkArgument(parallelism > 0, "parallelism must be positive: %s", parallelism);
+    final FileManager fileManager = new FileManager();
+    return new WordNet(fileManager, openCompiledDictionary(fileManager), parallelism);
+  }
+
+  /**
+   * @return {@code true} if this instance was created by {@link #newPreloadedInstance()}
+   * @yawni.experimental
+   */
+  public boolean isPreloaded() {
+    return preloaded != null;
+  }
+
+  /**
+   * @return milliseconds {@link #newPreloadedInstance()} spent loading this instance, or {@code -1}
+   *   if it is not preloaded
+   * @yawni.experimental
+   */
+  public long getPreloadMillis() {
+    return preloaded == null ? -1 : preloaded.getLoadNanos() / 1000000;
+  }
+
+  /**
+   * @return estimated heap retained by the preloaded synsets, words and relation graph, or {@code -1}
+   *   if this instance is not preloaded
+   * @yawni.experimental
+   */
+  public long getPreloadedSizeInBytes() {
+    return preloaded == null ? -1 : preloaded.estimateSizeInBytes();
+  }
+
+  /** @return preloaded synsets, words and relation graph, or {@code null} if not preloaded */
+  PreloadedDictionary getPreloadedDictionary() {
+    return preloaded;
+  }
+
 //  /**
 //   * Factory method to get <em>the</em> dictionary backed by a set of files contained
 //   * in {@code searchDirectory}.
@@ -145,14 +417,52 @@ public final class WordNet implements WordNetInterface {
 //    return InstanceHolder.instance;
 //  }
 
+  /**
+   * Opens the {@link CompiledDictionary#FILE_NAME compiled image}, if there is one which
+   * matches the text files.
+   */
+  private static CompiledDictionary openCompiledDictionary(final FileManagerInterface fileManager) {
+    final CompiledDictionary compiled;
+    try {
+      final ByteBuffer image = fileManager.getByteBuffer(CompiledDictionary.FILE_NAME);
+      if (image == null) {
+        return null;
+      }
+      compiled = CompiledDictionary.open(image);
+      for (final POS pos : POS.CATS) {
+        if (compiled.isCompiled(pos) &&
+            (isStale(compiled.dataFileLength(pos), fileManager, getDataFilename(pos)) ||
+             isStale(compiled.indexFileLength(pos), fileManager, getIndexFileName(pos)))) {
+          log.warn("ignoring {}: compiled from different {} files", CompiledDictionary.FILE_NAME, pos);
+          return null;
+        }
+      }
+    } catch (IOException | IllegalArgumentException e) {
+      log.warn("ignoring "+CompiledDictionary.FILE_NAME, e);
+      return null;
+    }
+    log.info("using {}: {} synsets {} words", CompiledDictionary.FILE_NAME, compiled.synsetCount(), compiled.wordCount());
+    return compiled;
+  }
+
+  // text files are optional when compiled; only a present file of a different length is stale
+  private static boolean isStale(final int compiledLength, final FileManagerInterface fileManager, final String fileName) throws IOException {
+    final ByteBuffer text = fileManager.getByteBuffer(fileName);
+    return text != null && text.capacity() != compiledLength;
+  }
+
+  private boolean isCompiled(final POS pos) {
+    return compiledDictionary != null && compiledDictionary.isCompiled(pos);
+  }
+
   //
   // Entity lookup caching
   //
   static final int DEFAULT_CACHE_CAPACITY = 10000;//100000;
-  private final Cache<DatabaseKey, Object> synsetCache = Caches.withCapacity(DEFAULT_CACHE_CAPACITY);
+  private final Cache<DatabaseKey, Object> synsetCache;
   // single cache which uses 2 kinds kinds of keys (keeps utilization high)
   // - POSOffsetDatabaseKey (getIndexWordAt direct-hit cache) and StringPOSDatabaseKey (lookupWord query cache)
-  private final Cache<DatabaseKey, Object> indexWordCache = Caches.withCapacity(DEFAULT_CACHE_CAPACITY);
+  private final Cache<DatabaseKey, Object> indexWordCache;
 
   // generic custom hashing interface
   interface DatabaseKey {
@@ -326,48 +636,86 @@ public final class WordNet implements WordNetInterface {
   //
 
   //FIXME cache's don't store null values!
-  private static void cacheDebug(final Cache<DatabaseKey, Object> cache) {
-    //System.err.println(cache.getClass().getSimpleName());
-    //System.err.printf("getIndexWordAtCacheMiss: %d getIndexWordAtCacheHit: %d weirdGetIndexWordAtCacheMiss: %d\n",
-    //    getIndexWordAtCacheMiss, getIndexWordAtCacheHit, weirdGetIndexWordAtCacheMiss );
-    //System.err.printf("getSynsetAtCacheMiss: %d getSynsetAtCacheHit: %d weirdGetSynsetAtCacheMiss: %d\n",
-    //    getSynsetAtCacheMiss, getSynsetAtCacheHit, weirdGetSynsetAtCacheMiss);
-    //System.err.printf("lookupIndexWordCacheMiss: %d lookupIndexWordCacheHit: %d weirdLookupIndexWordCacheMiss: %d\n",
-    //    lookupIndexWordCacheMiss, lookupIndexWordCacheHit, weirdLookupIndexWordCacheMiss);
-  }
-
-  static int getIndexWordAtCacheMiss = 0;
-  static int getIndexWordAtCacheHit = 0;
-  static int weirdGetIndexWordAtCacheMiss = 0;
 
   Word getIndexWordAt(final POS pos, final int offset) {
+    if (preloaded != null) {
+      final Word word = preloaded.getWordAt(pos, offset);
+      if (word == null) {
+        throw new IllegalStateException("no word at offset "+offset+" "+pos);
+      }
+      return word;
+    }
     final DatabaseKey cacheKey = new POSOffsetDatabaseKey(pos, offset);
     Word word = (Word) indexWordCache.get(cacheKey);
-    if (word != null) {
-      getIndexWordAtCacheHit++;
-      cacheDebug(indexWordCache);
-    } else {
-      getIndexWordAtCacheMiss++;
-      cacheDebug(indexWordCache);
-      final String fileName = getIndexFileName(pos);
-      final CharSequence line;
-      try {
-        line = fileManager.readLineAt(offset, fileName);
-      } catch (IOException ioe) {
-        throw new RuntimeException(ioe);
-      }
-      if (line == null) {
-        throw new IllegalStateException("line null for offset "+offset+" "+pos);
-      }
-      word = new Word(line, offset, this);
+    if (word == null) {
+      final long start = System.nanoTime();
+      word = loadIndexWordAt(pos, offset);
       indexWordCache.put(cacheKey, word);
+      cacheMetrics.get(CacheName.INDEX_WORD).recordLoad(System.nanoTime() - start);
     }
     return word;
   }
 
-  static int getSynsetAtCacheMiss = 0;
-  static int getSynsetAtCacheHit = 0;
-  static int weirdGetSynsetAtCacheMiss = 0;
+  private Word loadIndexWordAt(final POS pos, final int offset) {
+    if (isCompiled(pos)) {
+      final int record = compiledDictionary.findWordAt(pos, offset);
+      if (record < 0) {
+        throw new IllegalStateException("no word at offset "+offset+" "+pos);
+      }
+      return new Word(compiledDictionary, record, this);
+    }
+    final String fileName = getIndexFileName(pos);
+    final CharSequence line;
+    try {
+      line = fileManager.readLineAt(offset, fileName);
+    } catch (IOException ioe) {
+      throw new RuntimeException(ioe);
+    }
+    if (line == null) {
+      throw new IllegalStateException("line null for offset "+offset+" "+pos);
+    }
+    return new Word(line, offset, this);
+  }
+
+  /**
+   * @return length of <code>data.<em>pos</em></code>, or {@code -1} if it does not exist
+   */
+  int getDataFileLength(final POS pos) {
+    return getFileLength(getDataFilename(pos));
+  }
+
+  /**
+   * @return length of <code>index.<em>pos</em></code>, or {@code -1} if it does not exist
+   */
+  int getIndexFileLength(final POS pos) {
+    return getFileLength(getIndexFileName(pos));
+  }
+
+  private int getFileLength(final String fileName) {
+    try {
+      final ByteBuffer bytes = fileManager.getByteBuffer(fileName);
+      return bytes == null ? -1 : bytes.capacity();
+    } catch (IOException ioe) {
+      throw new RuntimeException(ioe);
+    }
+  }
+
+  /**
+   * @return gloss of the synset at {@code offset} if it is preloaded or compiled, else {@code null}
+   * @see Synset#getGloss()
+   */
+  String getStoredGloss(final POS pos, final int offset) {
+    if (preloaded != null) {
+      return preloaded.getGloss(pos, offset);
+    }
+    if (isCompiled(pos)) {
+      final int record = compiledDictionary.findSynset(pos, offset);
+      if (record >= 0) {
+        return compiledDictionary.gloss(record);
+      }
+    }
+    return null;
+  }
 
   String getSynsetLineAt(final POS pos, final int offset) {
     final String fileName = getDataFilename(pos);
@@ -380,20 +728,28 @@ public final class WordNet implements WordNetInterface {
 
   @Override
   public Optional<Synset> getSynsetAt(final POS pos, final int offset) {
+    if (preloaded != null) {
+      return Optional.ofNullable(preloaded.getSynsetAt(pos, offset));
+    }
     final DatabaseKey cacheKey = new POSOffsetDatabaseKey(pos, offset);
     Synset synset = (Synset) synsetCache.get(cacheKey);
-    if (synset != null) {
-      getSynsetAtCacheHit++;
-      cacheDebug(synsetCache);
-    } else {
-      getSynsetAtCacheMiss++;
-      cacheDebug(synsetCache);
-      try {
-        synset = new Synset(getSynsetLineAt(pos, offset), this);
-        synsetCache.put(cacheKey, synset);
-      } catch (IllegalArgumentException iae) {
-        synset = null;
+    if (synset == null) {
+      final long start = System.nanoTime();
+      if (isCompiled(pos)) {
+        final int record = compiledDictionary.findSynset(pos, offset);
+        if (record >= 0) {
+          synset = new Synset(compiledDictionary, record, this);
+          synsetCache.put(cacheKey, synset);
+        }
+      } else {
+        try {
+          synset = new Synset(getSynsetLineAt(pos, offset), this);
+          synsetCache.put(cacheKey, synset);
+        } catch (IllegalArgumentException iae) {
+          synset = null;
+        }
       }
+      cacheMetrics.get(CacheName.SYNSET).recordLoad(System.nanoTime() - start);
     }
     return Optional.ofNullable(synset);
   }
@@ -402,10 +758,6 @@ public final class WordNet implements WordNetInterface {
   // Lookup functions
   //
 
-  static int lookupIndexWordCacheMiss = 0;
-  static int lookupIndexWordCacheHit = 0;
-  static int weirdLookupIndexWordCacheMiss = 0;
-
   private static final Map<POS, BloomFilter<CharSequence>> INDEX_DATA_FILTERS;
   private static final Map<POS, BloomFilter<CharSequence>> EXCEPTIONS_FILTERS;
   static {
@@ -427,8 +779,35 @@ public final class WordNet implements WordNetInterface {
     }
   }
 
-  // look in classpath for filters
-  private static BloomFilter<CharSequence> getResource(final String resourceName) {
+  /**
+   * Loads {@link LemmaIndex}es ({@code dict/<POS>.mph}) from the classpath
+   * which match the index files of {@code fileManager}.
+   */
+  private static Map<POS, LemmaIndex> loadLemmaIndexes(final FileManagerInterface fileManager) {
+    final Map<POS, LemmaIndex> lemmaIndexes = Maps.newEnumMap(POS.class);
+    for (final POS pos : POS.CATS) {
+      final String resourceName = "dict/" + pos.name() + ".mph";
+      final LemmaIndex lemmaIndex = getResource(resourceName);
+      if (lemmaIndex == null) {
+        continue;
+      }
+      final ByteBuffer index;
+      try {
+        index = fileManager.getByteBuffer(getIndexFileName(pos));
+      } catch (IOException ioe) {
+        throw new RuntimeException(ioe);
+      }
+      if (index != null && index.capacity() == lemmaIndex.getIndexFileLength()) {
+        lemmaIndexes.put(pos, lemmaIndex);
+      } else {
+        log.warn("ignoring {}: built from a different {}", resourceName, getIndexFileName(pos));
+      }
+    }
+    return lemmaIndexes;
+  }
+
+  // look in classpath for serialized filters and indexes
+  private static <T> T getResource(final String resourceName) {
     try {
       final URL url = WordNet.class.getClassLoader().getResource(resourceName);
       if (url == null) {
@@ -440,9 +819,9 @@ public final class WordNet implements WordNetInterface {
       // fast CharStream created from InputStream (e.g., could be read from jar file)
       final ObjectInputStream ois = new ObjectInputStream(new BufferedInputStream(input));
       @SuppressWarnings("unchecked")
-      final BloomFilter<CharSequence> filter = (BloomFilter<CharSequence>) ois.readObject();
+      final T resource = (T) ois.readObject();
       Closeables.closeQuietly(ois);
-      return filter;
+      return resource;
     } catch (Exception e) {
       log.info("caught", e);
       System.err.println("caught!"+e);
@@ -469,37 +848,53 @@ public final class WordNet implements WordNetInterface {
   @Override
   public Word lookupWord(final CharSequence lemma, final POS pos) {
     checkValidPOS(pos, "by lookupWord(lemma, pos)");
+    if (preloaded != null) {
+      return preloaded.findWord(lemma, pos);
+    }
+    final LemmaIndex lemmaIndex = isCompiled(pos) ? null : lemmaIndexes.get(pos);
+    // allocation-free rejection of undefined lemmas (e.g., most Morphy candidates):
+    // exact if there's a LemmaIndex, else consult the Bloom filter
+    if (lemmaIndex != null ? lemmaIndex.get(lemma) < 0 : ! maybeDefined(lemma, pos)) {
+      return null;
+    }
     final DatabaseKey cacheKey = new StringPOSDatabaseKey(lemma, pos);
     Object indexWord = indexWordCache.get(cacheKey);
-    if (indexWord != null && indexWord != NULL_INDEX_WORD) {
-      lookupIndexWordCacheHit++;
-      cacheDebug(indexWordCache);
-    } else {
+    if (indexWord == null || indexWord == NULL_INDEX_WORD) {
+      final long start = System.nanoTime();
       indexWord = NULL_INDEX_WORD;
-      // consult the Bloom filter
-      if (maybeDefined(lemma, pos)) {
-        lookupIndexWordCacheMiss++;
-        cacheDebug(indexWordCache);
+      final int offset;
+      if (isCompiled(pos)) {
+        final int record = compiledDictionary.findWord(lemma, pos);
+        offset = record < 0 ? -1 : compiledDictionary.wordOffset(record);
+      } else if (lemmaIndex != null) {
+        offset = lemmaIndex.get(lemma);
+      } else {
         final String fileName = getIndexFileName(pos);
-        final int offset;
         try {
           offset = fileManager.getIndexedLinePointer(lemma, fileName);
         } catch (IOException ioe) {
           throw new RuntimeException(ioe);
         }
-        if (offset >= 0) {
-          indexWord = getIndexWordAt(pos, offset);
+      }
+      if (offset >= 0) {
+        indexWord = getIndexWordAt(pos, offset);
+        // LemmaIndex fingerprints admit 2^-32 false positives
+        if (lemmaIndex != null &&
+            WordNetLexicalComparator.TO_LOWERCASE_INSTANCE.compare(lemma, ((Word) indexWord).getLowercasedLemma()) != 0) {
+          indexWord = NULL_INDEX_WORD;
         }
-        //else {
-          // if here && ! INDEX_DATA_FILTERS.isEmpty()
-          //   false positive
-        //}
       }
+      //else {
+        // if here && ! INDEX_DATA_FILTERS.isEmpty()
+        //   false positive
+      //}
       // best not to add negative results (indexWord == NULL_INDEX_WORD)
       // to the LRU cache - let Bloom filter / ! maybeDefined() handle this
       if (indexWord != NULL_INDEX_WORD) {
-        indexWordCache.put(cacheKey, indexWord);
+        // lemma may be a reused buffer (e.g., Morphy.Candidate); cache an immutable copy
+        indexWordCache.put(lemma instanceof String ? cacheKey : new StringPOSDatabaseKey(lemma.toString(), pos), indexWord);
       }
+      cacheMetrics.get(CacheName.INDEX_WORD).recordLoad(System.nanoTime() - start);
     }
     return indexWord != NULL_INDEX_WORD ? (Word) indexWord : null;
   }
@@ -606,6 +1001,103 @@ public final class WordNet implements WordNetInterface {
     return LightImmutableList.copyOf(wordSenses);
   }
 
+  //
+  // Batch lookup
+  //
+
+  /** minimum number of distinct lookups per parallel task */
+  private static final int BATCH_CHUNK_SIZE = 256;
+
+  @Override
+  public List<List<String>> lookupBaseForms(final List<? extends CharSequence> tokens, final List<POS> posTags) {
+    return batchLookup(tokens, posTags, (someString, pos) -> lookupBaseForms(someString, pos));
+  }
+
+  @Override
+  public List<List<String>> lookupBaseForms(final Iterable<? extends CharSequence> tokens, final POS pos) {
+    final List<? extends CharSequence> tokenList = ImmutableList.copyOf(tokens);
+    return lookupBaseForms(tokenList, Collections.nCopies(tokenList.size(), pos));
+  }
+
+  @Override
+  public List<List<WordSense>> lookupWordSenses(final List<? extends CharSequence> tokens, final List<POS> posTags) {
+    return batchLookup(tokens, posTags, (someString, pos) -> lookupWordSenses(someString, pos));
+  }
+
+  @Override
+  public List<List<WordSense>> lookupWordSenses(final Iterable<? extends CharSequence> tokens, final POS pos) {
+    final List<? extends CharSequence> tokenList = ImmutableList.copyOf(tokens);
+    return lookupWordSenses(tokenList, Collections.nCopies(tokenList.size(), pos));
+  }
+
+  @Override
+  public List<List<Synset>> lookupSynsets(final List<? extends CharSequence> tokens, final List<POS> posTags) {
+    return batchLookup(tokens, posTags, (someString, pos) -> lookupSynsets(someString, pos));
+  }
+
+  @Override
+  public List<List<Synset>> lookupSynsets(final Iterable<? extends CharSequence> tokens, final POS pos) {
+    final List<? extends CharSequence> tokenList = ImmutableList.copyOf(tokens);
+    return lookupSynsets(tokenList, Collections.nCopies(tokenList.size(), pos));
+  }
+
+  /**
+   * Applies {@code lookup} once per distinct (token, pos) pair.  Distinct pairs are ordered like the
+   * index files (by {@code POS}, then {@link WordNetLexicalComparator}) so neighboring lookups probe
+   * neighboring lines, then split into contiguous chunks which are looked up in parallel.
+   */
+  private <T> List<List<T>> batchLookup(final List<? extends CharSequence> tokens, final List<POS> posTags,
+      final BiFunction<String, POS, List<T>> lookup) {
+    Preconditions.checkArgument(tokens.size() == posTags.size(),
+      "%s tokens but %s POS tags", tokens.size(), posTags.size());
+    final int n = tokens.size();
+    final Map<StringPOSDatabaseKey, Integer> distinctIds = new HashMap<>();
+    final List<String> distinctTokens = new ArrayList<>();
+    final List<POS> distinctPOSes = new ArrayList<>();
+    final int[] tokenIds = new int[n];
+    for (int i = 0; i < n; i++) {
+      final String token = tokens.get(i).toString();
+      final POS pos = posTags.get(i);
+      Preconditions.checkNotNull(pos, "null POS tag for token %s", i);
+      final Integer id = distinctIds.putIfAbsent(new StringPOSDatabaseKey(token, pos), distinctTokens.size());
+      if (id == null) {
+        tokenIds[i] = distinctTokens.size();
+        distinctTokens.add(token);
+        distinctPOSes.add(pos);
+      } else {
+        tokenIds[i] = id;
+      }
+    }
+
+    final int distinct = distinctTokens.size();
+    final Integer[] order = new Integer[distinct];
+    for (int id = 0; id < distinct; id++) {
+      order[id] = id;
+    }
+    Arrays.sort(order, (id1, id2) -> {
+      final int posCompare = distinctPOSes.get(id1).compareTo(distinctPOSes.get(id2));
+      return posCompare != 0 ? posCompare :
+        WordNetLexicalComparator.TO_LOWERCASE_INSTANCE.compare(distinctTokens.get(id1), distinctTokens.get(id2));
+    });
+
+    final Object[] distinctResults = new Object[distinct];
+    final int chunks = (distinct + BATCH_CHUNK_SIZE - 1) / BATCH_CHUNK_SIZE;
+    IntStream.range(0, chunks).parallel().forEach(chunk -> {
+      for (int k = chunk * BATCH_CHUNK_SIZE, end = Math.min(distinct, k + BATCH_CHUNK_SIZE); k < end; k++) {
+        final int id = order[k];
+        distinctResults[id] = lookup.apply(distinctTokens.get(id), distinctPOSes.get(id));
+      }
+    });
+
+    final Object[] results = new Object[n];
+    for (int i = 0; i < n; i++) {
+      results[i] = distinctResults[tokenIds[i]];
+    }
+    @SuppressWarnings("unchecked")
+    final List<List<T>> toReturn = (List<List<T>>) (List<?>) ImmutableList.copyOf(results);
+    return toReturn;
+  }
+
   @Override
   public Iterable<Synset> synsets(final String query) {
     final EnumMap<Command, String> cmdToValue = Command.getCmdToValue(query);
@@ -678,7 +1170,7 @@ public final class WordNet implements WordNetInterface {
     throw new IllegalArgumentException("unsatisfiable query "+query);
   }
 
-  private final Cache<DatabaseKey, LightImmutableList<String>> exceptionsCache = Caches.withCapacity(DEFAULT_CACHE_CAPACITY);
+  private final Cache<DatabaseKey, LightImmutableList<String>> exceptionsCache;
 
   /**
    * <em>looks up</em> word in the appropriate <em>exc</em>eptions file for the given {@code pos}.
@@ -704,6 +1196,7 @@ public final class WordNet implements WordNetInterface {
     //assert someString.length() > 0 : "someString: \""+someString+"\" "+pos+" cacheKey: "+cacheKey;
     assert pos != null;
     final String fileName = getExceptionsFilename(pos);
+    final long start = System.nanoTime();
     try {
       final int offset = fileManager.getIndexedLinePointer(someString, fileName);
       if (offset >= 0) {
@@ -717,71 +1210,175 @@ public final class WordNet implements WordNetInterface {
       }
     } catch (IOException ioe) {
       throw new RuntimeException(ioe);
+    } finally {
+      cacheMetrics.get(CacheName.EXCEPTIONS).recordLoad(System.nanoTime() - start);
     }
     return LightImmutableList.of();
   }
 
+  /**
+   * Looks up the {@code WordSense} identified by a
+   * <a href="https://wordnet.princeton.edu/documentation/senseidx5wn#sect3">sense key</a>, e.g.,
+   * {@code "communicate%2:40:10::"} or {@code "hot_dog%1:13:01::"}, as used by sense tagged corpora
+   * like SemCor.  Case and underscores versus spaces are ignored.  Sense keys are resolved with an
+   * in-memory table of every sense key, built on first use (taking a few seconds for a full WordNet)
+   * and then retained, so each lookup is a binary search and (at most) a synset load.
+   * @param senseKey sense key
+   * @return the identified {@code WordSense}, if any
+   * @see WordSense#getSenseKey()
+   * @yawni.experimental
+   */
+  public Optional<WordSense> getWordSense(final CharSequence senseKey) {
+    final long address = getSenseKeyIndex().find(senseKey.toString().toLowerCase(Locale.ROOT).replace('_', ' '));
+    if (address < 0) {
+      return Optional.empty();
+    }
+    return getSynsetAt(SenseKeyIndex.pos(address), SenseKeyIndex.offset(address))
+      .map(synset -> synset.getWordSenses().get(SenseKeyIndex.index(address)));
+  }
+
+  /** @return the sense key index, building it on first use */
+  SenseKeyIndex getSenseKeyIndex() {
+    SenseKeyIndex index = senseKeyIndex;
+    if (index == null) {
+      synchronized (this) {
+        index = senseKeyIndex;
+        if (index == null) {
+          senseKeyIndex = index = buildSenseKeyIndex();
+        }
+      }
+    }
+    return index;
+  }
+
+  private SenseKeyIndex buildSenseKeyIndex() {
+    final long start = System.nanoTime();
+    final List<Map.Entry<String, Long>> senses = synsetStream(POS.ALL).parallel()
+      .flatMap(synset -> {
+        final List<WordSense> wordSenses = synset.getWordSenses();
+        return IntStream.range(0, wordSenses.size()).mapToObj(i -> Maps.immutableEntry(
+            wordSenses.get(i).getSenseKey().toString(), SenseKeyIndex.address(synset.getPOS(), synset.getOffset(), i)));
+      })
+      .collect(Collectors.toList());
+    final SenseKeyIndex index = SenseKeyIndex.build(senses);
+    log.info("indexed {} sense keys in {}ms", index.size(), (System.nanoTime() - start) / 1000000);
+    return index;
+  }
+
+  /**
+   * @return the sense key of {@code wordSense} if the sense key index has been built, else {@code null}
+   * @see WordSense#getSenseKey()
+   */
+  String getIndexedSenseKey(final WordSense wordSense) {
+    final SenseKeyIndex index = senseKeyIndex;
+    if (index == null) {
+      return null;
+    }
+    final Synset synset = wordSense.getSynset();
+    return index.senseKey(SenseKeyIndex.address(synset.getPOS(), synset.getOffset(), synset.getSynsetIndex(wordSense)));
+  }
+
   /**
    * <em>looks up</em> <a href="https://wordnet.princeton.edu/documentation/senseidx5wn#sect3">senskey</a>
-   * in the {@code cntlist.rev} file and returns the matching line (or
-   * {@code null}).  Informationally equivalent to searching
+   * in the {@code cntlist.rev} file and returns its tagged sense count (or
+   * {@code 0}).  Informationally equivalent to searching
    * {@code index.sense} (or {@code sense.idx} on older Windows
    * releases).  Differences are that {@code cntlist.rev} includes defunct
    * sense information (does no harm though because it isn't referenced in its
    * WordNet), doesn't include entries for items with zero counts, doesn't
    * include synset offset, and formats adjective sense keys correctly (including
    * {@link WordSense.AdjPosition} information).
+   * The file is loaded into a {@link SenseKeyTable} on first use.
    *
+   * @param senseKey in {@link WordSense#getSenseKey()} form
+   * @throws IllegalStateException if data file is not found
    * @see Word#getTaggedSenseCount()
    */
-  String lookupCntlistDotRevLine(final CharSequence senseKey) {
-    //TODO add caching
-    try {
-      final int offset = fileManager.getIndexedLinePointer(senseKey, PlainTextResource.CNTLIST_DOT_REV.getFileName());
-      final String line;
-      if (offset < 0) {
-        line = null;
-      } else {
-        line = fileManager.readLineAt(offset, PlainTextResource.CNTLIST_DOT_REV.getFileName());
-      }
-      return line;
-    } catch (IOException ioe) {
-      throw new RuntimeException(ioe);
-    }
+  int lookupSensesTaggedFrequency(final CharSequence senseKey) {
+    return getSenseKeyTable(PlainTextResource.CNTLIST_DOT_REV).get(senseKey, 0);
   }
 
-  // throws IllegalStateException if data file is not found
-  String lookupCoreRankLine(final CharSequence senseKey) {
-    try {
-      final int offset = fileManager.getIndexedLinePointer(senseKey, PlainTextResource.CORE_RANK.getFileName());
-      final String line;
-      if (offset < 0) {
-        line = null;
-      } else {
-        line = fileManager.readLineAt(offset, PlainTextResource.CORE_RANK.getFileName());
-      }
-      return line;
-    } catch (IOException ioe) {
-      throw new RuntimeException(ioe);
-    }
+  /**
+   * @param senseKey in {@link WordSense#getSenseKey()} form
+   * @return core rank of {@code senseKey}, or {@code -1} if it is unranked
+   * @throws IllegalStateException if data file is not found
+   * @see WordSense#getCoreRank()
+   */
+  int lookupCoreRank(final CharSequence senseKey) {
+    return getSenseKeyTable(PlainTextResource.CORE_RANK).get(senseKey, -1);
   }
 
-  // throws IllegalStateException if data file is not found
-  Iterable<CharSequence> lookupMorphoSemanticRelationLines(final CharSequence senseKey) {
+  /**
+   * @return the {@code resource} table, loading it on first use
+   * @throws IllegalStateException if data file is not found
+   */
+  private SenseKeyTable getSenseKeyTable(final PlainTextResource resource) {
+    return senseKeyTables.computeIfAbsent(resource, this::loadSenseKeyTable)
+      .orElseThrow(() -> new IllegalStateException("missing "+resource.getFileName()));
+  }
+
+  private Optional<SenseKeyTable> loadSenseKeyTable(final PlainTextResource resource) {
+    final List<String> lines;
     try {
-      return fileManager.getMatchingLines(senseKey, PlainTextResource.MORPHOSEMANTIC_RELATIONS.getFileName());
-    } catch (IOException ioe) {
-      throw new RuntimeException(ioe);
+      lines = lineStream(resource.getFileName(), (line, offset) -> line).collect(Collectors.toList());
+    } catch (IllegalStateException ise) {
+      // remember the file is missing rather than searching for it on every lookup
+      log.debug("{} not found", resource.getFileName());
+      return Optional.empty();
     }
+    return Optional.of(SenseKeyTable.build(lines));
   }
 
-  // throws IllegalStateException if data file is not found
-  Iterable<CharSequence> lookupVerbGroupLines(final CharSequence senseKey) {
+  /**
+   * Returns the tagged sense counts (see {@link WordSense#getSensesTaggedFrequency()}) and core ranks
+   * (see {@link WordSense#getCoreRank()}) of {@code wordSenses} in one call, e.g., of all of the senses
+   * of a {@link Word} or {@link Synset}.  Both come from in-memory tables loaded on first use.
+   * @param wordSenses senses, e.g., a {@code Word} or {@code Synset}
+   * @yawni.experimental
+   */
+  public SenseFrequencies getSenseFrequencies(final Iterable<WordSense> wordSenses) {
+    final List<WordSense> senses = ImmutableList.copyOf(wordSenses);
+    final int[] taggedFrequencies = new int[senses.size()];
+    final int[] coreRanks = new int[senses.size()];
+    for (int i = 0; i < taggedFrequencies.length; i++) {
+      taggedFrequencies[i] = senses.get(i).getSensesTaggedFrequency();
+      coreRanks[i] = senses.get(i).getCoreRank();
+    }
+    return new SenseFrequencies(senses, taggedFrequencies, coreRanks);
+  }
+
+  /**
+   * @return the morphosemantic relations of {@code morphosemantic-links}, compiled on first use;
+   *   empty if the file is not found
+   */
+  ExtraRelationIndex getMorphosemanticIndex() {
+    return extraRelationIndexes.computeIfAbsent(PlainTextResource.MORPHOSEMANTIC_RELATIONS,
+      resource -> loadExtraRelationIndex(resource, ExtraRelationIndex::buildMorphosemantic));
+  }
+
+  /**
+   * @return the verb group transitive closure of {@code verb_groups.non_pairs.offsets}, compiled on
+   *   first use; empty if the file is not found
+   */
+  ExtraRelationIndex getVerbGroupIndex() {
+    return extraRelationIndexes.computeIfAbsent(PlainTextResource.VERB_GROUP_RELATIONS,
+      resource -> loadExtraRelationIndex(resource, ExtraRelationIndex::buildVerbGroups));
+  }
+
+  private ExtraRelationIndex loadExtraRelationIndex(final PlainTextResource resource,
+      final java.util.function.Function<List<String>, ExtraRelationIndex> builder) {
+    final long start = System.nanoTime();
+    final List<String> lines;
     try {
-      return fileManager.getMatchingLines(senseKey, PlainTextResource.VERB_GROUP_RELATIONS.getFileName());
-    } catch (IOException ioe) {
-      throw new RuntimeException(ioe);
-    }
+      lines = lineStream(resource.getFileName(), (line, offset) -> line).collect(Collectors.toList());
+    } catch (IllegalStateException ise) {
+      log.debug("{} not found", resource.getFileName());
+      return ExtraRelationIndex.EMPTY;
+    }
+    final ExtraRelationIndex index = builder.apply(lines);
+    log.info("indexed {} {} relations in {}ms", index.size(), resource.getFileName(),
+      (System.nanoTime() - start) / 1000000);
+    return index;
   }
 
   /** XXX DOCUMENT ME */
@@ -886,6 +1483,501 @@ public final class WordNet implements WordNetInterface {
     Preconditions.checkArgument(POS.ALL != pos, "POS.ALL is not supported by %s", msg);
   }
 
+  //
+  // Parallel loading
+  //
+
+  /** files are split into chunks of at least this many bytes */
+  private static final int MIN_CHUNK_BYTES = 1 << 16;
+  /** chunks per thread, so threads which finish early can steal work */
+  private static final int CHUNKS_PER_THREAD = 4;
+
+  /**
+   * Parses the <code>data.<em>pos</em></code> and <code>index.<em>pos</em></code> files of {@code poses}
+   * into the entity caches, splitting each file into line-aligned chunks which are parsed
+   * concurrently by {@code parallelism} threads.  This moves the parsing (and paging in) of the
+   * files off the request path, e.g., at server start.  A file is only warmed if all of its entries
+   * fit in its cache (see {@link CacheConfiguration}); otherwise parsing it would just evict most
+   * of what it parsed (which, since chunks are parsed concurrently, would be arbitrary), so it is
+   * skipped with a warning.  With the default capacity of {@value #DEFAULT_CACHE_CAPACITY} only the
+   * adverb files fit; {@link #newPreloadedInstance(int)} retains everything.  Does nothing if this
+   * instance is preloaded.
+   * @param poses parts-of-speech to warm ({@link POS#ALL} is also supported)
+   * @param parallelism number of threads
+   * @throws IllegalArgumentException if {@code parallelism < 1}
+   * @yawni.experimental
+   */
+  public void warm(final Set<POS> poses, final int parallelism) {
+    Preconditions.checkArgument(parallelism > 0, "parallelism must be positive: %s", parallelism);
+    if (preloaded != null) {
+      return;
+    }
+    final EnumSet<POS> cats = EnumSet.noneOf(POS.class);
+    for (final POS pos : poses) {
+      if (pos == POS.ALL) {
+        cats.addAll(POS.CATS);
+      } else {
+        cats.add(pos == POS.SAT_ADJ ? POS.ADJ : pos);
+      }
+    }
+    final ForkJoinPool pool = new ForkJoinPool(parallelism);
+    try {
+      // submit every file before waiting on any
+      final List<Supplier<?>> parses = new ArrayList<>();
+      for (final POS pos : cats) {
+        if (fitsCache(CacheName.SYNSET, getDataFilename(pos))) {
+          parses.add(parseLines(pool, getDataFilename(pos), (line, offset) -> {
+            synsetCache.put(new POSOffsetDatabaseKey(pos, offset), parseSynset(pos, line, offset));
+            return null;
+          }));
+        }
+        if (fitsCache(CacheName.INDEX_WORD, getIndexFileName(pos))) {
+          parses.add(parseLines(pool, getIndexFileName(pos), (line, offset) -> {
+            indexWordCache.put(new POSOffsetDatabaseKey(pos, offset), parseWord(pos, line, offset));
+            return null;
+          }));
+        }
+      }
+      for (final Supplier<?> parse : parses) {
+        parse.get();
+      }
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  /**
+   * @return whether cache {@code name} can hold an entry for each line of {@code fileName}; logs a
+   *   warning if it can't
+   */
+  private boolean fitsCache(final CacheName name, final String fileName) {
+    final Caches.Implementation implementation = cacheConfiguration.getImplementation(name);
+    if (implementation == Caches.Implementation.UNBOUNDED || implementation == Caches.Implementation.WEAK) {
+      // ignore capacity
+      return true;
+    }
+    final int entries = entryCount(fileName);
+    final int capacity = cacheConfiguration.getCapacity(name);
+    if (entries <= capacity) {
+      return true;
+    }
+    log.warn("not warming {}: its {} entries exceed the {} cache capacity {}", fileName, entries, name, capacity);
+    return false;
+  }
+
+  /** @return number of lines of {@code fileName}, excluding license lines */
+  private int entryCount(final String fileName) {
+    final ByteBuffer bytes = getSplittableBytes(fileName);
+    int entries = 0;
+    for (int offset = 0, length = bytes.capacity(); offset < length; offset++) {
+      // at a line start
+      if (bytes.get(offset) != ' ' || offset + 1 == length || bytes.get(offset + 1) != ' ') {
+        entries++;
+      }
+      while (offset < length && bytes.get(offset) != '\n') {
+        offset++;
+      }
+    }
+    return entries;
+  }
+
+  /**
+   * Starts parsing every synset of {@code pos} on {@code pool}.
+   * @return waits for, and returns, the synsets in data file order
+   */
+  Supplier<List<Synset>> parseSynsets(final POS pos, final ForkJoinPool pool) {
+    return parseLines(pool, getDataFilename(pos), (line, offset) -> parseSynset(pos, line, offset));
+  }
+
+  /**
+   * Starts parsing every word of {@code pos} on {@code pool}.
+   * @return waits for, and returns, the words in index file order
+   */
+  Supplier<List<Word>> parseWords(final POS pos, final ForkJoinPool pool) {
+    return parseLines(pool, getIndexFileName(pos), (line, offset) -> parseWord(pos, line, offset));
+  }
+
+  private Synset parseSynset(final POS pos, final String line, final int offset) {
+    if (isCompiled(pos)) {
+      return new Synset(compiledDictionary, compiledDictionary.findSynset(pos, offset), this);
+    }
+    // bulk loads use (nearly) every synset's relations, so decode them while the line is at hand
+    return new Synset(line, this, true);
+  }
+
+  private Word parseWord(final POS pos, final String line, final int offset) {
+    if (isCompiled(pos)) {
+      return new Word(compiledDictionary, compiledDictionary.findWordAt(pos, offset), this);
+    }
+    return new Word(line, offset, this);
+  }
+
+  /** parses a line which starts at {@code offset}; {@code null} results are dropped */
+  private interface LineParser<T> {
+    T parse(String line, int offset);
+  } // end interface LineParser
+
+  /**
+   * Splits {@code fileName} into line-aligned chunks and submits a task to {@code pool} for each.
+   * @return waits for, and returns, the non-{@code null} results of {@code parser} in file order
+   */
+  private <T> Supplier<List<T>> parseLines(final ForkJoinPool pool, final String fileName, final LineParser<T> parser) {
+    final ByteBuffer bytes = getSplittableBytes(fileName);
+    final int length = bytes.capacity();
+    final int chunkCount = Math.max(1, Math.min(pool.getParallelism() * CHUNKS_PER_THREAD, length / MIN_CHUNK_BYTES));
+    final List<ForkJoinTask<List<T>>> chunks = new ArrayList<>(chunkCount);
+    int start = 0;
+    for (int chunk = 1; chunk <= chunkCount; chunk++) {
+      final int end = lineStart(bytes, (int) ((long) length * chunk / chunkCount));
+      if (end > start) {
+        final int chunkStart = start;
+        chunks.add(pool.submit(() -> parseChunk(fileName, chunkStart, end, parser)));
+        start = end;
+      }
+    }
+    return () -> {
+      final List<T> parsed = new ArrayList<>();
+      for (final ForkJoinTask<List<T>> chunk : chunks) {
+        parsed.addAll(chunk.join());
+      }
+      return parsed;
+    };
+  }
+
+  /**
+   * @return the contents of {@code fileName}
+   * @throws IllegalStateException if it isn't memory mapped, so can't be split into chunks
+   */
+  private ByteBuffer getSplittableBytes(final String fileName) {
+    final ByteBuffer bytes;
+    try {
+      bytes = fileManager.getByteBuffer(fileName);
+    } catch (IOException ioe) {
+      throw new RuntimeException(ioe);
+    }
+    if (bytes == null) {
+      throw new IllegalStateException("cannot split "+fileName);
+    }
+    return bytes;
+  }
+
+  /** @return start of the first line which starts at or after {@code offset} */
+  private static int lineStart(final ByteBuffer bytes, int offset) {
+    while (offset > 0 && offset < bytes.capacity() && bytes.get(offset - 1) != '\n') {
+      offset++;
+    }
+    return offset;
+  }
+
+  private <T> List<T> parseChunk(final String fileName, final int start, final int end, final LineParser<T> parser) {
+    final List<T> parsed = new ArrayList<>();
+    new LineSpliterator<>(fileName, null, start, end, parser).forEachRemaining(parsed::add);
+    return parsed;
+  }
+
+  /**
+   * Parses the lines of {@code [offset, end)} of {@code fileName} (which must start at line starts) with
+   * {@code parser}, skipping license lines and {@code null} results; splits at a line start near the
+   * middle of the remaining range, so parallel streams divide a file among threads.
+   */
+  private class LineSpliterator<T> implements Spliterator<T> {
+    private final String fileName;
+    /** {@code null} if not splittable */
+    private final ByteBuffer bytes;
+    private final LineParser<T> parser;
+    private int offset;
+    private final int end;
+
+    LineSpliterator(final String fileName, final ByteBuffer bytes, final int offset, final int end,
+        final LineParser<T> parser) {
+      this.fileName = fileName;
+      this.bytes = bytes;
+      this.offset = offset;
+      this.end = end;
+      this.parser = parser;
+    }
+    @Override
+    public boolean tryAdvance(final Consumer<? super T> action) {
+      try {
+        while (offset >= 0 && offset < end) {
+          final String line = fileManager.readLineAt(offset, fileName);
+          if (line == null) {
+            offset = end;
+            break;
+          }
+          final int lineOffset = offset;
+          offset = fileManager.getNextLinePointer(offset, fileName);
+          // skip license lines
+          if (line.startsWith("  ")) {
+            continue;
+          }
+          final T result = parser.parse(line, lineOffset);
+          if (result != null) {
+            action.accept(result);
+            return true;
+          }
+        }
+        return false;
+      } catch (IOException ioe) {
+        throw new RuntimeException(ioe);
+      }
+    }
+    @Override
+    public Spliterator<T> trySplit() {
+      if (bytes == null || end - offset < MIN_CHUNK_BYTES) {
+        return null;
+      }
+      final int middle = lineStart(bytes, offset + (end - offset) / 2);
+      if (middle <= offset || middle >= end) {
+        return null;
+      }
+      final Spliterator<T> prefix = new LineSpliterator<>(fileName, bytes, offset, middle, parser);
+      offset = middle;
+      return prefix;
+    }
+    @Override
+    public long estimateSize() {
+      // bytes, not lines
+      return Math.max(0, end - offset);
+    }
+    @Override
+    public int characteristics() {
+      return ORDERED | NONNULL | IMMUTABLE;
+    }
+  } // end class LineSpliterator
+
+  /**
+   * @return stream of the non-{@code null} results of {@code parser} over the lines of {@code fileName},
+   *   in file order, which splits at line boundaries if the file is memory mapped
+   */
+  private <T> Stream<T> lineStream(final String fileName, final LineParser<T> parser) {
+    final ByteBuffer bytes;
+    try {
+      bytes = fileManager.getByteBuffer(fileName);
+    } catch (IOException ioe) {
+      throw new RuntimeException(ioe);
+    }
+    final int end = bytes == null ? Integer.MAX_VALUE : bytes.capacity();
+    return StreamSupport.stream(new LineSpliterator<>(fileName, bytes, 0, end, parser), false);
+  }
+
+  //
+  // Streams
+  //
+
+  /**
+   * Like {@link #synsets(POS)}, but as a {@code Stream} whose {@link Stream#parallel() parallel}
+   * form splits the <code>data.<em>pos</em></code> files at line boundaries, so whole-database jobs
+   * (statistics, exports, etc.) scale across cores.  Synsets are parsed directly rather than through the
+   * entity cache, so a full scan doesn't flush it; they are {@code equals}, but not necessarily
+   * {@code ==}, to those returned by other methods.  {@link POS#ALL} streams the synsets of each
+   * {@code POS} in turn.
+   * @param pos part-of-speech ({@link POS#ALL} is also supported)
+   * @yawni.experimental
+   */
+  public Stream<Synset> synsetStream(final POS pos) {
+    if (pos == POS.ALL) {
+      return concatStreams(this::synsetStream);
+    } else if (preloaded != null) {
+      return preloaded.synsets(pos).stream();
+    } else {
+      return lineStream(getDataFilename(pos), (line, offset) -> parseSynset(pos, line, offset));
+    }
+  }
+
+  /**
+   * Like {@link #words(POS)}, but as a parallelizable {@code Stream}; see {@link #synsetStream(POS)}.
+   * Note that {@link POS#ALL} streams the words of each {@code POS} in turn, rather than merging them
+   * lexicographically like {@code words(POS.ALL)}.
+   * @param pos part-of-speech ({@link POS#ALL} is also supported)
+   * @yawni.experimental
+   */
+  public Stream<Word> wordStream(final POS pos) {
+    if (pos == POS.ALL) {
+      return concatStreams(this::wordStream);
+    } else if (preloaded != null) {
+      return preloaded.words(pos).stream();
+    } else {
+      return lineStream(getIndexFileName(pos), (line, offset) -> parseWord(pos, line, offset));
+    }
+  }
+
+  /**
+   * Like {@link #wordSenses(POS)}, but as a parallelizable {@code Stream}; see {@link #wordStream(POS)}.
+   * @param pos part-of-speech ({@link POS#ALL} is also supported)
+   * @yawni.experimental
+   */
+  public Stream<WordSense> wordSenseStream(final POS pos) {
+    return wordStream(pos).flatMap(word -> word.getWordSenses().stream());
+  }
+
+  /**
+   * Like {@link #relations(RelationType, POS)}, but as a parallelizable {@code Stream}; see
+   * {@link #synsetStream(POS)}.
+   * @param relationType relation type, or {@code null} for all relations
+   * @param pos part-of-speech ({@link POS#ALL} is also supported)
+   * @yawni.experimental
+   */
+  public Stream<Relation> relationStream(final RelationType relationType, final POS pos) {
+    final SynsetToRelations toRelations = new SynsetToRelations(relationType);
+    return synsetStream(pos).flatMap(synset -> toRelations.apply(synset).stream());
+  }
+
+  private static <T> Stream<T> concatStreams(final java.util.function.Function<POS, Stream<T>> posStream) {
+    // nested concat keeps the tree balanced, so each part splits evenly
+    return Stream.concat(
+      Stream.concat(posStream.apply(POS.NOUN), posStream.apply(POS.VERB)),
+      Stream.concat(posStream.apply(POS.ADJ), posStream.apply(POS.ADV)));
+  }
+
+  //
+  // Taxonomy
+  //
+
+  /** @return synset ids of every synset, numbering them on first use */
+  SynsetIds getSynsetIds() {
+    SynsetIds ids = synsetIds;
+    if (ids == null) {
+      synchronized (this) {
+        ids = synsetIds;
+        if (ids == null) {
+          synsetIds = ids = buildSynsetIds();
+        }
+      }
+    }
+    return ids;
+  }
+
+  private SynsetIds buildSynsetIds() {
+    if (preloaded != null) {
+      return preloaded.getSynsetIds();
+    }
+    final int[][] offsets = new int[POS.CATS.size()][];
+    for (int p = 0; p < offsets.length; p++) {
+      offsets[p] = lineStream(getDataFilename(POS.CATS.get(p)), (line, offset) -> offset).mapToInt(Integer::intValue).toArray();
+    }
+    return SynsetIds.build(offsets);
+  }
+
+  /**
+   * Returns the noun and verb taxonomies, i.e., the transitive closure of the hypernym and instance
+   * hypernym relations, which answers {@linkplain Taxonomy#isA(Synset, Synset) is-a} queries and enumerates
+   * ancestors and descendants without loading intermediate synsets.  Built on first use (taking about
+   * a second for a full WordNet) and then retained.
+   * @yawni.experimental
+   */
+  public Taxonomy getTaxonomy() {
+    Taxonomy index = taxonomy;
+    if (index == null) {
+      synchronized (this) {
+        index = taxonomy;
+        if (index == null) {
+          taxonomy = index = buildTaxonomy();
+        }
+      }
+    }
+    return index;
+  }
+
+  private Taxonomy buildTaxonomy() {
+    final long start = System.nanoTime();
+    final SynsetIds ids = getSynsetIds();
+    final int[][] parentIds = new int[ids.size()][];
+    for (final POS pos : new POS[] { POS.NOUN, POS.VERB }) {
+      synsetStream(pos).parallel().forEach(synset -> {
+        parentIds[ids.synsetId(synset)] = IntStream.range(0, synset.relationCount())
+          .mapToLong(synset::relationRecord)
+          .filter(relation -> (RelationType.HYPERNYM.mask() & 1L << Relation.typeOrdinal(relation)) != 0)
+          .mapToInt(relation -> ids.synsetId(Relation.targetPOS(relation), Relation.targetOffset(relation)))
+          .filter(id -> id >= 0)
+          .toArray();
+      });
+    }
+    final Taxonomy index = Taxonomy.build(this, ids, parentIds);
+    log.info("indexed {} in {}ms (~{}MB)", index, (System.nanoTime() - start) / 1000000,
+      index.estimateSizeInBytes() >> 20);
+    return index;
+  }
+
+  //
+  // Relation graph
+  //
+
+  /** @return every relation of every synset over synset ids, compiled on first use */
+  RelationGraph getRelationGraph() {
+    RelationGraph graph = relationGraph;
+    if (graph == null) {
+      synchronized (this) {
+        graph = relationGraph;
+        if (graph == null) {
+          relationGraph = graph = buildRelationGraph();
+        }
+      }
+    }
+    return graph;
+  }
+
+  private RelationGraph buildRelationGraph() {
+    if (preloaded != null) {
+      return preloaded.getRelationGraph();
+    }
+    final long start = System.nanoTime();
+    final SynsetIds ids = getSynsetIds();
+    final int[][] targets = new int[ids.size()][];
+    synsetStream(POS.ALL).parallel().forEach(synset -> {
+      final int[] packed = new int[synset.relationCount()];
+      int length = 0;
+      for (int i = 0; i < packed.length; i++) {
+        final long relation = synset.relationRecord(i);
+        final int targetId = ids.synsetId(Relation.targetPOS(relation), Relation.targetOffset(relation));
+        if (targetId >= 0) {
+          packed[length++] = targetId << RelationGraph.TYPE_BITS | Relation.typeOrdinal(relation);
+        }
+      }
+      targets[ids.synsetId(synset)] = length == packed.length ? packed : Arrays.copyOf(packed, length);
+    });
+    final RelationGraph graph = RelationGraph.build(targets);
+    log.info("indexed {} in {}ms (~{}MB)", graph, (System.nanoTime() - start) / 1000000,
+      graph.estimateSizeInBytes() >> 20);
+    return graph;
+  }
+
+  /**
+   * Returns a breadth first {@link Traversal} of relations of the given {@code types} (and their auxiliary
+   * types, e.g., {@code HYPONYM} includes {@code INSTANCE_HYPONYM}) which walks synset ids without loading
+   * intermediate synsets.  The first traversal compiles every relation of every synset into packed arrays
+   * (about 2MB for WordNet 3.0), which are then retained; preloaded instances reuse theirs.
+   * @yawni.experimental
+   */
+  public Traversal traversal(final RelationType... types) {
+    Preconditions.checkArgument(types.length > 0, "no relation types");
+    return new Traversal(this, getSynsetIds(), getRelationGraph(), RelationGraph.mask(types),
+      Traversal.Order.BREADTH_FIRST, Integer.MAX_VALUE);
+  }
+
+  /**
+   * Returns a personalized {@link PageRank} over every relation of every synset, for ranking synsets by
+   * their relatedness to seed synsets, e.g., to disambiguate the words of a context.  Its graph is
+   * compiled on first use (from the same arrays as {@link #traversal(RelationType...)}) and then retained,
+   * and is shared by every {@code PageRank} derived from it.
+   * @yawni.experimental
+   */
+  public PageRank getPageRank() {
+    PageRank index = pageRank;
+    if (index == null) {
+      synchronized (this) {
+        index = pageRank;
+        if (index == null) {
+          final long start = System.nanoTime();
+          pageRank = index = PageRank.build(this, getSynsetIds(), getRelationGraph());
+          log.info("indexed {} in {}ms (~{}MB)", index, (System.nanoTime() - start) / 1000000,
+            index.estimateSizeInBytes() >> 20);
+        }
+      }
+    }
+    return index;
+  }
+
   //
   // Iterators
   //
@@ -955,6 +2047,8 @@ public final class WordNet implements WordNetInterface {
         words(POS.VERB),
         words(POS.ADJ),
         words(POS.ADV));
+    } else if (preloaded != null) {
+      return preloaded.words(pos);
     } else {
       return () -> new WordIterator(pos);
     }
@@ -989,6 +2083,12 @@ public final class WordNet implements WordNetInterface {
     }
   } // end class SearchBySubstringIterator
 
+  /**
+   * {@inheritDoc}
+   * <p> Literal substrings (the common case, e.g., as a user types) are answered from a
+   * {@link TrigramIndex} of the lemmas of {@code pos}, built on first use, rather than by scanning the
+   * index file; regular expressions still scan it.
+   */
   @Override
   public Iterable<Word> searchBySubstring(final CharSequence substring, final POS pos) {
     if (pos == POS.ALL) {
@@ -997,11 +2097,46 @@ public final class WordNet implements WordNetInterface {
           searchBySubstring(substring, POS.VERB),
           searchBySubstring(substring, POS.ADJ),
           searchBySubstring(substring, POS.ADV));
+    }
+    final String normalized = Morphy.searchNormalize(substring.toString());
+    if (normalized.isEmpty()) {
+      // like the scan, the empty string matches nothing
+      return ImmutableList.of();
+    } else if (TrigramIndex.isLiteral(normalized)) {
+      return () -> Iterators.transform(Ints.asList(getTrigramIndex(pos).offsetsContaining(normalized)).iterator(),
+          offset -> getIndexWordAt(pos, offset));
     } else {
       return () -> new SearchBySubstringIterator(pos, substring);
     }
   }
 
+  /** @return the trigram index of the lemmas of {@code pos}, building it on first use */
+  TrigramIndex getTrigramIndex(final POS pos) {
+    return trigramIndexes.computeIfAbsent(pos == POS.SAT_ADJ ? POS.ADJ : pos, this::buildTrigramIndex);
+  }
+
+  private TrigramIndex buildTrigramIndex(final POS pos) {
+    final long start = System.nanoTime();
+    final List<Map.Entry<Integer, String>> lines;
+    final ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+    try {
+      // the lemma is the first word of the line
+      lines = parseLines(pool, getIndexFileName(pos),
+          (line, offset) -> Maps.immutableEntry(offset, line.substring(0, line.indexOf(' ')))).get();
+    } finally {
+      pool.shutdown();
+    }
+    final List<String> lemmas = new ArrayList<>(lines.size());
+    final int[] offsets = new int[lines.size()];
+    for (int i = 0; i < offsets.length; i++) {
+      offsets[i] = lines.get(i).getKey();
+      lemmas.add(lines.get(i).getValue());
+    }
+    final TrigramIndex index = TrigramIndex.build(lemmas, offsets);
+    log.info("indexed {} {} lemma trigrams in {}ms", index.size(), pos, (System.nanoTime() - start) / 1000000);
+    return index;
+  }
+
   /**
    * @see WordNetInterface#searchByPrefix
    */
@@ -1046,29 +2181,148 @@ public final class WordNet implements WordNetInterface {
     }
   }
 
+  /**
+   * Completes {@code prefix} to the lemmas (of any {@code POS}) which start with it, most frequent
+   * first; e.g., for autocompletion.  Frequency is the total tagged sense count (see
+   * {@link Word#getTaggedSenseCount()}) of the lemma, with ties broken by the best
+   * {@linkplain WordSense#getCoreRank() core rank} of its senses, then alphabetically.  Unlike
+   * {@link #searchByPrefix(CharSequence, POS)}, no index files are read or {@code Word}s loaded: the
+   * completion index is built on first use and then retained.
+   * @param prefix prefix to complete; normalized like {@code searchByPrefix}
+   * @param limit maximum number of completions
+   * @return up to {@code limit} lowercased lemmas (with spaces, not underscores), most frequent first
+   * @throws IllegalArgumentException if {@code limit} is negative
+   * @yawni.experimental
+   */
+  public List<String> complete(final CharSequence prefix, final int limit) {
+    Preconditions.checkArgument(limit >= 0, "limit must not be negative: %s", limit);
+    final String normalized = Morphy.searchNormalize(prefix.toString());
+    if (normalized.isEmpty()) {
+      return ImmutableList.of();
+    }
+    return getCompletionIndex().complete(normalized.replace('_', ' '), limit);
+  }
+
+  /** @return the completion index, building it on first use */
+  CompletionIndex getCompletionIndex() {
+    CompletionIndex index = completionIndex;
+    if (index == null) {
+      synchronized (this) {
+        index = completionIndex;
+        if (index == null) {
+          completionIndex = index = buildCompletionIndex();
+        }
+      }
+    }
+    return index;
+  }
+
+  private CompletionIndex buildCompletionIndex() {
+    final long start = System.nanoTime();
+    final Map<String, Integer> taggedSenseCounts = new HashMap<>();
+    final Map<String, Integer> coreRanks = new HashMap<>();
+    final ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+    try {
+      final List<Supplier<List<Word>>> parses = new ArrayList<>();
+      for (final POS pos : POS.CATS) {
+        parses.add(parseWords(pos, pool));
+      }
+      for (final Supplier<List<Word>> parse : parses) {
+        for (final Word word : parse.get()) {
+          taggedSenseCounts.merge(word.getLowercasedLemma(), word.getTaggedSenseCount(), Integer::sum);
+        }
+      }
+      // core-wordnet.ranked line format:
+      // <sense_key> <? bracketed lemma, comma separated evocations ?> <1-based rank>
+      final String coreRankFileName = PlainTextResource.CORE_RANK.getFileName();
+      if (getFileLength(coreRankFileName) > 0) {
+        for (final String line : parseLines(pool, coreRankFileName, (line, offset) -> line).get()) {
+          final String lemma = line.substring(0, line.indexOf('%')).replace('_', ' ');
+          final int rank = CharSequences.parseInt(line, line.lastIndexOf(' ') + 1, line.length());
+          coreRanks.merge(lemma, rank, Math::min);
+        }
+      } else {
+        log.info("{} not found; completions ranked by tagged sense count only", coreRankFileName);
+      }
+    } finally {
+      pool.shutdown();
+    }
+    final CompletionIndex index = CompletionIndex.build(taggedSenseCounts, coreRanks);
+    log.info("indexed {} lemmas for completion in {}ms", index.size(), (System.nanoTime() - start) / 1000000);
+    return index;
+  }
+
   /**
    * @see WordNetInterface#searchGlossBySubstring
    */
   private class SearchGlossBySubstringIterator extends AbstractIterator<Synset> {
-    private final Iterator<Synset> syns;
+    private final POS pos;
+    private final String fileName;
     private final Matcher matcher;
+    /** ascending offsets of the synsets which may match, or {@code null} to scan every line */
+    private final int[] candidateOffsets;
+    private int nextCandidate;
+    private int nextOffset;
     SearchGlossBySubstringIterator(final POS pos, final CharSequence pattern) {
-      this.syns = synsets(pos).iterator();
+      this.pos = pos;
+      this.fileName = getDataFilename(pos);
       // this can throw PatternSyntaxException; gigo
       this.matcher = Pattern.compile(pattern.toString()).matcher("");
+      this.candidateOffsets = candidateOffsets(pattern.toString(), pos);
     }
     @Override
     protected Synset computeNext() {
-      while (syns.hasNext()) {
-        final Synset syn = syns.next();
-        if (matcher.reset(syn.getGloss()).find()) {
-          return syn;
+      try {
+        if (candidateOffsets != null) {
+          while (nextCandidate < candidateOffsets.length) {
+            final int offset = candidateOffsets[nextCandidate++];
+            if (matches(fileManager.readLineAt(offset, fileName), offset)) {
+              return getSynsetAt(pos, offset).get();
+            }
+          }
+          return endOfData();
+        }
+        while (nextOffset >= 0) {
+          final int offset = nextOffset;
+          final String line = fileManager.readLineAt(offset, fileName);
+          if (line == null) {
+            break;
+          }
+          nextOffset = fileManager.getNextLinePointer(offset, fileName);
+          // first few lines start with "  "
+          if (! line.startsWith("  ") && matches(line, offset)) {
+            return getSynsetAt(pos, offset).get();
+          }
         }
+        return endOfData();
+      } catch (IOException ioe) {
+        throw new RuntimeException(ioe);
       }
-      return endOfData();
+    }
+    // match the gloss without building (and caching) a Synset for every line
+    private boolean matches(final String line, final int offset) {
+      final String storedGloss = getStoredGloss(pos, offset);
+      return matcher.reset(storedGloss != null ? storedGloss : Synset.glossOf(line)).find();
     }
   } // end class SearchGlossBySubstringIterator
 
+  /**
+   * @return if the gloss index has been built and {@code pattern} is a literal of letters and digits,
+   *   offsets of the synsets whose gloss has a token containing it (ignoring case), else {@code null}
+   */
+  private int[] candidateOffsets(final String pattern, final POS pos) {
+    final GlossIndex index = glossIndex;
+    if (index == null || pattern.isEmpty() || ! pattern.chars().allMatch(Character::isLetterOrDigit)) {
+      return null;
+    }
+    final int[] docs = index.docsContaining(GlossIndex.toLowerCase(pattern), pos);
+    final int[] offsets = new int[docs.length];
+    for (int i = 0; i < docs.length; i++) {
+      offsets[i] = index.docOffset(docs[i]);
+    }
+    return offsets;
+  }
+
   @Override
   public Iterable<Synset> searchGlossBySubstring(final CharSequence substring, final POS pos) {
     if (pos == POS.ALL) {
@@ -1077,11 +2331,110 @@ public final class WordNet implements WordNetInterface {
         searchGlossBySubstring(substring, POS.VERB),
         searchGlossBySubstring(substring, POS.ADJ),
         searchGlossBySubstring(substring, POS.ADV));
+    } else if (preloaded != null) {
+      // this can throw PatternSyntaxException; gigo
+      final Pattern pattern = Pattern.compile(substring.toString());
+      return () -> Iterators.filter(preloaded.synsets(pos).iterator(), syn -> pattern.matcher(syn.getGloss()).find());
     } else {
       return () -> new SearchGlossBySubstringIterator(pos, substring);
     }
   }
 
+  /**
+   * Searches the glosses of {@code pos} with an inverted index of gloss tokens, returning the
+   * best matches first, ranked by <a href="https://en.wikipedia.org/wiki/Okapi_BM25">BM25</a> score.
+   * {@code query} is whitespace separated clauses, all of which must match: a word ({@code dog}),
+   * a prefix ({@code canin*}) or a quoted phrase ({@code "domestic dog"}); matching is case insensitive
+   * and on whole tokens (maximal runs of letters and digits).  Candidates from the index are verified
+   * against the gloss text with a regular expression.
+   *
+   * <p> The index is built on first use, which takes a few seconds for a full WordNet, and then retained.
+   * Unlike {@link #searchGlossBySubstring(CharSequence, POS)}, only the returned synsets are loaded.
+   * @param query gloss query
+   * @param pos part-of-speech ({@link POS#ALL} is also supported)
+   * @param limit maximum number of results
+   * @return up to {@code limit} matching synsets, best first
+   * @throws IllegalArgumentException if {@code limit} is negative
+   * @yawni.experimental
+   */
+  public List<Synset> searchGloss(final CharSequence query, final POS pos, final int limit) {
+    Preconditions.checkArgument(limit >= 0, "limit must not be negative: %s", limit);
+    final GlossIndex index = getGlossIndex();
+    final GlossIndex.Query parsed = GlossIndex.Query.parse(query);
+    final List<Synset> results = new ArrayList<>();
+    for (final int doc : index.search(parsed, pos)) {
+      if (results.size() == limit) {
+        break;
+      }
+      final POS docPOS = index.docPOS(doc);
+      final int offset = index.docOffset(doc);
+      String gloss = getStoredGloss(docPOS, offset);
+      if (gloss == null) {
+        gloss = Synset.glossOf(getSynsetLineAt(docPOS, offset));
+      }
+      if (parsed.matches(gloss)) {
+        results.add(getSynsetAt(docPOS, offset).get());
+      }
+    }
+    return results;
+  }
+
+  /** @return the gloss index, building it on first use */
+  GlossIndex getGlossIndex() {
+    GlossIndex index = glossIndex;
+    if (index == null) {
+      synchronized (this) {
+        index = glossIndex;
+        if (index == null) {
+          glossIndex = index = buildGlossIndex();
+        }
+      }
+    }
+    return index;
+  }
+
+  private GlossIndex buildGlossIndex() {
+    final long start = System.nanoTime();
+    final int[] firstDocIds = new int[POS.CATS.size() + 1];
+    final List<Integer> offsets = new ArrayList<>();
+    final List<String> glosses = new ArrayList<>();
+    if (preloaded != null) {
+      for (final POS pos : POS.CATS) {
+        for (final Synset synset : preloaded.synsets(pos)) {
+          offsets.add(synset.getOffset());
+          glosses.add(synset.getGloss());
+        }
+        firstDocIds[SynsetIds.posIndex(pos) + 1] = offsets.size();
+      }
+    } else {
+      final ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+      try {
+        final List<Supplier<List<Map.Entry<Integer, String>>>> parses = new ArrayList<>();
+        for (final POS pos : POS.CATS) {
+          parses.add(parseLines(pool, getDataFilename(pos),
+              (line, offset) -> Maps.immutableEntry(offset, Synset.glossOf(line))));
+        }
+        for (int p = 0; p < parses.size(); p++) {
+          for (final Map.Entry<Integer, String> doc : parses.get(p).get()) {
+            offsets.add(doc.getKey());
+            glosses.add(doc.getValue());
+          }
+          firstDocIds[p + 1] = offsets.size();
+        }
+      } finally {
+        pool.shutdown();
+      }
+    }
+    final int[] docOffsets = new int[offsets.size()];
+    for (int doc = 0; doc < docOffsets.length; doc++) {
+      docOffsets[doc] = offsets.get(doc);
+    }
+    final GlossIndex index = GlossIndex.build(firstDocIds, docOffsets, glosses.toArray(new String[glosses.size()]));
+    log.info("indexed {} glosses, {} terms in {}ms", index.docCount(), index.termCount(),
+        (System.nanoTime() - start) / 1000000);
+    return index;
+  }
+
   Iterable<Synset> synsets(final Lexname lexname) {
     return () -> new LexnameIterator(lexname);
   }
@@ -1172,6 +2525,8 @@ public final class WordNet implements WordNetInterface {
         synsets(POS.VERB),
         synsets(POS.ADJ),
         synsets(POS.ADV));
+    } else if (preloaded != null) {
+      return preloaded.synsets(pos);
     } else {
       return () -> new POSSynsetsIterator(pos);
     }
@@ -74,6 +74,51 @@ public interface WordNetInterface {
    */
   List<Synset> lookupSynsets(final String someString, final POS pos);
 
+  /**
+   * Batch version of {@link #lookupBaseForms(String, POS)} for whole token streams (e.g., documents):
+   * element {@code i} of the result is {@code lookupBaseForms(tokens.get(i), posTags.get(i))}.
+   * Repeated (token, part-of-speech) pairs are looked up once, distinct pairs are looked up in
+   * index file order for locality, and large batches are split across the common
+   * {@link java.util.concurrent.ForkJoinPool}.
+   * @param tokens Some strings (need <em>not</em> be base forms).
+   * @param posTags The part-of-speech of each token ({@link POS#ALL} is also supported).
+   * @return an immutable list of the baseform(s) of each token, in input order
+   * @throws IllegalArgumentException if {@code tokens} and {@code posTags} differ in size
+   * @yawni.experimental
+   */
+  List<List<String>> lookupBaseForms(final List<? extends CharSequence> tokens, final List<POS> posTags);
+
+  /**
+   * Batch version of {@link #lookupBaseForms(String, POS)} for tokens which share the same {@code pos}.
+   * @see #lookupBaseForms(List, List)
+   * @yawni.experimental
+   */
+  List<List<String>> lookupBaseForms(final Iterable<? extends CharSequence> tokens, final POS pos);
+
+  /**
+   * Batch version of {@link #lookupWordSenses(String, POS)}; see {@link #lookupBaseForms(List, List)}.
+   * @yawni.experimental
+   */
+  List<List<WordSense>> lookupWordSenses(final List<? extends CharSequence> tokens, final List<POS> posTags);
+
+  /**
+   * Batch version of {@link #lookupWordSenses(String, POS)}; see {@link #lookupBaseForms(List, List)}.
+   * @yawni.experimental
+   */
+  List<List<WordSense>> lookupWordSenses(final Iterable<? extends CharSequence> tokens, final POS pos);
+
+  /**
+   * Batch version of {@link #lookupSynsets(String, POS)}; see {@link #lookupBaseForms(List, List)}.
+   * @yawni.experimental
+   */
+  List<List<Synset>> lookupSynsets(final List<? extends CharSequence> tokens, final List<POS> posTags);
+
+  /**
+   * Batch version of {@link #lookupSynsets(String, POS)}; see {@link #lookupBaseForms(List, List)}.
+   * @yawni.experimental
+   */
+  List<List<Synset>> lookupSynsets(final Iterable<? extends CharSequence> tokens, final POS pos);
+
   /**
    * Look up a {@code Word} in the database by its <strong>lemma</strong> (aka baseform).  The search is
    * case-independent and phrases are separated by spaces (e.g., "look up", not
@@ -0,0 +1,96 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.yawni.wordnet;
+
+import com.google.common.collect.ImmutableMap;
+import java.util.Map;
+import org.yawni.util.cache.CacheStats;
+import org.yawni.wordnet.CacheConfiguration.CacheName;
+
+/**
+ * Immutable snapshot of a {@link WordNet}'s counters: activity of each cache, file I/O, and
+ * which morphological processing rules found base forms.  All counts accumulate from the
+ * instance's creation (or its last {@link WordNet#resetMetrics()}).
+ *
+ * @see WordNet#getMetrics()
+ * @see WordNetMetricsMXBean
+ * @yawni.experimental
+ */
+public final class WordNetMetrics {
+  private final Map<CacheName, CacheStats> cacheStats;
+  private final long fileBytesRead;
+  private final long binarySearches;
+  private final long binarySearchProbes;
+  private final Map<String, Long> morphyRuleHits;
+
+  WordNetMetrics(final Map<CacheName, CacheStats> cacheStats, final long fileBytesRead,
+      final long binarySearches, final long binarySearchProbes, final Map<String, Long> morphyRuleHits) {
+    this.cacheStats = ImmutableMap.copyOf(cacheStats);
+    this.fileBytesRead = fileBytesRead;
+    this.binarySearches = binarySearches;
+    this.binarySearchProbes = binarySearchProbes;
+    this.morphyRuleHits = ImmutableMap.copyOf(morphyRuleHits);
+  }
+
+  /**
+   * @return hit, miss, put, eviction and load counts of each cache
+   */
+  public Map<CacheName, CacheStats> getCacheStats() {
+    return cacheStats;
+  }
+
+  public CacheStats getCacheStats(final CacheName name) {
+    return cacheStats.get(name);
+  }
+
+  /**
+   * @return bytes of WordNet file lines read or scanned, e.g., by binary search, substring search
+   *   or cache misses; {@code 0} if served from a compiled or preloaded dictionary
+   */
+  public long getFileBytesRead() {
+    return fileBytesRead;
+  }
+
+  /**
+   * @return binary searches of sorted WordNet files (e.g., to find an exception list entry)
+   */
+  public long getBinarySearches() {
+    return binarySearches;
+  }
+
+  /**
+   * @return lines compared by all {@link #getBinarySearches() binary searches}
+   */
+  public long getBinarySearchProbes() {
+    return binarySearchProbes;
+  }
+
+  /**
+   * @return number of base forms found by each of Morphy's rules: each {@code POS}'s exception list
+   *   (e.g., {@code "VERB exceptions"}) and suffix detachment rules (e.g., {@code "NOUN -ies +y"})
+   */
+  public Map<String, Long> getMorphyRuleHits() {
+    return morphyRuleHits;
+  }
+
+  @Override
+  public String toString() {
+    return "[WordNetMetrics caches: " + cacheStats + " fileBytesRead: " + fileBytesRead +
+        " binarySearches: " + binarySearches + " binarySearchProbes: " + binarySearchProbes +
+        " morphyRuleHits: " + morphyRuleHits + "]";
+  }
+} // end class WordNetMetrics
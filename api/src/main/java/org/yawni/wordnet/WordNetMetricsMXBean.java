@@ -0,0 +1,46 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.yawni.wordnet;
+
+import java.util.Map;
+import org.yawni.util.cache.CacheStats;
+
+/**
+ * JMX view of a {@link WordNet}'s {@link WordNetMetrics}.
+ *
+ * @see WordNet#registerMetricsMBean(String)
+ * @yawni.experimental
+ */
+public interface WordNetMetricsMXBean {
+  /** @see WordNetMetrics#getCacheStats() */
+  Map<String, CacheStats> getCacheStats();
+
+  /** @see WordNetMetrics#getFileBytesRead() */
+  long getFileBytesRead();
+
+  /** @see WordNetMetrics#getBinarySearches() */
+  long getBinarySearches();
+
+  /** @see WordNetMetrics#getBinarySearchProbes() */
+  long getBinarySearchProbes();
+
+  /** @see WordNetMetrics#getMorphyRuleHits() */
+  Map<String, Long> getMorphyRuleHits();
+
+  /** @see WordNet#resetMetrics() */
+  void resetMetrics();
+}
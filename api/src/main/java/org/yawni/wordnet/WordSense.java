@@ -26,11 +26,9 @@ import org.yawni.util.EnumAliases;
 import java.util.Iterator;
 import java.util.List;
 
-import org.yawni.util.CharSequences;
 import org.yawni.util.LightImmutableList;
 
 import static com.google.common.collect.ImmutableList.toImmutableList;
-import static org.yawni.util.Utils.add;
 
 /**
  * A {@code WordSense} represents the precise lexical information related to a specific sense of a {@link Word}.
@@ -101,6 +99,7 @@ public final class WordSense implements RelationArgument, Comparable<WordSense>
   //
   WordSense(final Synset synset, final String lemma, final int lexid, final int flags) {
     this.synset = synset;
+    assert LemmaPool.intern(lemma) == lemma : "unpooled lemma " + lemma;
     this.lemma = lemma;
     this.lexid = lexid;
     this.adjPositionFlags = SignedBytes.checkedCast(flags);
@@ -112,6 +111,10 @@ public final class WordSense implements RelationArgument, Comparable<WordSense>
     verbFrameFlags |= 1L << (fnum - 1);
   }
 
+  void setVerbFrameFlags(final long verbFrameFlags) {
+    this.verbFrameFlags = verbFrameFlags;
+  }
+
   //
   // Accessors
   //
@@ -239,9 +242,14 @@ public final class WordSense implements RelationArgument, Comparable<WordSense>
    * @see <a href="https://wordnet.princeton.edu/wordnet/man/senseidx5wn#sect3">
    *   https://wordnet.princeton.edu/wordnet/man/senseidx5wn#sect3</a>
    */
-  //TODO cache this ? does it ever become not useful to cache this ? better to cache getSensesTaggedFrequency()
   // power users might be into this: https://sourceforge.net/tracker/index.php?func=detail&aid=2009619&group_id=33824&atid=409470
   public CharSequence getSenseKey() {
+    // the sense key index avoids resolving an adjective satellite's head synset
+    final String key = synset.wordNet.getIndexedSenseKey(this);
+    return key != null ? key : buildSenseKey();
+  }
+
+  private StringBuilder buildSenseKey() {
     final String searchWord;
     final int headSense;
     if (getSynset().isAdjectiveCluster()) {
@@ -344,34 +352,9 @@ public final class WordSense implements RelationArgument, Comparable<WordSense>
       // there were any tagged senses for *any* sense of it (including this one)
       // and really we wouldn't need to look at sense (numbers) exceeding that value
       // as an optimization
-      final CharSequence senseKey = getSenseKey();
-      final WordNet wn = synset.wordNet;
-      final String line = wn.lookupCntlistDotRevLine(senseKey);
-      int count;
-      if (line != null) {
-        // cntlist.rev line format:
-        // <sense_key>  <sense_number>  tag_cnt
-        final int lastSpace = line.lastIndexOf(' ');
-        assert lastSpace > 0;
-        count = CharSequences.parseInt(line, lastSpace + 1, line.length());
-        // sanity check final int firstSpace = line.indexOf(" ");
-        // sanity check assert firstSpace > 0 && firstSpace != lastSpace;
-        // sanity check final int mySenseNumber = getSenseNumber();
-        // sanity check final int foundSenseNumber =
-        // sanity check   CharSequenceTokenizer.parseInt(line, firstSpace + 1, lastSpace);
-        // sanity check if (mySenseNumber != foundSenseNumber) {
-        // sanity check   System.err.println(this+" foundSenseNumber: "+foundSenseNumber+" count: "+count);
-        // sanity check } else {
-        // sanity check   //System.err.println(this+" OK");
-        // sanity check }
-        //[WordSense 9465459@[POS noun]:"unit"#5] foundSenseNumber: 7
-        //assert getSenseNumber() ==
-        //  CharSequenceTokenizer.parseInt(line, firstSpace + 1, lastSpace);
-        assert count <= Short.MAX_VALUE;
-        sensesTaggedFrequency = (short) count;
-      } else {
-        sensesTaggedFrequency = 0;
-      }
+      final int count = synset.wordNet.lookupSensesTaggedFrequency(getSenseKey());
+      assert count <= Short.MAX_VALUE;
+      sensesTaggedFrequency = (short) count;
     }
     return sensesTaggedFrequency;
   }
@@ -518,39 +501,14 @@ public final class WordSense implements RelationArgument, Comparable<WordSense>
    */
   public int getCoreRank() {
     if (coreRank == 0) {
-      final CharSequence senseKey = getSenseKey();
-      final WordNet wordNet = synset.wordNet;
-      final String line;
+      final int rank;
       try {
-        line = wordNet.lookupCoreRankLine(senseKey);
+        rank = synset.wordNet.lookupCoreRank(getSenseKey());
       } catch (IllegalStateException ise) {
         return 0;
       }
-      int rank;
-      if (line != null) {
-        // core-wordnet.ranked line format:
-        // <sense_key> <? bracketed lemma, comma separated evocations ?> <1-based rank>
-        final int lastSpace = line.lastIndexOf(' ');
-        assert lastSpace > 0;
-        rank = CharSequences.parseInt(line, lastSpace + 1, line.length());
-        // sanity check final int firstSpace = line.indexOf(" ");
-        // sanity check assert firstSpace > 0 && firstSpace != lastSpace;
-        // sanity check final int mySenseNumber = getSenseNumber();
-        // sanity check final int foundSenseNumber =
-        // sanity check   CharSequenceTokenizer.parseInt(line, firstSpace + 1, lastSpace);
-        // sanity check if (mySenseNumber != foundSenseNumber) {
-        // sanity check   System.err.println(this+" foundSenseNumber: "+foundSenseNumber+" count: "+count);
-        // sanity check } else {
-        // sanity check   //System.err.println(this+" OK");
-        // sanity check }
-        //[WordSense 9465459@[POS noun]:"unit"#5] foundSenseNumber: 7
-        //assert getSenseNumber() ==
-        //  CharSequenceTokenizer.parseInt(line, firstSpace + 1, lastSpace);
-        assert rank <= 5000;
-        coreRank = (short) rank;
-      } else {
-        coreRank = -1;
-      }
+      assert rank <= 5000;
+      coreRank = (short) rank;
     }
     return coreRank;
   }
@@ -583,25 +541,9 @@ public final class WordSense implements RelationArgument, Comparable<WordSense>
   // Relations
   //
 
+  /** all semantic relations of this sense's synset, but only lexical relations which have this as their source */
   private List<Relation> restrictRelations(final RelationType type) {
-    final List<Relation> relations = synset.getRelations();
-    List<Relation> list = null;
-    for (final Relation relation : relations) {
-      // consider all isSemantic Relations, but only isLexical Relations
-      // which have this as their source
-      if (relation.isLexical() && !relation.getSource().equals(this)) {
-        continue;
-      }
-
-      if (type != null && type != relation.getType()) {
-        continue;
-      }
-      list = add(list, relation);
-    }
-    if (list == null) {
-      return LightImmutableList.of();
-    }
-    return LightImmutableList.copyOf(list);
+    return synset.relations(type == null ? Synset.ALL_TYPES : 1L << type.ordinal(), synset.getSynsetIndex(this));
   }
 
   @Override
@@ -630,12 +572,12 @@ public final class WordSense implements RelationArgument, Comparable<WordSense>
 
   @Override
   public List<RelationArgument> getRelationTargets() {
-    return Synset.collectTargets(getRelations());
+    return synset.relationTargets(Synset.ALL_TYPES, synset.getSynsetIndex(this));
   }
 
   @Override
   public List<RelationArgument> getRelationTargets(final RelationType type) {
-    return Synset.collectTargets(getRelations(type));
+    return synset.relationTargets(1L << type.ordinal(), synset.getSynsetIndex(this));
   }
 
   // TODO consider getLexicalRelations() / getLexicalRelations(RelationType) / getLexicalRelationTargets()
@@ -648,7 +590,8 @@ public final class WordSense implements RelationArgument, Comparable<WordSense>
   public boolean equals(Object that) {
     return (that instanceof WordSense)
       && ((WordSense) that).synset.equals(synset)
-      && ((WordSense) that).lemma.equals(lemma);
+      // lemmas are pooled
+      && ((WordSense) that).lemma == lemma;
   }
 
   @Override
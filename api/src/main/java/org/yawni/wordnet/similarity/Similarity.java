@@ -0,0 +1,333 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.yawni.wordnet.similarity;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.IntStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.yawni.wordnet.POS;
+import org.yawni.wordnet.Synset;
+import org.yawni.wordnet.Taxonomy;
+import org.yawni.wordnet.WordNet;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Computes {@link SimilarityMeasure}s of noun and verb synsets from tables precomputed over the
+ * {@link WordNet#getTaxonomy() Taxonomy}: the minimum and maximum depth of each synset, and its
+ * <em>information content</em> {@code IC(s) = -log(p(s))}, where {@code p(s)} is the probability of
+ * encountering {@code s} or any of its hyponyms, estimated from the {@code cntlist.rev} tagged sense counts
+ * (plus 1, so no synset has zero probability).  Comparisons don't load or allocate any {@code Synset}s,
+ * and pairwise {@linkplain #similarityMatrix(SimilarityMeasure, List, List) matrices} are computed in
+ * parallel.
+ *
+ * <p> Building the tables takes a few seconds for a full WordNet, so create one instance per
+ * {@code WordNet} and reuse it; it is thread-safe.  Synsets which aren't comparable (of different
+ * {@code POS}, or adjectives or adverbs, which have no taxonomy) have similarity {@code 0}.
+ * @yawni.experimental
+ */
+public final class Similarity {
+  private static final Logger log = LoggerFactory.getLogger(Similarity.class);
+
+  private final Taxonomy taxonomy;
+  /** length of the shortest hypernym path from each synset to a root */
+  private final byte[] minDepths;
+  /** length of the longest hypernym path from each synset to a root */
+  private final byte[] maxDepths;
+  private final double[] informationContents;
+  /** maximum depth of the noun and verb taxonomies; verbs include the virtual root */
+  private final int nounTaxonomyDepth;
+  private final int verbTaxonomyDepth;
+
+  private Similarity(final WordNet wordNet) {
+    final long start = System.nanoTime();
+    this.taxonomy = wordNet.getTaxonomy();
+    final int size = taxonomy.size();
+    this.minDepths = new byte[size];
+    this.maxDepths = new byte[size];
+    final boolean[] visiting = new boolean[size];
+    final boolean[] done = new boolean[size];
+    int nounDepth = 0;
+    int verbDepth = 0;
+    for (int id = 0; id < size; id++) {
+      minDepths[id] = (byte) minDepth(id);
+      final int maxDepth = maxDepth(id, visiting, done);
+      if (taxonomy.getPOS(id) == POS.NOUN) {
+        nounDepth = Math.max(nounDepth, maxDepth);
+      } else if (taxonomy.getPOS(id) == POS.VERB) {
+        verbDepth = Math.max(verbDepth, maxDepth);
+      }
+    }
+    this.nounTaxonomyDepth = nounDepth;
+    this.verbTaxonomyDepth = verbDepth + 1;
+
+    final long[] counts = new long[size];
+    for (final POS pos : new POS[] { POS.NOUN, POS.VERB }) {
+      wordNet.synsetStream(pos).parallel().forEach(synset ->
+        counts[taxonomy.synsetId(synset)] = 1 + wordNet.getSenseFrequencies(synset).getTotalTaggedFrequency());
+    }
+    long nounTotal = 0;
+    long verbTotal = 0;
+    for (int id = 0; id < size; id++) {
+      if (taxonomy.getPOS(id) == POS.NOUN) {
+        nounTotal += counts[id];
+      } else if (taxonomy.getPOS(id) == POS.VERB) {
+        verbTotal += counts[id];
+      }
+    }
+    this.informationContents = new double[size];
+    for (int id = 0; id < size; id++) {
+      final POS pos = taxonomy.getPOS(id);
+      if (pos != POS.NOUN && pos != POS.VERB) {
+        continue;
+      }
+      long count = counts[id];
+      for (int i = 0, n = taxonomy.descendantCount(id); i < n; i++) {
+        count += counts[taxonomy.descendantId(id, i)];
+      }
+      informationContents[id] = Math.log((double) (pos == POS.NOUN ? nounTotal : verbTotal) / count);
+    }
+    log.info("computed similarity tables of {} synsets in {}ms", size, (System.nanoTime() - start) / 1000000);
+  }
+
+  /**
+   * @return a new {@code Similarity} of {@code wordNet}, which builds its tables (and its {@code Taxonomy})
+   */
+  public static Similarity of(final WordNet wordNet) {
+    return new Similarity(wordNet);
+  }
+
+  private static class InstanceHolder {
+    static final Similarity INSTANCE = of(WordNet.getInstance());
+  } // end class InstanceHolder
+
+  /**
+   * @return the {@code Similarity} of {@link WordNet#getInstance()}, building it on first use
+   */
+  public static Similarity getInstance() {
+    return InstanceHolder.INSTANCE;
+  }
+
+  private int minDepth(final int id) {
+    int depth = Integer.MAX_VALUE;
+    for (int i = 0, n = taxonomy.ancestorCount(id); i < n; i++) {
+      if (taxonomy.parentCount(taxonomy.ancestorId(id, i)) == 0) {
+        depth = Math.min(depth, taxonomy.ancestorDistance(id, i));
+      }
+    }
+    // roots, and members of a hypernym cycle without a root
+    return depth == Integer.MAX_VALUE ? 0 : depth;
+  }
+
+  private int maxDepth(final int id, final boolean[] visiting, final boolean[] done) {
+    if (! done[id]) {
+      visiting[id] = true;
+      int depth = 0;
+      for (int i = 0, n = taxonomy.parentCount(id); i < n; i++) {
+        final int parent = taxonomy.parentId(id, i);
+        if (! visiting[parent]) {
+          depth = Math.max(depth, 1 + maxDepth(parent, visiting, done));
+        }
+      }
+      visiting[id] = false;
+      maxDepths[id] = (byte) depth;
+      done[id] = true;
+    }
+    return maxDepths[id];
+  }
+
+  /** @return the {@code Taxonomy} whose synset ids this {@code Similarity} accepts */
+  public Taxonomy getTaxonomy() {
+    return taxonomy;
+  }
+
+  /** @return length of the shortest hypernym path from synset {@code id} to a root */
+  public int getMinDepth(final int id) {
+    return minDepths[id];
+  }
+
+  /** @return length of the longest hypernym path from synset {@code id} to a root */
+  public int getMaxDepth(final int id) {
+    return maxDepths[id];
+  }
+
+  /** @return information content of synset {@code id}; {@code 0} for adjectives and adverbs */
+  public double getInformationContent(final int id) {
+    return informationContents[id];
+  }
+
+  /**
+   * @return the {@code measure} similarity of {@code s1} and {@code s2}
+   */
+  public double similarity(final SimilarityMeasure measure, final Synset s1, final Synset s2) {
+    return similarity(measure, taxonomy.synsetId(s1), taxonomy.synsetId(s2));
+  }
+
+  /**
+   * @return the {@code measure} similarity of synset ids {@code id1} and {@code id2}
+   * @see Taxonomy#synsetId(Synset)
+   */
+  public double similarity(final SimilarityMeasure measure, final int id1, final int id2) {
+    if (id1 < 0 || id2 < 0) {
+      return 0;
+    }
+    final POS pos = taxonomy.getPOS(id1);
+    if (pos != taxonomy.getPOS(id2) || (pos != POS.NOUN && pos != POS.VERB)) {
+      return 0;
+    }
+    switch (measure) {
+      case PATH:
+        return 1.0 / (1 + pathDistance(id1, id2));
+      case WU_PALMER:
+        return wuPalmer(id1, id2);
+      case LEACOCK_CHODOROW:
+        final int taxonomyDepth = pos == POS.NOUN ? nounTaxonomyDepth : verbTaxonomyDepth;
+        return -Math.log((1 + pathDistance(id1, id2)) / (2.0 * taxonomyDepth));
+      case RESNIK:
+        return resnik(id1, id2);
+      case LIN: {
+        final double sum = informationContents[id1] + informationContents[id2];
+        if (sum == 0) {
+          return id1 == id2 ? 1 : 0;
+        }
+        return 2 * resnik(id1, id2) / sum;
+      }
+      case JIANG_CONRATH: {
+        if (informationContents[id1] == 0 || informationContents[id2] == 0) {
+          return 0;
+        }
+        final double distance = informationContents[id1] + informationContents[id2] - 2 * resnik(id1, id2);
+        return distance == 0 ? Double.POSITIVE_INFINITY : 1 / distance;
+      }
+      default:
+        throw new IllegalArgumentException("unsupported measure " + measure);
+    }
+  }
+
+  /**
+   * @return the {@code measure} similarity of each of {@code rows} to each of {@code columns}, with
+   *   rows computed in parallel
+   */
+  public double[][] similarityMatrix(final SimilarityMeasure measure, final List<Synset> rows, final List<Synset> columns) {
+    final double[][] matrix = new double[rows.size()][columns.size()];
+    similarityMatrix(measure, synsetIds(rows), synsetIds(columns), matrix);
+    return matrix;
+  }
+
+  /**
+   * Fills {@code matrix[i][j]} with the {@code measure} similarity of synset ids {@code rowIds[i]} and
+   * {@code columnIds[j]}, computing rows in parallel; reusing {@code matrix} avoids allocating one per batch.
+   * @throws IllegalArgumentException if {@code matrix} is too small
+   */
+  public void similarityMatrix(final SimilarityMeasure measure, final int[] rowIds, final int[] columnIds,
+      final double[][] matrix) {
+    checkArgument(matrix.length >= rowIds.length, "matrix has %s rows < %s", matrix.length, rowIds.length);
+    IntStream.range(0, rowIds.length).parallel().forEach(i -> {
+      final double[] row = matrix[i];
+      checkArgument(row.length >= columnIds.length, "matrix row %s has %s columns < %s", i, row.length, columnIds.length);
+      for (int j = 0; j < columnIds.length; j++) {
+        row[j] = similarity(measure, rowIds[i], columnIds[j]);
+      }
+    });
+  }
+
+  private int[] synsetIds(final List<Synset> synsets) {
+    final int[] ids = new int[synsets.size()];
+    for (int i = 0; i < ids.length; i++) {
+      ids[i] = taxonomy.synsetId(synsets.get(i));
+    }
+    return ids;
+  }
+
+  /**
+   * Returns the deepest (by minimum depth) common subsumer of {@code s1} and {@code s2}, as NLTK's
+   * Wu-Palmer chooses it.  This can differ from {@link Taxonomy#getLowestCommonSubsumer(Synset, Synset)},
+   * which chooses the common subsumer with the longest hypernym path from a root.
+   * @return the common subsumer {@link SimilarityMeasure#WU_PALMER} uses; empty if they have none
+   *   (e.g., verbs in different trees)
+   */
+  public Optional<Synset> getLowestCommonSubsumer(final Synset s1, final Synset s2) {
+    final int id1 = taxonomy.synsetId(s1);
+    final int id2 = taxonomy.synsetId(s2);
+    if (id1 < 0 || id2 < 0) {
+      return Optional.empty();
+    }
+    final int lcs = lowestCommonSubsumer(id1, id2);
+    return lcs < 0 ? Optional.empty() : Optional.of(taxonomy.getSynset(lcs));
+  }
+
+  // The common subsumers of id1 and id2 are id1 and its ancestors which are id2 or its ancestors;
+  // each comparison scans them, probing id2's (sorted) ancestors for each.
+
+  /** @return length of the shortest hypernym path connecting {@code id1} and {@code id2} */
+  private int pathDistance(final int id1, final int id2) {
+    // through the virtual root if there is no common subsumer
+    int best = minDepths[id1] + minDepths[id2] + 2;
+    for (int i = -1, n = taxonomy.ancestorCount(id1); i < n; i++) {
+      final int subsumer = i < 0 ? id1 : taxonomy.ancestorId(id1, i);
+      final int distance2 = taxonomy.distance(id2, subsumer);
+      if (distance2 >= 0) {
+        final int distance1 = i < 0 ? 0 : taxonomy.ancestorDistance(id1, i);
+        best = Math.min(best, distance1 + distance2);
+      }
+    }
+    return best;
+  }
+
+  /** @return deepest (by minimum depth) common subsumer of {@code id1} and {@code id2}, or {@code -1} */
+  private int lowestCommonSubsumer(final int id1, final int id2) {
+    int lcs = -1;
+    for (int i = -1, n = taxonomy.ancestorCount(id1); i < n; i++) {
+      final int subsumer = i < 0 ? id1 : taxonomy.ancestorId(id1, i);
+      if ((lcs < 0 || minDepths[subsumer] > minDepths[lcs]) && taxonomy.distance(id2, subsumer) >= 0) {
+        lcs = subsumer;
+      }
+    }
+    return lcs;
+  }
+
+  private double wuPalmer(final int id1, final int id2) {
+    final int lcs = lowestCommonSubsumer(id1, id2);
+    if (lcs < 0) {
+      // the virtual root has depth 1, and each synset is 1 below its nearest root
+      return 2.0 / (minDepths[id1] + minDepths[id2] + 4);
+    }
+    final int depth = maxDepths[lcs] + 1;
+    final int distance1 = taxonomy.distance(id1, lcs);
+    final int distance2 = taxonomy.distance(id2, lcs);
+    return 2.0 * depth / (distance1 + distance2 + 2 * depth);
+  }
+
+  private double resnik(final int id1, final int id2) {
+    // the virtual root has information content 0
+    double best = 0;
+    for (int i = -1, n = taxonomy.ancestorCount(id1); i < n; i++) {
+      final int subsumer = i < 0 ? id1 : taxonomy.ancestorId(id1, i);
+      if (informationContents[subsumer] > best && taxonomy.distance(id2, subsumer) >= 0) {
+        best = informationContents[subsumer];
+      }
+    }
+    return best;
+  }
+
+  @Override
+  public String toString() {
+    return "[Similarity " + taxonomy + "]";
+  }
+} // end class Similarity
@@ -0,0 +1,58 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.yawni.wordnet.similarity;
+
+/**
+ * Semantic similarity measures computed by {@link Similarity}; they follow the definitions of
+ * <a href="https://www.nltk.org/howto/wordnet.html">NLTK's WordNet interface</a>.  Each compares two
+ * synsets through their <em>common subsumers</em>: the synsets which both are (transitive) hypernyms
+ * or instance hypernyms of, or are.  Verb taxonomies have many roots, so, like NLTK, verbs without a
+ * common subsumer are compared through a virtual root above them all.
+ * @yawni.experimental
+ */
+public enum SimilarityMeasure {
+  /**
+   * {@code 1 / (1 + d)} where {@code d} is the length of the shortest hypernym path connecting the synsets;
+   * in {@code (0, 1]}.
+   */
+  PATH,
+  /**
+   * Wu-Palmer: {@code 2 * depth(lcs) / (d1 + d2)} where {@code lcs} is the deepest (by minimum depth)
+   * common subsumer, {@code depth(lcs)} is its maximum depth plus 1, and {@code d1} and {@code d2} are
+   * the shortest path lengths from each synset to it plus {@code depth(lcs)}; in {@code (0, 1]}.
+   */
+  WU_PALMER,
+  /**
+   * Leacock-Chodorow: {@code -log((1 + d) / (2 * D))} where {@code d} is the path length of {@link #PATH}
+   * and {@code D} is the maximum depth of the taxonomy.
+   */
+  LEACOCK_CHODOROW,
+  /**
+   * Resnik: the information content of the most informative common subsumer; {@code >= 0}.
+   */
+  RESNIK,
+  /**
+   * Lin: {@code 2 * IC(lcs) / (IC(s1) + IC(s2))} where {@code IC(lcs)} is {@link #RESNIK} similarity;
+   * in {@code [0, 1]}.
+   */
+  LIN,
+  /**
+   * Jiang-Conrath: {@code 1 / (IC(s1) + IC(s2) - 2 * IC(lcs))}, or {@link Double#POSITIVE_INFINITY} for
+   * synsets with the same information content as their common subsumer (e.g., the same synset).
+   */
+  JIANG_CONRATH;
+} // end enum SimilarityMeasure
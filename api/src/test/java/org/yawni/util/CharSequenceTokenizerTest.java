@@ -176,6 +176,18 @@ public class CharSequenceTokenizerTest {
     assertThat(tok.previous()).isEqualTo("B");
   }
 
+  @Test
+  public void testTokenBounds() {
+    final String line = "ab  cd e";
+    final CharSequenceTokenizer tok = new CharSequenceTokenizer(line, " ");
+    assertThat(tok.nextTokenStart()).isEqualTo(0);
+    assertThat(tok.position()).isEqualTo(2);
+    assertThat(tok.nextTokenStart()).isEqualTo(4);
+    assertThat(tok.position()).isEqualTo(6);
+    assertThat(tok.next()).isEqualTo("e");
+    assertThat(tok.position()).isEqualTo(line.length());
+  }
+
   // many more boundary cases could be tested
   // - edge delimiter content (esp. trailing)
   // - pure delimiter input
@@ -0,0 +1,79 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.yawni.util.cache;
+
+import org.junit.After;
+import org.junit.Test;
+import org.yawni.util.cache.Caches.Implementation;
+import static org.fest.assertions.Assertions.assertThat;
+
+public class CachesTest {
+  @After
+  public void clearProperty() {
+    System.clearProperty(Caches.IMPLEMENTATION_PROPERTY);
+  }
+
+  @Test
+  public void implementations() {
+    for (final Implementation implementation : Implementation.values()) {
+      final Cache<String, Integer> cache = Caches.withCapacity(10, implementation);
+      cache.put("one", 1);
+      assertThat(cache.get("one")).isEqualTo(1);
+      assertThat(cache.get("two")).isNull();
+      cache.clear();
+      assertThat(cache.get("one")).isNull();
+    }
+  }
+
+  @Test
+  public void implementationProperty() {
+    assertThat(Caches.withCapacity(10)).isInstanceOf(ConcurrentSoftCache.class);
+    System.setProperty(Caches.IMPLEMENTATION_PROPERTY, Implementation.LRU.name());
+    assertThat(Caches.withCapacity(10)).isInstanceOf(LRUCache.class);
+  }
+
+  @Test
+  public void metrics() {
+    for (final Implementation implementation : Implementation.values()) {
+      final CacheMetrics metrics = new CacheMetrics();
+      final Cache<String, Integer> cache = Caches.withCapacity(200, implementation, metrics);
+      for (int i = 0; i < 1000; i++) {
+        cache.put(String.valueOf(i), i);
+      }
+      cache.get("999");
+      cache.get("no such key");
+      final CacheStats stats = metrics.snapshot();
+      assertThat(stats.getPutCount()).isEqualTo(1000);
+      assertThat(stats.getHitCount() + stats.getMissCount()).isEqualTo(2);
+      assertThat(stats.getMissCount()).isGreaterThanOrEqualTo(1);
+      if (implementation != Implementation.WEAK && implementation != Implementation.UNBOUNDED) {
+        assertThat(stats.getEvictionCount()).as(implementation.name()).isGreaterThanOrEqualTo(800);
+      }
+      metrics.recordLoad(10);
+      metrics.recordLoad(20);
+      assertThat(metrics.snapshot().getAverageLoadNanos()).isEqualTo(15.0);
+      metrics.reset();
+      assertThat(metrics.snapshot()).isEqualTo(new CacheStats(0, 0, 0, 0, 0, 0));
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void unknownImplementation() {
+    System.setProperty(Caches.IMPLEMENTATION_PROPERTY, "NO_SUCH_CACHE");
+    Caches.withCapacity(10);
+  }
+}
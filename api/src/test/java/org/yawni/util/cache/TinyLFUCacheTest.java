@@ -0,0 +1,97 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.yawni.util.cache;
+
+import org.junit.Test;
+import static org.fest.assertions.Assertions.assertThat;
+
+public class TinyLFUCacheTest {
+  @Test
+  public void sketchCounts() {
+    final CountMinSketch sketch = new CountMinSketch(100);
+    assertThat(sketch.frequency("dog")).isEqualTo(0);
+    for (int i = 0; i < 3; i++) {
+      sketch.increment("dog");
+    }
+    assertThat(sketch.frequency("dog")).isGreaterThanOrEqualTo(3);
+    for (int i = 0; i < 100; i++) {
+      sketch.increment("cat");
+    }
+    // saturates
+    assertThat(sketch.frequency("cat")).isEqualTo(CountMinSketch.MAX_COUNT);
+    sketch.clear();
+    assertThat(sketch.frequency("cat")).isEqualTo(0);
+  }
+
+  @Test
+  public void sketchAges() {
+    final CountMinSketch sketch = new CountMinSketch(10);
+    for (int i = 0; i < 8; i++) {
+      sketch.increment("old");
+    }
+    final int before = sketch.frequency("old");
+    // 10 * capacity increments trigger halving
+    for (int i = 0; i < 100; i++) {
+      sketch.increment(i);
+    }
+    assertThat(sketch.frequency("old")).isLessThan(before);
+  }
+
+  @Test
+  public void boundedSize() {
+    final TinyLFUCache<Integer, Integer> cache = new TinyLFUCache<>(100);
+    for (int i = 0; i < 10000; i++) {
+      cache.get(i);
+      cache.put(i, i);
+      assertThat(cache.size()).isLessThanOrEqualTo(100);
+    }
+    final TinyLFUCache<Integer, Integer> empty = new TinyLFUCache<>(0);
+    empty.put(1, 1);
+    assertThat(empty.get(1)).isNull();
+  }
+
+  @Test
+  public void frequentEntriesSurviveScan() {
+    final TinyLFUCache<String, String> cache = new TinyLFUCache<>(100);
+    final LRUCache<String, String> lru = new LRUCache<>(100);
+    for (int round = 0; round < 5; round++) {
+      for (int i = 0; i < 50; i++) {
+        request(cache, "hot" + i);
+        request(lru, "hot" + i);
+      }
+    }
+    for (int i = 0; i < 10000; i++) {
+      request(cache, "cold" + i);
+      request(lru, "cold" + i);
+    }
+    int tinyLFUHits = 0;
+    int lruHits = 0;
+    for (int i = 0; i < 50; i++) {
+      tinyLFUHits += cache.get("hot" + i) != null ? 1 : 0;
+      lruHits += lru.get("hot" + i) != null ? 1 : 0;
+    }
+    assertThat(lruHits).isEqualTo(0);
+    assertThat(tinyLFUHits).isGreaterThanOrEqualTo(45);
+  }
+
+  // typical cache usage: get, and put on a miss
+  private static void request(final Cache<String, String> cache, final String key) {
+    if (cache.get(key) == null) {
+      cache.put(key, key);
+    }
+  }
+}
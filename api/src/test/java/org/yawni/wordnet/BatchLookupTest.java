@@ -0,0 +1,93 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.yawni.wordnet;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import static org.fest.assertions.Assertions.assertThat;
+
+public class BatchLookupTest {
+  private static WordNet wordNet;
+
+  @BeforeClass
+  public static void init() {
+    wordNet = WordNet.getInstance();
+  }
+
+  @Test
+  public void matchesSingleLookups() {
+    final List<String> tokens = Arrays.asList(
+      "The", "mice", "ran", "up", "the", "clock", "and", "the", "mice", "ran", "down", "xyzzyq", "");
+    final List<List<String>> baseForms = wordNet.lookupBaseForms(tokens, POS.ALL);
+    final List<List<Synset>> synsets = wordNet.lookupSynsets(tokens, POS.VERB);
+    final List<List<WordSense>> wordSenses = wordNet.lookupWordSenses(tokens, POS.NOUN);
+    assertThat(baseForms).hasSize(tokens.size());
+    for (int i = 0; i < tokens.size(); i++) {
+      assertThat(baseForms.get(i)).isEqualTo(wordNet.lookupBaseForms(tokens.get(i), POS.ALL));
+      assertThat(synsets.get(i)).isEqualTo(wordNet.lookupSynsets(tokens.get(i), POS.VERB));
+      assertThat(wordSenses.get(i)).isEqualTo(wordNet.lookupWordSenses(tokens.get(i), POS.NOUN));
+    }
+    // repeated tokens are looked up once
+    assertThat(baseForms.get(8) == baseForms.get(1)).isTrue();
+  }
+
+  @Test
+  public void mixedPOSTags() {
+    final List<String> tokens = Arrays.asList("runs", "runs", "running", "quickly");
+    final List<POS> posTags = Arrays.asList(POS.VERB, POS.NOUN, POS.VERB, POS.ADV);
+    final List<List<String>> baseForms = wordNet.lookupBaseForms(tokens, posTags);
+    assertThat(baseForms).containsExactly(
+      wordNet.lookupBaseForms("runs", POS.VERB),
+      wordNet.lookupBaseForms("runs", POS.NOUN),
+      wordNet.lookupBaseForms("running", POS.VERB),
+      wordNet.lookupBaseForms("quickly", POS.ADV));
+  }
+
+  @Test
+  public void largeBatchKeepsInputOrder() {
+    // enough distinct tokens to be split across threads, in reverse index order
+    final List<CharSequence> tokens = new ArrayList<>();
+    for (final Word word : wordNet.words(POS.ADV)) {
+      tokens.add(new StringBuilder(word.getLowercasedLemma()));
+      if (tokens.size() == 2000) {
+        break;
+      }
+    }
+    Collections.reverse(tokens);
+    tokens.addAll(tokens.subList(0, 100));
+    final List<List<Synset>> synsets = wordNet.lookupSynsets(tokens, POS.ADV);
+    assertThat(synsets).hasSize(tokens.size());
+    for (int i = 0; i < tokens.size(); i++) {
+      assertThat(synsets.get(i)).isEqualTo(wordNet.lookupSynsets(tokens.get(i).toString(), POS.ADV));
+      assertThat(synsets.get(i)).isNotEmpty();
+    }
+  }
+
+  @Test
+  public void empty() {
+    assertThat(wordNet.lookupBaseForms(Collections.<String>emptyList(), POS.NOUN)).isEmpty();
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void rejectsMismatchedPOSTags() {
+    wordNet.lookupBaseForms(Arrays.asList("dog", "cat"), Arrays.asList(POS.NOUN));
+  }
+}
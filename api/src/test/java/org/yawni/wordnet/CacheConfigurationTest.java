@@ -0,0 +1,87 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.yawni.wordnet;
+
+import org.junit.After;
+import org.junit.Test;
+import org.yawni.util.cache.Caches;
+import org.yawni.util.cache.Caches.Implementation;
+import org.yawni.wordnet.CacheConfiguration.CacheName;
+import static org.fest.assertions.Assertions.assertThat;
+
+public class CacheConfigurationTest {
+  @After
+  public void clearProperties() {
+    System.clearProperty(Caches.IMPLEMENTATION_PROPERTY);
+    for (final CacheName name : CacheName.values()) {
+      System.clearProperty(name.getPropertyName());
+    }
+  }
+
+  @Test
+  public void defaults() {
+    final CacheConfiguration defaults = CacheConfiguration.defaults();
+    for (final CacheName name : CacheName.values()) {
+      assertThat(defaults.getImplementation(name)).isEqualTo(Implementation.SOFT);
+      assertThat(defaults.getCapacity(name)).isEqualTo(WordNet.DEFAULT_CACHE_CAPACITY);
+    }
+    assertThat(WordNet.getInstance().getCacheConfiguration()).isEqualTo(defaults);
+  }
+
+  @Test
+  public void systemProperties() {
+    System.setProperty(Caches.IMPLEMENTATION_PROPERTY, "CONCURRENT_LRU");
+    System.setProperty(CacheName.SYNSET.getPropertyName(), "TINY_LFU:50000");
+    System.setProperty(CacheName.MORPHY.getPropertyName(), "LRU");
+    final CacheConfiguration configuration = CacheConfiguration.defaults();
+    assertThat(CacheName.SYNSET.getPropertyName()).isEqualTo("yawni.cache.synset");
+    assertThat(configuration.getImplementation(CacheName.SYNSET)).isEqualTo(Implementation.TINY_LFU);
+    assertThat(configuration.getCapacity(CacheName.SYNSET)).isEqualTo(50000);
+    assertThat(configuration.getImplementation(CacheName.MORPHY)).isEqualTo(Implementation.LRU);
+    assertThat(configuration.getCapacity(CacheName.MORPHY)).isEqualTo(WordNet.DEFAULT_CACHE_CAPACITY);
+    assertThat(configuration.getImplementation(CacheName.INDEX_WORD)).isEqualTo(Implementation.CONCURRENT_LRU);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void malformedCapacity() {
+    System.setProperty(CacheName.EXCEPTIONS.getPropertyName(), "LRU:lots");
+    CacheConfiguration.defaults();
+  }
+
+  @Test
+  public void with() {
+    final CacheConfiguration defaults = CacheConfiguration.defaults();
+    final CacheConfiguration configuration = defaults.with(CacheName.INDEX_WORD, Implementation.TINY_LFU, 500);
+    assertThat(configuration.getImplementation(CacheName.INDEX_WORD)).isEqualTo(Implementation.TINY_LFU);
+    assertThat(configuration.getCapacity(CacheName.INDEX_WORD)).isEqualTo(500);
+    assertThat(configuration.getImplementation(CacheName.SYNSET)).isEqualTo(Implementation.SOFT);
+    // immutable
+    assertThat(defaults.getImplementation(CacheName.INDEX_WORD)).isEqualTo(Implementation.SOFT);
+    assertThat(configuration).isNotEqualTo(defaults);
+    assertThat(defaults.with(Implementation.WEAK).getImplementation(CacheName.MORPHY)).isEqualTo(Implementation.WEAK);
+  }
+
+  @Test
+  public void configuredInstance() {
+    final CacheConfiguration configuration = CacheConfiguration.defaults().with(Implementation.TINY_LFU);
+    final WordNet wordNet = WordNet.newInstance(configuration);
+    assertThat(wordNet.getCacheConfiguration()).isEqualTo(configuration);
+    final Word word = wordNet.lookupWord("dog", POS.NOUN);
+    assertThat(wordNet.lookupWord("dog", POS.NOUN) == word).isTrue();
+    assertThat(wordNet.lookupBaseForms("geese", POS.NOUN)).isEqualTo(WordNet.getInstance().lookupBaseForms("geese", POS.NOUN));
+  }
+}
@@ -0,0 +1,119 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.yawni.wordnet;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.EnumSet;
+import java.util.List;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.fest.assertions.Assertions.assertThat;
+
+public class CompiledDictionaryTest {
+  // nouns are left out to keep the image (and this test) small
+  private static final EnumSet<POS> COMPILED = EnumSet.of(POS.VERB, POS.ADJ, POS.ADV);
+  private static WordNet textWordNet;
+  private static CompiledDictionary compiled;
+  private static WordNet compiledWordNet;
+
+  @BeforeClass
+  public static void init() throws Exception {
+    textWordNet = WordNet.getInstance();
+    final ByteArrayOutputStream image = new ByteArrayOutputStream();
+    DictionaryCompiler.compile(textWordNet, COMPILED, image);
+    compiled = CompiledDictionary.open(ByteBuffer.wrap(image.toByteArray()));
+    compiledWordNet = new WordNet(new FileManager(), compiled);
+  }
+
+  @Test
+  public void header() {
+    assertThat(compiled.isCompiled(POS.NOUN)).isFalse();
+    assertThat(compiled.isCompiled(POS.SAT_ADJ)).isFalse();
+    for (final POS pos : COMPILED) {
+      assertThat(compiled.isCompiled(pos)).isTrue();
+      assertThat(compiled.dataFileLength(pos)).isEqualTo(textWordNet.getDataFileLength(pos));
+      assertThat(compiled.indexFileLength(pos)).isEqualTo(textWordNet.getIndexFileLength(pos));
+    }
+  }
+
+  @Test
+  public void synsetsMatchText() {
+    int count = 0;
+    for (final POS pos : COMPILED) {
+      for (final Synset expected : textWordNet.synsets(pos)) {
+        final Synset actual = compiledWordNet.getSynsetAt(pos, expected.getOffset()).get();
+        assertEquals(expected, actual);
+        assertThat(actual.lexfilenum()).isEqualTo(expected.lexfilenum());
+        assertThat(actual.isAdjectiveCluster()).isEqualTo(expected.isAdjectiveCluster());
+        assertThat(actual.getGloss()).isEqualTo(expected.getGloss());
+        final List<WordSense> expectedSenses = expected.getWordSenses();
+        final List<WordSense> actualSenses = actual.getWordSenses();
+        assertThat(actualSenses.size()).isEqualTo(expectedSenses.size());
+        for (int i = 0; i < expectedSenses.size(); i++) {
+          assertThat(actualSenses.get(i).getLemma()).isEqualTo(expectedSenses.get(i).getLemma());
+          assertThat(actualSenses.get(i).getLexid()).isEqualTo(expectedSenses.get(i).getLexid());
+          assertThat(actualSenses.get(i).getAdjPositionFlags()).isEqualTo(expectedSenses.get(i).getAdjPositionFlags());
+          assertThat(actualSenses.get(i).getVerbFrameFlags()).isEqualTo(expectedSenses.get(i).getVerbFrameFlags());
+        }
+        final List<Relation> expectedRelations = expected.getRelations();
+        final List<Relation> actualRelations = actual.getRelations();
+        assertThat(actualRelations).isEqualTo(expectedRelations);
+        for (int i = 0; i < expectedRelations.size(); i++) {
+          final Relation e = expectedRelations.get(i);
+          final Relation a = actualRelations.get(i);
+          assertThat(a.getClass()).isEqualTo(e.getClass());
+          assertThat(a.getTargetOffset()).isEqualTo(e.getTargetOffset());
+          assertThat(a.getTargetPOS()).isEqualTo(e.getTargetPOS());
+          assertThat(a.getTargetIndex()).isEqualTo(e.getTargetIndex());
+        }
+        count++;
+      }
+    }
+    assertThat(count).isEqualTo(compiled.synsetCount());
+  }
+
+  @Test
+  public void wordsMatchText() {
+    for (final POS pos : COMPILED) {
+      for (final Word expected : textWordNet.words(pos)) {
+        final Word actual = compiledWordNet.lookupWord(expected.getLowercasedLemma(), pos);
+        assertEquals(expected, actual);
+        assertThat(actual.getOffset()).isEqualTo(expected.getOffset());
+        assertThat(actual.getTaggedSenseCount()).isEqualTo(expected.getTaggedSenseCount());
+        assertThat(actual.getSynsets()).isEqualTo(expected.getSynsets());
+      }
+    }
+  }
+
+  @Test
+  public void lookupNormalization() {
+    final Word getUp = compiledWordNet.lookupWord("get up", POS.VERB);
+    assertThat(getUp == null).isFalse();
+    assertEquals(getUp, compiledWordNet.lookupWord("get_up", POS.VERB));
+    assertEquals(getUp, compiledWordNet.lookupWord("Get_Up", POS.VERB));
+    assertThat(compiledWordNet.lookupWord("xyzzyq", POS.VERB) == null).isTrue();
+    assertThat(compiledWordNet.lookupWord("get up", POS.ADV) == null).isTrue();
+    assertThat(compiledWordNet.getSynsetAt(POS.VERB, 1).isPresent()).isFalse();
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void rejectsNonImage() {
+    CompiledDictionary.open(ByteBuffer.wrap(new byte[CompiledDictionary.HEADER_SIZE]));
+  }
+}
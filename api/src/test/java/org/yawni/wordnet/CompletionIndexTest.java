@@ -0,0 +1,70 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.yawni.wordnet;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Test;
+import static org.fest.assertions.Assertions.assertThat;
+
+public class CompletionIndexTest {
+  @Test
+  public void topK() {
+    final Map<String, Integer> counts = ImmutableMap.<String, Integer>builder()
+      .put("dog", 42).put("dogma", 3).put("dogged", 3).put("doge", 0).put("dogwood", 1)
+      .put("do", 90).put("dot", 5).put("hot dog", 2)
+      .build();
+    final CompletionIndex index = CompletionIndex.build(counts, ImmutableMap.of("dogged", 4000, "doge", 100));
+    assertThat(index.size()).isEqualTo(8);
+    assertThat(index.complete("dog", 10)).isEqualTo(ImmutableList.of("dog", "dogged", "dogma", "dogwood", "doge"));
+    assertThat(index.complete("dog", 2)).isEqualTo(ImmutableList.of("dog", "dogged"));
+    assertThat(index.complete("do", 3)).isEqualTo(ImmutableList.of("do", "dog", "dot"));
+    assertThat(index.complete("hot ", 3)).isEqualTo(ImmutableList.of("hot dog"));
+    assertThat(index.complete("dog", 0)).isEmpty();
+    assertThat(index.complete("x", 3)).isEmpty();
+    assertThat(index.complete("dogwoods", 3)).isEmpty();
+  }
+
+  @Test
+  public void matchesSearchByPrefix() {
+    final WordNet wordNet = WordNet.getInstance();
+    for (final String prefix : new String[] { "hou", "Dog", "run ", "zy" }) {
+      // tally weights of the completions the slow way
+      final Map<String, Integer> counts = new HashMap<>();
+      final Map<String, Integer> coreRanks = new HashMap<>();
+      for (final Word word : wordNet.searchByPrefix(prefix, POS.ALL)) {
+        counts.merge(word.getLowercasedLemma(), word.getTaggedSenseCount(), Integer::sum);
+        for (final WordSense sense : word.getWordSenses()) {
+          if (sense.getCoreRank() > 0) {
+            coreRanks.merge(word.getLowercasedLemma(), sense.getCoreRank(), Math::min);
+          }
+        }
+      }
+      final List<String> expected = new ArrayList<>(counts.keySet());
+      expected.sort(Comparator.comparingLong((String lemma) -> -CompletionIndex.weight(counts.get(lemma),
+          coreRanks.getOrDefault(lemma, -1))).thenComparing(Comparator.naturalOrder()));
+      assertThat(wordNet.complete(prefix, 10)).as(prefix).isEqualTo(expected.subList(0, Math.min(10, expected.size())));
+    }
+    assertThat(wordNet.complete("dog", 1)).isEqualTo(ImmutableList.of("dog"));
+    assertThat(wordNet.complete("", 10)).isEmpty();
+  }
+}
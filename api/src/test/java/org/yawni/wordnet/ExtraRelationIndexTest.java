@@ -0,0 +1,86 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.yawni.wordnet;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.Test;
+import static org.fest.assertions.Assertions.assertThat;
+
+public class ExtraRelationIndexTest {
+  @Test
+  public void record() {
+    final long record = ExtraRelationIndex.record(3, RelationType.INSTRUMENT, 255, 201462005);
+    assertThat(ExtraRelationIndex.sourceIndex(record)).isEqualTo(3);
+    assertThat(ExtraRelationIndex.type(record)).isSameAs(RelationType.INSTRUMENT);
+    assertThat(ExtraRelationIndex.targetIndex(record)).isEqualTo(255);
+    assertThat(ExtraRelationIndex.targetOffset(record)).isEqualTo(201462005);
+  }
+
+  @Test
+  public void morphosemantic() {
+    final ExtraRelationIndex index = ExtraRelationIndex.buildMorphosemantic(ImmutableList.of(
+      "100003553 1 result 200367685 0",
+      "100002137 0 undergoer 200692329 0",
+      "100003553 1 agent 201462005 3"));
+    assertThat(index.size()).isEqualTo(3);
+    final int slot = index.find(ExtraRelationIndex.key(POS.NOUN, 3553));
+    assertThat(index.end(slot) - index.start(slot)).isEqualTo(2);
+    // file order
+    final long first = index.record(index.start(slot));
+    assertThat(ExtraRelationIndex.type(first)).isSameAs(RelationType.RESULT);
+    assertThat(ExtraRelationIndex.sourceIndex(first)).isEqualTo(1);
+    assertThat(ExtraRelationIndex.targetOffset(first)).isEqualTo(367685);
+    final long second = index.record(index.start(slot) + 1);
+    assertThat(ExtraRelationIndex.type(second)).isSameAs(RelationType.AGENT);
+    assertThat(ExtraRelationIndex.targetIndex(second)).isEqualTo(3);
+    assertThat(index.find(ExtraRelationIndex.key(POS.VERB, 3553))).isEqualTo(-1);
+    assertThat(index.find(ExtraRelationIndex.key(POS.NOUN, 2137))).isNotEqualTo(-1);
+  }
+
+  @Test
+  public void verbGroups() {
+    final ExtraRelationIndex index = ExtraRelationIndex.buildVerbGroups(ImmutableList.of(
+      "00001740 00002573 00002325",
+      "00002325 00002573 00001740"));
+    final int slot = index.find(ExtraRelationIndex.key(POS.VERB, 1740));
+    assertThat(index.end(slot) - index.start(slot)).isEqualTo(2);
+    assertThat(ExtraRelationIndex.type(index.record(index.start(slot)))).isSameAs(RelationType.VERB_GROUP);
+    assertThat(ExtraRelationIndex.targetOffset(index.record(index.start(slot)))).isEqualTo(2573);
+    assertThat(ExtraRelationIndex.targetOffset(index.record(index.start(slot) + 1))).isEqualTo(2325);
+    assertThat(ExtraRelationIndex.EMPTY.find(ExtraRelationIndex.key(POS.VERB, 1740))).isEqualTo(-1);
+  }
+
+  @Test
+  public void synsetRelations() {
+    final WordNet wordNet = WordNet.getInstance();
+    final ExtraRelationIndex index = wordNet.getMorphosemanticIndex();
+    assertThat(index.size()).isGreaterThan(0);
+    // every verb group relation of the index is on its source synset
+    final ExtraRelationIndex verbGroups = wordNet.getVerbGroupIndex();
+    final Synset synset = wordNet.lookupWord("breathe", POS.VERB).getSense(1).getSynset();
+    final int slot = verbGroups.find(ExtraRelationIndex.key(POS.VERB, synset.getOffset()));
+    assertThat(slot).isNotEqualTo(-1);
+    for (int i = verbGroups.start(slot); i < verbGroups.end(slot); i++) {
+      final int targetOffset = ExtraRelationIndex.targetOffset(verbGroups.record(i));
+      boolean found = false;
+      for (final Relation relation : synset.getRelations(RelationType.VERB_GROUP)) {
+        found |= relation.getTargetOffset() == targetOffset;
+      }
+      assertThat(found).isTrue();
+    }
+  }
+}
@@ -22,6 +22,12 @@ import com.google.common.collect.Iterables;
 import java.io.BufferedReader;
 import java.io.FileReader;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import static org.junit.Assert.*;
 
 import org.junit.Test;
@@ -116,6 +122,46 @@ public class FileManagerTest {
     }
   }
 
+  /**
+   * Reads are position-independent, so many threads searching and stepping
+   * through the same file at the same time must each see exactly what a single
+   * thread sees.
+   */
+  @Test
+  public void testConcurrentSearches() throws Exception {
+    final FileManagerInterface fm = new FileManager();
+    final String path = "src/test/resources/harderTestFile";
+    final int numThreads = 8;
+    final ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+    try {
+      final List<Future<Integer>> results = new ArrayList<>();
+      for (int t = 0; t < numThreads; t++) {
+        results.add(executor.submit(new Callable<Integer>() {
+          @Override
+          public Integer call() throws IOException {
+            int checks = 0;
+            for (int i = 0; i < 2000; i++) {
+              assertEquals(27, fm.getIndexedLinePointer("3", 0, path, false));
+              assertEquals(81, fm.getIndexedLinePointer("4", 0, path, false));
+              assertEquals(144, fm.getIndexedLinePointer("88", 0, path, false));
+              assertEquals(-145, fm.getIndexedLinePointer("7", 0, path, false));
+              final String line = fm.readLineAt(27, path);
+              assertTrue(line, line.startsWith("3 "));
+              assertEquals(27 + line.length() + 1, fm.getNextLinePointer(27, path));
+              checks++;
+            }
+            return checks;
+          }
+        }));
+      }
+      for (final Future<Integer> result : results) {
+        assertEquals(2000, result.get().intValue());
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
   private static String query(final String query) {
     return String.format("query: \"%s\"", query);
   }
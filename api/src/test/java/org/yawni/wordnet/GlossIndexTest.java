@@ -0,0 +1,124 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.yawni.wordnet;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.fest.assertions.Assertions.assertThat;
+
+public class GlossIndexTest {
+  private static WordNet wordNet;
+
+  @BeforeClass
+  public static void init() {
+    wordNet = WordNet.getInstance();
+  }
+
+  @Test
+  public void tokenize() {
+    assertThat(GlossIndex.tokenize("a well-known (Canis familiaris) 2nd-rate dog; \"barks\""))
+      .isEqualTo(ImmutableList.of("a", "well", "known", "canis", "familiaris", "2nd", "rate", "dog", "barks"));
+    assertThat(GlossIndex.tokenize(" -- ")).isEmpty();
+  }
+
+  @Test
+  public void termMatchesRegexScan() {
+    assertMatchesRegexScan("wolf", "(?i)(?<![\\p{L}\\p{Nd}])wolf(?![\\p{L}\\p{Nd}])", POS.ALL);
+    final String wolf = "(?<![\\p{L}\\p{Nd}])wolf(?![\\p{L}\\p{Nd}])";
+    final String dog = "(?<![\\p{L}\\p{Nd}])dog(?![\\p{L}\\p{Nd}])";
+    assertMatchesRegexScan("Wolf DOG", "(?i)" + wolf + ".*" + dog + "|" + dog + ".*" + wolf, POS.NOUN);
+  }
+
+  @Test
+  public void prefixMatchesRegexScan() {
+    assertMatchesRegexScan("domesticat*", "(?i)(?<![\\p{L}\\p{Nd}])domesticat", POS.ALL);
+    assertMatchesRegexScan("domesticat*", "(?i)(?<![\\p{L}\\p{Nd}])domesticat", POS.VERB);
+  }
+
+  @Test
+  public void phrase() {
+    assertMatchesRegexScan("\"common wolf\"", "(?i)(?<![\\p{L}\\p{Nd}])common[^\\p{L}\\p{Nd}]+wolf(?![\\p{L}\\p{Nd}])", POS.ALL);
+    final Synset dog = wordNet.lookupWord("dog", POS.NOUN).getSynsets().get(0);
+    assertTrue(wordNet.searchGloss("\"Common Wolf\" domesticated", POS.NOUN, 10).contains(dog));
+    // phrase order matters
+    assertThat(wordNet.searchGloss("\"wolf common\"", POS.ALL, 10)).isEmpty();
+    // as does POS
+    assertThat(wordNet.searchGloss("\"common wolf\"", POS.VERB, 10)).isEmpty();
+  }
+
+  @Test
+  public void ranking() {
+    final List<Synset> all = wordNet.searchGloss("dog", POS.NOUN, Integer.MAX_VALUE);
+    assertEquals(all.subList(0, 5), wordNet.searchGloss("dog", POS.NOUN, 5));
+    assertThat(wordNet.searchGloss("dog", POS.NOUN, 0)).isEmpty();
+    assertThat(wordNet.searchGloss("", POS.ALL, 10)).isEmpty();
+    assertThat(wordNet.searchGloss("xyzzyq", POS.ALL, 10)).isEmpty();
+    // verification is on whole tokens
+    final GlossIndex.Query query = GlossIndex.Query.parse("dog");
+    assertThat(query.matches("a dog")).isTrue();
+    assertThat(query.matches("dogs")).isFalse();
+  }
+
+  @Test
+  public void substringSearchWithIndex() {
+    wordNet.getGlossIndex();
+    final WordNet unindexed = new WordNet(new FileManager(), null);
+    for (final String substring : new String[] { "wolf", "Dog", "grammatical", "\\bgrammatical\\b" }) {
+      assertEquals(ImmutableList.copyOf(unindexed.searchGlossBySubstring(substring, POS.ALL)),
+          ImmutableList.copyOf(wordNet.searchGlossBySubstring(substring, POS.ALL)));
+    }
+  }
+
+  @Test
+  public void substringSearchWithIndexIgnoresLocale() {
+    wordNet.getGlossIndex();
+    final WordNet unindexed = new WordNet(new FileManager(), null);
+    final Locale locale = Locale.getDefault();
+    // String.toLowerCase() would make "I" a dotless "\u0131"
+    Locale.setDefault(new Locale("tr", "TR"));
+    try {
+      final List<Synset> expected = ImmutableList.copyOf(unindexed.searchGlossBySubstring("Iris", POS.ALL));
+      assertThat(expected).isNotEmpty();
+      assertEquals(expected, ImmutableList.copyOf(wordNet.searchGlossBySubstring("Iris", POS.ALL)));
+    } finally {
+      Locale.setDefault(locale);
+    }
+  }
+
+  private static void assertMatchesRegexScan(final String query, final String regex, final POS pos) {
+    final Pattern pattern = Pattern.compile(regex);
+    final ImmutableSet.Builder<Synset> expected = ImmutableSet.builder();
+    for (final Synset synset : wordNet.synsets(pos)) {
+      if (pattern.matcher(synset.getGloss()).find()) {
+        expected.add(synset);
+      }
+    }
+    final List<Synset> actual = wordNet.searchGloss(query, pos, Integer.MAX_VALUE);
+    final Set<Synset> expectedSet = expected.build();
+    assertThat(expectedSet).isNotEmpty();
+    assertEquals(query, expectedSet, ImmutableSet.copyOf(actual));
+    assertEquals(query, expectedSet.size(), actual.size());
+  }
+}
@@ -0,0 +1,103 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.yawni.wordnet;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import com.google.common.primitives.Ints;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import static org.fest.assertions.Assertions.assertThat;
+
+public class LemmaIndexTest {
+  private static WordNet wordNet;
+  private static List<String> lemmas;
+  private static int[] offsets;
+  private static LemmaIndex lemmaIndex;
+
+  @BeforeClass
+  public static void init() {
+    wordNet = WordNet.getInstance();
+    lemmas = new ArrayList<>();
+    final List<Integer> offsetList = new ArrayList<>();
+    for (final Word word : wordNet.words(POS.VERB)) {
+      lemmas.add(word.getLowercasedLemma());
+      offsetList.add(word.getOffset());
+    }
+    offsets = Ints.toArray(offsetList);
+    lemmaIndex = LemmaIndex.build(lemmas, offsets, wordNet.getIndexFileLength(POS.VERB));
+  }
+
+  @Test
+  public void everyLemmaMapsToItsOffset() {
+    assertThat(lemmaIndex.size()).isEqualTo(lemmas.size());
+    for (int i = 0; i < lemmas.size(); i++) {
+      assertThat(lemmaIndex.get(lemmas.get(i))).isEqualTo(offsets[i]);
+    }
+  }
+
+  @Test
+  public void normalization() {
+    final int offset = wordNet.lookupWord("get up", POS.VERB).getOffset();
+    assertThat(lemmaIndex.get("get up")).isEqualTo(offset);
+    assertThat(lemmaIndex.get("get_up")).isEqualTo(offset);
+    assertThat(lemmaIndex.get("Get_Up")).isEqualTo(offset);
+    assertThat(lemmaIndex.get(new StringBuilder("GET UP"))).isEqualTo(offset);
+  }
+
+  @Test
+  public void undefinedLemmas() {
+    for (final String undefined : Arrays.asList("runned", "goed", "xyzzyq", "", "dog", "get", "get up up")) {
+      if (wordNet.lookupWord(undefined, POS.VERB) == null) {
+        assertThat(lemmaIndex.get(undefined)).isEqualTo(-1);
+      }
+    }
+  }
+
+  @Test
+  public void empty() {
+    final LemmaIndex emptyIndex = LemmaIndex.build(Collections.<String>emptyList(), new int[0], 0);
+    assertThat(emptyIndex.get("run")).isEqualTo(-1);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void rejectsDuplicates() {
+    LemmaIndex.build(Arrays.asList("get up", "Get_Up"), new int[] { 1, 2 }, 0);
+  }
+
+  @Test
+  public void serialization() throws Exception {
+    final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream oos = new ObjectOutputStream(bytes)) {
+      oos.writeObject(lemmaIndex);
+    }
+    final LemmaIndex resurrected;
+    try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+      resurrected = (LemmaIndex) ois.readObject();
+    }
+    assertThat(resurrected.getIndexFileLength()).isEqualTo(lemmaIndex.getIndexFileLength());
+    for (int i = 0; i < lemmas.size(); i++) {
+      assertThat(resurrected.get(lemmas.get(i))).isEqualTo(offsets[i]);
+    }
+  }
+}
@@ -0,0 +1,54 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.yawni.wordnet;
+
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import com.google.common.primitives.Ints;
+
+/**
+ * Utility class to generate and serialize {@link LemmaIndex}es representing the
+ * content of a given WordNet version; like the {@link org.yawni.util.cache.BloomFilter}s,
+ * these are typically packaged in the {@code yawni-wordnet-data*} jar artifact.
+ */
+// easy command to run this for a particular $WNHOME
+// mvn -P useWNHOMEDataForTest -DWNHOME=/Users/nezda/code/c/wordnets/WordNet-3.0 exec:java -Dexec.mainClass="org.yawni.wordnet.LemmaIndexes" -Dexec.classpathScope="test"
+class LemmaIndexes {
+  public static void main(String[] args) throws Exception {
+    final WordNet wordNet = WordNet.getInstance();
+    for (final POS pos : POS.CATS) {
+      final List<String> lemmas = new ArrayList<>();
+      final List<Integer> offsets = new ArrayList<>();
+      for (final Word word : wordNet.words(pos)) {
+        lemmas.add(word.getLowercasedLemma());
+        offsets.add(word.getOffset());
+      }
+      final LemmaIndex lemmaIndex = LemmaIndex.build(lemmas, Ints.toArray(offsets), wordNet.getIndexFileLength(pos));
+      for (int i = 0; i < lemmas.size(); i++) {
+        assert lemmaIndex.get(lemmas.get(i)) == offsets.get(i);
+      }
+      final String fname = pos.name() + ".mph";
+      System.err.println(fname + " " + lemmaIndex);
+      try (ObjectOutputStream oos = new ObjectOutputStream(new BufferedOutputStream(new FileOutputStream(fname)))) {
+        oos.writeObject(lemmaIndex);
+      }
+    }
+  }
+}
@@ -0,0 +1,63 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.yawni.wordnet;
+
+import org.junit.Test;
+import static org.fest.assertions.Assertions.assertThat;
+
+public class LemmaPoolTest {
+  @Test
+  public void intern() {
+    final String lemma = LemmaPool.intern(new StringBuilder("lemma pool test"));
+    assertThat(lemma).isEqualTo("lemma pool test");
+    assertThat(LemmaPool.intern(new String("lemma pool test"))).isSameAs(lemma);
+    assertThat(LemmaPool.internUnderScoreToSpace("lemma_pool_test")).isSameAs(lemma);
+    assertThat(LemmaPool.internUnderScoreToSpace("100 lemma_pool_test(a) 0", 4, 19)).isSameAs(lemma);
+    assertThat(LemmaPool.intern("lemma_pool_test")).isNotSameAs(lemma);
+    assertThat(LemmaPool.intern("")).isEmpty();
+  }
+
+  @Test
+  public void grows() {
+    // a pool of its own, so the global pool isn't filled with test strings
+    final LemmaPool pool = new LemmaPool(16);
+    final String[] lemmas = new String[100];
+    for (int i = 0; i < lemmas.length; i++) {
+      lemmas[i] = pool.intern("lemma_" + i, 0, ("lemma_" + i).length(), true);
+    }
+    assertThat(pool.size()).isEqualTo(lemmas.length);
+    assertThat(pool.capacity()).isEqualTo(256);
+    for (int i = 0; i < lemmas.length; i++) {
+      final String lemma = "lemma " + i;
+      assertThat(lemmas[i]).isEqualTo(lemma);
+      assertThat(pool.intern(lemma, 0, lemma.length(), false)).isSameAs(lemmas[i]);
+    }
+  }
+
+  @Test
+  public void sharedLemmas() {
+    final WordNet wordNet = WordNet.getInstance();
+    final Word word = wordNet.lookupWord("hot dog", POS.NOUN);
+    final WordSense sense = word.getSense(1);
+    assertThat(sense.getLemma()).isSameAs(word.getLowercasedLemma());
+    // equal senses of distinct Synset instances share their lemma
+    final Synset reparsed = new Synset(wordNet.getSynsetLineAt(POS.NOUN, sense.getSynset().getOffset()), wordNet);
+    assertThat(reparsed.getWordSense(word).getLemma()).isSameAs(sense.getLemma());
+    // exception list base forms too
+    assertThat(wordNet.lookupBaseForms("mice", POS.NOUN).get(0)).isSameAs(wordNet.lookupWord("mouse", POS.NOUN).getLowercasedLemma());
+  }
+}
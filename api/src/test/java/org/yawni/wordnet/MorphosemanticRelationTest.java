@@ -18,7 +18,6 @@ package org.yawni.wordnet;
 
 import com.google.common.collect.Iterables;
 import com.google.common.base.Joiner;
-import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
 import java.io.BufferedReader;
 import java.io.InputStreamReader;
@@ -26,7 +25,6 @@ import java.util.List;
 import org.junit.Before;
 import org.junit.Ignore;
 import org.junit.Test;
-import org.yawni.util.CharSequences;
 import static org.junit.Assert.*;
 import static org.fest.assertions.Assertions.assertThat;
 import org.yawni.wordnet.WordNetInterface.WordNetVersion;
@@ -101,12 +99,17 @@ public class MorphosemanticRelationTest {
 //      assert lexRelLine != null : "line: "+line;
 //      // lines are not unique based on offset alone!
 //      assert line.equals(lexRelLine) : "\nline:       "+line+"\nlexRelLine: "+lexRelLine;
-      final ImmutableList<CharSequence> matches = ImmutableList.copyOf(wordNet.lookupMorphoSemanticRelationLines(srcOffsetKey));
+      final ExtraRelationIndex index = wordNet.getMorphosemanticIndex();
+      final int slot = index.find(ExtraRelationIndex.key(srcPOS, Integer.parseInt(srcOffset.toString())));
+      final long expected = ExtraRelationIndex.record(Integer.parseInt(parts[1]),
+          RelationType.valueOf(MorphosemanticRelation.fromValue(parts[2]).name()),
+          Integer.parseInt(parts[4]), Integer.parseInt(targetOffset.toString()));
+      assert slot >= 0 : "no morphosemantic slot for line: "+line;
       boolean found = false;
-      for (final CharSequence lexRelLine : matches) {
-        found |= CharSequences.equals(line, lexRelLine);
+      for (int i = index.start(slot), end = index.end(slot); i < end; i++) {
+        found |= index.record(i) == expected;
       }
-      assert found : "could not find line: "+line+" found: \n"+Joiner.on("\n").join(matches);
+      assert found : "could not find line: "+line;
       // TODO
       // - get the src synset
       // - lookup its relations
@@ -84,6 +84,26 @@ public class MorphyTest {
     assertEquals(1, Morphy.countWords("- ", ' '));
   }
 
+  @Test
+  public void testSearchNormalize() {
+    // already normalized: returned as is
+    final String dog = "dog";
+    assertSame(dog, Morphy.searchNormalize(dog));
+    final String dogGone = "dog_gone";
+    assertSame(dogGone, Morphy.searchNormalize(dogGone));
+    assertEquals("a-b", Morphy.searchNormalize("a-b"));
+    assertEquals("dog", Morphy.searchNormalize("Dog"));
+    assertEquals("dog_gone", Morphy.searchNormalize("dog__gone"));
+    assertEquals("dog_gone", Morphy.searchNormalize("Dog Gone"));
+    assertEquals("dog_gone", Morphy.searchNormalize("dog \tgone"));
+    assertEquals("slovaks", Morphy.searchNormalize("_slovaks_"));
+    assertEquals("dog", Morphy.searchNormalize("dog-"));
+    assertEquals("-", Morphy.searchNormalize("-"));
+    assertEquals("_", Morphy.searchNormalize("  "));
+    assertEquals("", Morphy.searchNormalize(""));
+    assertEquals("\u00e9t\u00e9", Morphy.searchNormalize("\u00c9t\u00e9"));
+  }
+
   @Test
   public void coreTest() {
     final String[][] unstemmedStemmedCasesAllVersions = new String[][] {
@@ -0,0 +1,135 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.yawni.wordnet;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.fest.assertions.Assertions.assertThat;
+import static org.fest.assertions.Delta.delta;
+import static org.yawni.wordnet.TestSynsets.synset;
+
+public class PageRankTest {
+  private static WordNet wordNet;
+  private static PageRank pageRank;
+
+  @BeforeClass
+  public static void init() {
+    wordNet = WordNet.getInstance();
+    pageRank = wordNet.getPageRank();
+  }
+
+  @Test
+  public void distribution() {
+    final double[] ranks = pageRank.rank(pageRank.synsetId(synset("dog", POS.NOUN, 1)));
+    assertThat(ranks.length).isEqualTo(pageRank.size());
+    assertThat(Arrays.stream(ranks).sum()).isEqualTo(1, delta(1e-5));
+    assertThat(Arrays.stream(ranks).min().getAsDouble()).isGreaterThanOrEqualTo(0);
+    assertSame(pageRank, wordNet.getPageRank());
+  }
+
+  @Test
+  public void seedRanksHighest() {
+    final Synset dog = synset("dog", POS.NOUN, 1);
+    final List<Synset> top = pageRank.getTopSynsets(Collections.singleton(dog), 10);
+    assertThat(top.size()).isEqualTo(10);
+    assertEquals(dog, top.get(0));
+    final double[] ranks = pageRank.rank(pageRank.synsetId(dog));
+    final double canine = ranks[pageRank.synsetId(synset("canine", POS.NOUN, 2))];
+    assertThat(canine).isGreaterThan(ranks[pageRank.synsetId(synset("car", POS.NOUN, 1))]);
+    assertThat(canine).isGreaterThan(ranks[pageRank.synsetId(synset("cat", POS.NOUN, 1))]);
+  }
+
+  @Test
+  public void topK() {
+    final double[] ranks = { 0.1, 0.4, 0.0, 0.4, 0.1 };
+    assertThat(PageRank.topK(ranks, 3)).isEqualTo(new int[] { 1, 3, 0 });
+    assertThat(PageRank.topK(ranks, 10)).isEqualTo(new int[] { 1, 3, 0, 4, 2 });
+    assertThat(PageRank.topK(ranks, 0)).isEmpty();
+  }
+
+  /** word to word disambiguation: rank seeded by the context, excluding the target word */
+  private static int bestSense(final String target, final String... context) {
+    final List<Word> words = new ArrayList<>();
+    for (final String lemma : context) {
+      words.add(wordNet.lookupWord(lemma, POS.NOUN));
+    }
+    final double[] ranks = pageRank.rankContext(words);
+    final List<Synset> senses = wordNet.lookupWord(target, POS.NOUN).getSynsets();
+    int best = 0;
+    for (int i = 1; i < senses.size(); i++) {
+      if (ranks[pageRank.synsetId(senses.get(i))] > ranks[pageRank.synsetId(senses.get(best))]) {
+        best = i;
+      }
+    }
+    return best + 1;
+  }
+
+  @Test
+  public void disambiguation() {
+    // plant#1 {plant, works, industrial plant}, plant#2 {plant, flora, plant life}
+    assertThat(bestSense("plant", "factory", "worker", "production")).isEqualTo(1);
+    assertThat(bestSense("plant", "leaf", "flower", "seed")).isEqualTo(2);
+  }
+
+  @Test
+  public void batch() {
+    final List<int[]> seedSets = new ArrayList<>();
+    for (final String lemma : new String[] { "dog", "car", "river", "music" }) {
+      seedSets.add(new int[] { pageRank.synsetId(synset(lemma, POS.NOUN, 1)) });
+    }
+    final List<int[]> tops = pageRank.topK(seedSets, 5);
+    assertThat(tops.size()).isEqualTo(seedSets.size());
+    for (int i = 0; i < tops.size(); i++) {
+      assertThat(tops.get(i)).isEqualTo(PageRank.topK(pageRank.rank(seedSets.get(i)), 5));
+      assertThat(tops.get(i)[0]).isEqualTo(seedSets.get(i)[0]);
+    }
+  }
+
+  @Test
+  public void weights() {
+    // only hypernyms: the walk never leaves the seed's ancestors
+    PageRank hypernyms = pageRank;
+    for (final RelationType type : RelationType.values()) {
+      hypernyms = hypernyms.withWeight(type, type == RelationType.HYPERNYM || type == RelationType.INSTANCE_HYPERNYM ? 1 : 0);
+    }
+    final int dog = hypernyms.synsetId(synset("dog", POS.NOUN, 1));
+    final double[] ranks = hypernyms.rank(dog);
+    final Taxonomy taxonomy = wordNet.getTaxonomy();
+    for (int id = 0; id < ranks.length; id++) {
+      if (ranks[id] > 0) {
+        assertThat(taxonomy.isA(dog, id)).as(String.valueOf(id)).isTrue();
+      }
+    }
+    assertThat(Arrays.stream(ranks).sum()).isEqualTo(1, delta(1e-5));
+    assertThat(ranks[taxonomy.synsetId(synset("entity", POS.NOUN, 1))]).isGreaterThan(0);
+    // no damping: all rank stays on the seeds
+    final double[] seedsOnly = pageRank.withDamping(0).rank(new int[] { 0, dog }, new double[] { 1, 3 });
+    assertThat(seedsOnly[0]).isEqualTo(0.25, delta(1e-9));
+    assertThat(seedsOnly[dog]).isEqualTo(0.75, delta(1e-9));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void noSeeds() {
+    pageRank.rank();
+  }
+}
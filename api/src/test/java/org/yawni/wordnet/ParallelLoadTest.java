@@ -0,0 +1,73 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.yawni.wordnet;
+
+import com.google.common.collect.ImmutableList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.yawni.util.cache.Caches;
+import static org.junit.Assert.assertEquals;
+import static org.fest.assertions.Assertions.assertThat;
+
+public class ParallelLoadTest {
+  private static WordNet wordNet;
+  private static ForkJoinPool pool;
+
+  @BeforeClass
+  public static void init() {
+    wordNet = WordNet.getInstance();
+    pool = new ForkJoinPool(3);
+  }
+
+  @AfterClass
+  public static void shutdown() {
+    pool.shutdown();
+  }
+
+  @Test
+  public void chunkedParseMatchesIteration() {
+    for (final POS pos : POS.CATS) {
+      final List<Synset> synsets = wordNet.parseSynsets(pos, pool).get();
+      assertEquals(ImmutableList.copyOf(wordNet.synsets(pos)), synsets);
+      final List<Word> words = wordNet.parseWords(pos, pool).get();
+      assertEquals(ImmutableList.copyOf(wordNet.words(pos)), words);
+    }
+  }
+
+  @Test
+  public void warm() {
+    // default capacities only fit the adverb files, so larger ones are skipped
+    new WordNet(new FileManager(), null).warm(EnumSet.of(POS.VERB), 2);
+    final WordNet warmed = new WordNet(new FileManager(), null, 0,
+        CacheConfiguration.defaults().with(Caches.Implementation.UNBOUNDED));
+    warmed.warm(EnumSet.of(POS.VERB, POS.SAT_ADJ), 3);
+    final Word run = warmed.lookupWord("run", POS.VERB);
+    assertEquals(wordNet.lookupWord("run", POS.VERB), run);
+    assertEquals(wordNet.lookupWord("run", POS.VERB).getSynsets(), run.getSynsets());
+    // no-op
+    WordNet.newPreloadedInstance(1).warm(EnumSet.of(POS.ALL), 2);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void rejectsNonPositiveParallelism() {
+    wordNet.warm(EnumSet.of(POS.ALL), 0);
+  }
+}
@@ -0,0 +1,103 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.yawni.wordnet;
+
+import java.util.List;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.fest.assertions.Assertions.assertThat;
+
+public class PreloadedDictionaryTest {
+  private static WordNet textWordNet;
+  private static WordNet preloadedWordNet;
+  private static PreloadedDictionary preloaded;
+
+  @BeforeClass
+  public static void init() {
+    textWordNet = WordNet.getInstance();
+    preloadedWordNet = WordNet.newPreloadedInstance(3);
+    preloaded = preloadedWordNet.getPreloadedDictionary();
+  }
+
+  @AfterClass
+  public static void release() {
+    // the preloaded instance is large; don't hold it for the rest of the test run
+    preloadedWordNet = null;
+    preloaded = null;
+  }
+
+  @Test
+  public void statistics() {
+    assertThat(textWordNet.isPreloaded()).isFalse();
+    assertThat(textWordNet.getPreloadMillis()).isEqualTo(-1);
+    assertThat(preloadedWordNet.isPreloaded()).isTrue();
+    assertThat(preloadedWordNet.getPreloadMillis()).isGreaterThanOrEqualTo(0);
+    assertThat(preloadedWordNet.getPreloadedSizeInBytes()).isGreaterThan(0);
+  }
+
+  @Test
+  public void synsetsMatchText() {
+    int id = 0;
+    for (final POS pos : POS.CATS) {
+      for (final Synset expected : textWordNet.synsets(pos)) {
+        final Synset actual = preloaded.getSynset(id);
+        assertEquals(expected, actual);
+        assertSame(actual, preloadedWordNet.getSynsetAt(pos, expected.getOffset()).get());
+        assertThat(actual.getGloss()).isEqualTo(expected.getGloss());
+        assertThat(actual.getRelations()).isEqualTo(expected.getRelations());
+        id++;
+      }
+    }
+    assertThat(id).isEqualTo(preloaded.synsetCount());
+    assertThat(preloadedWordNet.getSynsetAt(POS.VERB, 1).isPresent()).isFalse();
+  }
+
+  @Test
+  public void wordsMatchText() {
+    for (final POS pos : POS.CATS) {
+      for (final Word expected : textWordNet.words(pos)) {
+        final Word actual = preloadedWordNet.lookupWord(expected.getLowercasedLemma(), pos);
+        assertEquals(expected, actual);
+        assertSame(actual, preloadedWordNet.getIndexWordAt(pos, expected.getOffset()));
+        assertThat(actual.getSynsets()).isEqualTo(expected.getSynsets());
+      }
+    }
+    assertSame(preloadedWordNet.lookupWord("get up", POS.VERB), preloadedWordNet.lookupWord("Get_Up", POS.VERB));
+    assertThat(preloadedWordNet.lookupWord("xyzzyq", POS.VERB) == null).isTrue();
+    assertThat(preloadedWordNet.lookupBaseForms("mice", POS.NOUN)).isEqualTo(textWordNet.lookupBaseForms("mice", POS.NOUN));
+  }
+
+  @Test
+  public void relationGraph() {
+    final RelationGraph graph = preloaded.getRelationGraph();
+    int relations = 0;
+    for (int id = 0; id < preloaded.synsetCount(); id++) {
+      final List<Relation> expected = preloaded.getSynset(id).getRelations();
+      assertThat(graph.relationStart(id + 1) - graph.relationStart(id)).isEqualTo(expected.size());
+      for (int i = 0; i < expected.size(); i++) {
+        final int relation = graph.relationStart(id) + i;
+        assertThat(graph.relationType(relation)).isEqualTo(expected.get(i).getType());
+        assertSame(expected.get(i).getTarget().getSynset(), preloaded.getSynset(graph.relationTarget(relation)));
+        relations++;
+      }
+    }
+    assertThat(relations).isEqualTo(graph.relationCount());
+  }
+}
@@ -29,6 +29,7 @@ import org.junit.BeforeClass;
 import org.junit.Ignore;
 import org.junit.Test;
 import static org.fest.assertions.Assertions.assertThat;
+import static org.junit.Assert.assertEquals;
 
 import org.yawni.util.Utils;
 import org.yawni.wordnet.WordNetInterface.WordNetVersion;
@@ -441,4 +442,38 @@ public class RelationTest {
         .as("actualLcs: "+actualLcs+" expectedLcs: "+expectedLcs).isFalse();
     System.err.println("getLeastCommonSubsumer took: "+stopwatch);
   }
-}
\ No newline at end of file
+
+  @Test
+  public void packedRecords() {
+    final long record = Relation.pack(123456789, POS.SAT_ADJ, 255, 3, RelationType.DERIVATIONALLY_RELATED);
+    assertThat(Relation.targetOffset(record)).isEqualTo(123456789);
+    assertThat(Relation.targetPOS(record)).isEqualTo(POS.SAT_ADJ);
+    assertThat(Relation.targetIndex(record)).isEqualTo(255);
+    assertThat(Relation.sourceIndex(record)).isEqualTo(3);
+    assertThat(Relation.type(record)).isEqualTo(RelationType.DERIVATIONALLY_RELATED);
+    assertThat(Relation.isLexical(record)).isTrue();
+    final long retyped = Relation.withType(record, RelationType.HYPERNYM);
+    assertThat(Relation.type(retyped)).isEqualTo(RelationType.HYPERNYM);
+    assertThat(Relation.targetOffset(retyped)).isEqualTo(123456789);
+    assertThat(Relation.sourceIndex(retyped)).isEqualTo(3);
+  }
+
+  @Test
+  public void flyweights() {
+    final Synset dog = WN.lookupWord("dog", POS.NOUN).getSense(1).getSynset();
+    final List<Relation> relations = dog.getRelations();
+    assertThat(relations.size()).isEqualTo(dog.relationCount());
+    for (int i = 0; i < relations.size(); i++) {
+      final Relation relation = relations.get(i);
+      // a new flyweight each time, but equal
+      assertThat(relation).isEqualTo(dog.getRelations().get(i));
+      assertThat(relation.hashCode()).isEqualTo(dog.getRelations().get(i).hashCode());
+      assertThat(relation.getSourceRelationIndex()).isEqualTo(i);
+      assertThat(relation.getType()).isEqualTo(Relation.type(dog.relationRecord(i)));
+      assertEquals(Relation.target((WordNet) WN, dog.relationRecord(i)), relation.getTarget());
+      assertEquals(dog, relation.getSource().getSynset());
+    }
+    assertThat(dog.getRelations(RelationType.HYPERNYM).size()).isEqualTo(
+      dog.getRelationTargets(RelationType.HYPERNYM).size());
+  }
+}
@@ -0,0 +1,88 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.yawni.wordnet;
+
+import com.google.common.collect.ImmutableList;
+import java.util.List;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.fest.assertions.Assertions.assertThat;
+
+public class SenseFrequenciesTest {
+  private static WordNet wordNet;
+
+  @BeforeClass
+  public static void init() {
+    wordNet = WordNet.getInstance();
+  }
+
+  @Test
+  public void senseKeyTable() {
+    final SenseKeyTable table = SenseKeyTable.build(ImmutableList.of(
+      "dog%1:05:00:: 1 42",
+      "blue_jean%1:06:00:: [blue jean] jeans, denim pants 3229",
+      "Abandon%2:31:00:: 5 3"));
+    assertThat(table.size()).isEqualTo(3);
+    assertThat(table.get("dog%1:05:00::", 0)).isEqualTo(42);
+    assertThat(table.get("blue jean%1:06:00::", 0)).isEqualTo(3229);
+    assertThat(table.get("abandon%2:31:00::", 0)).isEqualTo(3);
+    assertThat(table.get("dog%1:05:00:", -1)).isEqualTo(-1);
+    assertThat(table.get("dog%1:05:00:::", -1)).isEqualTo(-1);
+    assertThat(table.get("", -1)).isEqualTo(-1);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void outOfRange() {
+    SenseKeyTable.build(ImmutableList.of("dog%1:05:00:: 1 40000"));
+  }
+
+  @Test
+  public void lookups() {
+    assertThat(wordNet.lookupSensesTaggedFrequency("dog%1:05:00::")).isEqualTo(42);
+    assertThat(wordNet.lookupSensesTaggedFrequency("dog%1:05:99::")).isEqualTo(0);
+    assertThat(wordNet.lookupCoreRank("ability%1:07:00::")).isEqualTo(716);
+    // core-wordnet.ranked writes multi-word lemmas with underscores
+    assertThat(wordNet.lookupCoreRank("blue jean%1:06:00::")).isEqualTo(3229);
+    assertThat(wordNet.lookupCoreRank("dog%1:05:99::")).isEqualTo(-1);
+  }
+
+  @Test
+  public void batchMatchesSenses() {
+    final Word abandon = wordNet.lookupWord("abandon", POS.VERB);
+    // senses of another instance haven't memoized their frequencies
+    final WordNet fresh = new WordNet(new FileManager(), null);
+    final SenseFrequencies frequencies = fresh.getSenseFrequencies(fresh.lookupWord("abandon", POS.VERB));
+    assertThat(frequencies.size()).isEqualTo(abandon.getWordSenses().size());
+    for (int i = 0; i < frequencies.size(); i++) {
+      final WordSense expected = abandon.getWordSenses().get(i);
+      assertEquals(expected, frequencies.getWordSense(i));
+      assertThat(frequencies.getSensesTaggedFrequency(i)).isEqualTo(expected.getSensesTaggedFrequency());
+      assertThat(frequencies.getCoreRank(i)).isEqualTo(expected.getCoreRank());
+    }
+    assertThat(frequencies.getTotalTaggedFrequency()).isEqualTo(10 + 6 + 6 + 5 + 3);
+    final List<WordSense> byTaggedFrequency = frequencies.byTaggedFrequency();
+    for (int i = 1; i < byTaggedFrequency.size(); i++) {
+      assertThat(byTaggedFrequency.get(i - 1).getSensesTaggedFrequency())
+        .isGreaterThanOrEqualTo(byTaggedFrequency.get(i).getSensesTaggedFrequency());
+    }
+
+    final Synset synset = abandon.getSense(1).getSynset();
+    final SenseFrequencies synsetFrequencies = wordNet.getSenseFrequencies(synset);
+    assertThat(synsetFrequencies.size()).isEqualTo(synset.getWordSenses().size());
+  }
+}
@@ -0,0 +1,77 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.yawni.wordnet;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.fest.assertions.Assertions.assertThat;
+
+public class SenseKeyIndexTest {
+  private static WordNet wordNet;
+
+  @BeforeClass
+  public static void init() {
+    wordNet = WordNet.getInstance();
+  }
+
+  @Test
+  public void address() {
+    final long address = SenseKeyIndex.address(POS.SAT_ADJ, 15300000, 255);
+    assertThat(SenseKeyIndex.pos(address)).isEqualTo(POS.ADJ);
+    assertThat(SenseKeyIndex.offset(address)).isEqualTo(15300000);
+    assertThat(SenseKeyIndex.index(address)).isEqualTo(255);
+  }
+
+  @Test
+  public void getWordSense() {
+    final WordSense communicate = wordNet.getWordSense("communicate%2:40:10::").get();
+    assertThat(communicate.getLemma()).isEqualTo("communicate");
+    assertThat(communicate.getPOS()).isEqualTo(POS.VERB);
+    assertEquals(wordNet.getWordSense("hot dog%1:13:01::").get(), wordNet.getWordSense("Hot_Dog%1:13:01::").get());
+    final WordSense acerate = wordNet.getWordSense("acerate%5:00:00:simple:01").get();
+    assertThat(acerate.getSynset().isAdjectiveCluster()).isTrue();
+    assertThat(acerate.getSenseKey().toString()).isEqualTo("acerate%5:00:00:simple:01");
+    assertThat(wordNet.getWordSense("communicate%2:40:99::").isPresent()).isFalse();
+    assertThat(wordNet.getWordSense("").isPresent()).isFalse();
+    // the letter; first of "A" and "a"
+    assertThat(wordNet.getWordSense("a%1:10:00::").get().getLemma()).isEqualTo("A");
+  }
+
+  @Test
+  public void roundTrip() {
+    for (final POS pos : new POS[] { POS.ADJ, POS.ADV }) {
+      for (final WordSense wordSense : wordNet.wordSenses(pos)) {
+        final WordSense found = wordNet.getWordSense(wordSense.getSenseKey()).get();
+        // senses which differ only in case share a sense key
+        assertThat(found.getLemma()).isEqualToIgnoringCase(wordSense.getLemma());
+        assertEquals(wordSense.getSynset(), found.getSynset());
+      }
+    }
+  }
+
+  @Test
+  public void indexedSenseKeys() {
+    wordNet.getSenseKeyIndex();
+    // senses of another instance build their keys the slow way
+    final WordNet unindexed = new WordNet(new FileManager(), null);
+    for (final WordSense expected : unindexed.wordSenses(POS.ADJ)) {
+      final WordSense actual = wordNet.getWordSense(expected.getSenseKey()).get();
+      assertThat(wordNet.getIndexedSenseKey(actual)).isEqualTo(expected.getSenseKey().toString());
+    }
+  }
+}
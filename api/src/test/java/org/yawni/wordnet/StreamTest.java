@@ -0,0 +1,76 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.yawni.wordnet;
+
+import com.google.common.collect.ImmutableList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static com.google.common.collect.Iterables.size;
+
+public class StreamTest {
+  private static WordNet wordNet;
+
+  @BeforeClass
+  public static void init() {
+    wordNet = WordNet.getInstance();
+  }
+
+  @Test
+  public void synsetStreamMatchesIteration() {
+    for (final POS pos : POS.CATS) {
+      final List<Synset> expected = ImmutableList.copyOf(wordNet.synsets(pos));
+      assertEquals(pos.name(), expected, wordNet.synsetStream(pos).collect(Collectors.toList()));
+      assertEquals(pos.name(), expected, wordNet.synsetStream(pos).parallel().collect(Collectors.toList()));
+    }
+    assertEquals(ImmutableList.copyOf(wordNet.synsets(POS.ALL)),
+        wordNet.synsetStream(POS.ALL).parallel().collect(Collectors.toList()));
+  }
+
+  @Test
+  public void wordStreamMatchesIteration() {
+    for (final POS pos : POS.CATS) {
+      assertEquals(pos.name(), ImmutableList.copyOf(wordNet.words(pos)),
+          wordNet.wordStream(pos).parallel().collect(Collectors.toList()));
+    }
+    assertEquals(size(wordNet.words(POS.ALL)), wordNet.wordStream(POS.ALL).parallel().count());
+  }
+
+  @Test
+  public void wordSenseAndRelationStreams() {
+    assertEquals(ImmutableList.copyOf(wordNet.wordSenses(POS.ADV)),
+        wordNet.wordSenseStream(POS.ADV).parallel().collect(Collectors.toList()));
+    assertEquals(ImmutableList.copyOf(wordNet.relations(RelationType.HYPERNYM, POS.VERB)),
+        wordNet.relationStream(RelationType.HYPERNYM, POS.VERB).parallel().collect(Collectors.toList()));
+    assertEquals(size(wordNet.relations(POS.ADJ)), wordNet.relationStream(null, POS.ADJ).parallel().count());
+  }
+
+  @Test
+  public void splitsAtLineBoundaries() {
+    final Spliterator<Synset> suffix = wordNet.synsetStream(POS.NOUN).spliterator();
+    final Spliterator<Synset> prefix = suffix.trySplit();
+    assertNotNull(prefix);
+    final long[] count = new long[1];
+    prefix.forEachRemaining(synset -> count[0]++);
+    suffix.forEachRemaining(synset -> count[0]++);
+    assertEquals(size(wordNet.synsets(POS.NOUN)), count[0]);
+  }
+}
@@ -16,13 +16,16 @@
  */
 package org.yawni.wordnet;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 import com.google.common.collect.ImmutableMap;
 import org.junit.BeforeClass;
 import org.junit.Test;
 import static com.google.common.collect.Iterables.contains;
 import static org.fest.assertions.Assertions.assertThat;
+import static org.junit.Assert.assertEquals;
 import org.yawni.wordnet.WordNetInterface.WordNetVersion;
 
 public class SynsetTest {
@@ -81,4 +84,45 @@ public class SynsetTest {
     final Optional<Synset> notFindable = WN.getSynsetAt(POS.NOUN, 7841);
     assertThat(notFindable).isEqualTo(Optional.empty());
   }
-}
\ No newline at end of file
+
+  @Test
+  public void lazyRelations() {
+    final WordNet wordNet = WordNet.getInstance();
+    for (final Synset synset : new Synset[] {
+        WN.lookupWord("run", POS.VERB).getSense(1).getSynset(),
+        WN.lookupWord("tree", POS.NOUN).getSense(1).getSynset(),
+        WN.lookupWord("Paris", POS.NOUN).getSense(1).getSynset() }) {
+      final String line = wordNet.getSynsetLineAt(synset.getPOS(), synset.getOffset());
+      final Synset lazy = new Synset(line, wordNet);
+      final Synset eager = new Synset(line, wordNet, true);
+      // verb frames follow the (skipped) relations
+      for (int i = 0; i < synset.getWordSenses().size(); i++) {
+        assertThat(lazy.getWordSenses().get(i).getVerbFrames()).isEqualTo(eager.getWordSenses().get(i).getVerbFrames());
+      }
+      assertThat(lazy.getRelations()).isEqualTo(eager.getRelations());
+      for (final RelationType type : RelationType.values()) {
+        final List<Relation> expected = eager.getRelations().stream().
+            filter(relation -> (type.mask() & 1L << relation.getType().ordinal()) != 0).
+            collect(Collectors.toList());
+        assertThat(lazy.getRelations(type)).isEqualTo(expected);
+        assertThat(eager.getRelations(type)).isEqualTo(expected);
+        assertThat(lazy.getRelationTargets(type)).isEqualTo(expected.stream().map(Relation::getTarget).collect(Collectors.toList()));
+        final List<Relation> expectedSemantic = eager.getRelations().stream().
+            filter(relation -> relation.getType() == type && ! relation.isLexical()).
+            collect(Collectors.toList());
+        assertThat(lazy.getSemanticRelations(type)).isEqualTo(expectedSemantic);
+        assertThat(lazy.getSemanticRelationTargets(type).collect(Collectors.toList())).
+            isEqualTo(expectedSemantic.stream().map(Relation::getTarget).collect(Collectors.toList()));
+      }
+    }
+    final Synset paris = WN.lookupWord("Paris", POS.NOUN).getSense(1).getSynset();
+    // HYPERNYM includes its auxiliary INSTANCE_HYPERNYM
+    assertEquals(paris.getRelations(RelationType.INSTANCE_HYPERNYM), paris.getRelations(RelationType.HYPERNYM));
+    assertThat(paris.getSemanticRelations(RelationType.HYPERNYM)).isEmpty();
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void relationSlicesAreImmutable() {
+    WN.lookupWord("tree", POS.NOUN).getSense(1).getSynset().getRelations(RelationType.HYPONYM).clear();
+  }
+}
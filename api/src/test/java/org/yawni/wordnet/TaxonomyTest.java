@@ -0,0 +1,197 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.yawni.wordnet;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.fest.assertions.Assertions.assertThat;
+import static org.yawni.wordnet.TestSynsets.synset;
+
+public class TaxonomyTest {
+  private static WordNet wordNet;
+  private static Taxonomy taxonomy;
+
+  @BeforeClass
+  public static void init() {
+    wordNet = WordNet.getInstance();
+    taxonomy = wordNet.getTaxonomy();
+  }
+
+  @Test
+  public void synsetIds() {
+    final SynsetIds ids = wordNet.getSynsetIds();
+    assertThat(ids.size()).isEqualTo(taxonomy.size());
+    final Synset dog = synset("dog", POS.NOUN, 1);
+    final int id = ids.synsetId(dog);
+    assertThat(ids.pos(id)).isEqualTo(POS.NOUN);
+    assertThat(ids.offset(id)).isEqualTo(dog.getOffset());
+    assertEquals(dog, taxonomy.getSynset(id));
+    final Synset run = synset("run", POS.VERB, 1);
+    assertThat(ids.pos(ids.synsetId(run))).isEqualTo(POS.VERB);
+    assertThat(ids.synsetId(run)).isGreaterThanOrEqualTo(ids.firstId(POS.VERB));
+    assertThat(ids.synsetId(POS.NOUN, 1)).isEqualTo(-1);
+  }
+
+  @Test
+  public void isA() {
+    final Synset dog = synset("dog", POS.NOUN, 1);
+    final Synset animal = synset("animal", POS.NOUN, 1);
+    final Synset entity = synset("entity", POS.NOUN, 1);
+    final Synset person = synset("person", POS.NOUN, 1);
+    assertThat(taxonomy.isA(dog, animal)).isTrue();
+    assertThat(taxonomy.isA(dog, entity)).isTrue();
+    assertThat(taxonomy.isA(dog, dog)).isTrue();
+    assertThat(taxonomy.isA(animal, dog)).isFalse();
+    assertThat(taxonomy.isA(dog, person)).isFalse();
+    // via instance hypernym
+    assertThat(taxonomy.isA(synset("Einstein", POS.NOUN, 1), person)).isTrue();
+    assertThat(taxonomy.isA(synset("walk", POS.VERB, 1), synset("travel", POS.VERB, 1))).isTrue();
+    assertThat(taxonomy.isA(synset("good", POS.ADJ, 1), entity)).isFalse();
+    final int dogId = taxonomy.synsetId(dog);
+    assertThat(taxonomy.distance(dogId, dogId)).isEqualTo(0);
+    assertThat(taxonomy.distance(dogId, taxonomy.synsetId(synset("canine", POS.NOUN, 2)))).isEqualTo(1);
+    assertThat(taxonomy.distance(dogId, taxonomy.synsetId(synset("carnivore", POS.NOUN, 1)))).isEqualTo(2);
+    assertThat(taxonomy.distance(dogId, taxonomy.synsetId(person))).isEqualTo(-1);
+    assertThat(taxonomy.descendantCount(taxonomy.synsetId(entity)))
+      .isEqualTo(wordNet.getSynsetIds().endId(POS.NOUN) - 1);
+  }
+
+  @Test
+  public void lowestCommonSubsumer() {
+    final Synset dog = synset("dog", POS.NOUN, 1);
+    final Synset cat = synset("cat", POS.NOUN, 1);
+    final Synset carnivore = synset("carnivore", POS.NOUN, 1);
+    assertEquals(carnivore, taxonomy.getLowestCommonSubsumer(dog, cat).get());
+    assertEquals(carnivore, taxonomy.getLowestCommonSubsumer(cat, dog).get());
+    assertEquals(dog, taxonomy.getLowestCommonSubsumer(dog, dog).get());
+    assertEquals(carnivore, taxonomy.getLowestCommonSubsumer(dog, carnivore).get());
+    final int dogId = taxonomy.synsetId(dog);
+    assertThat(taxonomy.lowestCommonSubsumerDepth(dogId, taxonomy.synsetId(cat))).isEqualTo(longestDepth(taxonomy.synsetId(carnivore)));
+    assertThat(taxonomy.getLowestCommonSubsumer(dog, synset("run", POS.VERB, 1)).isPresent()).isFalse();
+    assertThat(taxonomy.lowestCommonSubsumerDepth(dogId, taxonomy.synsetId(synset("good", POS.ADJ, 1)))).isEqualTo(-1);
+    // verbs of different trees
+    assertThat(taxonomy.getLowestCommonSubsumer(synset("hit", POS.VERB, 1), synset("slap", POS.VERB, 1)).isPresent()).isFalse();
+  }
+
+  /** lowest common subsumers match a search of the common subsumers for the deepest */
+  @Test
+  public void lowestCommonSubsumerMatchesSearch() {
+    final SynsetIds ids = wordNet.getSynsetIds();
+    final Random random = new Random(0);
+    for (final POS pos : new POS[] { POS.NOUN, POS.VERB }) {
+      final int first = ids.firstId(pos);
+      final int end = ids.endId(pos);
+      for (int k = 0; k < 20000; k++) {
+        final int id1 = first + random.nextInt(end - first);
+        int id2 = first + random.nextInt(end - first);
+        if (k % 2 == 0 && taxonomy.ancestorCount(id1) > 0) {
+          // a near relative
+          final int ancestor = taxonomy.ancestorId(id1, random.nextInt(taxonomy.ancestorCount(id1)));
+          if (taxonomy.descendantCount(ancestor) > 0) {
+            id2 = taxonomy.descendantId(ancestor, random.nextInt(taxonomy.descendantCount(ancestor)));
+          }
+        }
+        if (onCycle(id1) || onCycle(id2)) {
+          continue;
+        }
+        int expectedDepth = -1;
+        for (int i = -1; i < taxonomy.ancestorCount(id1); i++) {
+          final int subsumer = i < 0 ? id1 : taxonomy.ancestorId(id1, i);
+          if (taxonomy.isA(id2, subsumer)) {
+            expectedDepth = Math.max(expectedDepth, longestDepth(subsumer));
+          }
+        }
+        final int lcs = taxonomy.lowestCommonSubsumer(id1, id2);
+        assertThat(taxonomy.lowestCommonSubsumerDepth(id1, id2)).isEqualTo(expectedDepth);
+        if (expectedDepth < 0) {
+          assertThat(lcs).isEqualTo(-1);
+        } else {
+          assertThat(taxonomy.isA(id1, lcs) && taxonomy.isA(id2, lcs)).isTrue();
+          assertThat(longestDepth(lcs)).isEqualTo(expectedDepth);
+        }
+      }
+    }
+  }
+
+  /** whether {@code id} is or descends from WordNet 3.0's hypernym cycle, which is cut arbitrarily */
+  private static boolean onCycle(final int id) {
+    if (isCycleMember(id)) {
+      return true;
+    }
+    for (int i = 0; i < taxonomy.ancestorCount(id); i++) {
+      if (isCycleMember(taxonomy.ancestorId(id, i))) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static boolean isCycleMember(final int id) {
+    for (int i = 0; i < taxonomy.ancestorCount(id); i++) {
+      if (taxonomy.distance(taxonomy.ancestorId(id, i), id) > 0) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static int longestDepth(final int id) {
+    int depth = 0;
+    for (int i = 0; i < taxonomy.parentCount(id); i++) {
+      depth = Math.max(depth, 1 + longestDepth(taxonomy.parentId(id, i)));
+    }
+    return depth;
+  }
+
+  /** ancestors match a recursive walk of the hypernym relations */
+  @Test
+  public void ancestorsMatchRelations() {
+    int count = 0;
+    for (final Synset synset : wordNet.synsets(POS.VERB)) {
+      final Set<Synset> expected = new HashSet<>();
+      collectHypernyms(synset, expected);
+      // {restrain} and {inhibit} are each other's hypernyms
+      expected.remove(synset);
+      final List<Synset> ancestors = taxonomy.getAncestors(synset);
+      assertThat(ancestors.size()).isEqualTo(expected.size());
+      assertThat(new HashSet<>(ancestors)).isEqualTo(expected);
+      final int id = taxonomy.synsetId(synset);
+      for (final Synset ancestor : ancestors) {
+        assertThat(taxonomy.isA(synset, ancestor)).isTrue();
+        assertThat(taxonomy.descendantIds(taxonomy.synsetId(ancestor)).anyMatch(d -> d == id)).isTrue();
+      }
+      count++;
+    }
+    assertThat(count).isGreaterThan(0);
+  }
+
+  private static void collectHypernyms(final Synset synset, final Set<Synset> collected) {
+    for (final RelationType type : new RelationType[] { RelationType.HYPERNYM, RelationType.INSTANCE_HYPERNYM }) {
+      for (final RelationArgument target : synset.getRelationTargets(type)) {
+        final Synset hypernym = (Synset) target;
+        if (collected.add(hypernym)) {
+          collectHypernyms(hypernym, collected);
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,29 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.yawni.wordnet;
+
+/**
+ * Synset lookups shared by the tests of the synset id based indexes and their similarity measures.
+ */
+public final class TestSynsets {
+  private TestSynsets() {}
+
+  /** @return the synset of sense {@code senseNumber} of {@code lemma} in {@link WordNet#getInstance()} */
+  public static Synset synset(final String lemma, final POS pos, final int senseNumber) {
+    return WordNet.getInstance().lookupWord(lemma, pos).getSense(senseNumber).getSynset();
+  }
+}
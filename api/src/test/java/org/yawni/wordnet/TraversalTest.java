@@ -0,0 +1,172 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.yawni.wordnet;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.yawni.wordnet.Traversal.Control;
+import org.yawni.wordnet.Traversal.Order;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.fest.assertions.Assertions.assertThat;
+import static org.yawni.wordnet.TestSynsets.synset;
+
+public class TraversalTest {
+  private static WordNet wordNet;
+  private static Taxonomy taxonomy;
+
+  @BeforeClass
+  public static void init() {
+    wordNet = WordNet.getInstance();
+    taxonomy = wordNet.getTaxonomy();
+  }
+
+  @Test
+  public void relationGraph() {
+    final RelationGraph graph = wordNet.getRelationGraph();
+    final SynsetIds ids = wordNet.getSynsetIds();
+    assertThat(graph.size()).isEqualTo(ids.size());
+    for (final Synset synset : new Synset[] { synset("dog", POS.NOUN, 1), synset("run", POS.VERB, 1), synset("big", POS.ADJ, 1) }) {
+      final int id = ids.synsetId(synset);
+      final List<Relation> relations = synset.getRelations();
+      assertThat(graph.relationStart(id + 1) - graph.relationStart(id)).isEqualTo(relations.size());
+      for (int i = 0; i < relations.size(); i++) {
+        final int relation = graph.relationStart(id) + i;
+        assertThat(graph.relationType(relation)).isEqualTo(relations.get(i).getType());
+        assertEquals(relations.get(i).getTarget().getSynset(), taxonomy.getSynset(graph.relationTarget(relation)));
+      }
+    }
+  }
+
+  @Test
+  public void hyponymClosureMatchesTaxonomy() {
+    final Traversal hyponyms = wordNet.traversal(RelationType.HYPONYM);
+    for (final Synset synset : new Synset[] { synset("entity", POS.NOUN, 1), synset("dog", POS.NOUN, 1), synset("move", POS.VERB, 1) }) {
+      final int id = hyponyms.synsetId(synset);
+      final int[] expected = taxonomy.descendantIds(id).toArray();
+      assertThat(hyponyms.closure(id)).isEqualTo(expected);
+      assertThat(hyponyms.closure(id, ForkJoinPool.commonPool())).isEqualTo(expected);
+    }
+    final Traversal hypernyms = wordNet.traversal(RelationType.HYPERNYM);
+    final int dog = hypernyms.synsetId(synset("dog", POS.NOUN, 1));
+    assertThat(hypernyms.closure(dog)).isEqualTo(taxonomy.ancestorIds(dog).toArray());
+  }
+
+  @Test
+  public void parallelClosure() {
+    final ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      final Traversal hyponyms = wordNet.traversal(RelationType.HYPONYM, RelationType.MERONYM);
+      final int entity = hyponyms.synsetId(synset("entity", POS.NOUN, 1));
+      for (final int maxDepth : new int[] { 0, 1, 3, Integer.MAX_VALUE }) {
+        final Traversal traversal = hyponyms.withMaxDepth(maxDepth);
+        assertThat(traversal.closure(entity, pool)).isEqualTo(traversal.closure(entity));
+      }
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  @Test
+  public void meronyms() {
+    final Synset car = synset("car", POS.NOUN, 1);
+    final Traversal meronyms = wordNet.traversal(RelationType.MERONYM);
+    final List<Synset> direct = meronyms.withMaxDepth(1).getClosure(car);
+    final TreeSet<Synset> expected = new TreeSet<>();
+    for (final RelationType type : new RelationType[] { RelationType.MEMBER_MERONYM, RelationType.PART_MERONYM, RelationType.SUBSTANCE_MERONYM }) {
+      car.getSemanticRelationTargets(type).forEach(expected::add);
+    }
+    assertThat(new TreeSet<>(direct)).isEqualTo(expected);
+    final List<Synset> closure = meronyms.getClosure(car);
+    assertThat(closure.size()).isGreaterThan(direct.size());
+    assertTrue(closure.contains(synset("car door", POS.NOUN, 1)));
+    // doorlock is part of car door
+    assertTrue(closure.contains(synset("doorlock", POS.NOUN, 1)));
+    assertThat(meronyms.withMaxDepth(0).closure(car)).isEmpty();
+  }
+
+  @Test
+  public void breadthFirstDepths() {
+    final Traversal hypernyms = wordNet.traversal(RelationType.HYPERNYM);
+    final int dog = hypernyms.synsetId(synset("dog", POS.NOUN, 1));
+    final List<Integer> visited = new ArrayList<>();
+    final int count = hypernyms.visit(dog, (id, depth) -> {
+      assertThat(depth).isEqualTo(taxonomy.distance(dog, id));
+      visited.add(id);
+      return Control.CONTINUE;
+    });
+    assertThat(count).isEqualTo(taxonomy.ancestorCount(dog) + 1);
+    assertThat(visited.get(0)).isEqualTo(dog);
+    for (int i = 1; i < visited.size(); i++) {
+      assertThat(taxonomy.distance(dog, visited.get(i))).isGreaterThanOrEqualTo(taxonomy.distance(dog, visited.get(i - 1)));
+    }
+  }
+
+  @Test
+  public void depthFirstPreorder() {
+    final Traversal hyponyms = wordNet.traversal(RelationType.HYPONYM).withOrder(Order.DEPTH_FIRST);
+    final int animal = hyponyms.synsetId(synset("animal", POS.NOUN, 1));
+    final List<Integer> visited = new ArrayList<>();
+    final int count = hyponyms.visit(animal, (id, depth) -> {
+      if (! visited.isEmpty()) {
+        // preorder: each synset's parent in the walk was visited before it
+        assertThat(taxonomy.ancestorIds(id).anyMatch(visited::contains)).isTrue();
+      }
+      visited.add(id);
+      return Control.CONTINUE;
+    });
+    assertThat(count).isEqualTo(taxonomy.descendantCount(animal) + 1);
+    final int[] sorted = visited.stream().mapToInt(Integer::intValue).filter(id -> id != animal).sorted().toArray();
+    assertThat(sorted).isEqualTo(taxonomy.descendantIds(animal).toArray());
+  }
+
+  @Test
+  public void visitorControl() {
+    final Traversal hyponyms = wordNet.traversal(RelationType.HYPONYM);
+    final int entity = hyponyms.synsetId(synset("entity", POS.NOUN, 1));
+    for (final Order order : Order.values()) {
+      final Traversal traversal = hyponyms.withOrder(order);
+      final int[] calls = new int[1];
+      assertThat(traversal.visit(entity, (id, depth) -> ++calls[0] == 10 ? Control.STOP : Control.CONTINUE)).isEqualTo(10);
+      assertThat(calls[0]).isEqualTo(10);
+      assertThat(traversal.visit(entity, (id, depth) -> Control.PRUNE)).isEqualTo(1);
+      // the same thread's next traversal starts clean
+      assertThat(traversal.withMaxDepth(1).visit(entity, (id, depth) -> Control.CONTINUE)).isEqualTo(1 + 3);
+    }
+  }
+
+  @Test
+  public void reentrantVisitor() {
+    final Traversal hypernyms = wordNet.traversal(RelationType.HYPERNYM);
+    final int dog = hypernyms.synsetId(synset("dog", POS.NOUN, 1));
+    final int[] expected = taxonomy.ancestorIds(dog).toArray();
+    hypernyms.visit(dog, (id, depth) -> {
+      assertThat(hypernyms.closure(id)).isEqualTo(taxonomy.ancestorIds(id).toArray());
+      return Control.CONTINUE;
+    });
+    assertThat(hypernyms.closure(dog)).isEqualTo(expected);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void noRelationTypes() {
+    wordNet.traversal();
+  }
+}
@@ -0,0 +1,63 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.yawni.wordnet;
+
+import com.google.common.collect.ImmutableList;
+import java.util.List;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.fest.assertions.Assertions.assertThat;
+
+public class TrigramIndexTest {
+  @Test
+  public void offsetsContaining() {
+    final List<String> lemmas = ImmutableList.of("abcab", "cabc", "dog", "hot_dog", "dogwood", "do");
+    final TrigramIndex index = TrigramIndex.build(lemmas, new int[] { 10, 20, 30, 40, 50, 60 });
+    assertThat(index.size()).isEqualTo(6);
+    assertThat(index.offsetsContaining("dog")).isEqualTo(new int[] { 30, 40, 50 });
+    assertThat(index.offsetsContaining("t_dog")).isEqualTo(new int[] { 40 });
+    // shares every trigram of "abcab", but doesn't contain it
+    assertThat(index.offsetsContaining("abcab")).isEqualTo(new int[] { 10 });
+    assertThat(index.offsetsContaining("bca")).isEqualTo(new int[] { 10 });
+    assertThat(index.offsetsContaining("xyz")).isEqualTo(new int[0]);
+    // shorter than a trigram
+    assertThat(index.offsetsContaining("do")).isEqualTo(new int[] { 30, 40, 50, 60 });
+    assertThat(index.offsetsContaining("c")).isEqualTo(new int[] { 10, 20 });
+  }
+
+  @Test
+  public void isLiteral() {
+    assertThat(TrigramIndex.isLiteral("hot_dog")).isTrue();
+    assertThat(TrigramIndex.isLiteral("t-shirt")).isTrue();
+    assertThat(TrigramIndex.isLiteral("^dog")).isFalse();
+    assertThat(TrigramIndex.isLiteral("d.g")).isFalse();
+  }
+
+  @Test
+  public void matchesScan() {
+    final WordNet wordNet = WordNet.getInstance();
+    for (final String substring : new String[] { "ness", "Hot Dog", "t-s", "x", "ab", "zzzzq" }) {
+      for (final POS pos : POS.CATS) {
+        // a non-capturing group is a regular expression, so scans the index file
+        final String regex = "(?:" + Morphy.searchNormalize(substring) + ")";
+        assertEquals(substring + " " + pos, ImmutableList.copyOf(wordNet.searchBySubstring(regex, pos)),
+            ImmutableList.copyOf(wordNet.searchBySubstring(substring, pos)));
+      }
+    }
+    assertThat(wordNet.searchBySubstring("", POS.ALL)).isEmpty();
+  }
+}
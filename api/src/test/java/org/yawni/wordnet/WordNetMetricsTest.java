@@ -0,0 +1,88 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.yawni.wordnet;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+import javax.management.openmbean.TabularData;
+import org.junit.Test;
+import org.yawni.util.cache.CacheStats;
+import org.yawni.wordnet.CacheConfiguration.CacheName;
+import static org.fest.assertions.Assertions.assertThat;
+
+public class WordNetMetricsTest {
+  @Test
+  public void counts() {
+    final WordNet wordNet = WordNet.newInstance(CacheConfiguration.defaults());
+    wordNet.lookupWord("dog", POS.NOUN);
+    wordNet.lookupWord("dog", POS.NOUN);
+    assertThat(wordNet.lookupBaseForms("geese", POS.NOUN)).contains("goose");
+    assertThat(wordNet.lookupBaseForms("ponies", POS.NOUN)).contains("pony");
+    assertThat(wordNet.lookupBaseForms("walking", POS.VERB)).contains("walk");
+
+    final WordNetMetrics metrics = wordNet.getMetrics();
+    final CacheStats indexWords = metrics.getCacheStats(CacheName.INDEX_WORD);
+    assertThat(indexWords.getHitCount()).isGreaterThanOrEqualTo(1);
+    assertThat(indexWords.getMissCount()).isGreaterThanOrEqualTo(1);
+    assertThat(indexWords.getLoadCount()).isGreaterThanOrEqualTo(1);
+    assertThat(indexWords.getTotalLoadNanos()).isGreaterThan(0);
+    assertThat(metrics.getCacheStats(CacheName.MORPHY).getLoadCount()).isEqualTo(3);
+    assertThat(metrics.getCacheStats(CacheName.EXCEPTIONS).getRequestCount()).isGreaterThan(0);
+    // exception lists are always binary searched
+    assertThat(metrics.getBinarySearches()).isGreaterThan(0);
+    assertThat(metrics.getBinarySearchProbes()).isGreaterThanOrEqualTo(metrics.getBinarySearches());
+    assertThat(metrics.getFileBytesRead()).isGreaterThan(0);
+
+    final Map<String, Long> ruleHits = metrics.getMorphyRuleHits();
+    assertThat(ruleHits.get("NOUN exceptions")).isGreaterThanOrEqualTo(1L);
+    assertThat(ruleHits.get("NOUN -ies +y")).isGreaterThanOrEqualTo(1L);
+    assertThat(ruleHits.get("VERB -ing")).isGreaterThanOrEqualTo(1L);
+    assertThat(ruleHits.get("ADJ -est +e")).isEqualTo(0L);
+
+    wordNet.resetMetrics();
+    final WordNetMetrics reset = wordNet.getMetrics();
+    assertThat(reset.getCacheStats(CacheName.INDEX_WORD)).isEqualTo(new CacheStats(0, 0, 0, 0, 0, 0));
+    assertThat(reset.getFileBytesRead()).isEqualTo(0);
+    assertThat(reset.getMorphyRuleHits().get("NOUN exceptions")).isEqualTo(0L);
+  }
+
+  @Test
+  public void mbean() throws Exception {
+    final WordNet wordNet = WordNet.newInstance(CacheConfiguration.defaults());
+    final ObjectName name = wordNet.registerMetricsMBean("WordNetMetricsTest");
+    final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    try {
+      wordNet.lookupBaseForms("geese", POS.NOUN);
+      assertThat((Long) server.getAttribute(name, "BinarySearches")).isGreaterThan(0L);
+      final TabularData cacheStats = (TabularData) server.getAttribute(name, "CacheStats");
+      final CompositeData morphy = (CompositeData) cacheStats.get(new Object[] { "MORPHY" }).get("value");
+      assertThat((Long) morphy.get("missCount")).isEqualTo(1L);
+      server.invoke(name, "resetMetrics", new Object[0], new String[0]);
+      assertThat((Long) server.getAttribute(name, "BinarySearches")).isEqualTo(0L);
+      try {
+        wordNet.registerMetricsMBean("WordNetMetricsTest");
+        throw new AssertionError("expected IllegalStateException");
+      } catch (IllegalStateException expected) {
+      }
+    } finally {
+      server.unregisterMBean(name);
+    }
+  }
+}
@@ -0,0 +1,107 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.yawni.wordnet.similarity;
+
+import com.google.common.collect.ImmutableList;
+import java.util.List;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.yawni.wordnet.POS;
+import org.yawni.wordnet.Synset;
+import static org.junit.Assert.assertEquals;
+import static org.fest.assertions.Assertions.assertThat;
+import static org.fest.assertions.Delta.delta;
+import static org.yawni.wordnet.TestSynsets.synset;
+
+public class SimilarityTest {
+  private static Similarity similarity;
+
+  @BeforeClass
+  public static void init() {
+    similarity = Similarity.getInstance();
+  }
+
+  /** values computed by NLTK 3 with WordNet 3.0 */
+  @Test
+  public void taxonomyMeasures() {
+    final Synset dog = synset("dog", POS.NOUN, 1);
+    final Synset cat = synset("cat", POS.NOUN, 1);
+    final Synset car = synset("car", POS.NOUN, 1);
+    assertThat(similarity.similarity(SimilarityMeasure.PATH, dog, cat)).isEqualTo(0.2, delta(1e-9));
+    assertThat(similarity.similarity(SimilarityMeasure.WU_PALMER, dog, cat)).isEqualTo(0.857142857, delta(1e-6));
+    assertThat(similarity.similarity(SimilarityMeasure.LEACOCK_CHODOROW, dog, cat)).isEqualTo(2.028148247, delta(1e-6));
+    assertThat(similarity.similarity(SimilarityMeasure.PATH, dog, car)).isEqualTo(1.0 / 13, delta(1e-9));
+    assertEquals(synset("carnivore", POS.NOUN, 1), similarity.getLowestCommonSubsumer(dog, cat).get());
+    // verbs in different trees are compared through a virtual root
+    final Synset hit = synset("hit", POS.VERB, 1);
+    final Synset slap = synset("slap", POS.VERB, 1);
+    assertThat(similarity.getLowestCommonSubsumer(hit, slap).isPresent()).isFalse();
+    assertThat(similarity.similarity(SimilarityMeasure.PATH, hit, slap)).isGreaterThan(0.0);
+  }
+
+  @Test
+  public void properties() {
+    final List<Synset> synsets = ImmutableList.of(
+      synset("dog", POS.NOUN, 1), synset("cat", POS.NOUN, 1), synset("car", POS.NOUN, 1), synset("entity", POS.NOUN, 1),
+      synset("run", POS.VERB, 1), synset("walk", POS.VERB, 1), synset("good", POS.ADJ, 1));
+    for (final SimilarityMeasure measure : SimilarityMeasure.values()) {
+      for (final Synset s1 : synsets) {
+        for (final Synset s2 : synsets) {
+          final double value = similarity.similarity(measure, s1, s2);
+          assertThat(value).as(measure + " " + s1 + " " + s2).isGreaterThanOrEqualTo(0.0);
+          assertThat(similarity.similarity(measure, s2, s1)).as(measure.name()).isEqualTo(value, delta(1e-12));
+          if (s1.getPOS() != s2.getPOS() || s1.getPOS() == POS.ADJ) {
+            assertThat(value).as(measure.name()).isEqualTo(0.0);
+          }
+        }
+      }
+    }
+    final Synset dog = synset("dog", POS.NOUN, 1);
+    assertThat(similarity.similarity(SimilarityMeasure.PATH, dog, dog)).isEqualTo(1.0);
+    assertThat(similarity.similarity(SimilarityMeasure.LIN, dog, dog)).isEqualTo(1.0, delta(1e-12));
+    assertThat(similarity.similarity(SimilarityMeasure.JIANG_CONRATH, dog, dog)).isEqualTo(Double.POSITIVE_INFINITY);
+    final int entity = similarity.getTaxonomy().synsetId(synset("entity", POS.NOUN, 1));
+    assertThat(similarity.getInformationContent(entity)).isEqualTo(0.0);
+    assertThat(similarity.getMinDepth(entity)).isEqualTo(0);
+    final int dogId = similarity.getTaxonomy().synsetId(dog);
+    assertThat(similarity.getInformationContent(dogId)).isGreaterThan(similarity.getInformationContent(entity));
+    assertThat(similarity.getMaxDepth(dogId)).isGreaterThanOrEqualTo(similarity.getMinDepth(dogId));
+    // Resnik similarity is the information content of a common subsumer
+    assertThat(similarity.similarity(SimilarityMeasure.RESNIK, dog, synset("cat", POS.NOUN, 1)))
+      .isEqualTo(similarity.getInformationContent(similarity.getTaxonomy().synsetId(synset("carnivore", POS.NOUN, 1))), delta(1e-12));
+  }
+
+  @Test
+  public void matrix() {
+    final List<Synset> rows = ImmutableList.of(synset("dog", POS.NOUN, 1), synset("cat", POS.NOUN, 1), synset("run", POS.VERB, 1));
+    final List<Synset> columns = ImmutableList.of(synset("car", POS.NOUN, 1), synset("animal", POS.NOUN, 1));
+    for (final SimilarityMeasure measure : SimilarityMeasure.values()) {
+      final double[][] matrix = similarity.similarityMatrix(measure, rows, columns);
+      assertThat(matrix.length).isEqualTo(rows.size());
+      for (int i = 0; i < rows.size(); i++) {
+        for (int j = 0; j < columns.size(); j++) {
+          assertThat(matrix[i][j]).isEqualTo(similarity.similarity(measure, rows.get(i), columns.get(j)));
+        }
+      }
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void matrixTooSmall() {
+    similarity.similarityMatrix(SimilarityMeasure.PATH, new int[2], new int[2], new double[1][2]);
+  }
+}
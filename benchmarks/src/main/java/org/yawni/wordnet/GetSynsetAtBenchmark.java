@@ -0,0 +1,77 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.yawni.wordnet;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link WordNet#getSynsetAt(POS, int)}: <em>cold</em> cycles through every noun synset, far more
+ * than the synset cache holds, so most lookups parse the data file; <em>warm</em> cycles through a
+ * working set small enough to stay cached.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx1g")
+public class GetSynsetAtBenchmark {
+  private static final int WARM_COUNT = 1 << 10;
+
+  @State(Scope.Benchmark)
+  public static class Offsets {
+    int[] all;
+    int[] warm;
+
+    @Setup
+    public void setUp() {
+      final List<Integer> offsetList = new ArrayList<>();
+      for (final Synset synset : WordNetState.newWordNet().synsets(POS.NOUN)) {
+        offsetList.add(synset.getOffset());
+      }
+      // consecutive lookups shouldn't be file neighbors
+      Collections.shuffle(offsetList, new Random(0));
+      all = offsetList.stream().mapToInt(Integer::intValue).toArray();
+      warm = new int[WARM_COUNT];
+      System.arraycopy(all, 0, warm, 0, WARM_COUNT);
+    }
+  } // end class Offsets
+
+  @Benchmark
+  public Optional<Synset> cold(final WordNetState state, final Offsets offsets, final WordNetState.Cursor cursor) {
+    return state.wordNet.getSynsetAt(POS.NOUN, cursor.next(offsets.all));
+  }
+
+  @Benchmark
+  public Optional<Synset> warm(final WordNetState state, final Offsets offsets, final WordNetState.Cursor cursor) {
+    return state.wordNet.getSynsetAt(POS.NOUN, cursor.next(offsets.warm));
+  }
+} // end class GetSynsetAtBenchmark
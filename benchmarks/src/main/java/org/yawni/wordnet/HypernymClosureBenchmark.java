@@ -0,0 +1,91 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.yawni.wordnet;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Transitive closure of {@link RelationType#HYPERNYM} and {@link RelationType#INSTANCE_HYPERNYM}
+ * from noun synsets, i.e., every ancestor up to <em>entity</em>: by walking {@code Synset}s
+ * ({@code closure}), and over synset ids with a {@link Traversal} ({@code traversal}).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx1g")
+public class HypernymClosureBenchmark {
+  private static final int START_COUNT = 1 << 12;
+  private static final RelationType[] HYPERNYMS = { RelationType.HYPERNYM, RelationType.INSTANCE_HYPERNYM };
+
+  @State(Scope.Benchmark)
+  public static class Starts {
+    int[] offsets;
+
+    @Setup
+    public void setUp() {
+      final List<Integer> offsetList = new ArrayList<>();
+      for (final Synset synset : WordNetState.newWordNet().synsets(POS.NOUN)) {
+        offsetList.add(synset.getOffset());
+      }
+      Collections.shuffle(offsetList, new Random(0));
+      offsets = offsetList.subList(0, START_COUNT).stream().mapToInt(Integer::intValue).toArray();
+    }
+  } // end class Starts
+
+  @Benchmark
+  public Set<Synset> closure(final WordNetState state, final Starts starts, final WordNetState.Cursor cursor) {
+    final Synset start = state.wordNet.getSynsetAt(POS.NOUN, cursor.next(starts.offsets)).get();
+    final Set<Synset> ancestors = new HashSet<>();
+    final ArrayDeque<Synset> queue = new ArrayDeque<>();
+    queue.add(start);
+    while (! queue.isEmpty()) {
+      final Synset synset = queue.remove();
+      for (final RelationType type : HYPERNYMS) {
+        for (final RelationArgument target : synset.getRelationTargets(type)) {
+          if (ancestors.add(target.getSynset())) {
+            queue.add(target.getSynset());
+          }
+        }
+      }
+    }
+    return ancestors;
+  }
+
+  @Benchmark
+  public int[] traversal(final WordNetState state, final Starts starts, final WordNetState.Cursor cursor) {
+    final int start = state.wordNet.getSynsetIds().synsetId(POS.NOUN, cursor.next(starts.offsets));
+    return state.wordNet.traversal(RelationType.HYPERNYM).closure(start);
+  }
+} // end class HypernymClosureBenchmark
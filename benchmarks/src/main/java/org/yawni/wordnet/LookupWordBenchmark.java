@@ -0,0 +1,75 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.yawni.wordnet;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link WordNet#lookupWord(CharSequence, POS)} of lemmas which are (hit) and
+ * aren't (miss) in the noun index.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx1g")
+public class LookupWordBenchmark {
+  private static final int LEMMA_COUNT = 1 << 14;
+
+  @State(Scope.Benchmark)
+  public static class Lemmas {
+    String[] hits;
+    String[] misses;
+
+    @Setup
+    public void setUp() {
+      final List<String> lemmas = new ArrayList<>();
+      for (final Word word : WordNetState.newWordNet().words(POS.NOUN)) {
+        lemmas.add(word.getLowercasedLemma());
+      }
+      // evenly spaced sample of the whole index
+      hits = new String[LEMMA_COUNT];
+      misses = new String[LEMMA_COUNT];
+      for (int i = 0; i < LEMMA_COUNT; i++) {
+        hits[i] = lemmas.get((int) ((long) i * lemmas.size() / LEMMA_COUNT));
+        misses[i] = hits[i] + "qx";
+      }
+    }
+  } // end class Lemmas
+
+  @Benchmark
+  public Word hit(final WordNetState state, final Lemmas lemmas, final WordNetState.Cursor cursor) {
+    return state.wordNet.lookupWord(cursor.next(lemmas.hits), POS.NOUN);
+  }
+
+  @Benchmark
+  public Word miss(final WordNetState state, final Lemmas lemmas, final WordNetState.Cursor cursor) {
+    return state.wordNet.lookupWord(cursor.next(lemmas.misses), POS.NOUN);
+  }
+} // end class LookupWordBenchmark
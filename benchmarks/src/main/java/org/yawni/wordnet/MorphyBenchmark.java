@@ -0,0 +1,106 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.yawni.wordnet;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link Morphy#morphstr(String, POS)} over the 5000 most frequent WordNet senses
+ * (<code>data30/extras/5K.clean.txt</code>), each as its lemma and as typical regular
+ * inflections of it, i.e., a realistic mix of base forms, inflected forms and non-words.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx1g")
+public class MorphyBenchmark {
+  private static final String CORPUS = "/5K.clean.txt";
+
+  @State(Scope.Benchmark)
+  public static class Corpus {
+    String[] tokens;
+    POS[] posTags;
+    int[] order;
+
+    @Setup
+    public void setUp() throws IOException {
+      final List<String> tokenList = new ArrayList<>();
+      final List<POS> posList = new ArrayList<>();
+      final InputStream in = MorphyBenchmark.class.getResourceAsStream(CORPUS);
+      if (in == null) {
+        throw new IllegalStateException("missing benchmark resource "+CORPUS);
+      }
+      try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+        // e.g., "n [time%1:28:03::] [time] clock time"
+        String line;
+        while ((line = reader.readLine()) != null) {
+          final int start = line.indexOf("] [");
+          final int end = start < 0 ? -1 : line.indexOf(']', start + 3);
+          if (end < 0) {
+            continue;
+          }
+          final POS pos = POS.lookup(line.charAt(0));
+          final String lemma = line.substring(start + 3, end);
+          for (final String suffix : suffixes(pos)) {
+            tokenList.add(lemma + suffix);
+            posList.add(pos);
+          }
+        }
+      }
+      tokens = tokenList.toArray(new String[tokenList.size()]);
+      posTags = posList.toArray(new POS[posList.size()]);
+      order = new int[tokens.length];
+      for (int i = 0; i < order.length; i++) {
+        order[i] = i;
+      }
+    }
+
+    private static String[] suffixes(final POS pos) {
+      switch (pos) {
+        case NOUN: return new String[] { "", "s", "es" };
+        case VERB: return new String[] { "", "s", "ed", "ing" };
+        case ADJ:
+        case SAT_ADJ: return new String[] { "", "er", "est" };
+        default: return new String[] { "" };
+      }
+    }
+  } // end class Corpus
+
+  @Benchmark
+  public List<String> morphstr(final WordNetState state, final Corpus corpus, final WordNetState.Cursor cursor) {
+    final int i = cursor.next(corpus.order);
+    return state.wordNet.morphy.morphstr(corpus.tokens[i], corpus.posTags[i]);
+  }
+} // end class MorphyBenchmark
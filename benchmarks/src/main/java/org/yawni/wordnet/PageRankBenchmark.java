@@ -0,0 +1,75 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.yawni.wordnet;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Personalized {@link PageRank} seeded by random contexts of noun synsets: one context at a time, each
+ * iteration split across threads ({@code rank}), and a batch of contexts ranked in parallel ({@code batch}).
+ * The compiled graph doesn't depend on the cache implementation, so this ignores {@link WordNetState}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx1g")
+public class PageRankBenchmark {
+  private static final int CONTEXT_SIZE = 8;
+  private static final int BATCH_SIZE = 16;
+
+  @State(Scope.Benchmark)
+  public static class Contexts {
+    PageRank pageRank;
+    int[][] contexts;
+
+    @Setup
+    public void setUp() {
+      final WordNet wordNet = WordNetState.newWordNet();
+      pageRank = wordNet.getPageRank();
+      final int nounCount = wordNet.getSynsetIds().endId(POS.NOUN);
+      final Random random = new Random(0);
+      contexts = new int[BATCH_SIZE][];
+      for (int i = 0; i < BATCH_SIZE; i++) {
+        contexts[i] = random.ints(CONTEXT_SIZE, 0, nounCount).toArray();
+      }
+    }
+  } // end class Contexts
+
+  @Benchmark
+  public double[] rank(final Contexts state, final WordNetState.Cursor cursor) {
+    return state.pageRank.rank(cursor.next(state.contexts));
+  }
+
+  @Benchmark
+  public List<int[]> batch(final Contexts state) {
+    return state.pageRank.topK(Arrays.asList(state.contexts), 10);
+  }
+} // end class PageRankBenchmark
@@ -0,0 +1,92 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.yawni.wordnet;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Full scans: {@link WordNet#searchByPrefix(CharSequence, POS)},
+ * {@link WordNet#searchBySubstring(CharSequence, POS)} (literal, via the trigram index, and regex) and
+ * {@link WordNet#searchGlossBySubstring(CharSequence, POS)}, each consumed to the end, and
+ * {@link WordNet#searchGloss(CharSequence, POS, int)} (index built before measurement).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx1g")
+public class SearchBenchmark {
+  @Benchmark
+  public int searchByPrefix(final WordNetState state, final Blackhole blackhole) {
+    int count = 0;
+    for (final Word word : state.wordNet.searchByPrefix("un", POS.ALL)) {
+      blackhole.consume(word);
+      count++;
+    }
+    return count;
+  }
+
+  @Benchmark
+  public int searchBySubstring(final WordNetState state, final Blackhole blackhole) {
+    int count = 0;
+    for (final Word word : state.wordNet.searchBySubstring("ness", POS.NOUN)) {
+      blackhole.consume(word);
+      count++;
+    }
+    return count;
+  }
+
+  @Benchmark
+  public int searchBySubstringRegex(final WordNetState state, final Blackhole blackhole) {
+    int count = 0;
+    // not a literal, so scans the index file rather than using the trigram index
+    for (final Word word : state.wordNet.searchBySubstring("nes+", POS.NOUN)) {
+      blackhole.consume(word);
+      count++;
+    }
+    return count;
+  }
+
+  @Benchmark
+  public int searchGlossBySubstring(final WordNetState state, final Blackhole blackhole) {
+    int count = 0;
+    for (final Synset synset : state.wordNet.searchGlossBySubstring("Roman", POS.ALL)) {
+      blackhole.consume(synset);
+      count++;
+    }
+    return count;
+  }
+
+  @Benchmark
+  public int searchGloss(final WordNetState state, final Blackhole blackhole) {
+    state.wordNet.getGlossIndex();
+    int count = 0;
+    for (final Synset synset : state.wordNet.searchGloss("roman*", POS.ALL, Integer.MAX_VALUE)) {
+      blackhole.consume(synset);
+      count++;
+    }
+    return count;
+  }
+} // end class SearchBenchmark
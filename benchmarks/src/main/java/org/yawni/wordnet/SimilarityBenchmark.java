@@ -0,0 +1,79 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.yawni.wordnet;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.yawni.wordnet.similarity.Similarity;
+import org.yawni.wordnet.similarity.SimilarityMeasure;
+
+/**
+ * {@link Similarity#similarityMatrix(SimilarityMeasure, int[], int[], double[][])} of random noun synsets;
+ * the similarity tables don't depend on the cache implementation, so this ignores {@link WordNetState}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx1g")
+public class SimilarityBenchmark {
+  private static final int SIDE = 64;
+
+  @State(Scope.Benchmark)
+  public static class Matrix {
+    @Param({"PATH", "WU_PALMER", "LEACOCK_CHODOROW", "RESNIK", "LIN", "JIANG_CONRATH"})
+    public String measure;
+
+    Similarity similarity;
+    SimilarityMeasure similarityMeasure;
+    int[] rowIds;
+    int[] columnIds;
+    double[][] matrix;
+
+    @Setup
+    public void setUp() {
+      similarity = Similarity.of(WordNetState.newWordNet());
+      similarityMeasure = SimilarityMeasure.valueOf(measure);
+      // synset id 0 is the noun root, {entity}
+      final List<Integer> ids = similarity.getTaxonomy().descendantIds(0).boxed().collect(Collectors.toList());
+      Collections.shuffle(ids, new Random(0));
+      rowIds = ids.subList(0, SIDE).stream().mapToInt(Integer::intValue).toArray();
+      columnIds = ids.subList(SIDE, 2 * SIDE).stream().mapToInt(Integer::intValue).toArray();
+      matrix = new double[SIDE][SIDE];
+    }
+  } // end class Matrix
+
+  @Benchmark
+  public double[][] similarityMatrix(final Matrix state) {
+    state.similarity.similarityMatrix(state.similarityMeasure, state.rowIds, state.columnIds, state.matrix);
+    return state.matrix;
+  }
+} // end class SimilarityBenchmark
@@ -0,0 +1,53 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.yawni.wordnet;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Iteration of every synset ({@link WordNet#synsets(POS) synsets(POS.ALL)}), i.e., a parse of
+ * all of the data files, and the same with a parallel {@link WordNet#synsetStream(POS) synsetStream(POS.ALL)}.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgsAppend = "-Xmx1g")
+public class SynsetIterationBenchmark {
+  @Benchmark
+  public int synsets(final WordNetState state, final Blackhole blackhole) {
+    int count = 0;
+    for (final Synset synset : state.wordNet.synsets(POS.ALL)) {
+      blackhole.consume(synset);
+      count++;
+    }
+    return count;
+  }
+
+  @Benchmark
+  public long parallelSynsetStream(final WordNetState state, final Blackhole blackhole) {
+    return state.wordNet.synsetStream(POS.ALL).parallel().peek(blackhole::consume).count();
+  }
+} // end class SynsetIterationBenchmark
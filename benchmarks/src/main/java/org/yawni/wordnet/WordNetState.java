@@ -0,0 +1,80 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.yawni.wordnet;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.yawni.util.cache.Caches;
+import org.yawni.util.cache.Caches.Implementation;
+
+/**
+ * A fresh (cold cache) {@link WordNet} shared by all benchmark threads, with its caches
+ * created by the {@link Caches.Implementation} named by {@link #cache}.
+ *
+ * <p> The WordNet data version is whatever {@code yawni-wordnet-data*} jar is on the classpath;
+ * see the benchmarks {@code README.md}.
+ */
+@State(Scope.Benchmark)
+public class WordNetState {
+  @Param({"SOFT", "LRU", "CONCURRENT_FIFO", "CONCURRENT_SECOND_CHANCE", "CONCURRENT_LRU", "TINY_LFU", "WEAK", "UNBOUNDED"})
+  public String cache;
+
+  WordNet wordNet;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    // not the singleton: each trial gets caches of the requested implementation
+    wordNet = WordNet.newInstance(CacheConfiguration.defaults().with(Implementation.valueOf(cache)));
+  }
+
+  /**
+   * @return a new {@code WordNet} with its own (empty) caches; benchmark inputs are
+   *   gathered with a separate instance so gathering them doesn't warm {@link #wordNet}
+   */
+  static WordNet newWordNet() {
+    return new WordNet(new FileManager(), null);
+  }
+
+  /**
+   * Per-thread position in a benchmark's input array so concurrent threads
+   * don't all request the same item at the same time.
+   */
+  @State(Scope.Thread)
+  public static class Cursor {
+    private int next;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+      next = (int) Thread.currentThread().getId() * 7919;
+    }
+
+    <T> T next(final T[] items) {
+      final T item = items[next % items.length];
+      next = (next + 1) & Integer.MAX_VALUE;
+      return item;
+    }
+
+    int next(final int[] items) {
+      final int item = items[next % items.length];
+      next = (next + 1) & Integer.MAX_VALUE;
+      return item;
+    }
+  } // end class Cursor
+} // end class WordNetState
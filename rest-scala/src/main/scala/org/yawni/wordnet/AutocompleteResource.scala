@@ -9,7 +9,6 @@ import org.yawni.util._
 import org.yawni.wordnet.POS._
 import scala.xml._
 import scala.collection.JavaConverters._
-import java.util.TreeSet // don't want List
 
 @Path("/autocomplete")
 class AutocompleteResource {
@@ -29,11 +28,8 @@ class AutocompleteResource {
       throw new WebApplicationException(Response.status(BAD_REQUEST).entity("q is null").build)
     }
     val wn = WordNet.getInstance
-    val toReturn = new TreeSet(String.CASE_INSENSITIVE_ORDER)
-    for (pos <- List(NOUN, VERB, ADJ, ADV);
-         forms <- wn.searchByPrefix(prefix, pos).asScala;
-         form <- forms.asScala if toReturn.size < limit
-         ) { toReturn.add(form.getLemma) }
+    // most frequent completions first
+    val toReturn = wn.complete(prefix, limit)
     //JArray(toReturn.map(JString(_)).toList)
     // really weird that it can't handle JSON ??
     //JString(toReturn.mkString("\n"))